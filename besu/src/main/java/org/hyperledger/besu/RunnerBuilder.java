@@ -394,6 +394,8 @@ public class RunnerBuilder {
 
     final RlpxConfiguration rlpxConfiguration =
         RlpxConfiguration.create()
+            .setWorkerThreads(networkingConfiguration.getRlpx().getWorkerThreads())
+            .setNativeTransportEnabled(networkingConfiguration.getRlpx().isNativeTransportEnabled())
             .setBindHost(p2pListenInterface)
             .setBindPort(p2pListenPort)
             .setMaxPeers(maxPeers)
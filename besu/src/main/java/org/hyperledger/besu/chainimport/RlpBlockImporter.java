@@ -23,7 +23,7 @@ import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockImporter;
 import org.hyperledger.besu.ethereum.core.Difficulty;
-import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.SenderRecoveryService;
 import org.hyperledger.besu.ethereum.mainnet.BlockHeaderValidator;
 import org.hyperledger.besu.ethereum.mainnet.HeaderValidationMode;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
@@ -34,8 +34,6 @@ import org.hyperledger.besu.ethereum.util.RawBlockIterator;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -89,6 +87,8 @@ public class RlpBlockImporter implements Closeable {
     final ProtocolSchedule protocolSchedule = besuController.getProtocolSchedule();
     final ProtocolContext context = besuController.getProtocolContext();
     final MutableBlockchain blockchain = context.getBlockchain();
+    final SenderRecoveryService senderRecovery =
+        besuController.getProtocolManager().ethContext().getSenderRecovery();
     int count = 0;
 
     try (final RawBlockIterator iterator =
@@ -123,8 +123,7 @@ public class RlpBlockImporter implements Closeable {
                 () -> validateBlock(protocolSpec, context, lastHeader, header, skipPowValidation),
                 validationExecutor);
 
-        final CompletableFuture<Void> extractingFuture =
-            CompletableFuture.runAsync(() -> extractSignatures(block));
+        final CompletableFuture<Void> extractingFuture = senderRecovery.recoverSenders(block);
 
         final CompletableFuture<Void> calculationFutures;
         if (previousBlockFuture == null) {
@@ -167,17 +166,6 @@ public class RlpBlockImporter implements Closeable {
     }
   }
 
-  private void extractSignatures(final Block block) {
-    final List<CompletableFuture<Void>> futures =
-        new ArrayList<>(block.getBody().getTransactions().size());
-    for (final Transaction tx : block.getBody().getTransactions()) {
-      futures.add(CompletableFuture.runAsync(tx::getSender, validationExecutor));
-    }
-    for (final CompletableFuture<Void> future : futures) {
-      future.join();
-    }
-  }
-
   private void validateBlock(
       final ProtocolSpec protocolSpec,
       final ProtocolContext context,
@@ -16,7 +16,12 @@
 
 package org.hyperledger.besu.cli.options.unstable;
 
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_FLAT_STATE_CACHE_BYTES;
 import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_MAX_RETAINED_LAYER_BYTES;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_PREFETCH_THREADS;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_BONSAI_RETAINED_LAYERS;
+import static org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration.DEFAULT_FOREST_TRIE_NODE_CACHE_BYTES;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -34,6 +39,18 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
   private static final String BONSAI_STORAGE_FORMAT_MAX_LAYERS_TO_LOAD =
       "--Xbonsai-maximum-back-layers-to-load";
 
+  private static final String BONSAI_STORAGE_FORMAT_RETAINED_LAYERS = "--Xbonsai-retained-layers";
+
+  private static final String BONSAI_STORAGE_FORMAT_MAX_RETAINED_LAYER_BYTES =
+      "--Xbonsai-maximum-retained-layer-bytes";
+
+  private static final String BONSAI_STORAGE_FORMAT_PREFETCH_THREADS = "--Xbonsai-prefetch-threads";
+
+  private static final String BONSAI_STORAGE_FORMAT_FLAT_STATE_CACHE_BYTES =
+      "--Xbonsai-flat-state-cache-bytes";
+
+  private static final String FOREST_TRIE_NODE_CACHE_BYTES = "--Xforest-trie-node-cache-bytes";
+
   // Use Bonsai DB
   @Option(
       names = {DATA_STORAGE_FORMAT},
@@ -51,6 +68,51 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
       arity = "1")
   private final Long bonsaiMaxLayersToLoad = DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD;
 
+  @Option(
+      names = {BONSAI_STORAGE_FORMAT_RETAINED_LAYERS},
+      hidden = true,
+      description =
+          "Number of layers behind the chain head kept in memory with BONSAI"
+              + " (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Long bonsaiRetainedLayers = DEFAULT_BONSAI_RETAINED_LAYERS;
+
+  @Option(
+      names = {BONSAI_STORAGE_FORMAT_MAX_RETAINED_LAYER_BYTES},
+      hidden = true,
+      description =
+          "Limit of the estimated size in bytes of the layers kept in memory with BONSAI"
+              + " (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Long bonsaiMaxRetainedLayerBytes = DEFAULT_BONSAI_MAX_RETAINED_LAYER_BYTES;
+
+  @Option(
+      names = {BONSAI_STORAGE_FORMAT_PREFETCH_THREADS},
+      hidden = true,
+      description =
+          "Number of threads reading the state of a block ahead of its execution with BONSAI,"
+              + " 0 to disable (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Integer bonsaiPrefetchThreads = DEFAULT_BONSAI_PREFETCH_THREADS;
+
+  @Option(
+      names = {BONSAI_STORAGE_FORMAT_FLAT_STATE_CACHE_BYTES},
+      hidden = true,
+      description =
+          "Size in bytes of the cache of account and storage values read from the persisted state"
+              + " with BONSAI, 0 to disable (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Long bonsaiFlatStateCacheBytes = DEFAULT_BONSAI_FLAT_STATE_CACHE_BYTES;
+
+  @Option(
+      names = {FOREST_TRIE_NODE_CACHE_BYTES},
+      hidden = true,
+      description =
+          "Size in bytes of the cache of trie nodes shared by FOREST world states,"
+              + " 0 to disable (default: ${DEFAULT-VALUE}).",
+      arity = "1")
+  private final Long forestTrieNodeCacheBytes = DEFAULT_FOREST_TRIE_NODE_CACHE_BYTES;
+
   public static DataStorageOptions create() {
     return new DataStorageOptions();
   }
@@ -60,6 +122,11 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
     return ImmutableDataStorageConfiguration.builder()
         .dataStorageFormat(dataStorageFormat)
         .bonsaiMaxLayersToLoad(bonsaiMaxLayersToLoad)
+        .bonsaiRetainedLayers(bonsaiRetainedLayers)
+        .bonsaiMaxRetainedLayerBytes(bonsaiMaxRetainedLayerBytes)
+        .bonsaiPrefetchThreads(bonsaiPrefetchThreads)
+        .bonsaiFlatStateCacheBytes(bonsaiFlatStateCacheBytes)
+        .forestTrieNodeCacheBytes(forestTrieNodeCacheBytes)
         .build();
   }
 
@@ -69,6 +136,16 @@ public class DataStorageOptions implements CLIOptions<DataStorageConfiguration>
         DATA_STORAGE_FORMAT,
         dataStorageFormat.toString(),
         BONSAI_STORAGE_FORMAT_MAX_LAYERS_TO_LOAD,
-        bonsaiMaxLayersToLoad.toString());
+        bonsaiMaxLayersToLoad.toString(),
+        BONSAI_STORAGE_FORMAT_RETAINED_LAYERS,
+        bonsaiRetainedLayers.toString(),
+        BONSAI_STORAGE_FORMAT_MAX_RETAINED_LAYER_BYTES,
+        bonsaiMaxRetainedLayerBytes.toString(),
+        BONSAI_STORAGE_FORMAT_PREFETCH_THREADS,
+        bonsaiPrefetchThreads.toString(),
+        BONSAI_STORAGE_FORMAT_FLAT_STATE_CACHE_BYTES,
+        bonsaiFlatStateCacheBytes.toString(),
+        FOREST_TRIE_NODE_CACHE_BYTES,
+        forestTrieNodeCacheBytes.toString());
   }
 }
@@ -17,6 +17,7 @@ package org.hyperledger.besu.cli.options.unstable;
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.options.OptionParser;
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
+import org.hyperledger.besu.ethereum.p2p.config.RlpxConfiguration;
 
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +29,8 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
       "--Xp2p-initiate-connections-frequency";
   private final String CHECK_MAINTAINED_CONNECTIONS_FREQUENCY_FLAG =
       "--Xp2p-check-maintained-connections-frequency";
+  private final String WORKER_THREADS_FLAG = "--Xp2p-worker-threads";
+  private final String NATIVE_TRANSPORT_ENABLED_FLAG = "--Xp2p-native-transport-enabled";
 
   @CommandLine.Option(
       names = INITIATE_CONNECTIONS_FREQUENCY_FLAG,
@@ -49,6 +52,25 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
   private int checkMaintainedConnectionsFrequencySec =
       NetworkingConfiguration.DEFAULT_CHECK_MAINTAINED_CONNECTSION_FREQUENCY_SEC;
 
+  @CommandLine.Option(
+      names = WORKER_THREADS_FLAG,
+      hidden = true,
+      defaultValue = "0",
+      paramLabel = "<INTEGER>",
+      description =
+          "The number of threads handling peer connections, 0 to use twice the number of available cores (default: ${DEFAULT-VALUE})")
+  private int workerThreads = RlpxConfiguration.DEFAULT_WORKER_THREADS;
+
+  @CommandLine.Option(
+      names = NATIVE_TRANSPORT_ENABLED_FLAG,
+      hidden = true,
+      defaultValue = "true",
+      paramLabel = "<BOOLEAN>",
+      arity = "1",
+      description =
+          "Use the native transport of the platform for peer connections when available, such as epoll on Linux (default: ${DEFAULT-VALUE})")
+  private boolean nativeTransportEnabled = RlpxConfiguration.DEFAULT_NATIVE_TRANSPORT_ENABLED;
+
   private NetworkingOptions() {}
 
   public static NetworkingOptions create() {
@@ -61,6 +83,8 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
         networkingConfig.getCheckMaintainedConnectionsFrequencySec();
     cliOptions.initiateConnectionsFrequencySec =
         networkingConfig.getInitiateConnectionsFrequencySec();
+    cliOptions.workerThreads = networkingConfig.getRlpx().getWorkerThreads();
+    cliOptions.nativeTransportEnabled = networkingConfig.getRlpx().isNativeTransportEnabled();
     return cliOptions;
   }
 
@@ -69,6 +93,10 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
     NetworkingConfiguration config = NetworkingConfiguration.create();
     config.setCheckMaintainedConnectionsFrequency(checkMaintainedConnectionsFrequencySec);
     config.setInitiateConnectionsFrequency(initiateConnectionsFrequencySec);
+    config
+        .getRlpx()
+        .setWorkerThreads(workerThreads)
+        .setNativeTransportEnabled(nativeTransportEnabled);
     return config;
   }
 
@@ -78,6 +106,10 @@ public class NetworkingOptions implements CLIOptions<NetworkingConfiguration> {
         CHECK_MAINTAINED_CONNECTIONS_FREQUENCY_FLAG,
         OptionParser.format(checkMaintainedConnectionsFrequencySec),
         INITIATE_CONNECTIONS_FREQUENCY_FLAG,
-        OptionParser.format(initiateConnectionsFrequencySec));
+        OptionParser.format(initiateConnectionsFrequencySec),
+        WORKER_THREADS_FLAG,
+        OptionParser.format(workerThreads),
+        NATIVE_TRANSPORT_ENABLED_FLAG,
+        Boolean.toString(nativeTransportEnabled));
   }
 }
@@ -40,6 +40,9 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
       "--Xsynchronizer-downloader-chain-segment-size";
   private static final String DOWNLOADER_PARALLELISM_FLAG =
       "--Xsynchronizer-downloader-parallelism";
+  private static final String DOWNLOADER_REORDER_BUFFER_SIZE_FLAG =
+      "--Xsynchronizer-downloader-reorder-buffer-size";
+  private static final String SNAP_SERVER_ENABLED_FLAG = "--Xsnapsync-server-enabled";
   private static final String TRANSACTIONS_PARALLELISM_FLAG =
       "--Xsynchronizer-transactions-parallelism";
   private static final String COMPUTATION_PARALLELISM_FLAG =
@@ -129,6 +132,25 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
       description = "Number of threads to provide to chain downloader (default: ${DEFAULT-VALUE})")
   private int downloaderParallelism = SynchronizerConfiguration.DEFAULT_DOWNLOADER_PARALLELISM;
 
+  @CommandLine.Option(
+      names = DOWNLOADER_REORDER_BUFFER_SIZE_FLAG,
+      hidden = true,
+      defaultValue = "0",
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of checkpoint ranges downloaded out of order during fast sync, waiting for earlier ranges to be imported. 0 downloads ranges in order (default: ${DEFAULT-VALUE})")
+  private int downloaderReorderBufferSize =
+      SynchronizerConfiguration.DEFAULT_DOWNLOADER_REORDER_BUFFER_SIZE;
+
+  @CommandLine.Option(
+      names = SNAP_SERVER_ENABLED_FLAG,
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      arity = "1",
+      description =
+          "Serve the world state to peers over the snap protocol. When disabled, snap is only advertised while snap syncing and requests are answered empty (default: ${DEFAULT-VALUE})")
+  private Boolean snapServerEnabled = SynchronizerConfiguration.DEFAULT_SNAP_SERVER_ENABLED;
+
   @CommandLine.Option(
       names = TRANSACTIONS_PARALLELISM_FLAG,
       hidden = true,
@@ -229,6 +251,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
         config.getDownloaderCheckpointTimeoutsPermitted();
     options.downloaderChainSegmentSize = config.getDownloaderChainSegmentSize();
     options.downloaderParallelism = config.getDownloaderParallelism();
+    options.downloaderReorderBufferSize = config.getDownloaderReorderBufferSize();
+    options.snapServerEnabled = config.isSnapServerEnabled();
     options.transactionsParallelism = config.getTransactionsParallelism();
     options.computationParallelism = config.getComputationParallelism();
     options.fastSyncPivotDistance = config.getFastSyncPivotDistance();
@@ -251,6 +275,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     builder.downloaderCheckpointTimeoutsPermitted(downloaderCheckpointTimeoutsPermitted);
     builder.downloaderChainSegmentSize(downloaderChainSegmentSize);
     builder.downloaderParallelism(downloaderParallelism);
+    builder.downloaderReorderBufferSize(downloaderReorderBufferSize);
+    builder.snapServerEnabled(snapServerEnabled);
     builder.transactionsParallelism(transactionsParallelism);
     builder.computationParallelism(computationParallelism);
     builder.fastSyncPivotDistance(fastSyncPivotDistance);
@@ -280,6 +306,10 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
         OptionParser.format(downloaderChainSegmentSize),
         DOWNLOADER_PARALLELISM_FLAG,
         OptionParser.format(downloaderParallelism),
+        DOWNLOADER_REORDER_BUFFER_SIZE_FLAG,
+        OptionParser.format(downloaderReorderBufferSize),
+        SNAP_SERVER_ENABLED_FLAG,
+        snapServerEnabled.toString(),
         TRANSACTIONS_PARALLELISM_FLAG,
         OptionParser.format(transactionsParallelism),
         COMPUTATION_PARALLELISM_FLAG,
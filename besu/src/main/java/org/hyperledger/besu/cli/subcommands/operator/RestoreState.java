@@ -73,7 +73,9 @@ public class RestoreState implements Runnable {
 
   @ParentCommand private OperatorSubCommand parentCommand;
 
-  private static final int TRIE_NODE_COMMIT_BATCH_SIZE = 100;
+  // Bulk loads write straight to the database files, so large batches only bound the memory used
+  // to track the nodes added by each batch
+  private static final int TRIE_NODE_COMMIT_BATCH_SIZE = 500_000;
 
   private long targetBlock;
   private long accountCount;
@@ -249,7 +251,7 @@ public class RestoreState implements Runnable {
     final WorldStateStorage worldStateStorage =
         ((DefaultWorldStateArchive) besuController.getProtocolContext().getWorldStateArchive())
             .getWorldStateStorage();
-    updater = worldStateStorage.updater();
+    updater = worldStateStorage.bulkLoadUpdater();
   }
 
   private void maybeCommitUpdater() {
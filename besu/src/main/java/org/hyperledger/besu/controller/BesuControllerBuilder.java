@@ -36,11 +36,15 @@ import org.hyperledger.besu.ethereum.core.Synchronizer;
 import org.hyperledger.besu.ethereum.core.fees.EIP1559;
 import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthMessages;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeers;
 import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.MonitoredExecutors;
+import org.hyperledger.besu.ethereum.eth.manager.SenderRecoveryService;
+import org.hyperledger.besu.ethereum.eth.manager.SnapProtocolManager;
 import org.hyperledger.besu.ethereum.eth.peervalidation.ClassicForkPeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.DaoForkPeerValidator;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
@@ -52,7 +56,9 @@ import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolFactory;
+import org.hyperledger.besu.ethereum.mainnet.CodeCacheMetrics;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.SpeculativeTransactionExecutor;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
@@ -65,6 +71,7 @@ import org.hyperledger.besu.ethereum.worldstate.PrunerConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateTrieNodeCaches;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.services.permissioning.NodeMessagePermissioningProvider;
 
@@ -78,6 +85,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -104,6 +112,7 @@ public abstract class BesuControllerBuilder {
   Map<String, String> genesisConfigOverrides;
   private Map<Long, Hash> requiredBlocks = Collections.emptyMap();
   private long reorgLoggingThreshold;
+  private int speculativeExecutionThreads;
   private DataStorageConfiguration dataStorageConfiguration =
       DataStorageConfiguration.DEFAULT_CONFIG;
   private List<NodeMessagePermissioningProvider> messagePermissioningProviders =
@@ -220,6 +229,11 @@ public abstract class BesuControllerBuilder {
     return this;
   }
 
+  public BesuControllerBuilder speculativeExecutionThreads(final int speculativeExecutionThreads) {
+    this.speculativeExecutionThreads = speculativeExecutionThreads;
+    return this;
+  }
+
   public BesuController build() {
     checkNotNull(genesisConfig, "Missing genesis config");
     checkNotNull(syncConfig, "Missing sync config");
@@ -238,6 +252,19 @@ public abstract class BesuControllerBuilder {
     prepForBuild();
 
     final ProtocolSchedule protocolSchedule = createProtocolSchedule();
+    CodeCacheMetrics.register(metricsSystem, protocolSchedule);
+    final Optional<ExecutorService> speculativeExecutionService =
+        speculativeExecutionThreads > 0
+            ? Optional.of(
+                MonitoredExecutors.newFixedThreadPool(
+                    SpeculativeTransactionExecutor.class.getSimpleName(),
+                    speculativeExecutionThreads,
+                    metricsSystem))
+            : Optional.empty();
+    speculativeExecutionService.ifPresent(
+        executorService ->
+            new SpeculativeTransactionExecutor(executorService, metricsSystem)
+                .enableOn(protocolSchedule));
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final WorldStateStorage worldStateStorage =
         storageProvider.createWorldStateStorage(dataStorageConfiguration.getDataStorageFormat());
@@ -291,9 +318,15 @@ public abstract class BesuControllerBuilder {
             syncConfig.getTransactionsParallelism(),
             syncConfig.getComputationParallelism(),
             metricsSystem);
-    final EthContext ethContext = new EthContext(ethPeers, ethMessages, scheduler);
+    final EthContext ethContext =
+        new EthContext(
+            ethPeers,
+            ethMessages,
+            scheduler,
+            new SenderRecoveryService(
+                scheduler, syncConfig.getComputationParallelism(), metricsSystem));
     final SyncState syncState = new SyncState(blockchain, ethPeers);
-    final boolean fastSyncEnabled = SyncMode.FAST.equals(syncConfig.getSyncMode());
+    final boolean fastSyncEnabled = SyncMode.isFastSync(syncConfig.getSyncMode());
 
     final Optional<EIP1559> eip1559;
     final GenesisConfigOptions genesisConfigOptions =
@@ -355,11 +388,28 @@ public abstract class BesuControllerBuilder {
 
     final SubProtocolConfiguration subProtocolConfiguration =
         createSubProtocolConfiguration(ethProtocolManager);
+    if (EthProtocol.NAME.equals(getSupportedProtocol())
+        && (syncConfig.getSyncMode() == SyncMode.SNAP || syncConfig.isSnapServerEnabled())) {
+      // The snap protocol runs alongside the eth protocol, on the same peers. It is only advertised
+      // to snap sync unless serving the world state is enabled.
+      subProtocolConfiguration.withSubProtocol(
+          SnapProtocol.get(),
+          new SnapProtocolManager(
+              ethPeers,
+              scheduler,
+              syncConfig.isSnapServerEnabled()
+                  ? Optional.of(worldStateArchive)
+                  : Optional.empty()));
+    }
 
     final JsonRpcMethods additionalJsonRpcMethodFactory =
         createAdditionalJsonRpcMethodFactory(protocolContext);
 
     final List<Closeable> closeables = new ArrayList<>();
+    // Stop speculative executions before the world state they read is closed
+    speculativeExecutionService.ifPresent(
+        executorService -> closeables.add(executorService::shutdownNow));
+    closeables.add(worldStateArchive);
     closeables.add(storageProvider);
     if (privacyParameters.getPrivateStorageProvider() != null) {
       closeables.add(privacyParameters.getPrivateStorageProvider());
@@ -444,12 +494,25 @@ public abstract class BesuControllerBuilder {
     switch (dataStorageConfiguration.getDataStorageFormat()) {
       case BONSAI:
         return new BonsaiWorldStateArchive(
-            storageProvider, blockchain, dataStorageConfiguration.getBonsaiMaxLayersToLoad());
+            storageProvider,
+            blockchain,
+            dataStorageConfiguration.getBonsaiMaxLayersToLoad(),
+            dataStorageConfiguration.getBonsaiRetainedLayers(),
+            dataStorageConfiguration.getBonsaiMaxRetainedLayerBytes(),
+            dataStorageConfiguration.getBonsaiPrefetchThreads(),
+            dataStorageConfiguration.getBonsaiFlatStateCacheBytes(),
+            metricsSystem);
       case FOREST:
       default:
         final WorldStatePreimageStorage preimageStorage =
             storageProvider.createWorldStatePreimageStorage();
-        return new DefaultWorldStateArchive(worldStateStorage, preimageStorage);
+        final long trieNodeCacheBytes = dataStorageConfiguration.getForestTrieNodeCacheBytes();
+        return new DefaultWorldStateArchive(
+            worldStateStorage,
+            preimageStorage,
+            trieNodeCacheBytes > 0
+                ? Optional.of(new WorldStateTrieNodeCaches(trieNodeCacheBytes, metricsSystem))
+                : Optional.empty());
     }
   }
 
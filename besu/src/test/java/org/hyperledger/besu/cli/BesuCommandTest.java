@@ -1454,6 +1454,18 @@ public class BesuCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void syncMode_snap() {
+    parseCommand("--sync-mode", "SNAP");
+    verify(mockControllerBuilder).synchronizerConfiguration(syncConfigurationCaptor.capture());
+
+    final SynchronizerConfiguration syncConfig = syncConfigurationCaptor.getValue();
+    assertThat(syncConfig.getSyncMode()).isEqualTo(SyncMode.SNAP);
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void syncMode_full() {
     parseCommand("--sync-mode", "FULL");
@@ -1583,6 +1595,52 @@ public class BesuCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void parsesValidBonsaiRetainedLayersOptions() {
+    parseCommand(
+        "--Xdata-storage-format",
+        "BONSAI",
+        "--Xbonsai-retained-layers",
+        "64",
+        "--Xbonsai-maximum-retained-layer-bytes",
+        "1048576");
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    final DataStorageConfiguration dataStorageConfiguration =
+        dataStorageConfigurationArgumentCaptor.getValue();
+    assertThat(dataStorageConfiguration.getBonsaiRetainedLayers()).isEqualTo(64);
+    assertThat(dataStorageConfiguration.getBonsaiMaxRetainedLayerBytes()).isEqualTo(1048576);
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parsesValidBonsaiPrefetchThreadsOption() {
+    parseCommand("--Xdata-storage-format", "BONSAI", "--Xbonsai-prefetch-threads", "0");
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    final DataStorageConfiguration dataStorageConfiguration =
+        dataStorageConfigurationArgumentCaptor.getValue();
+    assertThat(dataStorageConfiguration.getBonsaiPrefetchThreads()).isEqualTo(0);
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void parsesValidBonsaiFlatStateCacheBytesOption() {
+    parseCommand("--Xdata-storage-format", "BONSAI", "--Xbonsai-flat-state-cache-bytes", "1048576");
+    verify(mockControllerBuilder)
+        .dataStorageConfiguration(dataStorageConfigurationArgumentCaptor.capture());
+
+    final DataStorageConfiguration dataStorageConfiguration =
+        dataStorageConfigurationArgumentCaptor.getValue();
+    assertThat(dataStorageConfiguration.getBonsaiFlatStateCacheBytes()).isEqualTo(1048576);
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void parsesInvalidBonsaiTrieLimitBackLayersOption() {
 
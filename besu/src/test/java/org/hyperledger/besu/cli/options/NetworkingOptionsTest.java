@@ -18,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import org.hyperledger.besu.cli.options.unstable.NetworkingOptions;
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
+import org.hyperledger.besu.ethereum.p2p.config.RlpxConfiguration;
 
 import org.junit.Test;
 
@@ -72,6 +73,42 @@ public class NetworkingOptionsTest
     assertThat(commandOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void workerThreadsFlag_isSet() {
+    final TestBesuCommand cmd = parseCommand("--Xp2p-worker-threads", "32");
+
+    final NetworkingOptions options = cmd.getNetworkingOptions();
+    final NetworkingConfiguration networkingConfig = options.toDomainObject();
+    assertThat(networkingConfig.getRlpx().getWorkerThreads()).isEqualTo(32);
+
+    assertThat(commandErrorOutput.toString()).isEmpty();
+    assertThat(commandOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void nativeTransportEnabledFlag_isNotSet() {
+    final TestBesuCommand cmd = parseCommand();
+
+    final NetworkingOptions options = cmd.getNetworkingOptions();
+    final NetworkingConfiguration networkingConfig = options.toDomainObject();
+    assertThat(networkingConfig.getRlpx().isNativeTransportEnabled()).isTrue();
+
+    assertThat(commandErrorOutput.toString()).isEmpty();
+    assertThat(commandOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void nativeTransportEnabledFlag_isSet() {
+    final TestBesuCommand cmd = parseCommand("--Xp2p-native-transport-enabled", "false");
+
+    final NetworkingOptions options = cmd.getNetworkingOptions();
+    final NetworkingConfiguration networkingConfig = options.toDomainObject();
+    assertThat(networkingConfig.getRlpx().isNativeTransportEnabled()).isFalse();
+
+    assertThat(commandErrorOutput.toString()).isEmpty();
+    assertThat(commandOutput.toString()).isEmpty();
+  }
+
   @Override
   NetworkingConfiguration createDefaultDomainObject() {
     return NetworkingConfiguration.create();
@@ -84,6 +121,10 @@ public class NetworkingOptionsTest
         NetworkingConfiguration.DEFAULT_INITIATE_CONNECTIONS_FREQUENCY_SEC + 10);
     config.setCheckMaintainedConnectionsFrequency(
         NetworkingConfiguration.DEFAULT_CHECK_MAINTAINED_CONNECTSION_FREQUENCY_SEC + 10);
+    config
+        .getRlpx()
+        .setWorkerThreads(RlpxConfiguration.DEFAULT_WORKER_THREADS + 8)
+        .setNativeTransportEnabled(!RlpxConfiguration.DEFAULT_NATIVE_TRANSPORT_ENABLED);
     return config;
   }
 
@@ -60,6 +60,9 @@ public class SynchronizerOptionsTest
         .downloaderChainSegmentSize(
             SynchronizerConfiguration.DEFAULT_DOWNLOADER_CHAIN_SEGMENT_SIZE + 2)
         .downloaderParallelism(SynchronizerConfiguration.DEFAULT_DOWNLOADER_PARALLELISM + 2)
+        .downloaderReorderBufferSize(
+            SynchronizerConfiguration.DEFAULT_DOWNLOADER_REORDER_BUFFER_SIZE + 2)
+        .snapServerEnabled(!SynchronizerConfiguration.DEFAULT_SNAP_SERVER_ENABLED)
         .transactionsParallelism(SynchronizerConfiguration.DEFAULT_TRANSACTIONS_PARALLELISM + 2)
         .computationParallelism(SynchronizerConfiguration.DEFAULT_COMPUTATION_PARALLELISM + 2);
   }
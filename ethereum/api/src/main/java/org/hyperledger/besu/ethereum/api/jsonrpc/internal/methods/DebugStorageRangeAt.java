@@ -104,8 +104,8 @@ public class DebugStorageRangeAt implements JsonRpcMethod {
             () ->
                 blockchainQueries
                     .get()
-                    .getWorldState(blockHeaderOptional.get().getNumber())
-                    .map(
+                    .mapWorldState(
+                        blockHash,
                         worldState ->
                             extractStorageAt(
                                 requestContext, accountAddress, startKey, limit, worldState))
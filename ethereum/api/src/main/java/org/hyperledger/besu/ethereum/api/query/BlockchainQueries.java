@@ -805,6 +805,27 @@ public class BlockchainQueries {
             worldStateArchive.getMutable(blockHeader.getStateRoot(), blockHeader.getHash(), false));
   }
 
+  /**
+   * Applies a function to the world state for the corresponding block hash. The world state is
+   * read from a point in time snapshot of the storage when supported, so long running reads see a
+   * consistent state while blocks are imported. The world state must not be used once the function
+   * returns.
+   *
+   * @param blockHash the block hash
+   * @param mapper the function to apply to the world state
+   * @param <U> the type of the result of the function
+   * @return the result of the function, or empty if the world state is not available
+   */
+  public <U> Optional<U> mapWorldState(
+      final Hash blockHash, final Function<? super WorldState, U> mapper) {
+    return blockchain
+        .getBlockHeader(blockHash)
+        .flatMap(
+            blockHeader ->
+                worldStateArchive.mapWorldState(
+                    blockHeader.getStateRoot(), blockHeader.getHash(), mapper));
+  }
+
   public Optional<Long> gasPrice() {
     final long blockHeight = headBlockNumber();
     final long[] gasCollection =
@@ -836,7 +857,7 @@ public class BlockchainQueries {
 
   private <T> Optional<T> fromWorldState(
       final Hash blockHash, final Function<WorldState, T> getter) {
-    return getWorldState(blockHash).map(getter);
+    return mapWorldState(blockHash, getter);
   }
 
   private <T> Optional<T> fromAccount(
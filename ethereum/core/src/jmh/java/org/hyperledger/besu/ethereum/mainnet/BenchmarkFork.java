@@ -0,0 +1,111 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.core.PrivacyParameters;
+import org.hyperledger.besu.ethereum.vm.EVM;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+
+import java.math.BigInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The mainnet hard forks, with the gas schedule, EVM and precompiled contracts each of them runs
+ * with, so that benchmarks can compare operations and precompiles across forks.
+ */
+public enum BenchmarkFork {
+  FRONTIER(
+      FrontierGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.frontier(gasCalculator),
+      MainnetPrecompiledContractRegistries::frontier),
+  HOMESTEAD(
+      HomesteadGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.homestead(gasCalculator),
+      MainnetPrecompiledContractRegistries::frontier),
+  TANGERINE_WHISTLE(
+      TangerineWhistleGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.homestead(gasCalculator),
+      MainnetPrecompiledContractRegistries::frontier),
+  SPURIOUS_DRAGON(
+      SpuriousDragonGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.homestead(gasCalculator),
+      MainnetPrecompiledContractRegistries::frontier),
+  BYZANTIUM(
+      ByzantiumGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.byzantium(gasCalculator),
+      MainnetPrecompiledContractRegistries::byzantium),
+  CONSTANTINOPLE(
+      ConstantinopleGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.constantinople(gasCalculator),
+      MainnetPrecompiledContractRegistries::byzantium),
+  PETERSBURG(
+      PetersburgGasCalculator::new,
+      (gasCalculator, chainId) -> MainnetEvmRegistries.constantinople(gasCalculator),
+      MainnetPrecompiledContractRegistries::byzantium),
+  ISTANBUL(
+      IstanbulGasCalculator::new,
+      MainnetEvmRegistries::istanbul,
+      MainnetPrecompiledContractRegistries::istanbul),
+  BERLIN(
+      BerlinGasCalculator::new,
+      MainnetEvmRegistries::istanbul,
+      MainnetPrecompiledContractRegistries::istanbul),
+  LONDON(
+      LondonGasCalculator::new,
+      MainnetEvmRegistries::london,
+      MainnetPrecompiledContractRegistries::istanbul);
+
+  private static final BigInteger CHAIN_ID = BigInteger.ONE;
+
+  private final Supplier<GasCalculator> gasCalculator;
+  private final BiFunction<GasCalculator, BigInteger, EVM> evm;
+  private final Function<PrecompiledContractConfiguration, PrecompileContractRegistry> precompiles;
+
+  BenchmarkFork(
+      final Supplier<GasCalculator> gasCalculator,
+      final BiFunction<GasCalculator, BigInteger, EVM> evm,
+      final Function<PrecompiledContractConfiguration, PrecompileContractRegistry> precompiles) {
+    this.gasCalculator = gasCalculator;
+    this.evm = evm;
+    this.precompiles = precompiles;
+  }
+
+  public GasCalculator createGasCalculator() {
+    return gasCalculator.get();
+  }
+
+  public EVM createEvm(final GasCalculator gasCalculator) {
+    return evm.apply(gasCalculator, CHAIN_ID);
+  }
+
+  public PrecompileContractRegistry createPrecompiles(final GasCalculator gasCalculator) {
+    return precompiles.apply(
+        new PrecompiledContractConfiguration(gasCalculator, PrivacyParameters.DEFAULT));
+  }
+
+  /**
+   * Creates a registry holding every precompiled contract Besu implements, including the BLS12-381
+   * ones that no mainnet fork enables yet.
+   *
+   * @param gasCalculator the gas calculator pricing the contracts
+   * @return the registry of all precompiled contracts
+   */
+  public static PrecompileContractRegistry createAllPrecompiles(final GasCalculator gasCalculator) {
+    return MainnetPrecompiledContractRegistries.bls12(
+        new PrecompiledContractConfiguration(gasCalculator, PrivacyParameters.DEFAULT));
+  }
+}
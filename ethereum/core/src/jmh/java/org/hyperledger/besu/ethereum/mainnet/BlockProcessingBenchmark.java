@@ -0,0 +1,297 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.config.GenesisConfigFile;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.GenesisState;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.core.BlockImporter;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.util.RawBlockIterator;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.testutil.BlockTestUtil;
+import org.hyperledger.besu.testutil.BlockTestUtil.ChainResources;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Replays a bundled block range through the fork's {@link BlockProcessor}, on top of its pre-state
+ * held in an in-memory Forest or Bonsai {@link WorldStateArchive}.
+ *
+ * <p>The chain is first imported with full validation, which also checks that the replay is
+ * faithful. Each invocation then processes the whole range again, starting from the parent of its
+ * first block. Next to the time per replay, the {@link GasCounter} and {@link TransactionCounter}
+ * auxiliary counters give the gas and transactions processed per second; divide the former by a
+ * million for Mgas/s. Run with {@code -prof gc} to add the allocation rate.
+ *
+ * <p>Once the trial completes, the transactions of the range are re-executed one by one against
+ * their block's pre-state and the slowest ones per unit of gas are printed, so that a regression
+ * in the aggregate figures can be traced back to the transactions responsible for it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockProcessingBenchmark {
+
+  private static final int BREAKDOWN_REPETITIONS = 5;
+  private static final int BREAKDOWN_SIZE = 20;
+
+  public enum ReplayChain {
+    TEST_CHAIN(BlockTestUtil::getTestChainResources),
+    MAINNET(BlockTestUtil::getMainnetResources);
+
+    private final Supplier<ChainResources> resources;
+
+    ReplayChain(final Supplier<ChainResources> resources) {
+      this.resources = resources;
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class TransactionCounter {
+
+    public long transactions;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      transactions = 0;
+    }
+  }
+
+  @Param({"TEST_CHAIN", "MAINNET"})
+  public ReplayChain chain;
+
+  @Param({"FOREST", "BONSAI"})
+  public DataStorageFormat storageFormat;
+
+  private ProtocolSchedule protocolSchedule;
+  private MutableBlockchain blockchain;
+  private WorldStateArchive worldStateArchive;
+  private List<Block> blocks;
+  private MutableWorldState worldState;
+
+  @Setup(Level.Trial)
+  public void importChain() throws Exception {
+    final ChainResources resources = chain.resources.get();
+    final String genesisJson = Resources.toString(resources.getGenesisURL(), UTF_8);
+    protocolSchedule =
+        MainnetProtocolSchedule.fromConfig(
+            GenesisConfigFile.fromConfig(genesisJson).getConfigOptions(), false);
+    final GenesisState genesisState = GenesisState.fromJson(genesisJson, protocolSchedule);
+    blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    worldStateArchive =
+        storageFormat == DataStorageFormat.BONSAI
+            ? createBonsaiInMemoryWorldStateArchive(blockchain)
+            : createInMemoryWorldStateArchive();
+    genesisState.writeStateTo(worldStateArchive.getMutable());
+
+    final BlockHeaderFunctions blockHeaderFunctions =
+        ScheduleBasedBlockHeaderFunctions.create(protocolSchedule);
+    blocks = new ArrayList<>();
+    try (final RawBlockIterator iterator =
+        new RawBlockIterator(
+            Path.of(resources.getBlocksURL().toURI()),
+            rlp -> BlockHeader.readFrom(rlp, blockHeaderFunctions))) {
+      while (iterator.hasNext()) {
+        final Block block = iterator.next();
+        if (block.getHeader().getNumber() != BlockHeader.GENESIS_BLOCK_NUMBER) {
+          blocks.add(block);
+        }
+      }
+    }
+
+    final ProtocolContext protocolContext =
+        new ProtocolContext(blockchain, worldStateArchive, null);
+    for (final Block block : blocks) {
+      final BlockImporter blockImporter =
+          protocolSchedule.getByBlockNumber(block.getHeader().getNumber()).getBlockImporter();
+      if (!blockImporter.importBlock(protocolContext, block, HeaderValidationMode.FULL)) {
+        throw new IllegalStateException("Unable to import block " + block.getHeader().getNumber());
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void resetWorldState() {
+    worldState = preState(blocks.get(0));
+  }
+
+  @Benchmark
+  public MutableWorldState processBlocks(
+      final GasCounter gasCounter, final TransactionCounter transactionCounter) {
+    for (final Block block : blocks) {
+      final BlockHeader header = block.getHeader();
+      final BlockProcessor blockProcessor =
+          protocolSchedule.getByBlockNumber(header.getNumber()).getBlockProcessor();
+      if (!blockProcessor.processBlock(blockchain, worldState, block).isSuccessful()) {
+        throw new IllegalStateException("Unable to process block " + header.getNumber());
+      }
+      gasCounter.gas += header.getGasUsed();
+      transactionCounter.transactions += block.getBody().getTransactions().size();
+    }
+    return worldState;
+  }
+
+  @TearDown(Level.Trial)
+  public void reportTransactionBreakdown() {
+    final List<TransactionTiming> timings = new ArrayList<>();
+    for (final Block block : blocks) {
+      timings.addAll(timeTransactions(block));
+    }
+    for (int repetition = 1; repetition < BREAKDOWN_REPETITIONS; repetition++) {
+      int index = 0;
+      for (final Block block : blocks) {
+        for (final TransactionTiming timing : timeTransactions(block)) {
+          timings.get(index++).recordRepetition(timing.nanos);
+        }
+      }
+    }
+    if (timings.isEmpty()) {
+      return;
+    }
+
+    timings.sort(Comparator.comparingDouble(TransactionTiming::gasPerSecond));
+    System.out.printf(
+        "%nSlowest transactions per unit of gas (best of %d runs):%n", BREAKDOWN_REPETITIONS);
+    System.out.printf("%10s %66s %12s %12s %10s%n", "block", "hash", "gas", "micros", "Mgas/s");
+    for (final TransactionTiming timing :
+        timings.subList(0, Math.min(BREAKDOWN_SIZE, timings.size()))) {
+      System.out.printf(
+          "%10d %66s %12d %12.1f %10.2f%n",
+          timing.blockNumber,
+          timing.hash.toHexString(),
+          timing.gasUsed,
+          timing.nanos / 1_000.0,
+          timing.gasPerSecond() / 1_000_000.0);
+    }
+  }
+
+  /**
+   * Executes the transactions of a block one by one against a throwaway copy of its pre-state.
+   *
+   * @param block the block whose transactions to execute
+   * @return the timing of each transaction, in block order
+   */
+  private List<TransactionTiming> timeTransactions(final Block block) {
+    final BlockHeader header = block.getHeader();
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final List<TransactionTiming> timings = new ArrayList<>(transactions.size());
+    if (transactions.isEmpty()) {
+      return timings;
+    }
+
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockNumber(header.getNumber());
+    final MainnetTransactionProcessor transactionProcessor = protocolSpec.getTransactionProcessor();
+    final MutableWorldState preState = preState(block);
+    final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
+    for (final Transaction transaction : transactions) {
+      final WorldUpdater updater = preState.updater();
+      final long start = System.nanoTime();
+      final TransactionProcessingResult result =
+          transactionProcessor.processTransaction(
+              blockchain,
+              updater,
+              header,
+              transaction,
+              protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
+              blockHashLookup,
+              false,
+              TransactionValidationParams.processingBlock());
+      final long nanos = System.nanoTime() - start;
+      if (result.isInvalid()) {
+        throw new IllegalStateException(
+            "Invalid transaction "
+                + transaction.getHash()
+                + ": "
+                + result.getValidationResult().getInvalidReason());
+      }
+      updater.commit();
+      timings.add(
+          new TransactionTiming(
+              header.getNumber(),
+              transaction.getHash(),
+              transaction.getGasLimit() - result.getGasRemaining(),
+              nanos));
+    }
+    // The changes must not reach the archive, which still serves the benchmark's replays.
+    preState.discardPendingChanges();
+    return timings;
+  }
+
+  private MutableWorldState preState(final Block block) {
+    final BlockHeader parent =
+        blockchain.getBlockHeader(block.getHeader().getParentHash()).orElseThrow();
+    return worldStateArchive
+        .getMutable(parent.getStateRoot(), parent.getHash())
+        .orElseThrow(() -> new IllegalStateException("No world state for block " + parent));
+  }
+
+  private static class TransactionTiming {
+    private final long blockNumber;
+    private final Hash hash;
+    private final long gasUsed;
+    private long nanos;
+
+    TransactionTiming(
+        final long blockNumber, final Hash hash, final long gasUsed, final long nanos) {
+      this.blockNumber = blockNumber;
+      this.hash = hash;
+      this.gasUsed = gasUsed;
+      this.nanos = nanos;
+    }
+
+    void recordRepetition(final long nanos) {
+      this.nanos = Math.min(this.nanos, nanos);
+    }
+
+    double gasPerSecond() {
+      return gasUsed * 1_000_000_000.0 / Math.max(nanos, 1);
+    }
+  }
+}
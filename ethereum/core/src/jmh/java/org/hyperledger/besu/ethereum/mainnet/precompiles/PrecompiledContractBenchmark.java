@@ -0,0 +1,294 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.precompiles;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECPSignature;
+import org.hyperledger.besu.crypto.SignatureAlgorithm;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MessageFrameTestFixture;
+import org.hyperledger.besu.ethereum.mainnet.BenchmarkFork;
+import org.hyperledger.besu.ethereum.mainnet.GasCounter;
+import org.hyperledger.besu.ethereum.mainnet.PrecompiledContract;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Runs each precompiled contract of a fork on a representative input and reports the gas it
+ * charges per second, through the {@link GasCounter} auxiliary counter.
+ *
+ * <p>By default every {@link Contract} is benchmarked with the {@link BenchmarkFork#LONDON} gas
+ * schedule. The BLS12-381 contracts are not enabled on any mainnet fork, so they are taken from
+ * the registry of all precompiled contracts instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PrecompiledContractBenchmark {
+
+  private static final Bytes HASH_INPUT = Bytes.random(128);
+
+  // EIP-198 example 1: 3^(p-1) mod p for the secp256k1 field prime p.
+  private static final Bytes MODEXP_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000000000000000000000000000000000001"
+              + "0000000000000000000000000000000000000000000000000000000000000020"
+              + "0000000000000000000000000000000000000000000000000000000000000020"
+              + "03fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc"
+              + "2efffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc"
+              + "2f");
+
+  private static final Bytes ALTBN128_ADD_INPUT =
+      Bytes.fromHexString(
+          "0x17c139df0efee0f766bc0204762b774362e4ded88953a39ce849a8a7fa163fa9"
+              + "01e0559bacb160664764a357af8a9fe70baa9258e0b959273ffc5718c6d4cc7c"
+              + "17c139df0efee0f766bc0204762b774362e4ded88953a39ce849a8a7fa163fa9"
+              + "2e83f8d734803fc370eba25ed1f6b8768bd6d83887b87165fc2434fe11a830cb");
+
+  private static final Bytes ALTBN128_MUL_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000000000000000000000000000000000001"
+              + "30644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd45"
+              + "ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  // Two pairs.
+  private static final Bytes ALTBN128_PAIRING_INPUT =
+      Bytes.fromHexString(
+          "0x0fc6ebd1758207e311a99674dc77d28128643c057fb9ca2c92b4205b6bf57ed2"
+              + "1e50042f97b7a1f2768fa15f6683eca9ee7fa8ee655d94246ab85fb1da3f0b90"
+              + "198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+              + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+              + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+              + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa");
+
+  // RFC 7693 appendix A, with 12 rounds.
+  private static final Bytes BLAKE2B_F_COMPRESSION_INPUT =
+      Bytes.fromHexString(
+          "0x0000000c48c9bdf267e6096a3ba7ca8485ae67bb2bf894fe72f36e3cf1361d5f"
+              + "3af54fa5d182e6ad7f520e511f6c3e2b8c68059b6bbd41fbabd9831f79217e13"
+              + "19cde05b61626300000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "0000000000000000000000000000000000000000000000000000000000000000"
+              + "000000000300000000000000000000000000000001");
+
+  private static final Bytes BLS12_G1ADD_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000012196c5a43d69224d8713389285f26b9"
+              + "8f86ee910ab3dd668e413738282003cc5b7357af9a7af54bb713d62255e80f56"
+              + "0000000000000000000000000000000006ba8102bfbeea4416b710c73e8cce30"
+              + "32c31c6269c44906f8ac4f7874ce99fb17559992486528963884ce429a992fee"
+              + "000000000000000000000000000000000001101098f5c39893765766af4512a0"
+              + "c74e1bb89bc7e6fdf14e3e7337d257cc0f94658179d83320b99f31ff94cd2bac"
+              + "0000000000000000000000000000000003e1a9f9f44ca2cdab4f43a1a3ee3470"
+              + "fdf90b2fc228eb3b709fcd72f014838ac82a6d797aeefed9a0804b22ed1ce8f7");
+
+  private static final Bytes BLS12_G1MUL_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000017f1d3a73197d7942695638c4fa9ac0f"
+              + "c3688c4f9774b905a14e3a3f171bac586c55e83ff97a1aeffb3af00adb22c6bb"
+              + "0000000000000000000000000000000008b3f481e3aaa0f1a09e30ed741d8ae4"
+              + "fcf5e095d5d00af600db18cb2c04b3edd03cc744a2888ae40caa232946c5e7e1"
+              + "ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  // Two point and scalar pairs.
+  private static final Bytes BLS12_G1MULTIEXP_INPUT =
+      Bytes.fromHexString(
+          "0x00000000000000000000000000000000117dbe419018f67844f6a5e1b78a1e59"
+              + "7283ad7b8ee7ac5e58846f5a5fd68d0da99ce235a91db3ec1cf340fe6b7afcdb"
+              + "0000000000000000000000000000000013316f23de032d25e912ae8dc9b54c8d"
+              + "ba1be7cecdbb9d2228d7e8f652011d46be79089dd0a6080a73c82256ce5e4ed2"
+              + "4d0e25bf3f6fc9f4da25d21fdc71773f1947b7a8a775b8177f7eca990b05b71d"
+              + "0000000000000000000000000000000008ab7b556c672db7883ec47efa6d98bb"
+              + "08cec7902ebb421aac1c31506b177ac444ffa2d9b400a6f1cbdc6240c607ee11"
+              + "0000000000000000000000000000000016b7fa9adf4addc2192271ce7ad3c8d8"
+              + "f902d061c43b7d2e8e26922009b777855bffabe7ed1a09155819eabfa87f276f"
+              + "973f40c12c92b703d7b7848ef8b4466d40823aad3943a312b57432b91ff68be1");
+
+  private static final Bytes BLS12_G2ADD_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000018c0ada6351b70661f053365deae5691"
+              + "0798bd2ace6e2bf6ba4192d1a229967f6af6ca1c9a8a11ebc0a232344ee0f6d6"
+              + "000000000000000000000000000000000cc70a587f4652039d8117b6103858ad"
+              + "cd9728f6aebe230578389a62da0042b7623b1c0436734f463cfdd187d2090324"
+              + "0000000000000000000000000000000009f50bd7beedb23328818f9ffdafdb6d"
+              + "a6a4dd80c5a9048ab8b154df3cad938ccede829f1156f769d9e149791e8e0cd9"
+              + "00000000000000000000000000000000079ba50d2511631b20b6d6f3841e616e"
+              + "9d11b68ec3368cd60129d9d4787ab56c4e9145a38927e51c9cd6271d493d9388"
+              + "00000000000000000000000000000000192fa5d8732ff9f38e0b1cf12eadfd26"
+              + "08f0c7a39aced7746837833ae253bb57ef9c0d98a4b69eeb2950901917e99d1e"
+              + "0000000000000000000000000000000009aeb10c372b5ef1010675c6a4762fda"
+              + "33636489c23b581c75220589afbc0cc46249f921eea02dd1b761e036ffdbae22"
+              + "0000000000000000000000000000000002d225447600d49f932b9dd3ca1e6959"
+              + "697aa603e74d8666681a2dca8160c3857668ae074440366619eb8920256c4e4a"
+              + "00000000000000000000000000000000174882cdd3551e0ce6178861ff83e195"
+              + "fecbcffd53a67b6f10b4431e423e28a480327febe70276036f60bb9c99cf7633");
+
+  private static final Bytes BLS12_G2MUL_INPUT =
+      Bytes.fromHexString(
+          "0x00000000000000000000000000000000024aa2b2f08f0a91260805272dc51051"
+              + "c6e47ad4fa403b02b4510b647ae3d1770bac0326a805bbefd48056c8c121bdb8"
+              + "0000000000000000000000000000000013e02b6052719f607dacd3a088274f65"
+              + "596bd0d09920b61ab5da61bbdc7f5049334cf11213945d57e5ac7d055d042b7e"
+              + "000000000000000000000000000000000ce5d527727d6e118cc9cdc6da2e351a"
+              + "adfd9baa8cbdd3a76d429a695160d12c923ac9cc3baca289e193548608b82801"
+              + "000000000000000000000000000000000606c4a02ea734cc32acd2b02bc28b99"
+              + "cb3e287e85a763af267492ab572e99ab3f370d275cec1da1aaa9075ff05f79be"
+              + "ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  // Two point and scalar pairs.
+  private static final Bytes BLS12_G2MULTIEXP_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000018c0ada6351b70661f053365deae5691"
+              + "0798bd2ace6e2bf6ba4192d1a229967f6af6ca1c9a8a11ebc0a232344ee0f6d6"
+              + "000000000000000000000000000000000cc70a587f4652039d8117b6103858ad"
+              + "cd9728f6aebe230578389a62da0042b7623b1c0436734f463cfdd187d2090324"
+              + "0000000000000000000000000000000009f50bd7beedb23328818f9ffdafdb6d"
+              + "a6a4dd80c5a9048ab8b154df3cad938ccede829f1156f769d9e149791e8e0cd9"
+              + "00000000000000000000000000000000079ba50d2511631b20b6d6f3841e616e"
+              + "9d11b68ec3368cd60129d9d4787ab56c4e9145a38927e51c9cd6271d493d9388"
+              + "4d0e25bf3f6fc9f4da25d21fdc71773f1947b7a8a775b8177f7eca990b05b71d"
+              + "0000000000000000000000000000000003632695b09dbf86163909d2bb25995b"
+              + "36ad1d137cf252860fd4bb6c95749e19eb0c1383e9d2f93f2791cb0cf6c8ed9d"
+              + "000000000000000000000000000000001688a855609b0bbff4452d146396558f"
+              + "f18777f329fd4f76a96859dabfc6a6f6977c2496280dbe3b1f8923990c1d6407"
+              + "000000000000000000000000000000000c8567fee05d05af279adc67179468a2"
+              + "9d7520b067dbb348ee315a99504f70a206538b81a457cce855f4851ad48b7e80"
+              + "000000000000000000000000000000001238dcdfa80ea46e1500026ea5feadb4"
+              + "21de4409f4992ffbf5ae59fa67fd82f38452642a50261b849e74b4a33eed70cc"
+              + "973f40c12c92b703d7b7848ef8b4466d40823aad3943a312b57432b91ff68be1");
+
+  // One pair.
+  private static final Bytes BLS12_PAIRING_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000012196c5a43d69224d8713389285f26b9"
+              + "8f86ee910ab3dd668e413738282003cc5b7357af9a7af54bb713d62255e80f56"
+              + "0000000000000000000000000000000006ba8102bfbeea4416b710c73e8cce30"
+              + "32c31c6269c44906f8ac4f7874ce99fb17559992486528963884ce429a992fee"
+              + "0000000000000000000000000000000017c9fcf0504e62d3553b2f089b645741"
+              + "50aa5117bd3d2e89a8c1ed59bb7f70fb83215975ef31976e757abf60a75a1d9f"
+              + "0000000000000000000000000000000008f5a53d704298fe0cfc955e02044287"
+              + "4fe87d5c729c7126abbdcbed355eef6c8f07277bee6d49d56c4ebaf334848624"
+              + "000000000000000000000000000000001302dcc50c6ce4c28086f8e1b43f9f65"
+              + "543cf598be440123816765ab6bc93f62bceda80045fbcad8598d4f32d03ee8fa"
+              + "000000000000000000000000000000000bbb4eb37628d60b035a3e0c45c0ea8c"
+              + "4abef5a6ddc5625e0560097ef9caab208221062e81cd77ef72162923a1906a40");
+
+  private static final Bytes BLS12_MAP_FP_TO_G1_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000014406e5bfb9209256a3820879a29ac2f"
+              + "62d6aca82324bf3ae2aa7d3c54792043bd8c791fccdb080c1a52dc68b8b69350");
+
+  private static final Bytes BLS12_MAP_FP2_TO_G2_INPUT =
+      Bytes.fromHexString(
+          "0x0000000000000000000000000000000014406e5bfb9209256a3820879a29ac2f"
+              + "62d6aca82324bf3ae2aa7d3c54792043bd8c791fccdb080c1a52dc68b8b69350"
+              + "000000000000000000000000000000000e885bb33996e12f07da69073e2c0cc8"
+              + "80bc8eff26d2a724299eb12d54f4bcf26f4748bb020e80a7e3794a7b0e47a641");
+
+  public enum Contract {
+    ECREC(Address.ECREC, PrecompiledContractBenchmark::ecrecInput),
+    SHA256(Address.SHA256, () -> HASH_INPUT),
+    RIPEMD160(Address.RIPEMD160, () -> HASH_INPUT),
+    ID(Address.ID, () -> HASH_INPUT),
+    MODEXP(Address.MODEXP, () -> MODEXP_INPUT),
+    ALTBN128_ADD(Address.ALTBN128_ADD, () -> ALTBN128_ADD_INPUT),
+    ALTBN128_MUL(Address.ALTBN128_MUL, () -> ALTBN128_MUL_INPUT),
+    ALTBN128_PAIRING(Address.ALTBN128_PAIRING, () -> ALTBN128_PAIRING_INPUT),
+    BLAKE2B_F_COMPRESSION(Address.BLAKE2B_F_COMPRESSION, () -> BLAKE2B_F_COMPRESSION_INPUT),
+    BLS12_G1ADD(Address.BLS12_G1ADD, () -> BLS12_G1ADD_INPUT),
+    BLS12_G1MUL(Address.BLS12_G1MUL, () -> BLS12_G1MUL_INPUT),
+    BLS12_G1MULTIEXP(Address.BLS12_G1MULTIEXP, () -> BLS12_G1MULTIEXP_INPUT),
+    BLS12_G2ADD(Address.BLS12_G2ADD, () -> BLS12_G2ADD_INPUT),
+    BLS12_G2MUL(Address.BLS12_G2MUL, () -> BLS12_G2MUL_INPUT),
+    BLS12_G2MULTIEXP(Address.BLS12_G2MULTIEXP, () -> BLS12_G2MULTIEXP_INPUT),
+    BLS12_PAIRING(Address.BLS12_PAIRING, () -> BLS12_PAIRING_INPUT),
+    BLS12_MAP_FP_TO_G1(Address.BLS12_MAP_FP_TO_G1, () -> BLS12_MAP_FP_TO_G1_INPUT),
+    BLS12_MAP_FP2_TO_G2(Address.BLS12_MAP_FP2_TO_G2, () -> BLS12_MAP_FP2_TO_G2_INPUT);
+
+    private final Address address;
+    private final Supplier<Bytes> input;
+
+    Contract(final Address address, final Supplier<Bytes> input) {
+      this.address = address;
+      this.input = input;
+    }
+
+    private boolean isBls12() {
+      return name().startsWith("BLS12_");
+    }
+  }
+
+  @Param({"LONDON"})
+  public BenchmarkFork fork;
+
+  @Param public Contract contract;
+
+  private PrecompiledContract precompiledContract;
+  private Bytes input;
+  private long gasRequirement;
+  private MessageFrame frame;
+
+  @Setup
+  public void prepare() {
+    final GasCalculator gasCalculator = fork.createGasCalculator();
+    precompiledContract =
+        contract.isBls12()
+            ? BenchmarkFork.createAllPrecompiles(gasCalculator)
+                .get(contract.address, Account.DEFAULT_VERSION)
+            : fork.createPrecompiles(gasCalculator).get(contract.address, Account.DEFAULT_VERSION);
+    if (precompiledContract == null) {
+      throw new IllegalArgumentException(contract + " is not enabled in " + fork);
+    }
+    input = contract.input.get();
+    gasRequirement = precompiledContract.gasRequirement(input).toLong();
+    frame = new MessageFrameTestFixture().build();
+  }
+
+  @Benchmark
+  public Bytes compute(final GasCounter gasCounter) {
+    gasCounter.gas += gasRequirement;
+    return precompiledContract.compute(input, frame);
+  }
+
+  private static Bytes ecrecInput() {
+    final SignatureAlgorithm signatureAlgorithm = SignatureAlgorithmFactory.getInstance();
+    final KeyPair keyPair = signatureAlgorithm.generateKeyPair();
+    final Bytes32 dataHash = Hash.hash(HASH_INPUT);
+    final SECPSignature signature = signatureAlgorithm.sign(dataHash, keyPair);
+    // The precompile takes the hash, v, r and s, while the signature encodes as r, s and recId.
+    return Bytes.concatenate(
+        dataHash,
+        Bytes32.leftPad(Bytes.of(signature.getRecId() + 27)),
+        signature.encodedBytes().slice(0, 64));
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.mainnet.BenchmarkFork;
+import org.hyperledger.besu.ethereum.mainnet.GasCounter;
+import org.hyperledger.besu.ethereum.vm.Code;
+import org.hyperledger.besu.ethereum.vm.EVM;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.Operation;
+import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Executes each operation of a fork's EVM in isolation and reports the gas it charges per second,
+ * through the {@link GasCounter} auxiliary counter.
+ *
+ * <p>Every operand the operation consumes is set to {@link #operand}, which keeps memory offsets
+ * and sizes small. Any state an operation leaves behind on the frame (stack items, halting state,
+ * program counter, logs and child frames from calls and creates) is discarded after each
+ * invocation so that every invocation starts from the same frame. The code of the frame is made
+ * of {@code JUMPDEST}s only, so that {@code JUMP} and {@code JUMPI} take the valid jump path.
+ *
+ * <p>The default parameters cover every operation of every fork. Operations a fork does not define
+ * are skipped: their invocations do nothing and report no gas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OperationGasBenchmark {
+
+  @Param({
+    "FRONTIER", "HOMESTEAD", "TANGERINE_WHISTLE", "SPURIOUS_DRAGON", "BYZANTIUM", "CONSTANTINOPLE",
+    "PETERSBURG", "ISTANBUL", "BERLIN", "LONDON"
+  })
+  public BenchmarkFork fork;
+
+  @Param({
+    "STOP", "ADD", "MUL", "SUB", "DIV", "SDIV", "MOD", "SMOD", "ADDMOD", "MULMOD", "EXP",
+    "SIGNEXTEND", "LT", "GT", "SLT", "SGT", "EQ", "ISZERO", "AND", "OR", "XOR", "NOT", "BYTE",
+    "SHL", "SHR", "SAR", "SHA3", "ADDRESS", "BALANCE", "ORIGIN", "CALLER", "CALLVALUE",
+    "CALLDATALOAD", "CALLDATASIZE", "CALLDATACOPY", "CODESIZE", "CODECOPY", "GASPRICE",
+    "EXTCODESIZE", "EXTCODECOPY", "RETURNDATASIZE", "RETURNDATACOPY", "EXTCODEHASH", "BLOCKHASH",
+    "COINBASE", "TIMESTAMP", "NUMBER", "DIFFICULTY", "GASLIMIT", "CHAINID", "SELFBALANCE",
+    "BASEFEE", "POP", "MLOAD", "MSTORE", "MSTORE8", "SLOAD", "SSTORE", "JUMP", "JUMPI", "PC",
+    "MSIZE", "GAS", "JUMPDEST", "PUSH1", "PUSH2", "PUSH3", "PUSH4", "PUSH5", "PUSH6", "PUSH7",
+    "PUSH8", "PUSH9", "PUSH10", "PUSH11", "PUSH12", "PUSH13", "PUSH14", "PUSH15", "PUSH16",
+    "PUSH17", "PUSH18", "PUSH19", "PUSH20", "PUSH21", "PUSH22", "PUSH23", "PUSH24", "PUSH25",
+    "PUSH26", "PUSH27", "PUSH28", "PUSH29", "PUSH30", "PUSH31", "PUSH32", "DUP1", "DUP2", "DUP3",
+    "DUP4", "DUP5", "DUP6", "DUP7", "DUP8", "DUP9", "DUP10", "DUP11", "DUP12", "DUP13", "DUP14",
+    "DUP15", "DUP16", "SWAP1", "SWAP2", "SWAP3", "SWAP4", "SWAP5", "SWAP6", "SWAP7", "SWAP8",
+    "SWAP9", "SWAP10", "SWAP11", "SWAP12", "SWAP13", "SWAP14", "SWAP15", "SWAP16", "LOG0", "LOG1",
+    "LOG2", "LOG3", "LOG4", "CREATE", "CALL", "CALLCODE", "RETURN", "DELEGATECALL", "CREATE2",
+    "STATICCALL", "REVERT", "INVALID", "SELFDESTRUCT"
+  })
+  public String operationName;
+
+  @Param({"32"})
+  public long operand;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private EVM evm;
+  private Operation operation;
+  private Bytes32[] operands;
+  private MessageFrame frame;
+  private int messageFrameStackSize;
+
+  @Setup
+  public void prepare() throws Exception {
+    final GasCalculator gasCalculator = fork.createGasCalculator();
+    evm = fork.createEvm(gasCalculator);
+    operation = findOperation(evm, operationName);
+    operands =
+        new Bytes32[operation == null ? 0 : Math.max(operation.getStackItemsConsumed(), 0)];
+    Arrays.fill(operands, UInt256.valueOf(operand).toBytes());
+
+    operationBenchmarkHelper = OperationBenchmarkHelper.create();
+    // Every offset up to the operand is a valid jump destination
+    final byte[] code = new byte[Math.toIntExact(operand) + 1];
+    Arrays.fill(code, (byte) JumpDestOperation.OPCODE);
+    frame =
+        operationBenchmarkHelper
+            .createMessageFrameBuilder()
+            .code(new Code(Bytes.wrap(code)))
+            .build();
+    messageFrameStackSize = frame.getMessageFrameStack().size();
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public OperationResult executeOperation(final GasCounter gasCounter) {
+    if (operation == null) {
+      return null;
+    }
+    for (final Bytes32 item : operands) {
+      frame.pushStackItem(item);
+    }
+    final OperationResult result = operation.execute(frame, evm);
+    if (result.getGasCost().isPresent()) {
+      gasCounter.gas += result.getGasCost().get().toLong();
+    }
+    resetFrame();
+    return result;
+  }
+
+  private void resetFrame() {
+    if (frame.stackSize() > 0) {
+      frame.popStackItems(frame.stackSize());
+    }
+    final Deque<MessageFrame> messageFrameStack = frame.getMessageFrameStack();
+    while (messageFrameStack.size() > messageFrameStackSize) {
+      messageFrameStack.pop();
+    }
+    frame.clearLogs();
+    frame.setPC(0);
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+  }
+
+  @Nullable
+  private static Operation findOperation(final EVM evm, final String name) {
+    for (int opcode = 0; opcode < 256; opcode++) {
+      final Operation candidate = evm.getOperation(opcode, Account.DEFAULT_VERSION);
+      if (candidate != null && candidate.getName().equals(name)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+}
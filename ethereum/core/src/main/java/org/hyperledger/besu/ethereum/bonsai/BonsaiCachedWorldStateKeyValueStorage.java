@@ -0,0 +1,294 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Bonsai world state storage keeping a size bounded cache of the flat account and storage values,
+ * so that the values of hot accounts and contracts are not read from storage again in every block.
+ *
+ * <p>The cache is write-through: the values written by an updater replace the cached ones once
+ * the updater is committed. Rolling the world state back or forward persists the changes of the
+ * trie logs through an updater as well, so the cache follows every change of the persisted state.
+ * Values loaded from storage concurrently with a commit are not cached, as they may predate it.
+ *
+ * <p>Changes written through another storage instance are not seen by the cache, which must then
+ * be cleared.
+ */
+public class BonsaiCachedWorldStateKeyValueStorage extends BonsaiWorldStateKeyValueStorage {
+
+  // approximate heap taken by a cache entry besides its key and value bytes
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final Cache<Bytes, Optional<Bytes>> cache;
+  private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
+  private volatile long generation;
+
+  private final LongAdder accountHits = new LongAdder();
+  private final LongAdder accountMisses = new LongAdder();
+  private final LongAdder storageHits = new LongAdder();
+  private final LongAdder storageMisses = new LongAdder();
+
+  public BonsaiCachedWorldStateKeyValueStorage(
+      final StorageProvider provider,
+      final long maxSizeInBytes,
+      final MetricsSystem metricsSystem) {
+    super(provider);
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher(
+                (final Bytes key, final Optional<Bytes> value) ->
+                    ENTRY_OVERHEAD_BYTES + key.size() + value.map(Bytes::size).orElse(0))
+            .build();
+    registerMetrics(metricsSystem, "account", accountHits, accountMisses);
+    registerMetrics(metricsSystem, "storage", storageHits, storageMisses);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "bonsai_flat_state_cache_size",
+        "Number of account and storage values held in the Bonsai flat state cache",
+        cache::size);
+  }
+
+  @Override
+  public Optional<Bytes> getAccount(final Hash accountHash) {
+    return get(accountHash, () -> super.getAccount(accountHash), accountHits, accountMisses);
+  }
+
+  @Override
+  public List<Optional<Bytes>> getAccounts(final List<Hash> accountHashes) {
+    return getAll(accountHashes, super::getAccounts, accountHits, accountMisses);
+  }
+
+  @Override
+  public Optional<Bytes> getStorageValueBySlotHash(final Hash accountHash, final Hash slotHash) {
+    return get(
+        storageKey(accountHash, slotHash),
+        () -> super.getStorageValueBySlotHash(accountHash, slotHash),
+        storageHits,
+        storageMisses);
+  }
+
+  @Override
+  public List<Optional<Bytes>> getStorageValuesBySlotHash(
+      final Hash accountHash, final List<Hash> slotHashes) {
+    return getAll(
+        Lists.transform(slotHashes, slotHash -> storageKey(accountHash, slotHash)),
+        keys ->
+            super.getStorageValuesBySlotHash(
+                accountHash,
+                Lists.transform(keys, key -> Hash.wrap(Bytes32.wrap(key.slice(Bytes32.SIZE))))),
+        storageHits,
+        storageMisses);
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachingUpdater(
+        this,
+        accountStorage.startTransaction(),
+        codeStorage.startTransaction(),
+        storageStorage.startTransaction(),
+        trieBranchStorage.startTransaction(),
+        trieLogStorage.startTransaction());
+  }
+
+  /** Discards all cached values, after the state was changed through another storage instance. */
+  @Override
+  public void clearCache() {
+    update(cache::invalidateAll);
+  }
+
+  private Optional<Bytes> get(
+      final Bytes key,
+      final Supplier<Optional<Bytes>> loader,
+      final LongAdder hits,
+      final LongAdder misses) {
+    final Optional<Bytes> cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    final long loadGeneration = generation;
+    final Optional<Bytes> value = loader.get();
+    putIfUnchanged(Map.of(key, value), loadGeneration);
+    return value;
+  }
+
+  private <K extends Bytes> List<Optional<Bytes>> getAll(
+      final List<K> keys,
+      final Function<List<K>, List<Optional<Bytes>>> loader,
+      final LongAdder hits,
+      final LongAdder misses) {
+    final List<Optional<Bytes>> values = new ArrayList<>(keys.size());
+    final List<Integer> missedIndexes = new ArrayList<>();
+    final List<K> missedKeys = new ArrayList<>();
+    for (final K key : keys) {
+      final Optional<Bytes> cached = cache.getIfPresent(key);
+      if (cached == null) {
+        missedIndexes.add(values.size());
+        missedKeys.add(key);
+      }
+      values.add(cached);
+    }
+    hits.add(keys.size() - missedKeys.size());
+    misses.add(missedKeys.size());
+    if (missedKeys.isEmpty()) {
+      return values;
+    }
+
+    final long loadGeneration = generation;
+    final List<Optional<Bytes>> loaded = loader.apply(missedKeys);
+    final Map<Bytes, Optional<Bytes>> loadedByKey = new HashMap<>();
+    for (int i = 0; i < missedKeys.size(); i++) {
+      values.set(missedIndexes.get(i), loaded.get(i));
+      loadedByKey.put(missedKeys.get(i), loaded.get(i));
+    }
+    putIfUnchanged(loadedByKey, loadGeneration);
+    return values;
+  }
+
+  private void putIfUnchanged(final Map<Bytes, Optional<Bytes>> loaded, final long loadGeneration) {
+    final Lock lock = updateLock.readLock();
+    lock.lock();
+    try {
+      // a commit since the load may have changed the loaded values
+      if (generation == loadGeneration) {
+        cache.putAll(loaded);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void update(final Runnable cacheUpdate) {
+    final Lock lock = updateLock.writeLock();
+    lock.lock();
+    try {
+      generation++;
+      cacheUpdate.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static Bytes storageKey(final Hash accountHash, final Hash slotHash) {
+    return Bytes.concatenate(accountHash, slotHash);
+  }
+
+  private static void registerMetrics(
+      final MetricsSystem metricsSystem,
+      final String valueType,
+      final LongAdder hits,
+      final LongAdder misses) {
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "bonsai_flat_state_cache_" + valueType + "_hits",
+        "Number of " + valueType + " reads served from the Bonsai flat state cache",
+        hits::sum);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "bonsai_flat_state_cache_" + valueType + "_misses",
+        "Number of " + valueType + " reads of the Bonsai flat state cache read from storage",
+        misses::sum);
+  }
+
+  public static class CachingUpdater extends BonsaiWorldStateKeyValueStorage.Updater {
+
+    private final BonsaiCachedWorldStateKeyValueStorage storage;
+    private final Map<Bytes, Optional<Bytes>> writes = new HashMap<>();
+
+    public CachingUpdater(
+        final BonsaiCachedWorldStateKeyValueStorage storage,
+        final KeyValueStorageTransaction accountStorageTransaction,
+        final KeyValueStorageTransaction codeStorageTransaction,
+        final KeyValueStorageTransaction storageStorageTransaction,
+        final KeyValueStorageTransaction trieBranchStorageTransaction,
+        final KeyValueStorageTransaction trieLogStorageTransaction) {
+      super(
+          accountStorageTransaction,
+          codeStorageTransaction,
+          storageStorageTransaction,
+          trieBranchStorageTransaction,
+          trieLogStorageTransaction);
+      this.storage = storage;
+    }
+
+    @Override
+    public BonsaiWorldStateKeyValueStorage.Updater removeAccountInfoState(final Hash accountHash) {
+      writes.put(accountHash, Optional.empty());
+      return super.removeAccountInfoState(accountHash);
+    }
+
+    @Override
+    public BonsaiWorldStateKeyValueStorage.Updater putAccountInfoState(
+        final Hash accountHash, final Bytes accountValue) {
+      if (accountValue.size() > 0) {
+        writes.put(accountHash, Optional.of(accountValue));
+      }
+      return super.putAccountInfoState(accountHash, accountValue);
+    }
+
+    @Override
+    public BonsaiWorldStateKeyValueStorage.Updater putStorageValueBySlotHash(
+        final Hash accountHash, final Hash slotHash, final Bytes storageValue) {
+      writes.put(storageKey(accountHash, slotHash), Optional.of(storageValue));
+      return super.putStorageValueBySlotHash(accountHash, slotHash, storageValue);
+    }
+
+    @Override
+    public void removeStorageValueBySlotHash(final Hash accountHash, final Hash slotHash) {
+      writes.put(storageKey(accountHash, slotHash), Optional.empty());
+      super.removeStorageValueBySlotHash(accountHash, slotHash);
+    }
+
+    @Override
+    public void commit() {
+      super.commit();
+      storage.update(() -> storage.cache.putAll(writes));
+      writes.clear();
+    }
+
+    @Override
+    public void rollback() {
+      writes.clear();
+      super.rollback();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * The layered world states of recent blocks, bounded by their distance to the chain head and by
+ * the estimated size of their trie logs. Safe for use by the import thread and RPC threads alike.
+ */
+class BonsaiLayeredWorldStateCache {
+
+  private final long retainedLayers;
+  private final long maxRetainedBytes;
+  private final Map<Bytes32, CachedLayer> layersByBlockHash = new ConcurrentHashMap<>();
+  private final AtomicLong retainedBytes = new AtomicLong();
+
+  BonsaiLayeredWorldStateCache(
+      final long retainedLayers, final long maxRetainedBytes, final MetricsSystem metricsSystem) {
+    this.retainedLayers = retainedLayers;
+    this.maxRetainedBytes = maxRetainedBytes;
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "bonsai_layered_world_states",
+        "Number of Bonsai layered world states held in memory",
+        layersByBlockHash::size);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "bonsai_layered_world_states_retained_bytes",
+        "Estimated heap retained by the Bonsai layered world states held in memory",
+        retainedBytes::get);
+  }
+
+  Optional<BonsaiLayeredWorldState> get(final Bytes32 blockHash) {
+    return Optional.ofNullable(layersByBlockHash.get(blockHash)).map(cached -> cached.layer);
+  }
+
+  boolean contains(final Bytes32 blockHash) {
+    return layersByBlockHash.containsKey(blockHash);
+  }
+
+  void put(final BonsaiLayeredWorldState layer) {
+    final CachedLayer cached = new CachedLayer(layer, layer.getTrieLog().estimateSize());
+    final CachedLayer previous = layersByBlockHash.put(layer.blockHash(), cached);
+    retainedBytes.addAndGet(cached.size - (previous == null ? 0 : previous.size));
+    if (retainedBytes.get() > maxRetainedBytes) {
+      evictLowestLayers();
+    }
+  }
+
+  /**
+   * Evicts the layers which are further than the retained number of layers from the new chain
+   * head.
+   *
+   * @param chainHeadHeight the height of the new chain head
+   */
+  void scrub(final long chainHeadHeight) {
+    final long waterline = chainHeadHeight - retainedLayers;
+    layersByBlockHash.forEach(
+        (blockHash, cached) -> {
+          if (cached.layer.getHeight() < waterline) {
+            remove(blockHash, cached);
+          }
+        });
+  }
+
+  @VisibleForTesting
+  int size() {
+    return layersByBlockHash.size();
+  }
+
+  @VisibleForTesting
+  long getRetainedBytes() {
+    return retainedBytes.get();
+  }
+
+  private synchronized void evictLowestLayers() {
+    // layers only reference the layers above them, so the lowest ones can be dropped first
+    final List<Map.Entry<Bytes32, CachedLayer>> byHeight =
+        layersByBlockHash.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> entry.getValue().layer.getHeight()))
+            .collect(Collectors.toList());
+    for (final Map.Entry<Bytes32, CachedLayer> entry : byHeight) {
+      if (retainedBytes.get() <= maxRetainedBytes) {
+        return;
+      }
+      remove(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void remove(final Bytes32 blockHash, final CachedLayer cached) {
+    if (layersByBlockHash.remove(blockHash, cached)) {
+      retainedBytes.addAndGet(-cached.size);
+    }
+  }
+
+  private static class CachedLayer {
+    private final BonsaiLayeredWorldState layer;
+    private final long size;
+
+    private CachedLayer(final BonsaiLayeredWorldState layer, final long size) {
+      this.layer = layer;
+      this.size = size;
+    }
+  }
+}
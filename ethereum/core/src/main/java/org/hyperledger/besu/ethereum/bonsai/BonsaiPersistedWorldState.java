@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
@@ -32,9 +33,11 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 
@@ -55,6 +58,7 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
 
   private Hash worldStateRootHash;
   private Hash worldStateBlockHash;
+  private Optional<BonsaiPrefetcher> prefetcher = Optional.empty();
 
   public BonsaiPersistedWorldState(
       final BonsaiWorldStateArchive archive,
@@ -85,14 +89,36 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
             worldStateStorage.trieLogStorage));
   }
 
+  void setPrefetcher(final BonsaiPrefetcher prefetcher) {
+    this.prefetcher = Optional.of(prefetcher);
+  }
+
+  /**
+   * Starts reading the state likely to be touched by a block about to be processed over this world
+   * state, if prefetching is enabled.
+   *
+   * @param blockHeader the header of the block
+   * @param transactions the transactions of the block
+   */
+  @Override
+  public void prefetch(final BlockHeader blockHeader, final List<Transaction> transactions) {
+    prefetcher.ifPresent(p -> p.prefetch(blockHeader, transactions));
+  }
+
   @Override
   public Optional<Bytes> getCode(@Nonnull final Address address) {
-    return worldStateStorage.getCode(null, Hash.hash(address));
+    final Supplier<Optional<Bytes>> loader =
+        () -> worldStateStorage.getCode(null, Hash.hash(address));
+    return prefetcher.map(p -> p.getCode(address, loader)).orElseGet(loader);
   }
 
   public void setArchiveStateUnSafe(final BlockHeader blockHeader) {
     worldStateBlockHash = blockHeader.getHash();
     worldStateRootHash = blockHeader.getStateRoot();
+    // the state was written through another storage, such as by a sync, so nothing read ahead or
+    // cached is valid anymore
+    worldStateStorage.clearCache();
+    prefetcher.ifPresent(p -> p.onPersisted(Map.of()));
   }
 
   public BonsaiWorldStateKeyValueStorage getWorldStateStorage() {
@@ -281,6 +307,7 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
     } finally {
       if (success) {
         stateUpdater.commit();
+        prefetcher.ifPresent(p -> p.onPersisted(updater.getStorageToUpdate()));
         updater.reset();
       } else {
         stateUpdater.rollback();
@@ -299,6 +326,11 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
     return updater;
   }
 
+  @Override
+  public void discardPendingChanges() {
+    updater.reset();
+  }
+
   @Override
   public Hash rootHash() {
     return Hash.wrap(worldStateRootHash);
@@ -345,8 +377,10 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
 
   @Override
   public Account get(final Address address) {
-    return worldStateStorage
-        .getAccount(Hash.hash(address))
+    final Supplier<Optional<Bytes>> loader = () -> worldStateStorage.getAccount(Hash.hash(address));
+    return prefetcher
+        .map(p -> p.getAccount(address, loader))
+        .orElseGet(loader)
         .map(bytes -> fromRLP(updater, address, bytes, true))
         .orElse(null);
   }
@@ -386,8 +420,11 @@ public class BonsaiPersistedWorldState implements MutableWorldState, BonsaiWorld
 
   @Override
   public Optional<UInt256> getStorageValueBySlotHash(final Address address, final Hash slotHash) {
-    return worldStateStorage
-        .getStorageValueBySlotHash(Hash.hash(address), slotHash)
+    final Supplier<Optional<Bytes>> loader =
+        () -> worldStateStorage.getStorageValueBySlotHash(Hash.hash(address), slotHash);
+    return prefetcher
+        .map(p -> p.getStorageValueBySlotHash(address, slotHash, loader))
+        .orElseGet(loader)
         .map(UInt256::fromBytes);
   }
 
@@ -0,0 +1,306 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import org.hyperledger.besu.ethereum.core.AccessListEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Reads the flat state a block is likely to touch ahead of its execution.
+ *
+ * <p>When a block starts processing, the accounts of its coinbase, senders, recipients and access
+ * list entries are read in batches on a separate pool of threads, followed by the code of those
+ * which are contracts and by the storage slots of the access lists and of the slots written by the
+ * previous block. Execution reads values which were already fetched from memory instead of the
+ * storage.
+ *
+ * <p>Fetched values are only valid for the persisted state they were read from. The whole set of
+ * fetched values is therefore replaced whenever the persisted state changes, before any further
+ * block is processed, and the reads still queued for the previous state are cancelled.
+ *
+ * <p>Reads run on a bounded queue. When execution outpaces prefetching and the queue is full, new
+ * reads are dropped and the values are read from storage during execution as they would be without
+ * prefetching.
+ */
+public class BonsaiPrefetcher implements AutoCloseable {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final int BATCH_SIZE = 128;
+  private static final int MAX_PREVIOUS_BLOCK_SLOTS = 16_384;
+  private static final int MAX_QUEUED_READS = 1024;
+
+  private final BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private final ExecutorService executor;
+  private final Counter prefetchedValuesCounter;
+  private final Counter prefetchHitsCounter;
+
+  private volatile Prefetched prefetched = new Prefetched();
+  private volatile BlockPrefetch currentBlock = BlockPrefetch.NONE;
+  private volatile Map<Address, Collection<Hash>> previousBlockSlots = Map.of();
+
+  public BonsaiPrefetcher(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final int threads,
+      final MetricsSystem metricsSystem) {
+    this(
+        worldStateStorage,
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_READS),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(BonsaiPrefetcher.class.getSimpleName() + "-%d")
+                .build(),
+            new ThreadPoolExecutor.DiscardPolicy()),
+        metricsSystem);
+  }
+
+  @VisibleForTesting
+  BonsaiPrefetcher(
+      final BonsaiWorldStateKeyValueStorage worldStateStorage,
+      final ExecutorService executor,
+      final MetricsSystem metricsSystem) {
+    this.worldStateStorage = worldStateStorage;
+    this.executor = executor;
+    this.prefetchedValuesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_prefetched_values_total",
+            "Number of accounts, code and storage values read ahead of block execution");
+    this.prefetchHitsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "bonsai_prefetch_hits_total",
+            "Number of reads during block execution served by values read ahead");
+  }
+
+  /**
+   * Starts reading the state likely to be touched by a block. Returns without waiting for any
+   * read to complete.
+   *
+   * @param blockHeader the header of the block about to be processed
+   * @param transactions the transactions of the block
+   */
+  public void prefetch(final BlockHeader blockHeader, final List<Transaction> transactions) {
+    // Reads still queued for the previous block are of no use to this one
+    currentBlock.cancel();
+    final BlockPrefetch block = new BlockPrefetch(executor, prefetched);
+    currentBlock = block;
+    final Map<Address, Collection<Hash>> slots = previousBlockSlots;
+    block.submit(() -> prefetch(block, blockHeader, transactions, slots));
+  }
+
+  /**
+   * Discards all the values read so far, as the persisted state has changed.
+   *
+   * @param writtenSlots the storage slots written by the change, fetched again for the next block
+   */
+  void onPersisted(final Map<Address, ? extends Map<Hash, ?>> writtenSlots) {
+    currentBlock.cancel();
+    currentBlock = BlockPrefetch.NONE;
+    prefetched = new Prefetched();
+    final Map<Address, Collection<Hash>> slots = new LinkedHashMap<>();
+    int slotCount = 0;
+    for (final Map.Entry<Address, ? extends Map<Hash, ?>> accountSlots : writtenSlots.entrySet()) {
+      if (slotCount >= MAX_PREVIOUS_BLOCK_SLOTS) {
+        break;
+      }
+      final List<Hash> slotHashes = new ArrayList<>(accountSlots.getValue().keySet());
+      slots.put(accountSlots.getKey(), slotHashes);
+      slotCount += slotHashes.size();
+    }
+    previousBlockSlots = slots;
+  }
+
+  Optional<Bytes> getAccount(final Address address, final Supplier<Optional<Bytes>> loader) {
+    return getOrLoad(prefetched.accounts.get(address), loader);
+  }
+
+  Optional<Bytes> getCode(final Address address, final Supplier<Optional<Bytes>> loader) {
+    return getOrLoad(prefetched.codes.get(address), loader);
+  }
+
+  Optional<Bytes> getStorageValueBySlotHash(
+      final Address address, final Hash slotHash, final Supplier<Optional<Bytes>> loader) {
+    final Map<Hash, Optional<Bytes>> accountSlots = prefetched.storage.get(address);
+    return getOrLoad(accountSlots == null ? null : accountSlots.get(slotHash), loader);
+  }
+
+  private Optional<Bytes> getOrLoad(
+      final Optional<Bytes> prefetchedValue, final Supplier<Optional<Bytes>> loader) {
+    if (prefetchedValue == null) {
+      return loader.get();
+    }
+    prefetchHitsCounter.inc();
+    return prefetchedValue;
+  }
+
+  /** Cancels the outstanding reads and stops the threads reading ahead. */
+  @Override
+  public void close() {
+    currentBlock.cancel();
+    executor.shutdownNow();
+  }
+
+  private void prefetch(
+      final BlockPrefetch block,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Map<Address, Collection<Hash>> previousSlots) {
+    final Set<Address> addresses = new LinkedHashSet<>();
+    final Map<Address, Set<Hash>> slots = new LinkedHashMap<>();
+    addresses.add(blockHeader.getCoinbase());
+    for (final Transaction transaction : transactions) {
+      try {
+        addresses.add(transaction.getSender());
+      } catch (final RuntimeException e) {
+        // an invalid signature fails the block during execution, nothing to prefetch for it
+        LOG.trace("Unable to recover sender of transaction {}", transaction.getHash(), e);
+      }
+      transaction.getTo().ifPresent(addresses::add);
+      for (final AccessListEntry entry : transaction.getAccessList().orElse(List.of())) {
+        addresses.add(entry.getAddress());
+        final Set<Hash> accountSlots =
+            slots.computeIfAbsent(entry.getAddress(), address -> new LinkedHashSet<>());
+        entry.getStorageKeys().forEach(storageKey -> accountSlots.add(Hash.hash(storageKey)));
+      }
+    }
+    previousSlots.forEach(
+        (address, slotHashes) -> {
+          addresses.add(address);
+          slots.computeIfAbsent(address, a -> new LinkedHashSet<>()).addAll(slotHashes);
+        });
+
+    for (final List<Address> batch : Lists.partition(new ArrayList<>(addresses), BATCH_SIZE)) {
+      block.submit(() -> prefetchAccounts(block.target, batch));
+    }
+    slots.forEach(
+        (address, accountSlots) ->
+            Lists.partition(new ArrayList<>(accountSlots), BATCH_SIZE)
+                .forEach(
+                    batch -> block.submit(() -> prefetchStorage(block.target, address, batch))));
+  }
+
+  private void prefetchAccounts(final Prefetched target, final List<Address> addresses) {
+    final List<Optional<Bytes>> accounts =
+        worldStateStorage.getAccounts(Lists.transform(addresses, Hash::hash));
+    final List<Address> contracts = new ArrayList<>();
+    for (int i = 0; i < addresses.size(); i++) {
+      final Optional<Bytes> account = accounts.get(i);
+      target.accounts.putIfAbsent(addresses.get(i), account);
+      if (account.map(BonsaiPrefetcher::hasCode).orElse(false)) {
+        contracts.add(addresses.get(i));
+      }
+    }
+    prefetchedValuesCounter.inc(addresses.size());
+
+    if (!contracts.isEmpty()) {
+      final List<Optional<Bytes>> codes =
+          worldStateStorage.getCodes(Lists.transform(contracts, Hash::hash));
+      for (int i = 0; i < contracts.size(); i++) {
+        target.codes.putIfAbsent(contracts.get(i), codes.get(i));
+      }
+      prefetchedValuesCounter.inc(contracts.size());
+    }
+  }
+
+  private static boolean hasCode(final Bytes account) {
+    return !StateTrieAccountValue.readFrom(RLP.input(account)).getCodeHash().equals(Hash.EMPTY);
+  }
+
+  private void prefetchStorage(
+      final Prefetched target, final Address address, final List<Hash> slotHashes) {
+    final List<Optional<Bytes>> values =
+        worldStateStorage.getStorageValuesBySlotHash(Hash.hash(address), slotHashes);
+    final Map<Hash, Optional<Bytes>> accountSlots =
+        target.storage.computeIfAbsent(address, a -> new ConcurrentHashMap<>());
+    for (int i = 0; i < slotHashes.size(); i++) {
+      accountSlots.putIfAbsent(slotHashes.get(i), values.get(i));
+    }
+    prefetchedValuesCounter.inc(slotHashes.size());
+  }
+
+  /** The reads submitted for one block, so they can be cancelled once the block is done with. */
+  private static class BlockPrefetch {
+    private static final BlockPrefetch NONE = new BlockPrefetch(null, new Prefetched());
+
+    private final ExecutorService executor;
+    private final Prefetched target;
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private boolean cancelled = false;
+
+    private BlockPrefetch(final ExecutorService executor, final Prefetched target) {
+      this.executor = executor;
+      this.target = target;
+    }
+
+    synchronized void submit(final Runnable task) {
+      if (!cancelled) {
+        tasks.add(executor.submit(task));
+      }
+    }
+
+    synchronized void cancel() {
+      cancelled = true;
+      // Don't interrupt reads in progress, the storage doesn't expect to be interrupted
+      tasks.forEach(task -> task.cancel(false));
+      tasks.clear();
+      if (executor instanceof ThreadPoolExecutor) {
+        ((ThreadPoolExecutor) executor).purge();
+      }
+    }
+  }
+
+  private static class Prefetched {
+    private final Map<Address, Optional<Bytes>> accounts = new ConcurrentHashMap<>();
+    private final Map<Address, Optional<Bytes>> codes = new ConcurrentHashMap<>();
+    private final Map<Address, Map<Hash, Optional<Bytes>>> storage = new ConcurrentHashMap<>();
+  }
+}
@@ -24,66 +24,112 @@ import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
 public class BonsaiWorldStateArchive implements WorldStateArchive {
 
   private static final Logger LOG = LogManager.getLogger();
 
-  private static final long RETAINED_LAYERS = 512; // at least 256 + typical rollbacks
-
   private final Blockchain blockchain;
 
   private final BonsaiPersistedWorldState persistedState;
-  private final Map<Bytes32, BonsaiLayeredWorldState> layeredWorldStatesByHash;
+  private final BonsaiLayeredWorldStateCache layeredWorldStates;
   private final BonsaiWorldStateKeyValueStorage worldStateStorage;
   private final long maxLayersToLoad;
+  private final Optional<BonsaiPrefetcher> prefetcher;
 
   public BonsaiWorldStateArchive(final StorageProvider provider, final Blockchain blockchain) {
-    this(provider, blockchain, RETAINED_LAYERS);
+    this(provider, blockchain, DataStorageConfiguration.DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD);
   }
 
   public BonsaiWorldStateArchive(
       final StorageProvider provider, final Blockchain blockchain, final long maxLayersToLoad) {
+    this(
+        provider,
+        blockchain,
+        maxLayersToLoad,
+        DataStorageConfiguration.DEFAULT_BONSAI_RETAINED_LAYERS,
+        DataStorageConfiguration.DEFAULT_BONSAI_MAX_RETAINED_LAYER_BYTES,
+        new NoOpMetricsSystem());
+  }
+
+  public BonsaiWorldStateArchive(
+      final StorageProvider provider,
+      final Blockchain blockchain,
+      final long maxLayersToLoad,
+      final long retainedLayers,
+      final long maxRetainedLayerBytes,
+      final MetricsSystem metricsSystem) {
+    this(
+        provider,
+        blockchain,
+        maxLayersToLoad,
+        retainedLayers,
+        maxRetainedLayerBytes,
+        0,
+        0,
+        metricsSystem);
+  }
+
+  public BonsaiWorldStateArchive(
+      final StorageProvider provider,
+      final Blockchain blockchain,
+      final long maxLayersToLoad,
+      final long retainedLayers,
+      final long maxRetainedLayerBytes,
+      final int prefetchThreads,
+      final long flatStateCacheBytes,
+      final MetricsSystem metricsSystem) {
     this.blockchain = blockchain;
 
-    this.worldStateStorage = new BonsaiWorldStateKeyValueStorage(provider);
+    this.worldStateStorage =
+        flatStateCacheBytes > 0
+            ? new BonsaiCachedWorldStateKeyValueStorage(
+                provider, flatStateCacheBytes, metricsSystem)
+            : new BonsaiWorldStateKeyValueStorage(provider);
     this.persistedState = new BonsaiPersistedWorldState(this, worldStateStorage);
-    this.layeredWorldStatesByHash = new HashMap<>();
+    this.prefetcher =
+        prefetchThreads > 0
+            ? Optional.of(new BonsaiPrefetcher(worldStateStorage, prefetchThreads, metricsSystem))
+            : Optional.empty();
+    prefetcher.ifPresent(persistedState::setPrefetcher);
+    this.layeredWorldStates =
+        new BonsaiLayeredWorldStateCache(retainedLayers, maxRetainedLayerBytes, metricsSystem);
     this.maxLayersToLoad = maxLayersToLoad;
     blockchain.observeBlockAdded(
         event -> {
           if (event.isNewCanonicalHead()) {
             final BlockHeader eventBlockHeader = event.getBlock().getHeader();
-            layeredWorldStatesByHash.computeIfPresent(
-                eventBlockHeader.getParentHash(),
-                (hash, bonsaiLayeredWorldState) -> {
-                  if (layeredWorldStatesByHash.containsKey(eventBlockHeader.getHash())) {
-                    bonsaiLayeredWorldState.setNextWorldView(
-                        Optional.of(layeredWorldStatesByHash.get(eventBlockHeader.getHash())));
-                  }
-                  return bonsaiLayeredWorldState;
-                });
+            layeredWorldStates
+                .get(eventBlockHeader.getParentHash())
+                .ifPresent(
+                    parentLayer ->
+                        layeredWorldStates
+                            .get(eventBlockHeader.getHash())
+                            .ifPresent(
+                                layer -> parentLayer.setNextWorldView(Optional.of(layer))));
           }
         });
   }
 
   @Override
   public Optional<WorldState> get(final Hash rootHash, final Hash blockHash) {
-    if (layeredWorldStatesByHash.containsKey(blockHash)) {
-      return Optional.of(layeredWorldStatesByHash.get(blockHash));
+    final Optional<BonsaiLayeredWorldState> layeredWorldState = layeredWorldStates.get(blockHash);
+    if (layeredWorldState.isPresent()) {
+      return Optional.of(layeredWorldState.get());
     } else if (rootHash.equals(persistedState.blockHash())) {
       return Optional.of(persistedState);
     } else {
@@ -104,12 +150,13 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
             blockHeader.getNumber(),
             worldStateRootHash,
             trieLog);
-    layeredWorldStatesByHash.put(bonsaiLayeredWorldState.blockHash(), bonsaiLayeredWorldState);
+    layeredWorldStates.put(bonsaiLayeredWorldState);
   }
 
   public Optional<TrieLogLayer> getTrieLogLayer(final Hash blockHash) {
-    if (layeredWorldStatesByHash.containsKey(blockHash)) {
-      return Optional.of(layeredWorldStatesByHash.get(blockHash).getTrieLog());
+    final Optional<BonsaiLayeredWorldState> layeredWorldState = layeredWorldStates.get(blockHash);
+    if (layeredWorldState.isPresent()) {
+      return Optional.of(layeredWorldState.get().getTrieLog());
     } else {
       return worldStateStorage.getTrieLog(blockHash).map(TrieLogLayer::fromBytes);
     }
@@ -117,7 +164,7 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
 
   @Override
   public boolean isWorldStateAvailable(final Hash rootHash, final Hash blockHash) {
-    return layeredWorldStatesByHash.containsKey(blockHash)
+    return layeredWorldStates.contains(blockHash)
         || persistedState.blockHash().equals(blockHash)
         || worldStateStorage.isWorldStateAvailable(rootHash, blockHash);
   }
@@ -136,8 +183,10 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
   public Optional<MutableWorldState> getMutable(
       final Hash rootHash, final Hash blockHash, final boolean isPersistingState) {
     if (!isPersistingState) {
-      if (layeredWorldStatesByHash.containsKey(blockHash)) {
-        return Optional.of(layeredWorldStatesByHash.get(blockHash));
+      final Optional<BonsaiLayeredWorldState> layeredWorldState =
+          layeredWorldStates.get(blockHash);
+      if (layeredWorldState.isPresent()) {
+        return Optional.of(layeredWorldState.get());
       } else {
         final BlockHeader header = blockchain.getBlockHeader(blockHash).get();
         final BlockHeader currentHeader = blockchain.getChainHeadHeader();
@@ -232,6 +281,11 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
     return persistedState;
   }
 
+  @Override
+  public void close() {
+    prefetcher.ifPresent(BonsaiPrefetcher::close);
+  }
+
   @Override
   public void setArchiveStateUnSafe(final BlockHeader blockHeader) {
     persistedState.setArchiveStateUnSafe(blockHeader);
@@ -252,7 +306,11 @@ public class BonsaiWorldStateArchive implements WorldStateArchive {
   }
 
   void scrubLayeredCache(final long newMaxHeight) {
-    final long waterline = newMaxHeight - RETAINED_LAYERS;
-    layeredWorldStatesByHash.entrySet().removeIf(entry -> entry.getValue().getHeight() < waterline);
+    layeredWorldStates.scrub(newMaxHeight);
+  }
+
+  @VisibleForTesting
+  BonsaiLayeredWorldStateCache getLayeredWorldStates() {
+    return layeredWorldStates;
   }
 }
@@ -23,8 +23,10 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -72,10 +74,18 @@ public class BonsaiWorldStateKeyValueStorage implements WorldStateStorage {
     return codeStorage.get(accountHash.toArrayUnsafe()).map(Bytes::wrap);
   }
 
+  public List<Optional<Bytes>> getCodes(final List<Hash> accountHashes) {
+    return getAll(codeStorage, accountHashes);
+  }
+
   public Optional<Bytes> getAccount(final Hash accountHash) {
     return accountStorage.get(accountHash.toArrayUnsafe()).map(Bytes::wrap);
   }
 
+  public List<Optional<Bytes>> getAccounts(final List<Hash> accountHashes) {
+    return getAll(accountStorage, accountHashes);
+  }
+
   @Override
   public Optional<Bytes> getAccountTrieNodeData(final Bytes location, final Bytes32 hash) {
     // for Bonsai trie fast sync this method should return an empty
@@ -125,6 +135,24 @@ public class BonsaiWorldStateKeyValueStorage implements WorldStateStorage {
         .map(Bytes::wrap);
   }
 
+  public List<Optional<Bytes>> getStorageValuesBySlotHash(
+      final Hash accountHash, final List<Hash> slotHashes) {
+    return getAll(
+        storageStorage,
+        slotHashes.stream()
+            .map(slotHash -> Bytes.concatenate(accountHash, slotHash))
+            .collect(Collectors.toList()));
+  }
+
+  private static List<Optional<Bytes>> getAll(
+      final KeyValueStorage storage, final List<? extends Bytes> keys) {
+    return storage
+        .getAll(keys.stream().map(Bytes::toArrayUnsafe).collect(Collectors.toList()))
+        .stream()
+        .map(value -> value.map(Bytes::wrap))
+        .collect(Collectors.toList());
+  }
+
   @Override
   public Optional<Bytes> getNodeData(final Bytes location, final Bytes32 hash) {
     return Optional.empty();
@@ -150,6 +178,12 @@ public class BonsaiWorldStateKeyValueStorage implements WorldStateStorage {
         trieLogStorage.startTransaction());
   }
 
+  /**
+   * Discards any values cached in memory, after the state was changed through another storage
+   * instance. Nothing is cached by default.
+   */
+  public void clearCache() {}
+
   @Override
   public long prune(final Predicate<byte[]> inUseCheck) {
     throw new RuntimeException("Bonsai Tries do not work with pruning.");
@@ -47,6 +47,11 @@ import org.apache.tuweni.units.bigints.UInt256;
  */
 public class TrieLogLayer {
 
+  // rough heap footprint of a map entry, its key and the BonsaiValue holding the change
+  private static final long ENTRY_OVERHEAD = 96;
+  private static final long ACCOUNT_VALUE_SIZE = 160;
+  private static final long STORAGE_VALUE_SIZE = 64;
+
   private Hash blockHash;
   private final Map<Address, BonsaiValue<StateTrieAccountValue>> accounts;
   private final Map<Address, BonsaiValue<Bytes>> code;
@@ -232,6 +237,28 @@ public class TrieLogLayer {
     return storage.getOrDefault(address, Map.of()).entrySet().stream();
   }
 
+  /**
+   * Estimates the heap retained by this layer. Only meant for accounting of cached layers, not as
+   * an exact measurement.
+   *
+   * @return the estimated size of this layer in bytes
+   */
+  long estimateSize() {
+    long size = ENTRY_OVERHEAD;
+    size += accounts.size() * (ENTRY_OVERHEAD + 2 * ACCOUNT_VALUE_SIZE);
+    for (final BonsaiValue<Bytes> codeChange : code.values()) {
+      size += ENTRY_OVERHEAD + sizeOf(codeChange.getPrior()) + sizeOf(codeChange.getUpdated());
+    }
+    for (final Map<Hash, BonsaiValue<UInt256>> storageChanges : storage.values()) {
+      size += ENTRY_OVERHEAD + storageChanges.size() * (ENTRY_OVERHEAD + 2 * STORAGE_VALUE_SIZE);
+    }
+    return size;
+  }
+
+  private static long sizeOf(final Bytes bytes) {
+    return bytes == null ? 0 : bytes.size();
+  }
+
   private static <T> T nullOrValue(final RLPInput input, final Function<RLPInput, T> reader) {
     if (input.nextIsNull()) {
       input.skipNext();
@@ -22,10 +22,14 @@ import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
 
 /** An interface for reading data from the blockchain. */
 public interface Blockchain {
@@ -147,6 +151,45 @@ public interface Blockchain {
    */
   Optional<List<TransactionReceipt>> getTxReceipts(Hash blockHeaderHash);
 
+  /**
+   * Given a list of block hashes, returns the transaction receipts of each block, looked up in a
+   * single batch where the underlying storage supports it. Associated blocks are not necessarily
+   * on the canonical chain.
+   *
+   * @param blockHeaderHashes The header hashes of the blocks we're querying.
+   * @return The transaction receipts of each block, in the order of the given hashes.
+   */
+  default List<Optional<List<TransactionReceipt>>> getTxReceiptsForBlocks(
+      final List<Hash> blockHeaderHashes) {
+    return blockHeaderHashes.stream().map(this::getTxReceipts).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the RLP encoding of a block body, as sent to peers, read as stored where possible
+   * rather than decoded and encoded again. Associated block is not necessarily on the canonical
+   * chain.
+   *
+   * @param blockHeaderHash The header hash of the block we're querying.
+   * @return The RLP encoded block body corresponding to the target block.
+   */
+  default Optional<Bytes> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return getBlockBody(blockHeaderHash).map(body -> RLP.encode(body::writeTo));
+  }
+
+  /**
+   * Given a list of block hashes, returns the RLP encoded list of the transaction receipts of each
+   * block, as sent to peers, read as stored where possible rather than decoded and encoded again.
+   * Associated blocks are not necessarily on the canonical chain.
+   *
+   * @param blockHeaderHashes The header hashes of the blocks we're querying.
+   * @return The RLP encoded transaction receipts of each block, in the order of the given hashes.
+   */
+  default List<Optional<Bytes>> getTxReceiptsRlpForBlocks(final List<Hash> blockHeaderHashes) {
+    return getTxReceiptsForBlocks(blockHeaderHashes).stream()
+        .map(maybeReceipts -> maybeReceipts.map(BlockchainStorage::encodeReceiptsForPeers))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Retrieves the header hash of the block at the given height in the canonical chain.
    *
@@ -19,10 +19,14 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
 
 public interface BlockchainStorage {
 
@@ -36,6 +40,39 @@ public interface BlockchainStorage {
 
   Optional<List<TransactionReceipt>> getTransactionReceipts(Hash blockHash);
 
+  default List<Optional<List<TransactionReceipt>>> getTransactionReceiptsForBlocks(
+      final List<Hash> blockHashes) {
+    return blockHashes.stream().map(this::getTransactionReceipts).collect(Collectors.toList());
+  }
+
+  /**
+   * Retrieves the RLP encoding of a block body, as sent to peers, without decoding it when it is
+   * stored in that form.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP encoded body of the block
+   */
+  default Optional<Bytes> getBlockBodyRlp(final Hash blockHash) {
+    return getBlockBody(blockHash).map(body -> RLP.encode(body::writeTo));
+  }
+
+  /**
+   * Retrieves the RLP encoded list of the transaction receipts of each block, as sent to peers,
+   * without decoding them when they are stored in that form.
+   *
+   * @param blockHashes the hashes of the blocks
+   * @return the RLP encoded receipts of each block, in the order of the given hashes
+   */
+  default List<Optional<Bytes>> getTransactionReceiptsRlpForBlocks(final List<Hash> blockHashes) {
+    return getTransactionReceiptsForBlocks(blockHashes).stream()
+        .map(maybeReceipts -> maybeReceipts.map(BlockchainStorage::encodeReceiptsForPeers))
+        .collect(Collectors.toList());
+  }
+
+  static Bytes encodeReceiptsForPeers(final List<TransactionReceipt> receipts) {
+    return RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeTo));
+  }
+
   Optional<Hash> getBlockHash(long blockNumber);
 
   Optional<Difficulty> getTotalDifficulty(Hash blockHash);
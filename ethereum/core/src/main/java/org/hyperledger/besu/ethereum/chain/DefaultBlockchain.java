@@ -51,6 +51,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
 
 public class DefaultBlockchain implements MutableBlockchain {
   private static final Logger LOG = LogManager.getLogger();
@@ -201,6 +202,22 @@ public class DefaultBlockchain implements MutableBlockchain {
     return blockchainStorage.getTransactionReceipts(blockHeaderHash);
   }
 
+  @Override
+  public List<Optional<List<TransactionReceipt>>> getTxReceiptsForBlocks(
+      final List<Hash> blockHeaderHashes) {
+    return blockchainStorage.getTransactionReceiptsForBlocks(blockHeaderHashes);
+  }
+
+  @Override
+  public Optional<Bytes> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockBodyRlp(blockHeaderHash);
+  }
+
+  @Override
+  public List<Optional<Bytes>> getTxReceiptsRlpForBlocks(final List<Hash> blockHeaderHashes) {
+    return blockchainStorage.getTransactionReceiptsRlpForBlocks(blockHeaderHashes);
+  }
+
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
     return blockchainStorage.getBlockHash(number);
@@ -14,6 +14,8 @@
  */
 package org.hyperledger.besu.ethereum.core;
 
+import java.util.List;
+
 public interface MutableWorldState extends WorldState, MutableWorldView {
 
   /**
@@ -31,4 +33,19 @@ public interface MutableWorldState extends WorldState, MutableWorldView {
    *     `null` should be passed in.
    */
   void persist(BlockHeader blockHeader);
+
+  /**
+   * Hints that a block is about to be processed over this world state, so that implementations
+   * can start reading the state it is likely to touch. Does nothing by default.
+   *
+   * @param blockHeader the header of the block about to be processed
+   * @param transactions the transactions of the block
+   */
+  default void prefetch(final BlockHeader blockHeader, final List<Transaction> transactions) {}
+
+  /**
+   * Discards the changes committed through {@link #updater()} since the last {@link
+   * #persist(BlockHeader)}, after a block failed to process. Does nothing by default.
+   */
+  default void discardPendingChanges() {}
 }
@@ -14,10 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.mainnet;
 
-import org.hyperledger.besu.ethereum.bonsai.BonsaiPersistedWorldState;
-import org.hyperledger.besu.ethereum.bonsai.BonsaiWorldStateUpdater;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
-import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
@@ -35,6 +32,7 @@ import org.hyperledger.besu.plugin.data.TransactionType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import io.opentelemetry.api.OpenTelemetry;
@@ -133,6 +131,8 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
   protected final TransactionGasBudgetCalculator gasBudgetCalculator;
 
+  private Optional<SpeculativeTransactionExecutor> speculativeExecutor = Optional.empty();
+
   protected AbstractBlockProcessor(
       final MainnetTransactionProcessor transactionProcessor,
       final TransactionReceiptFactory transactionReceiptFactory,
@@ -148,6 +148,16 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     this.gasBudgetCalculator = gasBudgetCalculator;
   }
 
+  /**
+   * Executes the transactions of subsequently processed blocks speculatively in parallel where
+   * possible.
+   *
+   * @param speculativeExecutor the executor running the speculative executions
+   */
+  public void setSpeculativeExecutor(final SpeculativeTransactionExecutor speculativeExecutor) {
+    this.speculativeExecutor = Optional.of(speculativeExecutor);
+  }
+
   @Override
   public AbstractBlockProcessor.Result processBlock(
       final Blockchain blockchain,
@@ -159,42 +169,58 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     final Span globalProcessBlock =
         tracer.spanBuilder("processBlock").setSpanKind(Span.Kind.INTERNAL).startSpan();
     try {
+      worldState.prefetch(blockHeader, transactions);
       final List<TransactionReceipt> receipts = new ArrayList<>();
+      final Optional<SpeculativeTransactionExecutor.Execution> speculativeExecution =
+          speculativeExecutor
+              .filter(
+                  executor ->
+                      executor.canExecute(worldState, transactions, privateMetadataUpdater))
+              .map(
+                  executor ->
+                      executor.execute(
+                          blockchain,
+                          worldState,
+                          blockHeader,
+                          transactions,
+                          miningBeneficiaryCalculator.calculateBeneficiary(blockHeader),
+                          transactionProcessor));
       long currentGasUsed = 0;
-      for (final Transaction transaction : transactions) {
+      for (int i = 0; i < transactions.size(); i++) {
+        final Transaction transaction = transactions.get(i);
         if (!hasAvailableBlockBudget(blockHeader, transaction, currentGasUsed)) {
           return AbstractBlockProcessor.Result.failed();
         }
 
         final WorldUpdater worldStateUpdater = worldState.updater();
-        final BlockHashLookup blockHashLookup = new BlockHashLookup(blockHeader, blockchain);
-        final Address miningBeneficiary =
-            miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
-
+        final int transactionIndex = i;
         final TransactionProcessingResult result =
-            transactionProcessor.processTransaction(
-                blockchain,
-                worldStateUpdater,
-                blockHeader,
-                transaction,
-                miningBeneficiary,
-                OperationTracer.NO_TRACING,
-                blockHashLookup,
-                true,
-                TransactionValidationParams.processingBlock(),
-                privateMetadataUpdater);
+            speculativeExecution
+                .flatMap(execution -> execution.apply(transactionIndex, worldStateUpdater))
+                .orElseGet(
+                    () ->
+                        transactionProcessor.processTransaction(
+                            blockchain,
+                            worldStateUpdater,
+                            blockHeader,
+                            transaction,
+                            miningBeneficiaryCalculator.calculateBeneficiary(blockHeader),
+                            OperationTracer.NO_TRACING,
+                            new BlockHashLookup(blockHeader, blockchain),
+                            true,
+                            TransactionValidationParams.processingBlock(),
+                            privateMetadataUpdater));
         if (result.isInvalid()) {
           LOG.info(
               "Block processing error: transaction invalid '{}'. Block {} Transaction {}",
               result.getValidationResult().getInvalidReason(),
               blockHeader.getHash().toHexString(),
               transaction.getHash().toHexString());
-          if (worldState instanceof BonsaiPersistedWorldState) {
-            ((BonsaiWorldStateUpdater) worldStateUpdater).reset();
-          }
+          worldState.discardPendingChanges();
           return AbstractBlockProcessor.Result.failed();
         }
 
+        speculativeExecution.ifPresent(execution -> execution.recordCommit(worldStateUpdater));
         worldStateUpdater.commit();
 
         currentGasUsed += transaction.getGasLimit() - result.getGasRemaining();
@@ -207,9 +233,7 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
       if (!rewardCoinbase(worldState, blockHeader, ommers, skipZeroBlockRewards)) {
         // no need to log, rewardCoinbase logs the error.
-        if (worldState instanceof BonsaiPersistedWorldState) {
-          ((BonsaiWorldStateUpdater) worldState.updater()).reset();
-        }
+        worldState.discardPendingChanges();
         return AbstractBlockProcessor.Result.failed();
       }
 
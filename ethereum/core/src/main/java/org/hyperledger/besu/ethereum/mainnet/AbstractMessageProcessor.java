@@ -16,15 +16,20 @@ package org.hyperledger.besu.ethereum.mainnet;
 
 import org.hyperledger.besu.ethereum.core.Account;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.ModificationNotAllowedException;
+import org.hyperledger.besu.ethereum.vm.Code;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 import org.hyperledger.besu.ethereum.vm.OperationTracer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.apache.tuweni.bytes.Bytes;
+
 /**
  * A skeletal class for instantiating message processors.
  *
@@ -74,6 +79,18 @@ public abstract class AbstractMessageProcessor {
 
   protected abstract void start(MessageFrame frame, final OperationTracer operationTracer);
 
+  /**
+   * Gets the code to execute for an account, reusing the analysis of previous executions of the
+   * same code.
+   *
+   * @param codeHash The hash of the account code
+   * @param codeLoader Loads the account code if it isn't cached
+   * @return the code to execute
+   */
+  public Code getCodeFromEVM(final Hash codeHash, final Supplier<Bytes> codeLoader) {
+    return evm.getCode(codeHash, codeLoader);
+  }
+
   /**
    * Gets called when the message frame code executes successfully.
    *
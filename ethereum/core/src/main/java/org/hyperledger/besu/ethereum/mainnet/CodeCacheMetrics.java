@@ -0,0 +1,82 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.util.stream.Collectors.toList;
+
+import org.hyperledger.besu.ethereum.vm.CodeCache;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/** Exposes the combined statistics of the code caches of every EVM in a protocol schedule. */
+public class CodeCacheMetrics {
+
+  private CodeCacheMetrics() {}
+
+  public static void register(
+      final MetricsSystem metricsSystem, final ProtocolSchedule protocolSchedule) {
+    final List<CodeCache> codeCaches =
+        protocolSchedule
+            .streamMilestoneBlocks()
+            .map(protocolSchedule::getByBlockNumber)
+            .map(spec -> spec.getEvm().getCodeCache())
+            .distinct()
+            .collect(toList());
+
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_cache_hits",
+        "Number of contract code lookups served from the EVM code cache",
+        () -> sum(codeCaches, CodeCache::getHits));
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_cache_misses",
+        "Number of contract code lookups not found in the EVM code cache",
+        () -> sum(codeCaches, CodeCache::getMisses));
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_cache_hit_ratio",
+        "Ratio of contract code lookups served from the EVM code cache",
+        () -> {
+          final long hits = sum(codeCaches, CodeCache::getHits);
+          final long lookups = hits + sum(codeCaches, CodeCache::getMisses);
+          return lookups == 0 ? 0 : (double) hits / lookups;
+        });
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_cache_size",
+        "Number of contracts held in the EVM code cache",
+        () -> sum(codeCaches, CodeCache::size));
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_analysis_count",
+        "Number of times contract code has been analysed",
+        () -> sum(codeCaches, CodeCache::getAnalyses));
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        "evm_code_analysis_time_duration",
+        "Cumulative number of milliseconds spent analysing contract code",
+        () -> TimeUnit.NANOSECONDS.toMillis(sum(codeCaches, CodeCache::getAnalysisNanos)));
+  }
+
+  private static long sum(
+      final List<CodeCache> codeCaches, final ToLongFunction<CodeCache> statistic) {
+    return codeCaches.stream().mapToLong(statistic).sum();
+  }
+}
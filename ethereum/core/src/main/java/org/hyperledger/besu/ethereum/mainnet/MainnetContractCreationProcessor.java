@@ -137,7 +137,9 @@ public class MainnetContractCreationProcessor extends AbstractMessageProcessor {
 
   @Override
   protected void codeSuccess(final MessageFrame frame, final OperationTracer operationTracer) {
-    final Bytes contractCode = frame.getOutputData();
+    // RETURN leaves a view over the frame memory as output; the code outlives the frame, so it
+    // gets its own copy rather than pinning (and sharing) the whole memory buffer.
+    final Bytes contractCode = Bytes.wrap(frame.getOutputData().toArray());
 
     final Gas depositFee = gasCalculator.codeDepositGasCost(contractCode.size());
 
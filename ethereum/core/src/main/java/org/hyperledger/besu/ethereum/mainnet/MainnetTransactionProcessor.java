@@ -352,7 +352,13 @@ public class MainnetTransactionProcessor {
                 .contractAccountVersion(
                     maybeContract.map(AccountState::getVersion).orElse(Account.DEFAULT_VERSION))
                 .inputData(transaction.getPayload())
-                .code(new Code(maybeContract.map(AccountState::getCode).orElse(Bytes.EMPTY)))
+                .code(
+                    maybeContract
+                        .map(
+                            contract ->
+                                messageCallProcessor.getCodeFromEVM(
+                                    contract.getCodeHash(), contract::getCode))
+                        .orElse(new Code()))
                 .build();
       }
 
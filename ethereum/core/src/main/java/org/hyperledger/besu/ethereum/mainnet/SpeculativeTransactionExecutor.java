@@ -0,0 +1,218 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.privacy.storage.PrivateMetadataUpdater;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
+import org.hyperledger.besu.ethereum.worldstate.DefaultMutableWorldState;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes the transactions of a block optimistically in parallel.
+ *
+ * <p>Every transaction is first executed against the world state as it was at the start of the
+ * block, recording the accounts and storage slots it reads. The block processor then commits the
+ * transactions in order: an execution whose reads were not written by an earlier transaction of
+ * the block is replayed onto the world state as is, any other is discarded and the transaction is
+ * re-executed serially. The resulting state and receipts are therefore identical to serial
+ * execution.
+ *
+ * <p>No transaction is committed before all speculative executions have finished, so the world
+ * state is only ever read concurrently. Only the forest world state supports such reads; blocks
+ * processed over any other world state, or with private transactions, are executed serially.
+ */
+public class SpeculativeTransactionExecutor {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final ExecutorService executor;
+  private final Counter committedCounter;
+  private final Counter conflictedCounter;
+  private final Counter failedCounter;
+
+  public SpeculativeTransactionExecutor(
+      final ExecutorService executor, final MetricsSystem metricsSystem) {
+    this.executor = executor;
+    final LabelledMetric<Counter> transactionsCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "speculative_transactions_total",
+            "Number of transactions executed speculatively, by outcome of their in-order commit",
+            "result");
+    this.committedCounter = transactionsCounter.labels("committed");
+    this.conflictedCounter = transactionsCounter.labels("conflicted");
+    this.failedCounter = transactionsCounter.labels("failed");
+  }
+
+  /**
+   * Enables speculative execution on every block processor of the protocol schedule which
+   * supports it. The caller owns the executor of this instance and shuts it down once blocks are
+   * no longer processed.
+   *
+   * @param protocolSchedule the protocol schedule
+   */
+  public void enableOn(final ProtocolSchedule protocolSchedule) {
+    protocolSchedule
+        .streamMilestoneBlocks()
+        .map(protocolSchedule::getByBlockNumber)
+        .map(ProtocolSpec::getBlockProcessor)
+        .filter(AbstractBlockProcessor.class::isInstance)
+        .distinct()
+        .forEach(
+            blockProcessor ->
+                ((AbstractBlockProcessor) blockProcessor).setSpeculativeExecutor(this));
+  }
+
+  boolean canExecute(
+      final MutableWorldState worldState,
+      final List<Transaction> transactions,
+      final PrivateMetadataUpdater privateMetadataUpdater) {
+    return transactions.size() > 1
+        && privateMetadataUpdater == null
+        && worldState instanceof DefaultMutableWorldState;
+  }
+
+  /**
+   * Executes all the transactions of a block against the given world state, which must not be
+   * modified until this method returns.
+   */
+  Execution execute(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final MainnetTransactionProcessor transactionProcessor) {
+    final List<Callable<SpeculativeResult>> tasks = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      tasks.add(
+          () -> {
+            final SpeculativeWorldUpdater updater =
+                new SpeculativeWorldUpdater(
+                    worldState, miningBeneficiary, transaction.getSender());
+            final TransactionProcessingResult result =
+                transactionProcessor.processTransaction(
+                    blockchain,
+                    updater,
+                    blockHeader,
+                    transaction,
+                    miningBeneficiary,
+                    OperationTracer.NO_TRACING,
+                    new BlockHashLookup(blockHeader, blockchain),
+                    true,
+                    TransactionValidationParams.processingBlock(),
+                    null);
+            return result.isInvalid() ? null : new SpeculativeResult(updater, result);
+          });
+    }
+
+    final List<SpeculativeResult> results = new ArrayList<>(transactions.size());
+    try {
+      for (final Future<SpeculativeResult> future : executor.invokeAll(tasks)) {
+        results.add(getQuietly(future));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      results.clear();
+    }
+    return new Execution(results);
+  }
+
+  private static SpeculativeResult getQuietly(final Future<SpeculativeResult> future)
+      throws InterruptedException {
+    try {
+      return future.get();
+    } catch (final ExecutionException e) {
+      LOG.debug("Speculative transaction execution failed", e.getCause());
+      return null;
+    }
+  }
+
+  private static class SpeculativeResult {
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessingResult result;
+
+    private SpeculativeResult(
+        final SpeculativeWorldUpdater updater, final TransactionProcessingResult result) {
+      this.updater = updater;
+      this.result = result;
+    }
+  }
+
+  /** The speculative executions of the transactions of one block, committed in order. */
+  class Execution {
+    private final List<SpeculativeResult> results;
+    private final SpeculativeWorldUpdater.StateWrites writes =
+        new SpeculativeWorldUpdater.StateWrites();
+
+    private Execution(final List<SpeculativeResult> results) {
+      this.results = results;
+    }
+
+    /**
+     * Applies the speculative execution of a transaction to the given updater if nothing it read
+     * was written by the transactions committed before it.
+     *
+     * @param index the index of the transaction in the block
+     * @param worldUpdater a fresh updater over the world state
+     * @return the result of the transaction, or empty if it must be re-executed
+     */
+    Optional<TransactionProcessingResult> apply(final int index, final WorldUpdater worldUpdater) {
+      final SpeculativeResult speculative = index < results.size() ? results.get(index) : null;
+      if (speculative == null) {
+        failedCounter.inc();
+        return Optional.empty();
+      }
+      if (!speculative.updater.isValidAfter(writes)) {
+        conflictedCounter.inc();
+        return Optional.empty();
+      }
+      speculative.updater.applyTo(worldUpdater);
+      committedCounter.inc();
+      return Optional.of(speculative.result);
+    }
+
+    /**
+     * Records the updates of a transaction about to be committed, however it was executed.
+     *
+     * @param worldUpdater the updater holding the uncommitted updates of the transaction
+     */
+    void recordCommit(final WorldUpdater worldUpdater) {
+      writes.record(worldUpdater);
+    }
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.EvmAccount;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.UpdateTrackingAccount;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * A {@link WorldUpdater} executing a single transaction over a read-only view of the world state
+ * at the start of a block. Every account and storage slot read from that view is recorded, so the
+ * execution can be validated against the transactions committed before it and then replayed onto
+ * the real world state with {@link #applyTo(WorldUpdater)}.
+ *
+ * <p>The fee the transaction processor credits to the mining beneficiary reads and writes the
+ * beneficiary balance in every transaction, which would make any two transactions conflict. When
+ * that credit is the only access to the beneficiary it is not recorded as a read, and the credit is
+ * replayed as a balance increment rather than as an absolute balance.
+ */
+class SpeculativeWorldUpdater
+    extends AbstractWorldUpdater<SpeculativeWorldUpdater.ReadRecordingWorldView, Account> {
+
+  private final Address miningBeneficiary;
+  private final boolean deferBeneficiaryCredit;
+
+  SpeculativeWorldUpdater(
+      final WorldView world, final Address miningBeneficiary, final Address sender) {
+    super(new ReadRecordingWorldView(world, miningBeneficiary));
+    this.miningBeneficiary = miningBeneficiary;
+    this.deferBeneficiaryCredit = !miningBeneficiary.equals(sender);
+  }
+
+  @Override
+  protected Account getForMutation(final Address address) {
+    return wrappedWorldView().get(address);
+  }
+
+  @Override
+  public EvmAccount getAccount(final Address address) {
+    // Only the transaction processor itself accesses this updater directly, and the sole direct
+    // access to the beneficiary is the fee credit: the EVM goes through stacked child updaters.
+    if (!deferBeneficiaryCredit || !address.equals(miningBeneficiary)) {
+      return super.getAccount(address);
+    }
+    final ReadRecordingWorldView view = wrappedWorldView();
+    view.creditingBeneficiary = true;
+    try {
+      return super.getAccount(address);
+    } finally {
+      view.creditingBeneficiary = false;
+    }
+  }
+
+  @Override
+  public Collection<? extends Account> getTouchedAccounts() {
+    return new ArrayList<>(getUpdatedAccounts());
+  }
+
+  @Override
+  public Collection<Address> getDeletedAccountAddresses() {
+    return new ArrayList<>(getDeletedAccounts());
+  }
+
+  @Override
+  public void revert() {
+    reset();
+  }
+
+  @Override
+  public void commit() {
+    throw new UnsupportedOperationException(
+        "Speculative updates are applied to another updater once validated");
+  }
+
+  /**
+   * Whether the execution can be committed after transactions which wrote the given accounts and
+   * storage slots.
+   *
+   * @param writes the state written by the transactions committed so far in the block
+   * @return {@code true} if none of the state read by this execution was written
+   */
+  boolean isValidAfter(final StateWrites writes) {
+    final ReadRecordingWorldView view = wrappedWorldView();
+    final Account beneficiaryBeforeCredit = beneficiaryBeforeDeferredCredit();
+    if (beneficiaryBeforeCredit != null) {
+      // The credit can only be replayed as an increment if it left the beneficiary in place.
+      final UpdateTrackingAccount<Account> beneficiary = updatedBeneficiary();
+      if (beneficiary == null
+          || beneficiary.getBalance().compareTo(beneficiaryBeforeCredit.getBalance()) < 0) {
+        return false;
+      }
+    }
+    for (final Address address : view.accountReads) {
+      if (writes.accounts.contains(address)) {
+        return false;
+      }
+    }
+    for (final Address address : view.storageScans) {
+      if (writes.clearedStorage.contains(address) || writes.slots.containsKey(address)) {
+        return false;
+      }
+    }
+    for (final Map.Entry<Address, Set<UInt256>> entry : view.slotReads.entrySet()) {
+      final Address address = entry.getKey();
+      if (writes.clearedStorage.contains(address)) {
+        return false;
+      }
+      final Set<UInt256> writtenSlots = writes.slots.get(address);
+      if (writtenSlots != null && !Collections.disjoint(writtenSlots, entry.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Replays the updates made by the execution onto the given updater, mirroring what committing a
+   * stacked updater does.
+   *
+   * @param target the updater to apply the updates to
+   */
+  void applyTo(final WorldUpdater target) {
+    final Account beneficiaryBeforeCredit = beneficiaryBeforeDeferredCredit();
+    getDeletedAccounts().forEach(target::deleteAccount);
+    for (final UpdateTrackingAccount<Account> update : getUpdatedAccounts()) {
+      final Address address = update.getAddress();
+      if (beneficiaryBeforeCredit != null && address.equals(miningBeneficiary)) {
+        target
+            .getOrCreate(address)
+            .getMutable()
+            .incrementBalance(update.getBalance().subtract(beneficiaryBeforeCredit.getBalance()));
+        continue;
+      }
+      final MutableAccount account =
+          update.getWrappedAccount() == null
+              ? target.createAccount(address).getMutable()
+              : target.getAccount(address).getMutable();
+      account.setNonce(update.getNonce());
+      account.setBalance(update.getBalance());
+      if (update.codeWasUpdated()) {
+        account.setCode(update.getCode());
+        account.setVersion(update.getVersion());
+      }
+      if (update.getStorageWasCleared()) {
+        account.clearStorage();
+      }
+      update.getUpdatedStorage().forEach(account::setStorageValue);
+    }
+  }
+
+  private Account beneficiaryBeforeDeferredCredit() {
+    final ReadRecordingWorldView view = wrappedWorldView();
+    return view.accountReads.contains(miningBeneficiary) ? null : view.beneficiaryBeforeCredit;
+  }
+
+  private UpdateTrackingAccount<Account> updatedBeneficiary() {
+    for (final UpdateTrackingAccount<Account> update : getUpdatedAccounts()) {
+      if (update.getAddress().equals(miningBeneficiary)) {
+        return update;
+      }
+    }
+    return null;
+  }
+
+  /** The accounts and storage slots written by a sequence of committed transactions. */
+  static class StateWrites {
+    private final Set<Address> accounts = new HashSet<>();
+    private final Set<Address> clearedStorage = new HashSet<>();
+    private final Map<Address, Set<UInt256>> slots = new HashMap<>();
+
+    /**
+     * Records the state about to be committed by the given updater.
+     *
+     * @param updater an updater holding the uncommitted updates of a single transaction
+     */
+    void record(final WorldUpdater updater) {
+      for (final Address address : updater.getDeletedAccountAddresses()) {
+        accounts.add(address);
+        clearedStorage.add(address);
+      }
+      for (final Account touched : updater.getTouchedAccounts()) {
+        final Address address = touched.getAddress();
+        if (!(touched instanceof UpdateTrackingAccount)) {
+          accounts.add(address);
+          clearedStorage.add(address);
+          continue;
+        }
+        final UpdateTrackingAccount<?> update = (UpdateTrackingAccount<?>) touched;
+        final Account original = update.getWrappedAccount();
+        if (original == null
+            || update.getNonce() != original.getNonce()
+            || !update.getBalance().equals(original.getBalance())
+            || update.codeWasUpdated()) {
+          accounts.add(address);
+        }
+        if (original == null || update.getStorageWasCleared()) {
+          clearedStorage.add(address);
+        }
+        if (!update.getUpdatedStorage().isEmpty()) {
+          slots
+              .computeIfAbsent(address, __ -> new HashSet<>())
+              .addAll(update.getUpdatedStorage().keySet());
+        }
+      }
+    }
+  }
+
+  /** A read-only view recording the accounts and storage slots read through it. */
+  static class ReadRecordingWorldView implements WorldView {
+    private final WorldView world;
+    private final Address miningBeneficiary;
+
+    private final Set<Address> accountReads = new HashSet<>();
+    private final Map<Address, Set<UInt256>> slotReads = new HashMap<>();
+    private final Set<Address> storageScans = new HashSet<>();
+
+    private boolean creditingBeneficiary;
+    private Account beneficiaryBeforeCredit;
+
+    private ReadRecordingWorldView(final WorldView world, final Address miningBeneficiary) {
+      this.world = world;
+      this.miningBeneficiary = miningBeneficiary;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      final Account account = world.get(address);
+      if (creditingBeneficiary && account != null && address.equals(miningBeneficiary)) {
+        beneficiaryBeforeCredit = account;
+      } else {
+        accountReads.add(address);
+      }
+      return account == null ? null : new ReadRecordingAccount(account, this);
+    }
+
+    private void recordSlotRead(final Address address, final UInt256 key) {
+      slotReads.computeIfAbsent(address, __ -> new HashSet<>()).add(key);
+    }
+  }
+
+  /** Delegates to an account of the underlying view, recording the storage slots it reads. */
+  private static class ReadRecordingAccount implements Account {
+    private final Account account;
+    private final ReadRecordingWorldView view;
+
+    private ReadRecordingAccount(final Account account, final ReadRecordingWorldView view) {
+      this.account = account;
+      this.view = view;
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      return account.getAddressHash();
+    }
+
+    @Override
+    public long getNonce() {
+      return account.getNonce();
+    }
+
+    @Override
+    public Wei getBalance() {
+      return account.getBalance();
+    }
+
+    @Override
+    public Bytes getCode() {
+      return account.getCode();
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      return account.getCodeHash();
+    }
+
+    @Override
+    public boolean hasCode() {
+      return account.hasCode();
+    }
+
+    @Override
+    public int getVersion() {
+      return account.getVersion();
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      view.recordSlotRead(getAddress(), key);
+      return account.getStorageValue(key);
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      view.recordSlotRead(getAddress(), key);
+      return account.getOriginalStorageValue(key);
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      view.storageScans.add(getAddress());
+      return account.storageEntriesFrom(startKeyHash, limit);
+    }
+  }
+}
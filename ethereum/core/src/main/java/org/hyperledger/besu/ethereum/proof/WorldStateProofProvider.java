@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.trie.Proof;
 import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateTrieNodeCaches;
 
 import java.util.List;
 import java.util.NavigableMap;
@@ -36,9 +37,17 @@ import org.apache.tuweni.units.bigints.UInt256;
 public class WorldStateProofProvider {
 
   private final WorldStateStorage worldStateStorage;
+  private final Optional<WorldStateTrieNodeCaches> trieNodeCaches;
 
   public WorldStateProofProvider(final WorldStateStorage worldStateStorage) {
+    this(worldStateStorage, Optional.empty());
+  }
+
+  public WorldStateProofProvider(
+      final WorldStateStorage worldStateStorage,
+      final Optional<WorldStateTrieNodeCaches> trieNodeCaches) {
     this.worldStateStorage = worldStateStorage;
+    this.trieNodeCaches = trieNodeCaches;
   }
 
   public Optional<WorldStateProof> getAccountProof(
@@ -80,7 +89,11 @@ public class WorldStateProofProvider {
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        trieNodeCaches.map(WorldStateTrieNodeCaches::getAccountTrieNodeCache));
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStorageTrie(
@@ -90,6 +103,7 @@ public class WorldStateProofProvider {
             worldStateStorage.getAccountStorageTrieNode(accountHash, location, hash),
         rootHash,
         b -> b,
-        b -> b);
+        b -> b,
+        trieNodeCaches.map(WorldStateTrieNodeCaches::getStorageTrieNodeCache));
   }
 }
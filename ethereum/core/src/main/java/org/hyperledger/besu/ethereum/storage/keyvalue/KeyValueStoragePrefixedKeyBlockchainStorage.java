@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
@@ -30,6 +31,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.apache.tuweni.bytes.Bytes;
@@ -51,6 +53,8 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   private static final Bytes TOTAL_DIFFICULTY_PREFIX = Bytes.of(6);
   private static final Bytes TRANSACTION_LOCATION_PREFIX = Bytes.of(7);
 
+  private static final int RECEIPT_FIELDS_WITHOUT_REVERT_REASON = 4;
+
   private final KeyValueStorage storage;
   private final BlockHeaderFunctions blockHeaderFunctions;
 
@@ -89,6 +93,35 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
   }
 
+  @Override
+  public List<Optional<List<TransactionReceipt>>> getTransactionReceiptsForBlocks(
+      final List<Hash> blockHashes) {
+    final List<byte[]> keys =
+        blockHashes.stream()
+            .map(hash -> Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, hash).toArrayUnsafe())
+            .collect(Collectors.toList());
+    return storage.getAll(keys).stream()
+        .map(value -> value.map(Bytes::wrap).map(this::rlpDecodeTransactionReceipts))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<Bytes> getBlockBodyRlp(final Hash blockHash) {
+    // bodies are stored in the same encoding as they are sent to peers
+    return get(BLOCK_BODY_PREFIX, blockHash);
+  }
+
+  @Override
+  public List<Optional<Bytes>> getTransactionReceiptsRlpForBlocks(final List<Hash> blockHashes) {
+    final List<byte[]> keys =
+        blockHashes.stream()
+            .map(hash -> Bytes.concatenate(TRANSACTION_RECEIPTS_PREFIX, hash).toArrayUnsafe())
+            .collect(Collectors.toList());
+    return storage.getAll(keys).stream()
+        .map(value -> value.map(Bytes::wrap).map(this::stripRevertReasons))
+        .collect(Collectors.toList());
+  }
+
   @Override
   public Optional<Hash> getBlockHash(final long blockNumber) {
     return get(BLOCK_HASH_PREFIX, UInt256.valueOf(blockNumber).toBytes()).map(this::bytesToHash);
@@ -114,6 +147,22 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return RLP.input(bytes).readList(TransactionReceipt::readFrom);
   }
 
+  private Bytes stripRevertReasons(final Bytes receiptsRlp) {
+    // Receipts are stored with their revert reasons, which are not part of the receipts sent to
+    // peers, so only receipts without any can be sent as stored
+    final RLPInput input = RLP.input(receiptsRlp);
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      final RLPInput receipt =
+          input.nextIsList() ? input.readAsRlp() : RLP.input(input.readBytes().slice(1));
+      if (receipt.enterList() > RECEIPT_FIELDS_WITHOUT_REVERT_REASON) {
+        return BlockchainStorage.encodeReceiptsForPeers(
+            rlpDecodeTransactionReceipts(receiptsRlp));
+      }
+    }
+    return receiptsRlp;
+  }
+
   private Hash bytesToHash(final Bytes bytes) {
     return Hash.wrap(Bytes32.wrap(bytes, 0));
   }
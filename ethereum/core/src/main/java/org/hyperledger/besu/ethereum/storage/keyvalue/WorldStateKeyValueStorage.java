@@ -17,24 +17,36 @@ package org.hyperledger.besu.ethereum.storage.keyvalue;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.util.Subscribers;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
 public class WorldStateKeyValueStorage implements WorldStateStorage {
 
+  private static final int PRUNE_RANGE_SIZE = 10_000;
+  private static final int MAX_PRUNE_RANGES_IN_FLIGHT = 16;
+
   private final Subscribers<NodesAddedListener> nodeAddedListeners = Subscribers.create();
   private final KeyValueStorage keyValueStorage;
   private final ReentrantLock lock = new ReentrantLock();
@@ -87,6 +99,30 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     }
   }
 
+  @Override
+  public Optional<List<Optional<Bytes>>> getNodeDataByHashes(final List<Bytes32> hashes) {
+    final List<Optional<Bytes>> nodeData = new ArrayList<>(hashes.size());
+    final List<Integer> storedIndexes = new ArrayList<>(hashes.size());
+    final List<byte[]> storedKeys = new ArrayList<>(hashes.size());
+    for (final Bytes32 hash : hashes) {
+      if (hash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+        nodeData.add(Optional.of(MerklePatriciaTrie.EMPTY_TRIE_NODE));
+      } else if (hash.equals(Hash.EMPTY)) {
+        nodeData.add(Optional.of(Bytes.EMPTY));
+      } else {
+        nodeData.add(Optional.empty());
+        storedIndexes.add(nodeData.size() - 1);
+        storedKeys.add(hash.toArrayUnsafe());
+      }
+    }
+
+    final List<Optional<byte[]>> storedValues = keyValueStorage.getAll(storedKeys);
+    for (int i = 0; i < storedIndexes.size(); i++) {
+      nodeData.set(storedIndexes.get(i), storedValues.get(i).map(Bytes::wrap));
+    }
+    return Optional.of(nodeData);
+  }
+
   @Override
   public boolean isWorldStateAvailable(final Bytes32 rootHash, final Hash blockHash) {
     return getAccountStateTrieNode(Bytes.EMPTY, rootHash).isPresent();
@@ -97,26 +133,66 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     return new Updater(lock, keyValueStorage.startTransaction(), nodeAddedListeners);
   }
 
+  @Override
+  public Updater bulkLoadUpdater() {
+    return new Updater(lock, keyValueStorage.startBulkLoad(), nodeAddedListeners);
+  }
+
   @Override
   public long prune(final Predicate<byte[]> inUseCheck) {
+    return prune(inUseCheck, MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public long prune(final Predicate<byte[]> inUseCheck, final Executor executor) {
     final AtomicInteger prunedKeys = new AtomicInteger(0);
+    final Semaphore rangesInFlight = new Semaphore(MAX_PRUNE_RANGES_IN_FLIGHT);
+    final List<CompletableFuture<Void>> rangePrunes = new ArrayList<>();
     try (final Stream<byte[]> keys = keyValueStorage.streamKeys()) {
-      keys.forEach(
-          key -> {
-            lock.lock();
-            try {
-              if (!inUseCheck.test(key) && keyValueStorage.tryDelete(key)) {
-                prunedKeys.incrementAndGet();
-              }
-            } finally {
-              lock.unlock();
-            }
-          });
+      // Keys are streamed in order, so each batch is a contiguous range of the key space
+      final Iterator<byte[]> keyIterator = keys.iterator();
+      while (keyIterator.hasNext()) {
+        final List<byte[]> keyRange = new ArrayList<>(PRUNE_RANGE_SIZE);
+        while (keyIterator.hasNext() && keyRange.size() < PRUNE_RANGE_SIZE) {
+          keyRange.add(keyIterator.next());
+        }
+        rangesInFlight.acquireUninterruptibly();
+        rangePrunes.add(
+            CompletableFuture.runAsync(() -> pruneRange(keyRange, inUseCheck, prunedKeys), executor)
+                .whenComplete((result, error) -> rangesInFlight.release()));
+      }
     }
+    CompletableFuture.allOf(rangePrunes.toArray(CompletableFuture[]::new)).join();
 
     return prunedKeys.get();
   }
 
+  private void pruneRange(
+      final List<byte[]> keyRange,
+      final Predicate<byte[]> inUseCheck,
+      final AtomicInteger prunedKeys) {
+    for (final byte[] key : keyRange) {
+      // A node in use can't become unused while pruning so only unused nodes need the lock, which
+      // stops a commit re-adding the node between the check and the delete
+      if (inUseCheck.test(key)) {
+        continue;
+      }
+      lock.lock();
+      try {
+        if (!inUseCheck.test(key) && keyValueStorage.tryDelete(key)) {
+          prunedKeys.incrementAndGet();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public Optional<WorldStateStorage.Snapshot> takeSnapshot() {
+    return keyValueStorage.takeSnapshot().map(KeyValueStorageSnapshot::new);
+  }
+
   @Override
   public long addNodeAddedListener(final NodesAddedListener listener) {
     return nodeAddedListeners.subscribe(listener);
@@ -127,6 +203,31 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     nodeAddedListeners.unsubscribe(id);
   }
 
+  private static class KeyValueStorageSnapshot implements WorldStateStorage.Snapshot {
+
+    private final KeyValueStorage snapshot;
+    private final WorldStateKeyValueStorage worldStateStorage;
+
+    private KeyValueStorageSnapshot(final KeyValueStorage snapshot) {
+      this.snapshot = snapshot;
+      this.worldStateStorage = new WorldStateKeyValueStorage(snapshot);
+    }
+
+    @Override
+    public WorldStateStorage getWorldStateStorage() {
+      return worldStateStorage;
+    }
+
+    @Override
+    public void close() {
+      try {
+        snapshot.close();
+      } catch (final IOException e) {
+        throw new StorageException(e);
+      }
+    }
+  }
+
   public static class Updater implements WorldStateStorage.Updater {
 
     private final KeyValueStorageTransaction transaction;
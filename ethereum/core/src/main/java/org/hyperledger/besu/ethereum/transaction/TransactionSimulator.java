@@ -141,12 +141,26 @@ public class TransactionSimulator {
     if (header == null) {
       return Optional.empty();
     }
-    final MutableWorldState publicWorldState =
-        worldStateArchive.getMutable(header.getStateRoot(), header.getHash(), false).orElse(null);
+    // Simulate against a snapshot where the storage supports it, so a long running call isn't
+    // affected by blocks imported or nodes pruned meanwhile
+    return worldStateArchive.mapWorldState(
+        header.getStateRoot(),
+        header.getHash(),
+        publicWorldState ->
+            process(
+                callParams,
+                transactionValidationParams,
+                operationTracer,
+                header,
+                publicWorldState));
+  }
 
-    if (publicWorldState == null) {
-      return Optional.empty();
-    }
+  private TransactionSimulatorResult process(
+      final CallParameter callParams,
+      final TransactionValidationParams transactionValidationParams,
+      final OperationTracer operationTracer,
+      final BlockHeader header,
+      final MutableWorldState publicWorldState) {
     final WorldUpdater updater = getEffectiveWorldStateUpdater(header, publicWorldState);
 
     final Address senderAddress =
@@ -196,7 +210,7 @@ public class TransactionSimulator {
             transactionValidationParams,
             operationTracer);
 
-    return Optional.of(new TransactionSimulatorResult(transaction, result));
+    return new TransactionSimulatorResult(transaction, result);
   }
 
   // return combined private/public world state updater if GoQuorum mode, otherwise the public state
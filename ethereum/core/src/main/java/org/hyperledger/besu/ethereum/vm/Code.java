@@ -14,12 +14,12 @@
  */
 package org.hyperledger.besu.ethereum.vm;
 
-import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
-
-import java.util.BitSet;
+import static java.lang.Math.min;
 
 import com.google.common.base.MoreObjects;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
 /** Represents EVM code associated with an account. */
@@ -28,8 +28,8 @@ public class Code {
   /** The bytes representing the code. */
   private final Bytes bytes;
 
-  /** Used to cache valid jump destinations. */
-  private BitSet validJumpDestinations;
+  /** Used to cache the analysis of the code, including the valid jump destinations. */
+  private CodeAnalysis analysis;
 
   /**
    * Public constructor.
@@ -89,19 +89,44 @@ public class Code {
     final int jumpDestination = destination.intValue();
     if (jumpDestination >= getSize()) return false;
 
-    if (validJumpDestinations == null) {
-      // Calculate valid jump destinations
-      validJumpDestinations = new BitSet(getSize());
-      evm.forEachOperation(
-          this,
-          frame.getContractAccountVersion(),
-          (final Operation op, final Integer offset) -> {
-            if (op.getOpcode() == JumpDestOperation.OPCODE) {
-              validJumpDestinations.set(offset);
-            }
-          });
+    return getAnalysis(evm, frame.getContractAccountVersion()).isJumpDestination(jumpDestination);
+  }
+
+  /**
+   * Returns the immediate value of the PUSH operation at the given offset, right padded with zeros
+   * if the code ends before the immediate does.
+   *
+   * @param pc the offset of the PUSH operation
+   * @param length the number of immediate bytes of the PUSH operation
+   * @return the value to push onto the stack
+   */
+  public Bytes32 getPushValue(final int pc, final int length) {
+    final CodeAnalysis currentAnalysis = analysis;
+    if (currentAnalysis != null) {
+      final Bytes32 value = currentAnalysis.pushValueAt(pc);
+      if (value != null) {
+        return value;
+      }
     }
-    return validJumpDestinations.get(jumpDestination);
+    return decodePushValue(bytes, pc, length);
+  }
+
+  CodeAnalysis getAnalysis(final EVM evm, final int contractAccountVersion) {
+    // Instances may be shared between threads through the EVM code cache. CodeAnalysis is
+    // immutable, so racing threads at worst analyse the same code twice.
+    CodeAnalysis currentAnalysis = analysis;
+    if (currentAnalysis == null || !currentAnalysis.isFor(evm, contractAccountVersion)) {
+      currentAnalysis = evm.analyse(this, contractAccountVersion);
+      analysis = currentAnalysis;
+    }
+    return currentAnalysis;
+  }
+
+  static Bytes32 decodePushValue(final Bytes code, final int pc, final int length) {
+    final int copyLength = min(length, code.size() - pc - 1);
+    final MutableBytes32 value = MutableBytes32.create();
+    code.slice(pc + 1, copyLength).copyTo(value, value.size() - length);
+    return value;
   }
 
   public Bytes getBytes() {
@@ -0,0 +1,99 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import java.util.BitSet;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * The result of analysing {@link Code} for a given {@link EVM} and contract account version: the
+ * resolved operation at every instruction offset, the valid jump destinations, the decoded PUSH
+ * immediates and the basic blocks whose static gas can be charged up front.
+ *
+ * <p>A basic block is a maximal run of fixed cost operations which is only entered at its first
+ * operation: it starts at a JUMPDEST or after any other kind of operation, and ends with an
+ * operation that jumps or halts.
+ */
+final class CodeAnalysis {
+
+  private final EVM evm;
+  private final int contractAccountVersion;
+  private final Operation[] operations;
+  private final BitSet jumpDestinations;
+  private final Bytes32[] pushValues;
+  private final int[] blockGasCosts;
+  private final int[] blockEnds;
+
+  CodeAnalysis(
+      final EVM evm,
+      final int contractAccountVersion,
+      final Operation[] operations,
+      final BitSet jumpDestinations,
+      final Bytes32[] pushValues,
+      final int[] blockGasCosts,
+      final int[] blockEnds) {
+    this.evm = evm;
+    this.contractAccountVersion = contractAccountVersion;
+    this.operations = operations;
+    this.jumpDestinations = jumpDestinations;
+    this.pushValues = pushValues;
+    this.blockGasCosts = blockGasCosts;
+    this.blockEnds = blockEnds;
+  }
+
+  boolean isFor(final EVM evm, final int contractAccountVersion) {
+    return this.evm == evm && this.contractAccountVersion == contractAccountVersion;
+  }
+
+  /**
+   * Returns the operation starting at the given offset.
+   *
+   * @param offset the offset in the code
+   * @return the operation, or null if the offset is within the immediate data of a PUSH
+   */
+  Operation operationAt(final int offset) {
+    return operations[offset];
+  }
+
+  boolean isJumpDestination(final int offset) {
+    return jumpDestinations.get(offset);
+  }
+
+  Bytes32 pushValueAt(final int offset) {
+    return pushValues[offset];
+  }
+
+  /**
+   * Returns the summed static gas cost of the basic block starting at the given offset.
+   *
+   * @param offset the offset in the code
+   * @return the gas cost of the block, or zero if no chargeable block starts at the offset
+   */
+  int blockGasCostAt(final int offset) {
+    return blockGasCosts[offset];
+  }
+
+  /**
+   * Returns the offset just past the last operation of the basic block starting at the given
+   * offset.
+   *
+   * @param offset the offset of the start of the block
+   * @return the end offset (exclusive) of the block
+   */
+  int blockEndAt(final int offset) {
+    return blockEnds[offset];
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * A size bounded cache of {@link Code} keyed by code hash, so that contracts which are called
+ * repeatedly keep their analysis (resolved operations, jump destinations and PUSH immediates)
+ * between calls and transactions.
+ */
+public class CodeCache {
+
+  /**
+   * Estimated heap used by the analysis of each byte of code: a reference into the resolved
+   * operations and into the PUSH immediates, the block gas cost and block end entries, and the
+   * amortised share of the PUSH immediate values themselves.
+   */
+  static final int ANALYSIS_BYTES_PER_CODE_BYTE = 32;
+
+  /** Default bound on the estimated heap used by cached code together with its analysis. */
+  public static final long DEFAULT_MAX_CACHE_BYTES = 256L * 1024 * 1024;
+
+  private final Cache<Hash, Code> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder analyses = new LongAdder();
+  private final LongAdder analysisNanos = new LongAdder();
+
+  public CodeCache() {
+    this(DEFAULT_MAX_CACHE_BYTES);
+  }
+
+  public CodeCache(final long maxCacheBytes) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxCacheBytes)
+            .weigher((final Hash hash, final Code code) -> estimatedSize(code))
+            .build();
+  }
+
+  /**
+   * Estimates the heap used by the given code once analysed. The weight is fixed when the code is
+   * cached, which happens before the analysis is built, so it's derived from the code size.
+   *
+   * @param code the code to weigh
+   * @return the estimated size in bytes of the code and its analysis
+   */
+  static int estimatedSize(final Code code) {
+    return code.getSize() * (1 + ANALYSIS_BYTES_PER_CODE_BYTE);
+  }
+
+  /**
+   * Returns the cached {@link Code} for the given hash, creating and caching it if it isn't known.
+   *
+   * @param codeHash the hash of the code
+   * @param codeLoader loads the code, which must hash to {@code codeHash}; only called on a miss
+   * @return the (possibly already analysed) code
+   */
+  public Code getOrCreate(final Hash codeHash, final Supplier<Bytes> codeLoader) {
+    final Code cached = cache.getIfPresent(codeHash);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    final Code code = new Code(codeLoader.get());
+    cache.put(codeHash, code);
+    return code;
+  }
+
+  void recordAnalysis(final long nanos) {
+    analyses.increment();
+    analysisNanos.add(nanos);
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getAnalyses() {
+    return analyses.sum();
+  }
+
+  public long getAnalysisNanos() {
+    return analysisNanos.sum();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+import org.hyperledger.besu.ethereum.vm.internal.MemoryEntry;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -89,7 +90,9 @@ public class DebugOperationTracer implements OperationTracer {
             frame.getCurrentOperation().getStackItemsProduced(),
             stackPostExecution,
             currentOperation.isVirtualOperation(),
-            frame.getMaybeUpdatedMemory(),
+            frame
+                .getMaybeUpdatedMemory()
+                .map(entry -> new MemoryEntry(entry.getOffset(), entry.getValue().copy())),
             frame.getMaybeUpdatedStorage());
     traceFrames.add(lastFrame);
     frame.reset();
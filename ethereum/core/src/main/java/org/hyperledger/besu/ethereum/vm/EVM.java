@@ -17,20 +17,26 @@ package org.hyperledger.besu.ethereum.vm;
 import static org.apache.logging.log4j.LogManager.getLogger;
 
 import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
 import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
 import org.hyperledger.besu.ethereum.vm.MessageFrame.State;
 import org.hyperledger.besu.ethereum.vm.Operation.OperationResult;
+import org.hyperledger.besu.ethereum.vm.operations.AbstractFixedCostOperation;
 import org.hyperledger.besu.ethereum.vm.operations.InvalidOperation;
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
 import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
 import org.hyperledger.besu.ethereum.vm.operations.VirtualOperation;
 
+import java.util.BitSet;
 import java.util.Optional;
-import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class EVM {
   private static final Logger LOG = getLogger();
@@ -42,100 +48,246 @@ public class EVM {
       new OperationResult(
           Optional.empty(), Optional.of(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS));
 
+  private static final int STOP_OPCODE = 0x00;
+
   private final OperationRegistry operations;
   private final Operation endOfScriptStop;
+  private final CodeCache codeCache = new CodeCache();
 
   public EVM(final OperationRegistry operations, final GasCalculator gasCalculator) {
     this.operations = operations;
     this.endOfScriptStop = new VirtualOperation(new StopOperation(gasCalculator));
   }
 
+  /**
+   * Returns the code for an account, reusing a previously analysed instance if the same code has
+   * been executed before.
+   *
+   * @param codeHash the hash of the account code
+   * @param codeLoader loads the account code if it isn't cached
+   * @return the code to execute
+   */
+  public Code getCode(final Hash codeHash, final Supplier<Bytes> codeLoader) {
+    return codeCache.getOrCreate(codeHash, codeLoader);
+  }
+
+  public CodeCache getCodeCache() {
+    return codeCache;
+  }
+
+  /**
+   * Returns the operation registered for an opcode.
+   *
+   * @param opcode the opcode
+   * @param contractAccountVersion the account version of the executing contract
+   * @return the registered operation, or {@code null} if the opcode is not defined
+   */
+  public Operation getOperation(final int opcode, final int contractAccountVersion) {
+    return operations.get(opcode, contractAccountVersion);
+  }
+
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer) {
-    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
-      executeNextOperation(frame, operationTracer);
+    if (operationTracer == OperationTracer.NO_TRACING) {
+      // Nothing observes the individual steps, so skip the tracer callback (and the capturing
+      // lambda it needs) entirely and charge gas per basic block where possible.
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        if (!executePrechargedBlock(frame)) {
+          frame.setCurrentOperation(
+              operationAtOffset(frame.getCode(), frame.getContractAccountVersion(), frame.getPC()));
+          executeCurrentOperation(frame);
+        }
+      }
+    } else {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperation(frame, operationTracer);
+      }
     }
   }
 
-  void forEachOperation(
-      final Code code,
-      final int contractAccountVersion,
-      final BiConsumer<Operation, Integer> operationDelegate) {
-    int pc = 0;
-    final int length = code.getSize();
+  CodeAnalysis analyse(final Code code, final int contractAccountVersion) {
+    final long start = System.nanoTime();
+    final Bytes bytecode = code.getBytes();
+    final int length = bytecode.size();
+    final Operation[] codeOperations = new Operation[length];
+    final BitSet jumpDestinations = new BitSet(length);
+    final Bytes32[] pushValues = new Bytes32[length];
+    final int[] blockGasCosts = new int[length];
+    final int[] blockEnds = new int[length];
 
+    int blockStart = -1;
+    long blockGasCost = 0;
+    int pc = 0;
     while (pc < length) {
-      final Operation curOp = operationAtOffset(code, contractAccountVersion, pc);
-      operationDelegate.accept(curOp, pc);
-      pc += curOp.getOpSize();
+      final Operation operation = resolveOperation(bytecode.get(pc), contractAccountVersion);
+      codeOperations[pc] = operation;
+      final int opcode = operation.getOpcode();
+      if (opcode == JumpDestOperation.OPCODE) {
+        jumpDestinations.set(pc);
+        // Jumps land here, so the previous block can't extend past this point.
+        closeBlock(blockStart, blockGasCost, pc, blockGasCosts, blockEnds);
+        blockStart = -1;
+      } else if (opcode >= PushOperation.PUSH_BASE && opcode <= PushOperation.PUSH_MAX) {
+        pushValues[pc] = Code.decodePushValue(bytecode, pc, operation.getOpSize() - 1);
+      }
+
+      final int next = pc + operation.getOpSize();
+      if (operation instanceof AbstractFixedCostOperation
+          && ((AbstractFixedCostOperation) operation).canBePrecharged()) {
+        if (blockStart < 0) {
+          blockStart = pc;
+          blockGasCost = 0;
+        }
+        blockGasCost += ((AbstractFixedCostOperation) operation).getFixedCost().toLong();
+        if (operation.getUpdatesProgramCounter() || opcode == STOP_OPCODE) {
+          closeBlock(blockStart, blockGasCost, next, blockGasCosts, blockEnds);
+          blockStart = -1;
+        }
+      } else {
+        closeBlock(blockStart, blockGasCost, pc, blockGasCosts, blockEnds);
+        blockStart = -1;
+      }
+      pc = next;
+    }
+    closeBlock(blockStart, blockGasCost, Math.min(pc, length), blockGasCosts, blockEnds);
+
+    codeCache.recordAnalysis(System.nanoTime() - start);
+    return new CodeAnalysis(
+        this,
+        contractAccountVersion,
+        codeOperations,
+        jumpDestinations,
+        pushValues,
+        blockGasCosts,
+        blockEnds);
+  }
+
+  private static void closeBlock(
+      final int blockStart,
+      final long blockGasCost,
+      final int blockEnd,
+      final int[] blockGasCosts,
+      final int[] blockEnds) {
+    if (blockStart >= 0 && blockGasCost > 0 && blockGasCost <= Integer.MAX_VALUE) {
+      blockGasCosts[blockStart] = (int) blockGasCost;
+      blockEnds[blockStart] = blockEnd;
     }
   }
 
+  /**
+   * Executes the basic block starting at the current PC with its static gas charged once up front.
+   * If no block starts at the PC, or the frame can't pay for the whole block, the operations are
+   * left to be executed and charged one at a time, which halts at the exact out-of-gas point.
+   *
+   * <p>Charging early is unobservable: no operation in a block reads the remaining gas, and any
+   * exceptional halt part way through the block consumes all the remaining gas anyway.
+   *
+   * @param frame the frame being executed
+   * @return true if a block was executed
+   */
+  private boolean executePrechargedBlock(final MessageFrame frame) {
+    final Code code = frame.getCode();
+    int pc = frame.getPC();
+    if (pc >= code.getSize() || LOG.isTraceEnabled()) {
+      return false;
+    }
+    final CodeAnalysis analysis = code.getAnalysis(this, frame.getContractAccountVersion());
+    final int blockGasCost = analysis.blockGasCostAt(pc);
+    if (blockGasCost == 0 || frame.getRemainingGasAsLong() < blockGasCost) {
+      return false;
+    }
+
+    frame.decrementRemainingGas(blockGasCost);
+    final int blockEnd = analysis.blockEndAt(pc);
+    do {
+      final AbstractFixedCostOperation operation =
+          (AbstractFixedCostOperation) analysis.operationAt(pc);
+      frame.setCurrentOperation(operation);
+      final OperationResult result = operation.executePrecharged(frame, this);
+      frame.setGasCost(result.getGasCost());
+      final Optional<ExceptionalHaltReason> haltReason = result.getHaltReason();
+      if (haltReason.isPresent()) {
+        LOG.trace("MessageFrame evaluation halted because of {}", haltReason.get());
+        frame.setExceptionalHaltReason(haltReason);
+        frame.setState(State.EXCEPTIONAL_HALT);
+        return true;
+      }
+      if (frame.getState() != State.CODE_EXECUTING || operation.getUpdatesProgramCounter()) {
+        return true;
+      }
+      pc += operation.getOpSize();
+      frame.setPC(pc);
+    } while (pc < blockEnd);
+    return true;
+  }
+
   private void executeNextOperation(
       final MessageFrame frame, final OperationTracer operationTracer) {
     frame.setCurrentOperation(
         operationAtOffset(frame.getCode(), frame.getContractAccountVersion(), frame.getPC()));
-    operationTracer.traceExecution(
-        frame,
-        () -> {
-          OperationResult result;
-          try {
-            result = frame.getCurrentOperation().execute(frame, this);
-          } catch (final OverflowException oe) {
-            result = OVERFLOW_RESPONSE;
-          } catch (final UnderflowException ue) {
-            result = UNDERFLOW_RESPONSE;
-          }
-          frame.setGasCost(result.getGasCost());
-          logState(frame, result.getGasCost().orElse(Gas.ZERO));
-          final Optional<ExceptionalHaltReason> haltReason = result.getHaltReason();
-          if (haltReason.isPresent()) {
-            LOG.trace("MessageFrame evaluation halted because of {}", haltReason.get());
-            frame.setExceptionalHaltReason(haltReason);
-            frame.setState(State.EXCEPTIONAL_HALT);
-          } else if (result.getGasCost().isPresent()) {
-            frame.decrementRemainingGas(result.getGasCost().get());
-          }
-          incrementProgramCounter(frame);
-
-          return result;
-        });
+    operationTracer.traceExecution(frame, () -> executeCurrentOperation(frame));
   }
 
-  private void incrementProgramCounter(final MessageFrame frame) {
+  private OperationResult executeCurrentOperation(final MessageFrame frame) {
     final Operation operation = frame.getCurrentOperation();
+    OperationResult result;
+    try {
+      result = operation.execute(frame, this);
+    } catch (final OverflowException oe) {
+      result = OVERFLOW_RESPONSE;
+    } catch (final UnderflowException ue) {
+      result = UNDERFLOW_RESPONSE;
+    }
+    final Optional<Gas> gasCost = result.getGasCost();
+    frame.setGasCost(gasCost);
+    if (LOG.isTraceEnabled()) {
+      logState(frame, gasCost.orElse(Gas.ZERO));
+    }
+    final Optional<ExceptionalHaltReason> haltReason = result.getHaltReason();
+    if (haltReason.isPresent()) {
+      LOG.trace("MessageFrame evaluation halted because of {}", haltReason.get());
+      frame.setExceptionalHaltReason(haltReason);
+      frame.setState(State.EXCEPTIONAL_HALT);
+    } else if (gasCost.isPresent()) {
+      frame.decrementRemainingGas(gasCost.get().toLong());
+    }
     if (frame.getState() == State.CODE_EXECUTING && !operation.getUpdatesProgramCounter()) {
-      final int currentPC = frame.getPC();
-      final int opSize = operation.getOpSize();
-      frame.setPC(currentPC + opSize);
+      frame.setPC(frame.getPC() + operation.getOpSize());
     }
+
+    return result;
   }
 
   private static void logState(final MessageFrame frame, final Gas currentGasCost) {
-    if (LOG.isTraceEnabled()) {
-      final StringBuilder builder = new StringBuilder();
-      builder.append("Depth: ").append(frame.getMessageStackDepth()).append("\n");
-      builder.append("Operation: ").append(frame.getCurrentOperation().getName()).append("\n");
-      builder.append("PC: ").append(frame.getPC()).append("\n");
-      builder.append("Gas cost: ").append(currentGasCost).append("\n");
-      builder.append("Gas Remaining: ").append(frame.getRemainingGas()).append("\n");
-      builder.append("Depth: ").append(frame.getMessageStackDepth()).append("\n");
-      builder.append("Stack:");
-      for (int i = 0; i < frame.stackSize(); ++i) {
-        builder.append("\n\t").append(i).append(" ").append(frame.getStackItem(i));
-      }
-      LOG.trace(builder.toString());
+    final StringBuilder builder = new StringBuilder();
+    builder.append("Depth: ").append(frame.getMessageStackDepth()).append("\n");
+    builder.append("Operation: ").append(frame.getCurrentOperation().getName()).append("\n");
+    builder.append("PC: ").append(frame.getPC()).append("\n");
+    builder.append("Gas cost: ").append(currentGasCost).append("\n");
+    builder.append("Gas Remaining: ").append(frame.getRemainingGasAsLong()).append("\n");
+    builder.append("Depth: ").append(frame.getMessageStackDepth()).append("\n");
+    builder.append("Stack:");
+    for (int i = 0; i < frame.stackSize(); ++i) {
+      builder.append("\n\t").append(i).append(" ").append(frame.getStackItem(i));
     }
+    LOG.trace(builder.toString());
   }
 
   @VisibleForTesting
   Operation operationAtOffset(final Code code, final int contractAccountVersion, final int offset) {
-    final Bytes bytecode = code.getBytes();
     // If the length of the program code is shorter than the required offset, halt execution.
-    if (offset >= bytecode.size()) {
+    if (offset >= code.getSize()) {
       return endOfScriptStop;
     }
 
-    final byte opcode = bytecode.get(offset);
+    final Operation operation = code.getAnalysis(this, contractAccountVersion).operationAt(offset);
+    if (operation == null) {
+      // Only reachable when executing from within PUSH immediate data.
+      return resolveOperation(code.getBytes().get(offset), contractAccountVersion);
+    }
+    return operation;
+  }
+
+  private Operation resolveOperation(final byte opcode, final int contractAccountVersion) {
     final Operation operation = operations.get(opcode, contractAccountVersion);
     if (operation == null) {
       return new InvalidOperation(opcode, null);
@@ -19,6 +19,7 @@ import java.util.Arrays;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.apache.tuweni.units.bigints.UInt256s;
 
@@ -39,19 +40,25 @@ public class Memory {
    * <p>Note that the current Ethereum spec don't put a limit on memory, so we could theoretically
    * overflow this. A byte array implementation limits us to 2GiB. But that would cost over 51
    * trillion gas. So this is likely a reasonable limitation, at least at first.
+   *
+   * <p>The array is a capacity buffer: only the first {@link #activeBytes} bytes are part of the
+   * memory, and everything past them is always zero, so expanding the active words within the
+   * current capacity needs no copy.
    */
   private byte[] data;
 
+  private int activeBytes;
   private UInt256 activeWords;
   private int dataSize256;
 
   public Memory() {
     data = new byte[0];
-    updateSize();
+    updateSize(0);
   }
 
-  private void updateSize() {
-    dataSize256 = data.length / Bytes32.SIZE;
+  private void updateSize(final int newActiveWords) {
+    dataSize256 = newActiveWords;
+    activeBytes = newActiveWords * Bytes32.SIZE;
     activeWords = UInt256.valueOf(dataSize256);
   }
 
@@ -169,11 +176,14 @@ public class Memory {
   private void maybeExpandCapacity(final int newActiveWords) {
     if (dataSize256 >= newActiveWords) return;
 
-    // Require full capacity to guarantee we don't resize more than once.
-    final byte[] newData = new byte[newActiveWords * Bytes32.SIZE];
-    System.arraycopy(data, 0, newData, 0, data.length);
-    data = newData;
-    updateSize();
+    final int newActiveBytes = newActiveWords * Bytes32.SIZE;
+    if (newActiveBytes > data.length) {
+      // Grow at least geometrically so that a contract expanding memory a word at a time only
+      // triggers a logarithmic number of copies.
+      final long doubled = Math.min(2L * data.length, MAX_BYTES - (MAX_BYTES % Bytes32.SIZE));
+      data = Arrays.copyOf(data, (int) Math.max(newActiveBytes, doubled));
+    }
+    updateSize(newActiveWords);
   }
 
   /**
@@ -189,12 +199,12 @@ public class Memory {
     if (!(other instanceof Memory)) return false;
 
     final Memory that = (Memory) other;
-    return Arrays.equals(this.data, that.data);
+    return Arrays.equals(this.data, 0, this.activeBytes, that.data, 0, that.activeBytes);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(data);
+    return activeView().hashCode();
   }
 
   /**
@@ -203,7 +213,7 @@ public class Memory {
    * @return The current number of active bytes stored in memory.
    */
   int getActiveBytes() {
-    return data.length;
+    return activeBytes;
   }
 
   /**
@@ -239,6 +249,31 @@ public class Memory {
     return Bytes.of(Arrays.copyOfRange(data, start, start + numBytes.intValue()));
   }
 
+  /**
+   * Returns a view of bytes from memory, without copying them.
+   *
+   * <p>The returned bytes reflect any later write to the same memory range, so this must only be
+   * used when the memory is not going to be written to again while the view is in use, e.g. for
+   * the output of RETURN or REVERT or for bytes that are consumed immediately.
+   *
+   * @param location The location in memory to start with.
+   * @param numBytes The number of bytes to get.
+   * @return A view of the bytes from memory starting at {@code location} and extending {@code
+   *     numBytes}.
+   */
+  public Bytes getBytesWithoutCopy(final UInt256 location, final UInt256 numBytes) {
+    // See getBytes for why we check length == 0 first.
+    final int length = asByteLength(numBytes);
+    if (length == 0) {
+      return Bytes.EMPTY;
+    }
+
+    final int start = asByteIndex(location);
+
+    ensureCapacityForBytes(start, length);
+    return Bytes.wrap(data, start, length);
+  }
+
   /**
    * Copy the bytes from the provided number of bytes from the provided value to memory from the
    * provided offset.
@@ -302,11 +337,14 @@ public class Memory {
     final int end = Math.addExact(start, length);
 
     ensureCapacityForBytes(start, length);
+    // Copy straight from the (possibly sliced) source rather than through toArrayUnsafe(), which
+    // makes an intermediate copy of any slice that does not span its whole backing array.
+    final MutableBytes target = MutableBytes.wrap(data);
     if (srcLength >= length) {
-      System.arraycopy(taintedValue.toArrayUnsafe(), 0, data, start, length);
+      taintedValue.slice(0, length).copyTo(target, start);
     } else {
       Arrays.fill(data, start, end, (byte) 0);
-      System.arraycopy(taintedValue.toArrayUnsafe(), 0, data, start, srcLength);
+      taintedValue.copyTo(target, start);
     }
   }
 
@@ -377,11 +415,41 @@ public class Memory {
     final int start = asByteIndex(location);
     ensureCapacityForBytes(start, Bytes32.SIZE);
 
-    System.arraycopy(bytes.toArrayUnsafe(), 0, data, start, Bytes32.SIZE);
+    bytes.copyTo(MutableBytes.wrap(data), start);
+  }
+
+  /**
+   * Pushes the 32-bytes word that begins at the specified memory location onto the given stack,
+   * without materialising it as an intermediate {@link Bytes32}.
+   *
+   * @param location The memory location the 256-bit word begins at.
+   * @param stack The stack to push the word on.
+   */
+  void pushWord(final UInt256 location, final OperandStack stack) {
+    final int start = asByteIndex(location);
+    ensureCapacityForBytes(start, Bytes32.SIZE);
+    stack.push(data, start);
+  }
+
+  /**
+   * Pops the top item of the given stack into memory as the 32-bytes word beginning at the
+   * specified location, without materialising it as an intermediate {@link Bytes32}.
+   *
+   * @param location the location at which to start setting the bytes.
+   * @param stack The stack to pop the word from.
+   */
+  void popWord(final UInt256 location, final OperandStack stack) {
+    final int start = asByteIndex(location);
+    ensureCapacityForBytes(start, Bytes32.SIZE);
+    stack.pop(data, start);
+  }
+
+  private Bytes activeView() {
+    return Bytes.wrap(data, 0, activeBytes);
   }
 
   @Override
   public String toString() {
-    return Bytes.wrap(data).toHexString();
+    return activeView().toHexString();
   }
 }
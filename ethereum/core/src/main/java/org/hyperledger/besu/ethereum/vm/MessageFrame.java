@@ -45,7 +45,6 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.bytes.MutableBytes;
 import org.apache.tuweni.units.bigints.UInt256;
 
 /**
@@ -199,7 +198,7 @@ public class MessageFrame {
   private State state;
 
   // Machine state fields.
-  private Gas gasRemaining;
+  private long gasRemaining;
   private final BlockHashLookup blockHashLookup;
   private final int maxStackSize;
   private int pc;
@@ -284,7 +283,7 @@ public class MessageFrame {
     this.blockchain = blockchain;
     this.messageFrameStack = messageFrameStack;
     this.worldState = worldState;
-    this.gasRemaining = initialGas;
+    this.gasRemaining = initialGas.toLong();
     this.blockHashLookup = blockHashLookup;
     this.maxStackSize = maxStackSize;
     this.pc = 0;
@@ -360,7 +359,7 @@ public class MessageFrame {
 
   /** Deducts the remaining gas. */
   public void clearGasRemaining() {
-    this.gasRemaining = Gas.ZERO;
+    this.gasRemaining = 0L;
   }
 
   /**
@@ -369,7 +368,16 @@ public class MessageFrame {
    * @param amount The amount of gas to deduct
    */
   public void decrementRemainingGas(final Gas amount) {
-    this.gasRemaining = gasRemaining.minus(amount);
+    this.gasRemaining -= amount.toLong();
+  }
+
+  /**
+   * Decrement the amount of remaining gas without boxing the amount into a {@link Gas}.
+   *
+   * @param amount The amount of gas to deduct
+   */
+  public void decrementRemainingGas(final long amount) {
+    this.gasRemaining -= amount;
   }
 
   /**
@@ -378,6 +386,15 @@ public class MessageFrame {
    * @return the amount of remaining gas
    */
   public Gas getRemainingGas() {
+    return Gas.of(gasRemaining);
+  }
+
+  /**
+   * Return the amount of remaining gas as a primitive, avoiding the allocation of a {@link Gas}.
+   *
+   * @return the amount of remaining gas
+   */
+  public long getRemainingGasAsLong() {
     return gasRemaining;
   }
 
@@ -387,7 +404,11 @@ public class MessageFrame {
    * @param amount The amount of gas to increment
    */
   public void incrementRemainingGas(final Gas amount) {
-    this.gasRemaining = gasRemaining.plus(amount);
+    try {
+      this.gasRemaining = Math.addExact(gasRemaining, amount.toLong());
+    } catch (final ArithmeticException e) {
+      this.gasRemaining = Long.MAX_VALUE;
+    }
   }
 
   /**
@@ -396,7 +417,7 @@ public class MessageFrame {
    * @param amount The amount of remaining gas
    */
   public void setGasRemaining(final Gas amount) {
-    this.gasRemaining = amount;
+    this.gasRemaining = amount.toLong();
   }
 
   /**
@@ -504,6 +525,16 @@ public class MessageFrame {
     return stack.size();
   }
 
+  /**
+   * Returns the operand stack, so that operations can work on its primitive representation in
+   * place rather than popping and pushing {@link Bytes32} items.
+   *
+   * @return the operand stack
+   */
+  public OperandStack getOperandStack() {
+    return stack;
+  }
+
   /**
    * Returns whether or not the message frame is static or not.
    *
@@ -593,6 +624,41 @@ public class MessageFrame {
     return value;
   }
 
+  /**
+   * Read bytes in memory without copying them.
+   *
+   * <p>The returned bytes are a view over this frame's memory and change if that range of memory
+   * is later written to, so this is only suitable when the bytes are either consumed immediately
+   * or handed out by an operation that ends the frame's execution, such as RETURN or REVERT.
+   *
+   * @param offset The offset in memory
+   * @param length The length of the bytes to read
+   * @return A view of the bytes in the specified range
+   */
+  public Bytes readMemoryWithoutCopy(final UInt256 offset, final UInt256 length) {
+    return memory.getBytesWithoutCopy(offset, length);
+  }
+
+  /**
+   * Pushes the 32-bytes word of memory starting at the specified offset onto the stack.
+   *
+   * @param offset The offset in memory
+   */
+  public void pushMemoryWord(final UInt256 offset) {
+    memory.pushWord(offset, stack);
+    setUpdatedMemory(offset, Bytes32.SIZE);
+  }
+
+  /**
+   * Pops the top stack item into the 32-bytes word of memory starting at the specified offset.
+   *
+   * @param offset The offset in memory
+   */
+  public void popMemoryWord(final UInt256 offset) {
+    memory.popWord(offset, stack);
+    setUpdatedMemory(offset, Bytes32.SIZE);
+  }
+
   /**
    * Write byte to memory
    *
@@ -633,8 +699,8 @@ public class MessageFrame {
       final Bytes value,
       final boolean explicitMemoryUpdate) {
     memory.setBytes(offset, length, value);
-    if (explicitMemoryUpdate) {
-      setUpdatedMemory(offset, UInt256.ZERO, length, value);
+    if (explicitMemoryUpdate && !length.isZero()) {
+      setUpdatedMemory(offset, length.intValue());
     }
   }
 
@@ -667,28 +733,17 @@ public class MessageFrame {
       final Bytes value,
       final boolean explicitMemoryUpdate) {
     memory.setBytes(offset, sourceOffset, length, value);
-    if (explicitMemoryUpdate && length.toLong() > 0) {
-      setUpdatedMemory(offset, sourceOffset, length, value);
+    if (explicitMemoryUpdate && !length.isZero()) {
+      setUpdatedMemory(offset, length.intValue());
     }
   }
 
-  private void setUpdatedMemory(
-      final UInt256 offset, final UInt256 sourceOffset, final UInt256 length, final Bytes value) {
-    final int srcOff = sourceOffset.fitsInt() ? sourceOffset.intValue() : Integer.MAX_VALUE;
-    final int len = length.fitsInt() ? length.intValue() : Integer.MAX_VALUE;
-    final int endIndex = srcOff + len;
-    if (srcOff >= 0 && endIndex > 0) {
-      final int srcSize = value.size();
-      if (endIndex > srcSize) {
-        final MutableBytes paddedAnswer = MutableBytes.create(len);
-        if (srcOff < srcSize) {
-          value.slice(srcOff, srcSize - srcOff).copyTo(paddedAnswer, 0);
-        }
-        setUpdatedMemory(offset, paddedAnswer.copy());
-      } else {
-        setUpdatedMemory(offset, value.slice(srcOff, len).copy());
-      }
-    }
+  /**
+   * Records the given range of memory as updated. The entry is a view over memory: tracers that
+   * keep it beyond the current operation must copy it.
+   */
+  private void setUpdatedMemory(final UInt256 offset, final int length) {
+    setUpdatedMemory(offset, memory.getBytesWithoutCopy(offset, UInt256.valueOf(length)));
   }
 
   private void setUpdatedMemory(final UInt256 offset, final Bytes value) {
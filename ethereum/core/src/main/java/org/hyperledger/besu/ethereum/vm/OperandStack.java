@@ -16,11 +16,530 @@
 
 package org.hyperledger.besu.ethereum.vm;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
+import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
+
+import java.util.Arrays;
+
 import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * The operand stack of the Ethereum Virtual Machine (EVM).
+ *
+ * <p>Each 256-bit word is stored as four big-endian 64-bit limbs in a flat {@code long[]}, so that
+ * the arithmetic, comparison, bitwise and shift operations can be applied in place on the top of
+ * the stack without allocating intermediate {@link Bytes32} or {@link UInt256} instances. Words are
+ * only materialised as {@link Bytes32} when they are read through {@link #get(int)} or {@link
+ * #pop()}.
+ */
+public class OperandStack {
+
+  private static final int LIMBS = 4;
+  private static final int INITIAL_CAPACITY = 16;
 
-public class OperandStack extends FixedStack<Bytes32> {
+  private long[] limbs;
+
+  private final long[] product = new long[LIMBS];
+
+  private final int maxSize;
+
+  private int top;
 
   public OperandStack(final int maxSize) {
-    super(maxSize, Bytes32.class);
+    checkArgument(maxSize >= 0, "max size must be non-negative");
+
+    this.limbs = new long[Math.min(maxSize, INITIAL_CAPACITY) * LIMBS];
+    this.maxSize = maxSize;
+    this.top = -1;
+  }
+
+  public Bytes32 get(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    return toBytes32((top - offset) * LIMBS);
+  }
+
+  public Bytes32 pop() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+
+    return toBytes32(top-- * LIMBS);
+  }
+
+  /**
+   * Pops the specified number of operands from the stack.
+   *
+   * @param items the number of operands to pop off the stack
+   * @throws IllegalArgumentException if the items to pop is negative.
+   * @throws UnderflowException when the items to pop is greater than {@link #size()}
+   */
+  void bulkPop(final int items) {
+    if (items < 0) {
+      throw new IllegalArgumentException(
+          String.format("requested number of items to bulk pop (%d) is negative", items));
+    }
+    checkArgument(items > 0, "number of items to pop must be greater than 0");
+    if (items > size()) {
+      throw new UnderflowException();
+    }
+
+    top -= items;
+  }
+
+  public void push(final Bytes32 operand) {
+    write(reserve(), operand);
+  }
+
+  /**
+   * Pushes the 32 big-endian bytes starting at the given offset of {@code source}.
+   *
+   * @param source the array to read the word from
+   * @param offset the offset of the first byte of the word in {@code source}
+   */
+  void push(final byte[] source, final int offset) {
+    final int index = reserve();
+    for (int i = 0; i < LIMBS; i++) {
+      long limb = 0;
+      for (int j = 0; j < 8; j++) {
+        limb = (limb << 8) | (source[offset + i * 8 + j] & 0xFFL);
+      }
+      limbs[index + i] = limb;
+    }
+  }
+
+  /**
+   * Pops the top item into {@code target} as 32 big-endian bytes starting at the given offset.
+   *
+   * @param target the array to write the word to
+   * @param offset the offset of the first byte of the word in {@code target}
+   * @throws UnderflowException when the stack is empty
+   */
+  void pop(final byte[] target, final int offset) {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+    final int index = top-- * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[index + i];
+      for (int j = 0; j < 8; j++) {
+        target[offset + i * 8 + j] = (byte) (limb >>> (56 - j * 8));
+      }
+    }
+  }
+
+  public void set(final int offset, final Bytes32 operand) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    write((top - offset) * LIMBS, operand);
+  }
+
+  public int size() {
+    return top + 1;
+  }
+
+  public boolean isFull() {
+    return top + 1 >= maxSize;
+  }
+
+  public boolean isEmpty() {
+    return top < 0;
+  }
+
+  /** ADD: replaces the top two items a, b with a + b (mod 2^256). */
+  public void add() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    long carry = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = limbs[a + i];
+      final long sum = x + limbs[b + i];
+      final long result = sum + carry;
+      carry = (Long.compareUnsigned(sum, x) < 0 || Long.compareUnsigned(result, sum) < 0) ? 1 : 0;
+      limbs[b + i] = result;
+    }
+  }
+
+  /** SUB: replaces the top two items a, b with a - b (mod 2^256). */
+  public void sub() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    long borrow = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = limbs[a + i];
+      final long y = limbs[b + i];
+      limbs[b + i] = x - y - borrow;
+      borrow = (Long.compareUnsigned(x, y) < 0 || (x == y && borrow == 1)) ? 1 : 0;
+    }
+  }
+
+  /** MUL: replaces the top two items a, b with a * b (mod 2^256). */
+  public void mul() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    // product is little-endian (index 0 is the least significant limb) to keep the schoolbook
+    // multiplication readable; operands are read big-endian from the stack.
+    Arrays.fill(product, 0L);
+    for (int i = 0; i < LIMBS; i++) {
+      final long x = limbs[a + LIMBS - 1 - i];
+      if (x == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < LIMBS; j++) {
+        final long y = limbs[b + LIMBS - 1 - j];
+        final long low = x * y;
+        long high = unsignedMultiplyHigh(x, y);
+        final long withPrevious = low + product[i + j];
+        if (Long.compareUnsigned(withPrevious, low) < 0) {
+          high++;
+        }
+        final long withCarry = withPrevious + carry;
+        if (Long.compareUnsigned(withCarry, withPrevious) < 0) {
+          high++;
+        }
+        product[i + j] = withCarry;
+        carry = high;
+      }
+    }
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] = product[LIMBS - 1 - i];
+    }
+  }
+
+  /** DIV: replaces the top two items a, b with a / b, or zero if b is zero. */
+  public void div() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    if (isZero(b)) {
+      return;
+    }
+    if (fitsUnsignedLong(a) && fitsUnsignedLong(b)) {
+      limbs[b + 3] = Long.divideUnsigned(limbs[a + 3], limbs[b + 3]);
+    } else if (compareUnsigned(a, b) < 0) {
+      clear(b);
+    } else {
+      final UInt256 result =
+          UInt256.fromBytes(toBytes32(a)).divide(UInt256.fromBytes(toBytes32(b)));
+      write(b, result.toBytes());
+    }
+  }
+
+  /** MOD: replaces the top two items a, b with a mod b, or zero if b is zero. */
+  public void mod() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    if (isZero(b)) {
+      return;
+    }
+    if (fitsUnsignedLong(a) && fitsUnsignedLong(b)) {
+      limbs[b + 3] = Long.remainderUnsigned(limbs[a + 3], limbs[b + 3]);
+    } else if (compareUnsigned(a, b) < 0) {
+      System.arraycopy(limbs, a, limbs, b, LIMBS);
+    } else {
+      final UInt256 result = UInt256.fromBytes(toBytes32(a)).mod0(UInt256.fromBytes(toBytes32(b)));
+      write(b, result.toBytes());
+    }
+  }
+
+  /** EXP: replaces the top two items a, b with a ^ b (mod 2^256). */
+  public void exp() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    if (isZero(b)) {
+      writeBoolean(b, true);
+    } else if (fitsUnsignedLong(b) && limbs[b + 3] == 1) {
+      System.arraycopy(limbs, a, limbs, b, LIMBS);
+    } else {
+      final UInt256 result = UInt256.fromBytes(toBytes32(a)).pow(UInt256.fromBytes(toBytes32(b)));
+      write(b, result.toBytes());
+    }
+  }
+
+  /**
+   * Returns the number of bytes needed to represent the item at the given offset as an unsigned
+   * integer, as used to price the EXP operation.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @return the number of significant bytes of the item
+   */
+  public int byteLength(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int index = (top - offset) * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[index + i];
+      if (limb != 0) {
+        final int bitLength = (LIMBS - i) * Long.SIZE - Long.numberOfLeadingZeros(limb);
+        return (bitLength + 7) / 8;
+      }
+    }
+    return 0;
+  }
+
+  /** LT: replaces the top two items a, b with 1 if a < b (unsigned), 0 otherwise. */
+  public void lt() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    writeBoolean(b, compareUnsigned(a, b) < 0);
+  }
+
+  /** GT: replaces the top two items a, b with 1 if a > b (unsigned), 0 otherwise. */
+  public void gt() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    writeBoolean(b, compareUnsigned(a, b) > 0);
+  }
+
+  /** SLT: replaces the top two items a, b with 1 if a < b (two's complement), 0 otherwise. */
+  public void slt() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    writeBoolean(b, compareSigned(a, b) < 0);
+  }
+
+  /** SGT: replaces the top two items a, b with 1 if a > b (two's complement), 0 otherwise. */
+  public void sgt() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    writeBoolean(b, compareSigned(a, b) > 0);
+  }
+
+  /** EQ: replaces the top two items a, b with 1 if a == b, 0 otherwise. */
+  public void eq() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    writeBoolean(b, compareUnsigned(a, b) == 0);
+  }
+
+  /** ISZERO: replaces the top item a with 1 if a == 0, 0 otherwise. */
+  public void isZero() {
+    final int a = unaryOperand();
+    writeBoolean(a, isZero(a));
+  }
+
+  /** AND: replaces the top two items a, b with a & b. */
+  public void and() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] &= limbs[a + i];
+    }
+  }
+
+  /** OR: replaces the top two items a, b with a | b. */
+  public void or() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] |= limbs[a + i];
+    }
+  }
+
+  /** XOR: replaces the top two items a, b with a ^ b. */
+  public void xor() {
+    final int a = popBinaryOperand();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] ^= limbs[a + i];
+    }
+  }
+
+  /** NOT: replaces the top item a with ~a. */
+  public void not() {
+    final int a = unaryOperand();
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[a + i] = ~limbs[a + i];
+    }
+  }
+
+  /** SHL: replaces the top two items shift, value with value << shift. */
+  public void shl() {
+    final int shift = popBinaryOperand();
+    final int value = shift - LIMBS;
+    final int bits = shiftAmount(shift);
+    if (bits >= 256) {
+      clear(value);
+      return;
+    }
+    final int limbShift = bits >>> 6;
+    final int bitShift = bits & 63;
+    for (int i = 0; i < LIMBS; i++) {
+      final long high = limbAt(value, i + limbShift, 0L);
+      final long low = limbAt(value, i + limbShift + 1, 0L);
+      limbs[value + i] = bitShift == 0 ? high : (high << bitShift) | (low >>> (64 - bitShift));
+    }
+  }
+
+  /** SHR: replaces the top two items shift, value with value >>> shift. */
+  public void shr() {
+    shiftRight(0L);
+  }
+
+  /** SAR: replaces the top two items shift, value with value >> shift (sign extending). */
+  public void sar() {
+    shiftRight(-1L);
+  }
+
+  private void shiftRight(final long negativeFill) {
+    final int shift = popBinaryOperand();
+    final int value = shift - LIMBS;
+    final long fill = limbs[value] < 0 ? negativeFill : 0L;
+    final int bits = shiftAmount(shift);
+    if (bits >= 256) {
+      Arrays.fill(limbs, value, value + LIMBS, fill);
+      return;
+    }
+    final int limbShift = bits >>> 6;
+    final int bitShift = bits & 63;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long low = limbAt(value, i - limbShift, fill);
+      final long high = limbAt(value, i - limbShift - 1, fill);
+      limbs[value + i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+    }
+  }
+
+  /** Returns the shift amount held at the given index, saturated to 256. */
+  private int shiftAmount(final int index) {
+    if (limbs[index] != 0
+        || limbs[index + 1] != 0
+        || limbs[index + 2] != 0
+        || Long.compareUnsigned(limbs[index + 3], 256) >= 0) {
+      return 256;
+    }
+    return (int) limbs[index + 3];
+  }
+
+  private long limbAt(final int index, final int limb, final long outOfRange) {
+    return limb < 0 || limb >= LIMBS ? outOfRange : limbs[index + limb];
+  }
+
+  private int reserve() {
+    final int nextTop = top + 1;
+    if (nextTop == maxSize) {
+      throw new OverflowException();
+    }
+    final int index = nextTop * LIMBS;
+    if (index == limbs.length) {
+      limbs = Arrays.copyOf(limbs, Math.min(limbs.length * 2, maxSize * LIMBS));
+    }
+    top = nextTop;
+    return index;
+  }
+
+  /**
+   * Checks that the top two items are present and drops the top one, leaving the second as the
+   * destination of the result.
+   *
+   * @return the index of the (now popped) top item
+   */
+  private int popBinaryOperand() {
+    if (top < 1) {
+      throw new UnderflowException();
+    }
+    return top-- * LIMBS;
+  }
+
+  private int unaryOperand() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+    return top * LIMBS;
+  }
+
+  private int compareUnsigned(final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      final int result = Long.compareUnsigned(limbs[a + i], limbs[b + i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  private int compareSigned(final int a, final int b) {
+    final int result = Long.compare(limbs[a], limbs[b]);
+    if (result != 0) {
+      return result;
+    }
+    for (int i = 1; i < LIMBS; i++) {
+      final int limbResult = Long.compareUnsigned(limbs[a + i], limbs[b + i]);
+      if (limbResult != 0) {
+        return limbResult;
+      }
+    }
+    return 0;
+  }
+
+  private boolean isZero(final int index) {
+    return (limbs[index] | limbs[index + 1] | limbs[index + 2] | limbs[index + 3]) == 0;
+  }
+
+  private boolean fitsUnsignedLong(final int index) {
+    return (limbs[index] | limbs[index + 1] | limbs[index + 2]) == 0;
+  }
+
+  private void clear(final int index) {
+    Arrays.fill(limbs, index, index + LIMBS, 0L);
+  }
+
+  private void writeBoolean(final int index, final boolean value) {
+    clear(index);
+    limbs[index + 3] = value ? 1 : 0;
+  }
+
+  private void write(final int index, final Bytes32 value) {
+    limbs[index] = value.getLong(0);
+    limbs[index + 1] = value.getLong(8);
+    limbs[index + 2] = value.getLong(16);
+    limbs[index + 3] = value.getLong(24);
+  }
+
+  private Bytes32 toBytes32(final int index) {
+    final byte[] bytes = new byte[32];
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[index + i];
+      for (int j = 0; j < 8; j++) {
+        bytes[i * 8 + j] = (byte) (limb >>> (56 - j * 8));
+      }
+    }
+    return Bytes32.wrap(bytes);
+  }
+
+  private static long unsignedMultiplyHigh(final long x, final long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < size(); ++i) {
+      builder.append(String.format("\n0x%04X ", i)).append(toBytes32(i * LIMBS));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(Arrays.copyOf(limbs, size() * LIMBS));
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof OperandStack)) {
+      return false;
+    }
+
+    final OperandStack that = (OperandStack) other;
+    return this.maxSize == that.maxSize
+        && Arrays.equals(this.limbs, 0, size() * LIMBS, that.limbs, 0, that.size() * LIMBS);
   }
 }
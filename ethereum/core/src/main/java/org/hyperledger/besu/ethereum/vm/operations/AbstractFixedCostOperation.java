@@ -27,7 +27,7 @@ import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 import java.util.Optional;
 
-abstract class AbstractFixedCostOperation extends AbstractOperation {
+public abstract class AbstractFixedCostOperation extends AbstractOperation {
 
   protected final OperationResult successResponse;
   protected final OperationResult outOfGasResponse;
@@ -68,7 +68,7 @@ abstract class AbstractFixedCostOperation extends AbstractOperation {
   @Override
   public final OperationResult execute(final MessageFrame frame, final EVM evm) {
     try {
-      if (frame.getRemainingGas().compareTo(gasCost) < 0) {
+      if (frame.getRemainingGasAsLong() < gasCost.toLong()) {
         return outOfGasResponse;
       } else {
         return executeFixedCostOperation(frame, evm);
@@ -80,5 +80,37 @@ abstract class AbstractFixedCostOperation extends AbstractOperation {
     }
   }
 
+  /**
+   * Executes the operation without checking or charging its gas cost, for when the EVM has already
+   * charged the cost of the whole basic block the operation belongs to.
+   *
+   * @param frame The frame for execution of this operation.
+   * @param evm The EVM for execution of this operation.
+   * @return the gas cost and any exceptional halt reasons of the operation.
+   */
+  public final OperationResult executePrecharged(final MessageFrame frame, final EVM evm) {
+    try {
+      return executeFixedCostOperation(frame, evm);
+    } catch (final UnderflowException ufe) {
+      return underflowResponse;
+    } catch (final OverflowException ofe) {
+      return overflowResponse;
+    }
+  }
+
+  public Gas getFixedCost() {
+    return gasCost;
+  }
+
+  /**
+   * Whether the gas cost of this operation may be charged ahead of its execution as part of a
+   * basic block. Operations which observe the remaining gas must return false.
+   *
+   * @return true if the operation can be precharged
+   */
+  public boolean canBePrecharged() {
+    return true;
+  }
+
   protected abstract OperationResult executeFixedCostOperation(MessageFrame frame, EVM evm);
 }
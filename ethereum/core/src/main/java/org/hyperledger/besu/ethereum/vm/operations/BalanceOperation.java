@@ -49,7 +49,7 @@ public class BalanceOperation extends AbstractOperation {
       final boolean accountIsWarm =
           frame.warmUpAddress(address) || gasCalculator().isPrecompile(address);
       final Optional<Gas> optionalCost = accountIsWarm ? warmCost : coldCost;
-      if (frame.getRemainingGas().compareTo(optionalCost.get()) < 0) {
+      if (frame.getRemainingGasAsLong() < optionalCost.get().toLong()) {
         return new OperationResult(
             optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
       } else {
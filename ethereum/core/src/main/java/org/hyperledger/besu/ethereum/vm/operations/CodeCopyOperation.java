@@ -40,7 +40,7 @@ public class CodeCopyOperation extends AbstractOperation {
 
     final Gas cost = gasCalculator().dataCopyOperationGasCost(frame, memOffset, numBytes);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
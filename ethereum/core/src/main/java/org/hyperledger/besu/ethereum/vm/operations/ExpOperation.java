@@ -20,11 +20,10 @@ import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.ExceptionalHaltReason;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.OperandStack;
 
 import java.util.Optional;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class ExpOperation extends AbstractOperation {
 
   public ExpOperation(final GasCalculator gasCalculator) {
@@ -33,20 +32,18 @@ public class ExpOperation extends AbstractOperation {
 
   @Override
   public OperationResult execute(final MessageFrame frame, final EVM evm) {
-    final UInt256 number = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 power = UInt256.fromBytes(frame.popStackItem());
-
-    final int numBytes = (power.bitLength() + 7) / 8;
+    final OperandStack stack = frame.getOperandStack();
+    final int numBytes = stack.byteLength(1);
 
     final Gas cost = gasCalculator().expOperationGasCost(numBytes);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
+      frame.popStackItems(2);
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
-    final UInt256 result = number.pow(power);
+    stack.exp();
 
-    frame.pushStackItem(result.toBytes());
     return new OperationResult(optionalCost, Optional.empty());
   }
 }
@@ -53,7 +53,7 @@ public class ExtCodeCopyOperation extends AbstractOperation {
                     : gasCalculator().getColdAccountAccessCost());
 
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
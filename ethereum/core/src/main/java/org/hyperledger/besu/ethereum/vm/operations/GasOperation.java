@@ -36,4 +36,10 @@ public class GasOperation extends AbstractFixedCostOperation {
 
     return successResponse;
   }
+
+  @Override
+  public boolean canBePrecharged() {
+    // GAS pushes the remaining gas, so it has to see the exact per-operation charges.
+    return false;
+  }
 }
@@ -23,7 +23,6 @@ import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 import java.util.Optional;
 
-import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
 public class MLoadOperation extends AbstractOperation {
@@ -38,13 +37,11 @@ public class MLoadOperation extends AbstractOperation {
 
     final Gas cost = gasCalculator().mLoadOperationGasCost(frame, location);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
-    final Bytes32 value = Bytes32.leftPad(frame.readMemory(location, UInt256.valueOf(32), true));
-
-    frame.pushStackItem(value);
+    frame.pushMemoryWord(location);
     return new OperationResult(optionalCost, Optional.empty());
   }
 }
@@ -39,7 +39,7 @@ public class MStore8Operation extends AbstractOperation {
 
     final Gas cost = gasCalculator().mStore8OperationGasCost(frame, location);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
@@ -18,8 +18,6 @@ import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class NotOperation extends AbstractFixedCostOperation {
 
   public NotOperation(final GasCalculator gasCalculator) {
@@ -28,11 +26,7 @@ public class NotOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final UInt256 value = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value.not();
-
-    frame.pushStackItem(result.toBytes());
+    frame.getOperandStack().not();
 
     return successResponse;
   }
@@ -14,22 +14,20 @@
  */
 package org.hyperledger.besu.ethereum.vm.operations;
 
-import static java.lang.Math.min;
-
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.MutableBytes32;
-
 public class PushOperation extends AbstractFixedCostOperation {
 
+  public static final int PUSH_BASE = 0x60;
+  public static final int PUSH_MAX = 0x7F;
+
   private final int length;
 
   public PushOperation(final int length, final GasCalculator gasCalculator) {
     super(
-        0x60 + length - 1,
+        PUSH_BASE + length - 1,
         "PUSH" + length,
         0,
         1,
@@ -42,13 +40,7 @@ public class PushOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final int pc = frame.getPC();
-    final Bytes code = frame.getCode().getBytes();
-
-    final int copyLength = min(length, code.size() - pc - 1);
-    final MutableBytes32 bytes = MutableBytes32.create();
-    code.slice(pc + 1, copyLength).copyTo(bytes, bytes.size() - length);
-    frame.pushStackItem(bytes);
+    frame.pushStackItem(frame.getCode().getPushValue(frame.getPC(), length));
 
     return successResponse;
   }
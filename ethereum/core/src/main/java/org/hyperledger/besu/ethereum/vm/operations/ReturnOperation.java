@@ -38,11 +38,11 @@ public class ReturnOperation extends AbstractOperation {
 
     final Gas cost = gasCalculator().memoryExpansionGasCost(frame, from, length);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
-    frame.setOutputData(frame.readMemory(from, length));
+    frame.setOutputData(frame.readMemoryWithoutCopy(from, length));
     frame.setState(MessageFrame.State.CODE_SUCCESS);
     return new OperationResult(optionalCost, Optional.empty());
   }
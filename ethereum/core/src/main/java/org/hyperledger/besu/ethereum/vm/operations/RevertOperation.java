@@ -39,11 +39,11 @@ public class RevertOperation extends AbstractOperation {
 
     final Gas cost = gasCalculator().memoryExpansionGasCost(frame, from, length);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
-    final Bytes reason = frame.readMemory(from, length);
+    final Bytes reason = frame.readMemoryWithoutCopy(from, length);
     frame.setOutputData(reason);
     frame.setRevertReason(reason);
     frame.setState(MessageFrame.State.REVERT);
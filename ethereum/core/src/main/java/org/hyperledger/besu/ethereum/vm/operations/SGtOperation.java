@@ -18,11 +18,6 @@ import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class SGtOperation extends AbstractFixedCostOperation {
 
   public SGtOperation(final GasCalculator gasCalculator) {
@@ -31,15 +26,7 @@ public class SGtOperation extends AbstractFixedCostOperation {
 
   @Override
   public OperationResult executeFixedCostOperation(final MessageFrame frame, final EVM evm) {
-    final Bytes32 value0 = frame.popStackItem();
-    final Bytes32 value1 = frame.popStackItem();
-
-    final BigInteger b0 = value0.toBigInteger();
-    final BigInteger b1 = value1.toBigInteger();
-
-    final Bytes32 result = b0.compareTo(b1) > 0 ? UInt256.ONE.toBytes() : UInt256.ZERO.toBytes();
-
-    frame.pushStackItem(result);
+    frame.getOperandStack().sgt();
 
     return successResponse;
   }
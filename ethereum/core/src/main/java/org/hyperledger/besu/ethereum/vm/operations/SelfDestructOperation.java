@@ -54,7 +54,7 @@ public class SelfDestructOperation extends AbstractOperation {
     if (frame.isStatic()) {
       return new OperationResult(
           optionalCost, Optional.of(ExceptionalHaltReason.ILLEGAL_STATE_CHANGE));
-    } else if (frame.getRemainingGas().compareTo(cost) < 0) {
+    } else if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
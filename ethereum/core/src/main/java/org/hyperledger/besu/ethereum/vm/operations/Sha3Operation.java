@@ -40,11 +40,11 @@ public class Sha3Operation extends AbstractOperation {
 
     final Gas cost = gasCalculator().sha3OperationGasCost(frame, from, length);
     final Optional<Gas> optionalCost = Optional.of(cost);
-    if (frame.getRemainingGas().compareTo(cost) < 0) {
+    if (frame.getRemainingGasAsLong() < cost.toLong()) {
       return new OperationResult(optionalCost, Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
     }
 
-    final Bytes bytes = frame.readMemory(from, length);
+    final Bytes bytes = frame.readMemoryWithoutCopy(from, length);
     frame.pushStackItem(Hash.hash(bytes));
     return new OperationResult(optionalCost, Optional.empty());
   }
@@ -22,6 +22,11 @@ import org.immutables.value.Value;
 public interface DataStorageConfiguration {
 
   long DEFAULT_BONSAI_MAX_LAYERS_TO_LOAD = 512;
+  long DEFAULT_BONSAI_RETAINED_LAYERS = 512; // at least 256 + typical rollbacks
+  long DEFAULT_BONSAI_MAX_RETAINED_LAYER_BYTES = 512L * 1024 * 1024;
+  int DEFAULT_BONSAI_PREFETCH_THREADS = 4;
+  long DEFAULT_BONSAI_FLAT_STATE_CACHE_BYTES = 64L * 1024 * 1024;
+  long DEFAULT_FOREST_TRIE_NODE_CACHE_BYTES = WorldStateTrieNodeCaches.DEFAULT_MAX_SIZE_BYTES;
 
   DataStorageConfiguration DEFAULT_CONFIG =
       ImmutableDataStorageConfiguration.builder()
@@ -32,4 +37,29 @@ public interface DataStorageConfiguration {
   DataStorageFormat getDataStorageFormat();
 
   Long getBonsaiMaxLayersToLoad();
+
+  @Value.Default
+  default Long getBonsaiRetainedLayers() {
+    return DEFAULT_BONSAI_RETAINED_LAYERS;
+  }
+
+  @Value.Default
+  default Long getBonsaiMaxRetainedLayerBytes() {
+    return DEFAULT_BONSAI_MAX_RETAINED_LAYER_BYTES;
+  }
+
+  @Value.Default
+  default Integer getBonsaiPrefetchThreads() {
+    return DEFAULT_BONSAI_PREFETCH_THREADS;
+  }
+
+  @Value.Default
+  default Long getBonsaiFlatStateCacheBytes() {
+    return DEFAULT_BONSAI_FLAT_STATE_CACHE_BYTES;
+  }
+
+  @Value.Default
+  default Long getForestTrieNodeCacheBytes() {
+    return DEFAULT_FOREST_TRIE_NODE_CACHE_BYTES;
+  }
 }
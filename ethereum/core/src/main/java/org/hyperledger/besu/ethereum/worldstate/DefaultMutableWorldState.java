@@ -42,6 +42,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -51,8 +53,32 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class DefaultMutableWorldState implements MutableWorldState {
 
+  /**
+   * Number of accounts that must have changed since the last persist before the account trie is
+   * hashed and committed in parallel. Below that the dirty part of the trie is too small for the
+   * fork-join overhead to pay off.
+   */
+  private static final int PARALLEL_HASHING_THRESHOLD = 1000;
+
+  /**
+   * Pool dedicated to hashing and committing world state tries, so that this CPU bound work
+   * neither competes with nor is starved by other users of the common pool.
+   */
+  private static final ForkJoinPool TRIE_HASHING_POOL =
+      new ForkJoinPool(
+          Runtime.getRuntime().availableProcessors(),
+          pool -> {
+            final ForkJoinWorkerThread thread =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("trie-hashing-" + thread.getPoolIndex());
+            return thread;
+          },
+          null,
+          false);
+
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
+  private final Optional<WorldStateTrieNodeCaches> trieNodeCaches;
 
   private final MerklePatriciaTrie<Bytes32, Bytes> accountStateTrie;
   private final Map<Address, MerklePatriciaTrie<Bytes32, Bytes>> updatedStorageTries =
@@ -60,6 +86,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
   private final Map<Address, Bytes> updatedAccountCode = new HashMap<>();
   private final Map<Bytes32, UInt256> newStorageKeyPreimages = new HashMap<>();
   private final Map<Bytes32, Address> newAccountKeyPreimages = new HashMap<>();
+  private int accountChangesSincePersist = 0;
 
   public DefaultMutableWorldState(
       final WorldStateStorage storage, final WorldStatePreimageStorage preimageStorage) {
@@ -70,7 +97,16 @@ public class DefaultMutableWorldState implements MutableWorldState {
       final Bytes32 rootHash,
       final WorldStateStorage worldStateStorage,
       final WorldStatePreimageStorage preimageStorage) {
+    this(rootHash, worldStateStorage, preimageStorage, Optional.empty());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final Optional<WorldStateTrieNodeCaches> trieNodeCaches) {
     this.worldStateStorage = worldStateStorage;
+    this.trieNodeCaches = trieNodeCaches;
     this.accountStateTrie = newAccountStateTrie(rootHash);
     this.preimageStorage = preimageStorage;
   }
@@ -86,12 +122,17 @@ public class DefaultMutableWorldState implements MutableWorldState {
     final DefaultMutableWorldState other = (DefaultMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
     this.preimageStorage = other.preimageStorage;
+    this.trieNodeCaches = other.trieNodeCaches;
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        trieNodeCaches.map(WorldStateTrieNodeCaches::getAccountTrieNodeCache));
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> newAccountStorageTrie(final Bytes32 rootHash) {
@@ -99,12 +140,20 @@ public class DefaultMutableWorldState implements MutableWorldState {
         (location, hash) -> worldStateStorage.getAccountStorageTrieNode(null, location, hash),
         rootHash,
         b -> b,
-        b -> b);
+        b -> b,
+        trieNodeCaches.map(WorldStateTrieNodeCaches::getStorageTrieNodeCache));
   }
 
   @Override
   public Hash rootHash() {
-    return Hash.wrap(accountStateTrie.getRootHash());
+    return Hash.wrap(
+        shouldHashInParallel()
+            ? accountStateTrie.getRootHash(TRIE_HASHING_POOL)
+            : accountStateTrie.getRootHash());
+  }
+
+  private boolean shouldHashInParallel() {
+    return accountChangesSincePersist >= PARALLEL_HASHING_THRESHOLD;
   }
 
   @Override
@@ -114,7 +163,8 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage, preimageStorage);
+    return new DefaultMutableWorldState(
+        rootHash(), worldStateStorage, preimageStorage, trieNodeCaches);
   }
 
   @Override
@@ -191,7 +241,11 @@ public class DefaultMutableWorldState implements MutableWorldState {
               stateUpdater.putAccountStorageTrieNode(null, location, hash, value));
     }
     // Commit account updates
-    accountStateTrie.commit(stateUpdater::putAccountStateTrieNode);
+    if (shouldHashInParallel()) {
+      accountStateTrie.commit(stateUpdater::putAccountStateTrieNode, TRIE_HASHING_POOL);
+    } else {
+      accountStateTrie.commit(stateUpdater::putAccountStateTrieNode);
+    }
 
     // Persist preimages
     final WorldStatePreimageStorage.Updater preimageUpdater = preimageStorage.updater();
@@ -202,6 +256,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
     updatedStorageTries.clear();
     updatedAccountCode.clear();
     newStorageKeyPreimages.clear();
+    accountChangesSincePersist = 0;
 
     // Push changes to underlying storage
     preimageUpdater.commit();
@@ -392,6 +447,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
       for (final Address address : getDeletedAccounts()) {
         final Hash addressHash = Hash.hash(address);
         wrapped.accountStateTrie.remove(addressHash);
+        wrapped.accountChangesSincePersist++;
         wrapped.updatedStorageTries.remove(address);
         wrapped.updatedAccountCode.remove(address);
       }
@@ -451,6 +507,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
                 updated.getVersion());
 
         wrapped.accountStateTrie.put(updated.getAddressHash(), account);
+        wrapped.accountChangesSincePersist++;
       }
     }
   }
@@ -26,6 +26,7 @@ import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -34,14 +35,23 @@ public class DefaultWorldStateArchive implements WorldStateArchive {
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
   private final WorldStateProofProvider worldStateProof;
+  private final Optional<WorldStateTrieNodeCaches> trieNodeCaches;
 
   private static final Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
 
   public DefaultWorldStateArchive(
       final WorldStateStorage worldStateStorage, final WorldStatePreimageStorage preimageStorage) {
+    this(worldStateStorage, preimageStorage, Optional.empty());
+  }
+
+  public DefaultWorldStateArchive(
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage,
+      final Optional<WorldStateTrieNodeCaches> trieNodeCaches) {
     this.worldStateStorage = worldStateStorage;
     this.preimageStorage = preimageStorage;
-    this.worldStateProof = new WorldStateProofProvider(worldStateStorage);
+    this.trieNodeCaches = trieNodeCaches;
+    this.worldStateProof = new WorldStateProofProvider(worldStateStorage, trieNodeCaches);
   }
 
   @Override
@@ -72,7 +82,31 @@ public class DefaultWorldStateArchive implements WorldStateArchive {
     if (!worldStateStorage.isWorldStateAvailable(rootHash, blockHash)) {
       return Optional.empty();
     }
-    return Optional.of(new DefaultMutableWorldState(rootHash, worldStateStorage, preimageStorage));
+    return Optional.of(
+        new DefaultMutableWorldState(rootHash, worldStateStorage, preimageStorage, trieNodeCaches));
+  }
+
+  @Override
+  public <U> Optional<U> mapWorldState(
+      final Hash rootHash,
+      final Hash blockHash,
+      final Function<? super MutableWorldState, U> mapper) {
+    final Optional<WorldStateStorage.Snapshot> maybeSnapshot = worldStateStorage.takeSnapshot();
+    if (maybeSnapshot.isEmpty()) {
+      return getMutable(rootHash, blockHash).map(mapper);
+    }
+    try (final WorldStateStorage.Snapshot snapshot = maybeSnapshot.get()) {
+      final WorldStateStorage snapshotStorage = snapshot.getWorldStateStorage();
+      if (!snapshotStorage.isWorldStateAvailable(rootHash, blockHash)) {
+        return Optional.empty();
+      }
+      // The caches only share the RLP of nodes, keyed by hash, so nothing they hold depends on the
+      // snapshot once it is released
+      return Optional.ofNullable(
+          mapper.apply(
+              new DefaultMutableWorldState(
+                  rootHash, snapshotStorage, preimageStorage, trieNodeCaches)));
+    }
   }
 
   @Override
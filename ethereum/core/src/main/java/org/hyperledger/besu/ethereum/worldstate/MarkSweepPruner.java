@@ -30,10 +30,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -41,6 +44,9 @@ import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -54,6 +60,18 @@ public class MarkSweepPruner {
 
   private static final int DEFAULT_OPS_PER_TRANSACTION = 10_000;
   private static final int MAX_MARKING_THREAD_POOL_SIZE = 2;
+  private static final int MAX_SWEEPING_THREAD_POOL_SIZE = 4;
+
+  // The mark filter is sized from the number of nodes marked in the previous cycle, within bounds
+  // that keep it to between roughly 20MB and 300MB of heap.
+  private static final long MIN_MARK_FILTER_EXPECTED_NODES = 16_000_000L;
+  private static final long MAX_MARK_FILTER_EXPECTED_NODES = 256_000_000L;
+  private static final double MARK_FILTER_FALSE_POSITIVE_RATE = 0.02;
+
+  // While blocks are being imported, sweeping is limited so it doesn't compete with the import for
+  // disk bandwidth and the world state lock.
+  private static final long IMPORT_ACTIVE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final double SWEPT_RANGES_PER_SECOND_DURING_IMPORT = 5.0;
 
   private final int operationsPerTransaction;
   private final WorldStateStorage worldStateStorage;
@@ -67,6 +85,13 @@ public class MarkSweepPruner {
   private volatile long nodeAddedListenerId;
   private final ReadWriteLock pendingMarksLock = new ReentrantReadWriteLock();
   private final Set<Bytes32> pendingMarks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final AtomicLong marksThisCycle = new AtomicLong();
+  private volatile long marksLastCycle = 0;
+  // Allocated by the first mark of a cycle and released when the marks are cleared
+  private volatile BloomFilter<byte[]> markFilter;
+  private final RateLimiter importSweepRateLimiter =
+      RateLimiter.create(SWEPT_RANGES_PER_SECOND_DURING_IMPORT);
+  private volatile long lastImportNanos = System.nanoTime() - IMPORT_ACTIVE_WINDOW_NANOS;
 
   public MarkSweepPruner(
       final WorldStateStorage worldStateStorage,
@@ -113,8 +138,19 @@ public class MarkSweepPruner {
         "mark_time_duration",
         "Cumulative number of seconds spent marking the state trie across all pruning cycles",
         () -> markStopwatch.elapsed(TimeUnit.SECONDS));
-
-    LOG.debug("Using {} pruner threads", MAX_MARKING_THREAD_POOL_SIZE);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.PRUNER,
+        "mark_filter_nodes",
+        "Approximate number of nodes in the mark filter of the current pruning cycle",
+        () -> {
+          final BloomFilter<byte[]> filter = markFilter;
+          return filter == null ? 0 : filter.approximateElementCount();
+        });
+
+    LOG.debug(
+        "Using {} marking and {} sweeping pruner threads",
+        MAX_MARKING_THREAD_POOL_SIZE,
+        MAX_SWEEPING_THREAD_POOL_SIZE);
   }
 
   public void prepare() {
@@ -123,7 +159,7 @@ public class MarkSweepPruner {
     // last time, causing the first sweep to be smaller than it needs to be.
     clearMarks();
 
-    nodeAddedListenerId = worldStateStorage.addNodeAddedListener(this::markNodes);
+    nodeAddedListenerId = worldStateStorage.addNodeAddedListener(this::markImportedNodes);
   }
 
   /**
@@ -214,28 +250,93 @@ public class MarkSweepPruner {
 
     updater.commit();
     // Sweep non-state-root nodes
-    prunedNodeCount += worldStateStorage.prune(this::isMarked);
+    final ExecutorService sweepingExecutorService =
+        Executors.newFixedThreadPool(
+            MAX_SWEEPING_THREAD_POOL_SIZE,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setPriority(Thread.MIN_PRIORITY)
+                .setNameFormat(this.getClass().getSimpleName() + "-sweep-%d")
+                .build());
+    try {
+      prunedNodeCount +=
+          worldStateStorage.prune(this::isMarked, throttledDuringImport(sweepingExecutorService));
+    } finally {
+      sweepingExecutorService.shutdownNow();
+    }
     sweptNodesCounter.inc(prunedNodeCount);
     clearMarks();
     LOG.debug("Completed sweeping unused nodes");
   }
 
+  private Executor throttledDuringImport(final Executor executor) {
+    return sweep ->
+        executor.execute(
+            () -> {
+              if (System.nanoTime() - lastImportNanos < IMPORT_ACTIVE_WINDOW_NANOS) {
+                importSweepRateLimiter.acquire();
+              }
+              sweep.run();
+            });
+  }
+
   public void cleanup() {
     worldStateStorage.removeNodeAddedListener(nodeAddedListenerId);
     clearMarks();
   }
 
   public void clearMarks() {
-    markStorage.clear();
-    pendingMarks.clear();
+    // Take the write lock so that no mark is added to the storage but not to the new filter
+    final Lock clearLock = pendingMarksLock.writeLock();
+    clearLock.lock();
+    try {
+      markStorage.clear();
+      pendingMarks.clear();
+      markFilter = null;
+      final long marks = marksThisCycle.getAndSet(0);
+      if (marks > 0) {
+        marksLastCycle = marks;
+      }
+    } finally {
+      clearLock.unlock();
+    }
+  }
+
+  /** Must be called while holding the read lock, so that the marks can't be cleared meanwhile. */
+  private BloomFilter<byte[]> markFilterForMarking() {
+    BloomFilter<byte[]> filter = markFilter;
+    if (filter == null) {
+      synchronized (this) {
+        filter = markFilter;
+        if (filter == null) {
+          filter = createMarkFilter(marksLastCycle);
+          markFilter = filter;
+        }
+      }
+    }
+    return filter;
+  }
+
+  private static BloomFilter<byte[]> createMarkFilter(final long marksLastCycle) {
+    final long expectedNodes =
+        Math.min(
+            Math.max(marksLastCycle + marksLastCycle / 4, MIN_MARK_FILTER_EXPECTED_NODES),
+            MAX_MARK_FILTER_EXPECTED_NODES);
+    return BloomFilter.create(
+        Funnels.byteArrayFunnel(), expectedNodes, MARK_FILTER_FALSE_POSITIVE_RATE);
   }
 
   private boolean isMarked(final Bytes32 key) {
-    return pendingMarks.contains(key) || markStorage.containsKey(key.toArrayUnsafe());
+    return isMarked(key.toArrayUnsafe());
   }
 
   private boolean isMarked(final byte[] key) {
-    return pendingMarks.contains(Bytes32.wrap(key)) || markStorage.containsKey(key);
+    // The filter has no false negatives, so only its positives need confirming against the marks.
+    // There is no filter until the first mark after the marks were cleared.
+    final BloomFilter<byte[]> filter = markFilter;
+    return filter != null
+        && filter.mightContain(key)
+        && (pendingMarks.contains(Bytes32.wrap(key)) || markStorage.containsKey(key));
   }
 
   private MerklePatriciaTrie<Bytes32, Bytes> createStateTrie(final Bytes32 rootHash) {
@@ -264,11 +365,23 @@ public class MarkSweepPruner {
 
   @VisibleForTesting
   void markNode(final Bytes32 hash) {
-    markThenMaybeFlush(() -> pendingMarks.add(hash), 1);
+    markThenMaybeFlush(
+        () -> {
+          markFilterForMarking().put(hash.toArrayUnsafe());
+          pendingMarks.add(hash);
+        },
+        1);
   }
 
-  private void markNodes(final Collection<Bytes32> nodeHashes) {
-    markThenMaybeFlush(() -> pendingMarks.addAll(nodeHashes), nodeHashes.size());
+  private void markImportedNodes(final Collection<Bytes32> nodeHashes) {
+    lastImportNanos = System.nanoTime();
+    markThenMaybeFlush(
+        () -> {
+          final BloomFilter<byte[]> filter = markFilterForMarking();
+          nodeHashes.forEach(hash -> filter.put(hash.toArrayUnsafe()));
+          pendingMarks.addAll(nodeHashes);
+        },
+        nodeHashes.size());
   }
 
   private void markThenMaybeFlush(final Runnable nodeMarker, final int numberOfNodes) {
@@ -282,6 +395,7 @@ public class MarkSweepPruner {
       markLock.unlock();
     }
     markedNodesCounter.inc(numberOfNodes);
+    marksThisCycle.addAndGet(numberOfNodes);
 
     // However, when the size of pendingMarks grows too large, we want all the threads to stop
     // adding because we're going to clear the set.
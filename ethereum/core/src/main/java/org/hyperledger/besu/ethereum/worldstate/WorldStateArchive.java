@@ -22,13 +22,15 @@ import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.proof.WorldStateProof;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
 
+import java.io.Closeable;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.units.bigints.UInt256;
 
-public interface WorldStateArchive {
+public interface WorldStateArchive extends Closeable {
   Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
 
   Optional<WorldState> get(Hash rootHash, Hash blockHash);
@@ -43,10 +45,34 @@ public interface WorldStateArchive {
 
   MutableWorldState getMutable();
 
+  /**
+   * Applies a function to a world state which is never persisted. Archives whose storage supports
+   * snapshots read the world state from a point in time snapshot, so the function sees a
+   * consistent state even when blocks are imported or nodes are pruned while it runs. The function
+   * may make changes through updaters, such as to simulate a transaction, but must not persist
+   * them. The world state must not be used once the function returns.
+   *
+   * @param rootHash the state root of the world state
+   * @param blockHash the hash of the block of the world state
+   * @param mapper the function to apply to the world state
+   * @param <U> the type of the result of the function
+   * @return the result of the function, or empty if the world state is not available
+   */
+  default <U> Optional<U> mapWorldState(
+      final Hash rootHash,
+      final Hash blockHash,
+      final Function<? super MutableWorldState, U> mapper) {
+    return getMutable(rootHash, blockHash, false).map(mapper);
+  }
+
   void setArchiveStateUnSafe(BlockHeader blockHeader);
 
   Optional<Bytes> getNodeData(Hash hash);
 
   Optional<WorldStateProof> getAccountProof(
       Hash worldStateRoot, Address accountAddress, List<UInt256> accountStorageKeys);
+
+  /** Releases the resources held by the archive, before its underlying storage is closed. */
+  @Override
+  default void close() {}
 }
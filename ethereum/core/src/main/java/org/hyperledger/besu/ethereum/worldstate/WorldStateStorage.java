@@ -17,7 +17,9 @@ package org.hyperledger.besu.ethereum.worldstate;
 import org.hyperledger.besu.ethereum.core.Hash;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -35,6 +37,18 @@ public interface WorldStateStorage {
 
   Optional<Bytes> getNodeData(Bytes location, Bytes32 hash);
 
+  /**
+   * Retrieves the data of several nodes in a single batch, when nodes can be located from their
+   * hash alone.
+   *
+   * @param hashes the hashes of the nodes to retrieve
+   * @return the data of each node in the order of the hashes, or empty if this storage can't look
+   *     nodes up by hash alone
+   */
+  default Optional<List<Optional<Bytes>>> getNodeDataByHashes(final List<Bytes32> hashes) {
+    return Optional.empty();
+  }
+
   boolean isWorldStateAvailable(Bytes32 rootHash, Hash blockHash);
 
   default boolean contains(final Bytes32 hash) {
@@ -44,8 +58,43 @@ public interface WorldStateStorage {
 
   Updater updater();
 
+  /**
+   * Creates an updater for writing a large amount of world state, such as a restored or downloaded
+   * state. Written data may become visible before the updater is committed.
+   *
+   * @return the updater
+   */
+  default Updater bulkLoadUpdater() {
+    return updater();
+  }
+
   long prune(Predicate<byte[]> inUseCheck);
 
+  /**
+   * Removes all nodes that are not in use, splitting the key space into ranges that are swept by
+   * tasks submitted to the given executor.
+   *
+   * <p>Nodes may only become in use while pruning, so the in use check must never go from true to
+   * false before this method returns.
+   *
+   * @param inUseCheck the check for whether a node is still in use
+   * @param executor the executor running the sweep of each key range
+   * @return the number of nodes removed
+   */
+  default long prune(final Predicate<byte[]> inUseCheck, final Executor executor) {
+    return prune(inUseCheck);
+  }
+
+  /**
+   * Takes a read-only, point in time snapshot of the storage, which is not affected by later
+   * updates or by pruning. The snapshot must be closed once no longer used.
+   *
+   * @return the snapshot, or empty if the underlying storage doesn't support snapshots
+   */
+  default Optional<Snapshot> takeSnapshot() {
+    return Optional.empty();
+  }
+
   long addNodeAddedListener(NodesAddedListener listener);
 
   void removeNodeAddedListener(long id);
@@ -74,6 +123,14 @@ public interface WorldStateStorage {
     void rollback();
   }
 
+  interface Snapshot extends AutoCloseable {
+
+    WorldStateStorage getWorldStateStorage();
+
+    @Override
+    void close();
+  }
+
   interface NodesAddedListener {
     void onNodesAdded(Collection<Bytes32> nodeHash);
   }
@@ -0,0 +1,67 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import org.hyperledger.besu.ethereum.trie.TrieNodeCache;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * The caches of account and storage trie nodes shared by every forest world state reading from
+ * the same {@link WorldStateStorage}.
+ */
+public class WorldStateTrieNodeCaches {
+
+  public static final long DEFAULT_MAX_SIZE_BYTES = 64L * 1024 * 1024;
+
+  private final TrieNodeCache<Bytes> accountTrieNodeCache;
+  private final TrieNodeCache<Bytes> storageTrieNodeCache;
+
+  public WorldStateTrieNodeCaches(final long maxSizeInBytes, final MetricsSystem metricsSystem) {
+    this.accountTrieNodeCache = new TrieNodeCache<>(maxSizeInBytes / 2);
+    this.storageTrieNodeCache = new TrieNodeCache<>(maxSizeInBytes / 2);
+    registerMetrics(metricsSystem, "account", accountTrieNodeCache);
+    registerMetrics(metricsSystem, "storage", storageTrieNodeCache);
+  }
+
+  public TrieNodeCache<Bytes> getAccountTrieNodeCache() {
+    return accountTrieNodeCache;
+  }
+
+  public TrieNodeCache<Bytes> getStorageTrieNodeCache() {
+    return storageTrieNodeCache;
+  }
+
+  private static void registerMetrics(
+      final MetricsSystem metricsSystem, final String trie, final TrieNodeCache<Bytes> cache) {
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        trie + "_trie_node_cache_hits",
+        "Number of " + trie + " trie node lookups served from the node cache",
+        cache::getHits);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        trie + "_trie_node_cache_misses",
+        "Number of " + trie + " trie node lookups read from storage",
+        cache::getMisses);
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        trie + "_trie_node_cache_size",
+        "Number of " + trie + " trie nodes held in the cache",
+        cache::size);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class BonsaiCachedWorldStateKeyValueStorageTest {
+
+  private static final Hash ACCOUNT_HASH = Hash.hash(Bytes.of(1));
+  private static final Hash SLOT_HASH = Hash.hash(Bytes32.fromHexStringLenient("0x01"));
+  private static final Hash OTHER_SLOT_HASH = Hash.hash(Bytes32.fromHexStringLenient("0x02"));
+
+  private final InMemoryKeyValueStorageProvider provider = new InMemoryKeyValueStorageProvider();
+  // writes through another storage instance are not seen by the cache
+  private final BonsaiWorldStateKeyValueStorage uncachedStorage =
+      new BonsaiWorldStateKeyValueStorage(provider);
+  private final BonsaiCachedWorldStateKeyValueStorage storage =
+      new BonsaiCachedWorldStateKeyValueStorage(provider, 1024 * 1024, new NoOpMetricsSystem());
+
+  @Test
+  public void cachesValuesReadFromStorage() {
+    uncachedStorage.updater().putAccountInfoState(ACCOUNT_HASH, Bytes.of(1)).commit();
+    assertThat(storage.getAccount(ACCOUNT_HASH)).contains(Bytes.of(1));
+
+    uncachedStorage.updater().putAccountInfoState(ACCOUNT_HASH, Bytes.of(2)).commit();
+    assertThat(storage.getAccount(ACCOUNT_HASH)).contains(Bytes.of(1));
+
+    storage.clearCache();
+    assertThat(storage.getAccount(ACCOUNT_HASH)).contains(Bytes.of(2));
+  }
+
+  @Test
+  public void cachesAbsentValues() {
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH)).isEmpty();
+
+    uncachedStorage
+        .updater()
+        .putStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH, Bytes.of(1))
+        .commit();
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH)).isEmpty();
+  }
+
+  @Test
+  public void updatesCacheWithCommittedWrites() {
+    assertThat(storage.getAccount(ACCOUNT_HASH)).isEmpty();
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH)).isEmpty();
+
+    storage
+        .updater()
+        .putAccountInfoState(ACCOUNT_HASH, Bytes.of(1))
+        .putStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH, Bytes.of(2))
+        .commit();
+    assertThat(storage.getAccount(ACCOUNT_HASH)).contains(Bytes.of(1));
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH)).contains(Bytes.of(2));
+
+    final BonsaiWorldStateKeyValueStorage.Updater updater = storage.updater();
+    updater.removeAccountInfoState(ACCOUNT_HASH);
+    updater.removeStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH);
+    updater.commit();
+    assertThat(storage.getAccount(ACCOUNT_HASH)).isEmpty();
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH)).isEmpty();
+  }
+
+  @Test
+  public void ignoresRolledBackWrites() {
+    uncachedStorage.updater().putAccountInfoState(ACCOUNT_HASH, Bytes.of(1)).commit();
+
+    final BonsaiWorldStateKeyValueStorage.Updater updater = storage.updater();
+    updater.putAccountInfoState(ACCOUNT_HASH, Bytes.of(2));
+    updater.rollback();
+
+    assertThat(storage.getAccount(ACCOUNT_HASH)).contains(Bytes.of(1));
+  }
+
+  @Test
+  public void batchReadsCombineCachedAndStoredValues() {
+    storage.updater().putStorageValueBySlotHash(ACCOUNT_HASH, SLOT_HASH, Bytes.of(1)).commit();
+    uncachedStorage
+        .updater()
+        .putStorageValueBySlotHash(ACCOUNT_HASH, OTHER_SLOT_HASH, Bytes.of(2))
+        .commit();
+
+    assertThat(
+            storage.getStorageValuesBySlotHash(ACCOUNT_HASH, List.of(OTHER_SLOT_HASH, SLOT_HASH)))
+        .containsExactly(Optional.of(Bytes.of(2)), Optional.of(Bytes.of(1)));
+    assertThat(storage.getStorageValueBySlotHash(ACCOUNT_HASH, OTHER_SLOT_HASH))
+        .contains(Bytes.of(2));
+  }
+}
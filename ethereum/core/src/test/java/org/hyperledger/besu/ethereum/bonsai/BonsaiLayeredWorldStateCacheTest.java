@@ -0,0 +1,95 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Test;
+
+public class BonsaiLayeredWorldStateCacheTest {
+
+  private static final Address ADDRESS = Address.fromHexString("0x01");
+
+  @Test
+  public void scrubEvictsLayersFurtherThanRetainedLayersFromHead() {
+    final BonsaiLayeredWorldStateCache cache =
+        new BonsaiLayeredWorldStateCache(10, Long.MAX_VALUE, new NoOpMetricsSystem());
+    for (int height = 1; height <= 20; height++) {
+      cache.put(layer(height, 1));
+    }
+
+    cache.scrub(20);
+
+    assertThat(cache.size()).isEqualTo(11);
+    assertThat(cache.contains(blockHash(9))).isFalse();
+    assertThat(cache.contains(blockHash(10))).isTrue();
+    assertThat(cache.get(blockHash(20))).isPresent();
+  }
+
+  @Test
+  public void putEvictsLowestLayersWhenOverSizeLimit() {
+    final long layerSize = layer(0, 4).getTrieLog().estimateSize();
+    final BonsaiLayeredWorldStateCache cache =
+        new BonsaiLayeredWorldStateCache(512, 3 * layerSize, new NoOpMetricsSystem());
+    for (int height = 1; height <= 5; height++) {
+      cache.put(layer(height, 4));
+    }
+
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.getRetainedBytes()).isEqualTo(3 * layerSize);
+    assertThat(cache.contains(blockHash(2))).isFalse();
+    assertThat(cache.contains(blockHash(3))).isTrue();
+  }
+
+  @Test
+  public void retainedBytesTrackReplacedAndEvictedLayers() {
+    final BonsaiLayeredWorldStateCache cache =
+        new BonsaiLayeredWorldStateCache(1, Long.MAX_VALUE, new NoOpMetricsSystem());
+    final BonsaiLayeredWorldState small = layer(1, 1);
+    final BonsaiLayeredWorldState large = layer(1, 8);
+
+    cache.put(small);
+    cache.put(large);
+    assertThat(cache.getRetainedBytes()).isEqualTo(large.getTrieLog().estimateSize());
+
+    cache.scrub(3);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getRetainedBytes()).isZero();
+  }
+
+  private static BonsaiLayeredWorldState layer(final long height, final int storageChanges) {
+    final TrieLogLayer trieLog = new TrieLogLayer();
+    trieLog.setBlockHash(blockHash(height));
+    for (int i = 0; i < storageChanges; i++) {
+      trieLog.addStorageChange(
+          ADDRESS, Hash.hash(Bytes.ofUnsignedInt(i)), UInt256.ZERO, UInt256.valueOf(i));
+    }
+    trieLog.freeze();
+    return new BonsaiLayeredWorldState(
+        null, null, Optional.empty(), height, Hash.EMPTY_TRIE_HASH, trieLog);
+  }
+
+  private static Hash blockHash(final long height) {
+    return Hash.hash(Bytes.ofUnsignedLong(height));
+  }
+}
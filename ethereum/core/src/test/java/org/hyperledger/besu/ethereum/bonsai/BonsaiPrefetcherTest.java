@@ -0,0 +1,151 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.bonsai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.AccessListEntry;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.testutil.MockExecutorService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class BonsaiPrefetcherTest {
+
+  private static final Address SENDER = Address.fromHexString("0x1000");
+  private static final Address CONTRACT = Address.fromHexString("0x2000");
+  private static final Bytes CODE = Bytes.fromHexString("0x6001600155");
+  private static final Bytes32 STORAGE_KEY = Bytes32.fromHexStringLenient("0x01");
+  private static final Hash SLOT_HASH = Hash.hash(STORAGE_KEY);
+  private static final Supplier<Optional<Bytes>> NOT_PREFETCHED =
+      () -> {
+        throw new AssertionError("Value should have been prefetched");
+      };
+
+  private final BonsaiWorldStateKeyValueStorage storage =
+      new BonsaiWorldStateKeyValueStorage(new InMemoryKeyValueStorageProvider());
+  private final BonsaiPrefetcher prefetcher =
+      new BonsaiPrefetcher(
+          storage, MoreExecutors.newDirectExecutorService(), new NoOpMetricsSystem());
+  private final BlockHeader blockHeader = new BlockHeaderTestFixture().buildHeader();
+
+  @Test
+  public void servesAccountsCodeAndSlotsOfTransactionsFromMemory() {
+    final Bytes contractAccount = account(Hash.hash(CODE));
+    storage
+        .updater()
+        .putAccountInfoState(Hash.hash(SENDER), account(Hash.EMPTY))
+        .putAccountInfoState(Hash.hash(CONTRACT), contractAccount)
+        .putCode(Hash.hash(CONTRACT), null, CODE)
+        .putStorageValueBySlotHash(Hash.hash(CONTRACT), SLOT_HASH, Bytes.of(1))
+        .commit();
+
+    prefetcher.prefetch(blockHeader, List.of(transaction()));
+
+    assertThat(prefetcher.getAccount(CONTRACT, NOT_PREFETCHED)).contains(contractAccount);
+    assertThat(prefetcher.getAccount(SENDER, NOT_PREFETCHED)).isPresent();
+    assertThat(prefetcher.getAccount(blockHeader.getCoinbase(), NOT_PREFETCHED)).isEmpty();
+    assertThat(prefetcher.getCode(CONTRACT, NOT_PREFETCHED)).contains(CODE);
+    assertThat(prefetcher.getStorageValueBySlotHash(CONTRACT, SLOT_HASH, NOT_PREFETCHED))
+        .contains(Bytes.of(1));
+  }
+
+  @Test
+  public void discardsPrefetchedValuesWhenPersisted() {
+    prefetcher.prefetch(blockHeader, List.of(transaction()));
+    prefetcher.onPersisted(Map.of());
+
+    assertThat(prefetcher.getAccount(CONTRACT, () -> Optional.of(Bytes.of(2))))
+        .contains(Bytes.of(2));
+  }
+
+  @Test
+  public void prefetchesSlotsWrittenByPreviousBlock() {
+    final Address account = Address.fromHexString("0x3000");
+    final Hash slotHash = Hash.hash(Bytes32.fromHexStringLenient("0x02"));
+    storage.updater().putStorageValueBySlotHash(Hash.hash(account), slotHash, Bytes.of(3)).commit();
+
+    prefetcher.onPersisted(Map.of(account, Map.of(slotHash, Bytes.EMPTY)));
+    prefetcher.prefetch(blockHeader, List.of());
+
+    assertThat(prefetcher.getStorageValueBySlotHash(account, slotHash, NOT_PREFETCHED))
+        .contains(Bytes.of(3));
+  }
+
+  @Test
+  public void cancelsQueuedReadsWhenPersisted() {
+    final MockExecutorService executor = new MockExecutorService();
+    executor.setAutoRun(false);
+    final BonsaiPrefetcher queuedPrefetcher =
+        new BonsaiPrefetcher(storage, executor, new NoOpMetricsSystem());
+
+    queuedPrefetcher.prefetch(blockHeader, List.of(transaction()));
+    queuedPrefetcher.onPersisted(Map.of());
+
+    assertThat(executor.getFutures()).isNotEmpty().allMatch(Future::isCancelled);
+  }
+
+  @Test
+  public void cancelsQueuedReadsOfPreviousBlock() {
+    final MockExecutorService executor = new MockExecutorService();
+    executor.setAutoRun(false);
+    final BonsaiPrefetcher queuedPrefetcher =
+        new BonsaiPrefetcher(storage, executor, new NoOpMetricsSystem());
+
+    queuedPrefetcher.prefetch(blockHeader, List.of(transaction()));
+    final Future<?> previousBlock = executor.getFutures().get(0);
+    queuedPrefetcher.prefetch(blockHeader, List.of(transaction()));
+
+    assertThat(previousBlock.isCancelled()).isTrue();
+    assertThat(executor.getFutures().get(1).isCancelled()).isFalse();
+  }
+
+  private static Bytes account(final Hash codeHash) {
+    final StateTrieAccountValue accountValue =
+        new StateTrieAccountValue(
+            0, Wei.ONE, Hash.EMPTY_TRIE_HASH, codeHash, Account.DEFAULT_VERSION);
+    return RLP.encode(accountValue::writeTo);
+  }
+
+  private static Transaction transaction() {
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.getSender()).thenReturn(SENDER);
+    when(transaction.getTo()).thenReturn(Optional.of(CONTRACT));
+    when(transaction.getAccessList())
+        .thenReturn(Optional.of(List.of(new AccessListEntry(CONTRACT, List.of(STORAGE_KEY)))));
+    return transaction;
+  }
+}
@@ -27,6 +27,7 @@ import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
 import org.hyperledger.besu.metrics.MetricsSystemFactory;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
@@ -43,6 +44,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import org.apache.tuweni.bytes.Bytes;
 import org.junit.Test;
 
 public class DefaultBlockchainTest {
@@ -892,6 +894,23 @@ public class DefaultBlockchainTest {
     assertThat(observer3Invoked.get()).isTrue();
   }
 
+  @Test
+  public void receiptsRlpLeavesOutRevertReasons() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final List<Block> blocks = gen.blockSequence(2);
+    final Block block = blocks.get(1);
+    final List<TransactionReceipt> receipts =
+        block.getBody().getTransactions().stream()
+            .map(transaction -> gen.receipt(Bytes.of(1)))
+            .collect(Collectors.toList());
+    final DefaultBlockchain blockchain = createMutableBlockchain(kvStore, blocks.get(0));
+    blockchain.appendBlock(block, receipts);
+
+    assertThat(blockchain.getTxReceiptsRlpForBlocks(List.of(block.getHash())))
+        .containsExactly(Optional.of(BlockchainStorage.encodeReceiptsForPeers(receipts)));
+  }
+
   /*
    * Check that block header, block body, block number, transaction locations, and receipts for this
    * block are all stored.
@@ -915,6 +934,10 @@ public class DefaultBlockchainTest {
     }
     final List<TransactionReceipt> actualReceipts = blockchain.getTxReceipts(hash).get();
     assertThat(actualReceipts).isEqualTo(receipts);
+
+    assertThat(blockchain.getBlockBodyRlp(hash)).contains(RLP.encode(block.getBody()::writeTo));
+    assertThat(blockchain.getTxReceiptsRlpForBlocks(List.of(hash)))
+        .containsExactly(Optional.of(BlockchainStorage.encodeReceiptsForPeers(receipts)));
   }
 
   private void assertBlockIsHead(final Blockchain blockchain, final Block head) {
@@ -97,4 +97,24 @@ public class MainnetContractCreationProcessorTest {
     processor.codeSuccess(messageFrame, OperationTracer.NO_TRACING);
     assertThat(messageFrame.getState()).isEqualTo(COMPLETED_SUCCESS);
   }
+
+  @Test
+  public void shouldStoreACopyOfTheReturnedCode() {
+    processor =
+        new MainnetContractCreationProcessor(
+            gasCalculator, evm, true, Collections.emptyList(), 1, Collections.emptyList());
+    final byte[] memory = Bytes.fromHexString("0x0001010101010101").toArrayUnsafe();
+    final Bytes contractCode = Bytes.wrap(memory, 1, 7);
+    MessageFrame messageFrame = new MessageFrameTestFixture().build();
+    messageFrame.setOutputData(contractCode);
+    messageFrame.setGasRemaining(Gas.of(100));
+
+    when(gasCalculator.codeDepositGasCost(contractCode.size())).thenReturn(Gas.of(10));
+    processor.codeSuccess(messageFrame, OperationTracer.NO_TRACING);
+    memory[1] = 0x02;
+
+    assertThat(messageFrame.getState()).isEqualTo(COMPLETED_SUCCESS);
+    assertThat(messageFrame.getWorldState().get(messageFrame.getContractAddress()).getCode())
+        .isEqualTo(Bytes.fromHexString("0x01010101010101"));
+  }
 }
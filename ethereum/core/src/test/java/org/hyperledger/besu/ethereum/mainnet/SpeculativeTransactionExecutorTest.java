@@ -0,0 +1,194 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.config.StubGenesisConfigOptions;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.Util;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.referencetests.ReferenceTestBlockchain;
+import org.hyperledger.besu.plugin.data.TransactionType;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpeculativeTransactionExecutorTest {
+
+  private static final int SENDER_COUNT = 8;
+  private static final Wei INITIAL_BALANCE = Wei.fromEth(100);
+  private static final Address COINBASE = Address.fromHexString("0xc0");
+  private static final Address COUNTER = Address.fromHexString("0xc1");
+  // SSTORE(0, SLOAD(0) + 1)
+  private static final Bytes COUNTER_CODE = Bytes.fromHexString("0x6001600054016000550000");
+
+  private final Blockchain blockchain = new ReferenceTestBlockchain();
+  private final BlockHeader blockHeader =
+      new BlockHeaderTestFixture().number(1).gasLimit(10_000_000).coinbase(COINBASE).buildHeader();
+  private final List<KeyPair> senders = new ArrayList<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private final MetricsSystem metricsSystem = mock(MetricsSystem.class);
+  @SuppressWarnings("unchecked")
+  private final LabelledMetric<Counter> transactionsCounter = mock(LabelledMetric.class);
+
+  private final Counter committedCounter = mock(Counter.class);
+  private final Counter conflictedCounter = mock(Counter.class);
+  private final Counter failedCounter = mock(Counter.class);
+
+  private MutableWorldState initialWorldState;
+
+  @Before
+  public void setUp() {
+    when(metricsSystem.createLabelledCounter(any(), anyString(), anyString(), anyString()))
+        .thenReturn(transactionsCounter);
+    when(transactionsCounter.labels("committed")).thenReturn(committedCounter);
+    when(transactionsCounter.labels("conflicted")).thenReturn(conflictedCounter);
+    when(transactionsCounter.labels("failed")).thenReturn(failedCounter);
+
+    initialWorldState = InMemoryKeyValueStorageProvider.createInMemoryWorldState();
+    final WorldUpdater updater = initialWorldState.updater();
+    for (int i = 0; i < SENDER_COUNT; i++) {
+      final KeyPair keyPair = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+      senders.add(keyPair);
+      updater.createAccount(senderAddress(i), 0, INITIAL_BALANCE);
+    }
+    updater.createAccount(COINBASE, 0, INITIAL_BALANCE);
+    updater.createAccount(COUNTER).getMutable().setCode(COUNTER_CODE);
+    updater.commit();
+    initialWorldState.persist(new BlockHeaderTestFixture().number(0).buildHeader());
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void commitsIndependentTransactionsWithoutReexecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < SENDER_COUNT; i++) {
+      transactions.add(transfer(i, 0, Address.fromHexString("0x1" + i)));
+    }
+
+    assertSameOutcomeAsSerialExecution(transactions);
+
+    verify(committedCounter, times(SENDER_COUNT)).inc();
+    verify(conflictedCounter, times(0)).inc();
+    verify(failedCounter, times(0)).inc();
+  }
+
+  @Test
+  public void reexecutesConflictingTransactions() {
+    final Address sharedRecipient = Address.fromHexString("0x20");
+    final List<Transaction> transactions = new ArrayList<>();
+    // Same sender
+    transactions.add(transfer(0, 0, Address.fromHexString("0x21")));
+    transactions.add(transfer(0, 1, Address.fromHexString("0x22")));
+    // Same recipient
+    transactions.add(transfer(1, 0, sharedRecipient));
+    transactions.add(transfer(2, 0, sharedRecipient));
+    // Same storage slot
+    transactions.add(transfer(3, 0, COUNTER));
+    transactions.add(transfer(4, 0, COUNTER));
+    transactions.add(transfer(5, 0, COUNTER));
+    // Reading the mining beneficiary, credited by every transaction before it
+    transactions.add(transfer(6, 0, COINBASE));
+
+    final MutableWorldState worldState = assertSameOutcomeAsSerialExecution(transactions);
+
+    assertThat(worldState.get(COUNTER).getStorageValue(UInt256.ZERO))
+        .isEqualTo(UInt256.valueOf(3));
+    verify(committedCounter, times(3)).inc();
+    verify(conflictedCounter, times(4)).inc();
+    verify(failedCounter, times(1)).inc();
+  }
+
+  private MutableWorldState assertSameOutcomeAsSerialExecution(
+      final List<Transaction> transactions) {
+    final MutableWorldState serialWorldState = initialWorldState.copy();
+    final BlockProcessor.Result serialResult =
+        createBlockProcessor()
+            .processBlock(blockchain, serialWorldState, blockHeader, transactions, emptyList());
+
+    final MutableWorldState speculativeWorldState = initialWorldState.copy();
+    final AbstractBlockProcessor speculativeProcessor = createBlockProcessor();
+    speculativeProcessor.setSpeculativeExecutor(
+        new SpeculativeTransactionExecutor(executor, metricsSystem));
+    final BlockProcessor.Result speculativeResult =
+        speculativeProcessor.processBlock(
+            blockchain, speculativeWorldState, blockHeader, transactions, emptyList());
+
+    assertThat(serialResult.isSuccessful()).isTrue();
+    assertThat(speculativeResult.isSuccessful()).isTrue();
+    assertThat(speculativeResult.getReceipts()).isEqualTo(serialResult.getReceipts());
+    assertThat(speculativeWorldState.rootHash()).isEqualTo(serialWorldState.rootHash());
+    return speculativeWorldState;
+  }
+
+  private AbstractBlockProcessor createBlockProcessor() {
+    return (AbstractBlockProcessor)
+        MainnetProtocolSchedule.fromConfig(
+                new StubGenesisConfigOptions().istanbulBlock(0).chainId(BigInteger.ONE))
+            .getByBlockNumber(blockHeader.getNumber())
+            .getBlockProcessor();
+  }
+
+  private Transaction transfer(final int sender, final long nonce, final Address to) {
+    return Transaction.builder()
+        .type(TransactionType.FRONTIER)
+        .nonce(nonce)
+        .gasPrice(Wei.of(10))
+        .gasLimit(100_000)
+        .to(to)
+        .value(Wei.of(1))
+        .payload(Bytes.EMPTY)
+        .chainId(BigInteger.ONE)
+        .signAndBuild(senders.get(sender));
+  }
+
+  private Address senderAddress(final int sender) {
+    return Util.publicKeyToAddress(senders.get(sender).getPublicKey());
+  }
+}
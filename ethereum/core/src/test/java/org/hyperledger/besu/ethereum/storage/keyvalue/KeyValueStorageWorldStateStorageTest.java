@@ -19,9 +19,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage.Updater;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.Test;
 
@@ -201,6 +208,47 @@ public class KeyValueStorageWorldStateStorageTest {
     assertThat(emptyStorage().isWorldStateAvailable(Hash.EMPTY_TRIE_HASH, null)).isTrue();
   }
 
+  @Test
+  public void prune_removesUnusedNodesAcrossParallelRanges() {
+    final WorldStateKeyValueStorage storage = emptyStorage();
+    final Set<Hash> inUse = new HashSet<>();
+    final Set<Hash> unused = new HashSet<>();
+    final Updater updater = storage.updater();
+    for (int i = 0; i < 25_000; i++) {
+      final Bytes code = Bytes.ofUnsignedInt(i);
+      updater.putCode(null, code);
+      (i % 3 == 0 ? inUse : unused).add(Hash.hash(code));
+    }
+    updater.commit();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final long pruned =
+          storage.prune(key -> inUse.contains(Hash.wrap(Bytes32.wrap(key))), executor);
+      assertThat(pruned).isEqualTo(unused.size());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    inUse.forEach(hash -> assertThat(storage.getCode(hash, null)).isPresent());
+    unused.forEach(hash -> assertThat(storage.getCode(hash, null)).isEmpty());
+  }
+
+  @Test
+  public void snapshot_isNotAffectedByPruning() {
+    final WorldStateKeyValueStorage storage = emptyStorage();
+    final Bytes code = Bytes.of(1, 2, 3);
+    final Hash codeHash = Hash.hash(code);
+    storage.updater().putCode(null, code).commit();
+
+    try (final WorldStateStorage.Snapshot snapshot = storage.takeSnapshot().orElseThrow()) {
+      storage.prune(key -> false);
+
+      assertThat(storage.getCode(codeHash, null)).isEmpty();
+      assertThat(snapshot.getWorldStateStorage().getCode(codeHash, null)).contains(code);
+    }
+  }
+
   private WorldStateKeyValueStorage emptyStorage() {
     return new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
   }
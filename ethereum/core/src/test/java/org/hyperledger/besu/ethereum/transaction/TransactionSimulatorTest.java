@@ -418,12 +418,14 @@ public class TransactionSimulatorTest {
       final Hash stateRoot, final Address address, final long nonce) {
     final Account account = mock(Account.class);
     when(account.getNonce()).thenReturn(nonce);
+    when(worldStateArchive.mapWorldState(eq(stateRoot), any(), any())).thenCallRealMethod();
     when(worldStateArchive.getMutable(eq(stateRoot), any(), anyBoolean()))
         .thenReturn(Optional.of(worldState));
     when(worldState.get(eq(address))).thenReturn(account);
   }
 
   private void mockWorldStateForAbsentAccount(final Hash stateRoot) {
+    when(worldStateArchive.mapWorldState(eq(stateRoot), any(), any())).thenCallRealMethod();
     when(worldStateArchive.getMutable(eq(stateRoot), any(), anyBoolean()))
         .thenReturn(Optional.of(worldState));
     when(worldState.get(any())).thenReturn(null);
@@ -432,6 +434,7 @@ public class TransactionSimulatorTest {
   private MutableAccount mockWorldUpdaterForAccount(final Hash stateRoot, final Address address) {
     final EvmAccount account = mock(EvmAccount.class);
     final MutableAccount mutableAccount = mock(MutableAccount.class);
+    when(worldStateArchive.mapWorldState(eq(stateRoot), any(), any())).thenCallRealMethod();
     when(worldStateArchive.getMutable(eq(stateRoot), any(), anyBoolean()))
         .thenReturn(Optional.of(worldState));
     when(worldState.updater()).thenReturn(worldUpdater);
@@ -0,0 +1,95 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.mainnet.IstanbulGasCalculator;
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.vm.operations.JumpOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class CodeCacheTest {
+
+  // PUSH1 0x04 JUMP PUSH2 0x5b5b JUMPDEST PUSH1 0x01
+  private static final Bytes CODE = Bytes.fromHexString("0x600456615b5b5b6001");
+
+  @Test
+  public void returnsTheSameCodeForTheSameHash() {
+    final CodeCache codeCache = new CodeCache();
+    final Code first = codeCache.getOrCreate(Hash.hash(CODE), () -> CODE);
+    final Code second =
+        codeCache.getOrCreate(
+            Hash.hash(CODE),
+            () -> {
+              throw new AssertionError("Code should not be loaded on a cache hit");
+            });
+
+    assertThat(second).isSameAs(first);
+    assertThat(codeCache.getMisses()).isEqualTo(1);
+    assertThat(codeCache.getHits()).isEqualTo(1);
+    assertThat(codeCache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void weighsCodeTogetherWithItsAnalysis() {
+    final int estimatedSize = CodeCache.estimatedSize(new Code(CODE));
+    assertThat(estimatedSize).isGreaterThan(CODE.size() * CodeCache.ANALYSIS_BYTES_PER_CODE_BYTE);
+
+    final CodeCache codeCache = new CodeCache(estimatedSize - 1);
+    codeCache.getOrCreate(Hash.hash(CODE), () -> CODE);
+    assertThat(codeCache.size()).isZero();
+  }
+
+  @Test
+  public void analysisIsPerformedOnceAndSkipsPushData() {
+    final GasCalculator gasCalculator = new IstanbulGasCalculator();
+    final OperationRegistry registry = new OperationRegistry();
+    registry.put(new JumpOperation(gasCalculator), 0);
+    registry.put(new JumpDestOperation(gasCalculator), 0);
+    registry.put(new PushOperation(1, gasCalculator), 0);
+    registry.put(new PushOperation(2, gasCalculator), 0);
+    final EVM evm = new EVM(registry, gasCalculator);
+    final Code code = evm.getCode(Hash.hash(CODE), () -> CODE);
+
+    final CodeAnalysis analysis = code.getAnalysis(evm, 0);
+    assertThat(code.getAnalysis(evm, 0)).isSameAs(analysis);
+    assertThat(evm.getCodeCache().getAnalyses()).isEqualTo(1);
+
+    assertThat(analysis.isJumpDestination(4)).isFalse();
+    assertThat(analysis.isJumpDestination(5)).isFalse();
+    assertThat(analysis.isJumpDestination(6)).isTrue();
+    assertThat(analysis.operationAt(3).getName()).isEqualTo("PUSH2");
+    assertThat(analysis.operationAt(4)).isNull();
+    assertThat(code.getPushValue(3, 2)).isEqualTo(Bytes32.fromHexString("0x5b5b"));
+    assertThat(code.getPushValue(7, 1)).isEqualTo(Bytes32.fromHexString("0x01"));
+
+    // PUSH1 + JUMP
+    assertThat(analysis.blockGasCostAt(0)).isEqualTo(11);
+    assertThat(analysis.blockEndAt(0)).isEqualTo(3);
+    // PUSH2, ended by the following JUMPDEST
+    assertThat(analysis.blockGasCostAt(3)).isEqualTo(3);
+    assertThat(analysis.blockEndAt(3)).isEqualTo(6);
+    // JUMPDEST + PUSH1, ended by the end of the code
+    assertThat(analysis.blockGasCostAt(6)).isEqualTo(4);
+    assertThat(analysis.blockEndAt(6)).isEqualTo(9);
+    assertThat(analysis.blockGasCostAt(7)).isZero();
+  }
+}
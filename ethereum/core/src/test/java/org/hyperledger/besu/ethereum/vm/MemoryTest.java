@@ -147,6 +147,48 @@ public class MemoryTest {
     assertThat(memory.getWord(UInt256.valueOf(64))).isEqualTo(Bytes32.ZERO);
   }
 
+  @Test
+  public void shouldOnlyExposeActiveWordsWhenCapacityGrows() {
+    memory.setWord(UInt256.ZERO, WORD1);
+    memory.setWord(UInt256.valueOf(32), WORD2);
+    memory.setByte(UInt256.valueOf(64), (byte) 1);
+
+    assertThat(memory.getActiveWords()).isEqualTo(UInt256.valueOf(3));
+    assertThat(memory.getActiveBytes()).isEqualTo(96);
+
+    final Memory expected = new Memory();
+    expected.setBytes(
+        UInt256.ZERO, UInt256.valueOf(65), Bytes.concatenate(WORD1, WORD2, Bytes.of((byte) 1)));
+    assertThat(memory).isEqualTo(expected);
+    assertThat(memory.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(memory.toString()).hasSize(2 + 96 * 2);
+  }
+
+  @Test
+  public void shouldTransferWordsToAndFromOperandStack() {
+    final OperandStack stack = new OperandStack(1024);
+    stack.push(WORD1);
+    memory.popWord(UInt256.valueOf(10), stack);
+
+    assertThat(stack.isEmpty()).isTrue();
+    assertThat(memory.getWord(UInt256.valueOf(10))).isEqualTo(WORD1);
+
+    memory.pushWord(UInt256.valueOf(10), stack);
+    assertThat(stack.pop()).isEqualTo(WORD1);
+  }
+
+  @Test
+  public void shouldReturnViewOfMemoryWithoutCopy() {
+    memory.setWord(UInt256.ZERO, WORD1);
+    final Bytes view = memory.getBytesWithoutCopy(UInt256.ZERO, UInt256.valueOf(32));
+    final Bytes copy = memory.getBytes(UInt256.ZERO, UInt256.valueOf(32));
+
+    memory.setWord(UInt256.ZERO, WORD2);
+
+    assertThat(view).isEqualTo(WORD2);
+    assertThat(copy).isEqualTo(WORD1);
+  }
+
   private static Bytes32 fillBytes32(final long value) {
     return Bytes32.fromHexString(Strings.repeat(Long.toString(value), 64));
   }
@@ -19,7 +19,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.ethereum.vm.FixedStack.OverflowException;
 import org.hyperledger.besu.ethereum.vm.FixedStack.UnderflowException;
 
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.Test;
 
 public class OperandStackTest {
@@ -106,4 +112,79 @@ public class OperandStackTest {
     assertThat(stack.get(1)).isEqualTo(Bytes32.fromHexString("0x02"));
     assertThat(stack.get(2)).isEqualTo(Bytes32.fromHexString("0x04"));
   }
+
+  @Test
+  public void arithmeticMatchesUInt256() {
+    assertBinaryOperation(OperandStack::add, UInt256::add);
+    assertBinaryOperation(OperandStack::sub, UInt256::subtract);
+    assertBinaryOperation(OperandStack::mul, UInt256::multiply);
+    assertBinaryOperation(OperandStack::div, (a, b) -> b.isZero() ? UInt256.ZERO : a.divide(b));
+    assertBinaryOperation(OperandStack::mod, UInt256::mod0);
+    assertBinaryOperation(OperandStack::and, UInt256::and);
+    assertBinaryOperation(OperandStack::or, UInt256::or);
+    assertBinaryOperation(OperandStack::xor, UInt256::xor);
+  }
+
+  @Test
+  public void comparisonsMatchUInt256() {
+    assertBinaryOperation(OperandStack::lt, (a, b) -> bool(a.compareTo(b) < 0));
+    assertBinaryOperation(OperandStack::gt, (a, b) -> bool(a.compareTo(b) > 0));
+    assertBinaryOperation(OperandStack::eq, (a, b) -> bool(a.equals(b)));
+    assertBinaryOperation(
+        OperandStack::slt,
+        (a, b) -> bool(a.toBytes().toBigInteger().compareTo(b.toBytes().toBigInteger()) < 0));
+    assertBinaryOperation(
+        OperandStack::sgt,
+        (a, b) -> bool(a.toBytes().toBigInteger().compareTo(b.toBytes().toBigInteger()) > 0));
+  }
+
+  @Test
+  public void exp() {
+    final OperandStack stack = new OperandStack(2);
+    stack.push(Bytes32.fromHexString("0x03"));
+    stack.push(Bytes32.fromHexString("0x02"));
+    assertThat(stack.byteLength(1)).isEqualTo(1);
+    stack.exp();
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.pop()).isEqualTo(Bytes32.fromHexString("0x08"));
+  }
+
+  @Test
+  public void isZeroAndNot() {
+    final OperandStack stack = new OperandStack(1);
+    stack.push(Bytes32.ZERO);
+    stack.isZero();
+    assertThat(stack.get(0)).isEqualTo(UInt256.ONE.toBytes());
+    stack.not();
+    assertThat(stack.get(0)).isEqualTo(UInt256.ONE.not().toBytes());
+  }
+
+  private static UInt256 bool(final boolean value) {
+    return value ? UInt256.ONE : UInt256.ZERO;
+  }
+
+  private static void assertBinaryOperation(
+      final Consumer<OperandStack> operation, final BinaryOperator<UInt256> expected) {
+    final Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      final UInt256 a = randomValue(random);
+      final UInt256 b = randomValue(random);
+      final OperandStack stack = new OperandStack(2);
+      stack.push(b.toBytes());
+      stack.push(a.toBytes());
+      operation.accept(stack);
+      assertThat(stack.size()).isEqualTo(1);
+      assertThat(stack.pop()).isEqualTo(expected.apply(a, b).toBytes());
+    }
+  }
+
+  private static UInt256 randomValue(final Random random) {
+    // Vary the width so that the single-limb fast paths and the carry/borrow paths are exercised.
+    final byte[] bytes = new byte[1 + random.nextInt(32)];
+    random.nextBytes(bytes);
+    if (random.nextInt(8) == 0) {
+      bytes[0] = (byte) 0xff;
+    }
+    return UInt256.fromBytes(Bytes32.leftPad(Bytes.wrap(bytes)));
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+public class DefaultWorldStateArchiveTest {
+
+  private static final int ACCOUNT_COUNT = 32;
+
+  private final KeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+  private final WorldStateKeyValueStorage worldStateStorage =
+      spy(new WorldStateKeyValueStorage(keyValueStorage));
+  private final WorldStatePreimageKeyValueStorage preimageStorage =
+      new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage());
+  private final AtomicBoolean snapshotReleased = new AtomicBoolean();
+  private DefaultWorldStateArchive archive;
+  private Hash rootHash;
+
+  @Before
+  public void setUp() {
+    archive =
+        new DefaultWorldStateArchive(
+            worldStateStorage,
+            preimageStorage,
+            Optional.of(new WorldStateTrieNodeCaches(Long.MAX_VALUE, new NoOpMetricsSystem())));
+    final MutableWorldState worldState = archive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      final MutableAccount account = updater.createAccount(address(i)).getMutable();
+      account.setBalance(Wei.of(i + 1));
+      for (int slot = 0; slot < ACCOUNT_COUNT; slot++) {
+        account.setStorageValue(UInt256.valueOf(slot), UInt256.valueOf(i + slot + 1));
+      }
+    }
+    updater.commit();
+    worldState.persist(null);
+    rootHash = worldState.rootHash();
+
+    // Snapshots read the same storage, but like RocksDB snapshots they fail once released
+    final WorldStateKeyValueStorage snapshotStorage =
+        spy(new WorldStateKeyValueStorage(keyValueStorage));
+    final Answer<?> failIfReleased =
+        invocation -> {
+          if (snapshotReleased.get()) {
+            throw new IllegalStateException("Snapshot has been released");
+          }
+          return invocation.callRealMethod();
+        };
+    doAnswer(failIfReleased).when(snapshotStorage).getAccountStateTrieNode(any(), any());
+    doAnswer(failIfReleased).when(snapshotStorage).getAccountStorageTrieNode(any(), any(), any());
+    doReturn(
+            Optional.of(
+                new WorldStateStorage.Snapshot() {
+                  @Override
+                  public WorldStateStorage getWorldStateStorage() {
+                    return snapshotStorage;
+                  }
+
+                  @Override
+                  public void close() {
+                    snapshotReleased.set(true);
+                  }
+                }))
+        .when(worldStateStorage)
+        .takeSnapshot();
+  }
+
+  @Test
+  public void liveWorldStateReadsTrieNodesCachedThroughReleasedSnapshot() {
+    assertThat(archive.mapWorldState(rootHash, null, this::readAllAccounts)).contains(true);
+    assertThat(snapshotReleased).isTrue();
+
+    final MutableWorldState worldState = archive.getMutable(rootHash, null).orElseThrow();
+    assertThat(readAllAccounts(worldState)).isTrue();
+  }
+
+  private boolean readAllAccounts(final MutableWorldState worldState) {
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      assertThat(worldState.get(address(i)).getBalance()).isEqualTo(Wei.of(i + 1));
+      for (int slot = 0; slot < ACCOUNT_COUNT; slot++) {
+        assertThat(worldState.get(address(i)).getStorageValue(UInt256.valueOf(slot)))
+            .isEqualTo(UInt256.valueOf(i + slot + 1));
+      }
+    }
+    return true;
+  }
+
+  private static Address address(final int i) {
+    return Address.fromHexString(String.format("0x%040x", i + 1));
+  }
+}
@@ -144,7 +144,7 @@ public class MarkSweepPrunerTest {
         stateRoot -> {
           final InOrder thisRootsOrdering = inOrder(hashValueStore, worldStateStorage);
           thisRootsOrdering.verify(hashValueStore).remove(stateRoot);
-          thisRootsOrdering.verify(worldStateStorage).prune(any());
+          thisRootsOrdering.verify(worldStateStorage).prune(any(), any());
         });
   }
 
@@ -181,7 +181,7 @@ public class MarkSweepPrunerTest {
         stateRoot -> {
           final InOrder thisRootsOrdering = inOrder(hashValueStore, worldStateStorage);
           thisRootsOrdering.verify(hashValueStore).remove(stateRoot);
-          thisRootsOrdering.verify(worldStateStorage).prune(any());
+          thisRootsOrdering.verify(worldStateStorage).prune(any(), any());
         });
 
     assertThat(stateStorage.containsKey(markedRoot.toArray())).isTrue();
@@ -0,0 +1,160 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync;
+
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_TUNING_ENABLED;
+
+import org.hyperledger.besu.ethereum.chain.BlockchainStorage;
+import org.hyperledger.besu.ethereum.chain.TransactionLocation;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.ProtocolScheduleFixture;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProviderBuilder;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageFormat;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBKeyValueStorageFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.services.BesuConfigurationImpl;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.io.Files;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the RocksDB write modes under the write patterns of world state download, which
+ * persists batches of trie nodes, and block import, which persists one block with its receipts
+ * per commit.
+ */
+@State(Scope.Thread)
+public class RocksDBWriteModeBenchmark {
+
+  private static final int NODES_PER_BATCH = 384;
+  private static final int NODE_SIZE = 532;
+  private static final int BLOCK_COUNT = 32;
+
+  @Param({"TRANSACTION", "WRITE_BATCH", "BULK_IMPORT"})
+  public String writeMode;
+
+  private final BlockDataGenerator dataGen = new BlockDataGenerator();
+  private Path tempDir;
+  private StorageProvider storageProvider;
+  private WorldStateStorage worldStateStorage;
+  private BlockchainStorage blockchainStorage;
+  private List<Block> blocks;
+  private List<List<TransactionReceipt>> receipts;
+  private int nextBlock;
+  private final List<Bytes> nodes = new ArrayList<>(NODES_PER_BATCH);
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    tempDir = Files.createTempDir().toPath();
+    storageProvider = createKeyValueStorageProvider(tempDir, tempDir.resolve("database"));
+    worldStateStorage = storageProvider.createWorldStateStorage(DataStorageFormat.FOREST);
+    blockchainStorage = storageProvider.createBlockchainStorage(ProtocolScheduleFixture.MAINNET);
+
+    blocks = dataGen.blockSequence(BLOCK_COUNT);
+    receipts = new ArrayList<>(BLOCK_COUNT);
+    blocks.forEach(block -> receipts.add(dataGen.receipts(block)));
+  }
+
+  @Setup(Level.Invocation)
+  public void createNodes() {
+    nodes.clear();
+    for (int i = 0; i < NODES_PER_BATCH; i++) {
+      nodes.add(Bytes.random(NODE_SIZE));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    storageProvider.close();
+    MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public void persistNodeData() {
+    final WorldStateStorage.Updater updater = worldStateStorage.updater();
+    for (final Bytes node : nodes) {
+      updater.putAccountStateTrieNode(null, Hash.hash(node), node);
+    }
+    updater.commit();
+  }
+
+  @Benchmark
+  public void persistBlock() {
+    final int index = nextBlock++ % BLOCK_COUNT;
+    final Block block = blocks.get(index);
+    final Hash hash = block.getHash();
+
+    final BlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockBody(hash, block.getBody());
+    updater.putTransactionReceipts(hash, receipts.get(index));
+    updater.putTotalDifficulty(hash, Difficulty.of(block.getHeader().getNumber()));
+    for (int i = 0; i < block.getBody().getTransactions().size(); i++) {
+      updater.putTransactionLocation(
+          block.getBody().getTransactions().get(i).getHash(), new TransactionLocation(hash, i));
+    }
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.setChainHead(hash);
+    updater.commit();
+  }
+
+  private StorageProvider createKeyValueStorageProvider(final Path dataDir, final Path dbDir) {
+    return new KeyValueStorageProviderBuilder()
+        .withStorageFactory(
+            new RocksDBKeyValueStorageFactory(
+                () ->
+                    new RocksDBFactoryConfiguration(
+                        DEFAULT_MAX_OPEN_FILES,
+                        DEFAULT_MAX_BACKGROUND_COMPACTIONS,
+                        DEFAULT_BACKGROUND_THREAD_COUNT,
+                        DEFAULT_CACHE_CAPACITY,
+                        DEFAULT_SEGMENT_TUNING_ENABLED,
+                        DEFAULT_BLOOM_FILTER_BITS_PER_KEY,
+                        !writeMode.equals("TRANSACTION"),
+                        writeMode.equals("BULK_IMPORT")),
+                Arrays.asList(KeyValueSegmentIdentifier.values()),
+                RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS))
+        .withCommonConfiguration(new BesuConfigurationImpl(dataDir, dbDir))
+        .withMetricsSystem(new NoOpMetricsSystem())
+        .build();
+  }
+}
@@ -14,17 +14,37 @@
  */
 package org.hyperledger.besu.ethereum.eth.manager;
 
+import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
 public class EthContext {
 
   private final EthPeers ethPeers;
   private final EthMessages ethMessages;
   private final EthScheduler scheduler;
+  private final SenderRecoveryService senderRecovery;
 
   public EthContext(
       final EthPeers ethPeers, final EthMessages ethMessages, final EthScheduler scheduler) {
+    this(
+        ethPeers,
+        ethMessages,
+        scheduler,
+        new SenderRecoveryService(
+            scheduler,
+            SynchronizerConfiguration.DEFAULT_COMPUTATION_PARALLELISM,
+            new NoOpMetricsSystem()));
+  }
+
+  public EthContext(
+      final EthPeers ethPeers,
+      final EthMessages ethMessages,
+      final EthScheduler scheduler,
+      final SenderRecoveryService senderRecovery) {
     this.ethPeers = ethPeers;
     this.ethMessages = ethMessages;
     this.scheduler = scheduler;
+    this.senderRecovery = senderRecovery;
   }
 
   public EthPeers getEthPeers() {
@@ -38,4 +58,8 @@ public class EthContext {
   public EthScheduler getScheduler() {
     return scheduler;
   }
+
+  public SenderRecoveryService getSenderRecovery() {
+    return senderRecovery;
+  }
 }
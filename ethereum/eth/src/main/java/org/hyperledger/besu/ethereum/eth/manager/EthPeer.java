@@ -18,14 +18,20 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import org.hyperledger.besu.ethereum.core.Difficulty;
 import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.EthProtocol;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV63;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV65;
+import org.hyperledger.besu.ethereum.eth.messages.GetAccountRangeMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetBlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetBlockHeadersMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetByteCodesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetNodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetPooledTransactionsMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetReceiptsMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetStorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
@@ -39,17 +45,21 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class EthPeer {
   private static final Logger LOG = LogManager.getLogger();
@@ -71,11 +81,14 @@ public class EthPeer {
   private final AtomicInteger lastProtocolVersion = new AtomicInteger(0);
 
   private volatile long lastRequestTimestamp = 0;
-  private final RequestManager headersRequestManager = new RequestManager(this);
-  private final RequestManager bodiesRequestManager = new RequestManager(this);
-  private final RequestManager receiptsRequestManager = new RequestManager(this);
-  private final RequestManager nodeDataRequestManager = new RequestManager(this);
-  private final RequestManager pooledTransactionsRequestManager = new RequestManager(this);
+  private final RequestManager headersRequestManager;
+  private final RequestManager bodiesRequestManager;
+  private final RequestManager receiptsRequestManager;
+  private final RequestManager nodeDataRequestManager;
+  private final RequestManager pooledTransactionsRequestManager;
+  private final RequestManager accountRangeRequestManager;
+  private final RequestManager storageRangesRequestManager;
+  private final RequestManager byteCodesRequestManager;
 
   private final AtomicReference<Consumer<EthPeer>> onStatusesExchanged = new AtomicReference<>();
   private final PeerReputation reputation = new PeerReputation();
@@ -93,6 +106,14 @@ public class EthPeer {
     this.protocolName = protocolName;
     this.clock = clock;
     this.permissioningProviders = permissioningProviders;
+    this.headersRequestManager = new RequestManager(this, clock);
+    this.bodiesRequestManager = new RequestManager(this, clock);
+    this.receiptsRequestManager = new RequestManager(this, clock);
+    this.nodeDataRequestManager = new RequestManager(this, clock);
+    this.pooledTransactionsRequestManager = new RequestManager(this, clock);
+    this.accountRangeRequestManager = new RequestManager(this, clock);
+    this.storageRangesRequestManager = new RequestManager(this, clock);
+    this.byteCodesRequestManager = new RequestManager(this, clock);
     knownBlocks =
         Collections.newSetFromMap(
             Collections.synchronizedMap(
@@ -140,8 +161,12 @@ public class EthPeer {
   }
 
   public void recordRequestTimeout(final int requestCode) {
-    LOG.debug("Timed out while waiting for response from peer {}", this);
-    reputation.recordRequestTimeout(requestCode).ifPresent(this::disconnect);
+    recordRequestTimeout(EthProtocol.NAME, requestCode);
+  }
+
+  public void recordRequestTimeout(final String protocol, final int requestCode) {
+    LOG.debug("Timed out while waiting for {} response from peer {}", protocol, this);
+    reputation.recordRequestTimeout(protocol, requestCode).ifPresent(this::disconnect);
   }
 
   public void recordUselessResponse(final String requestType) {
@@ -188,6 +213,17 @@ public class EthPeer {
     }
   }
 
+  /**
+   * Sends a message of the snap protocol. Snap messages have their own message codes, which overlap
+   * with those of the eth protocol, so they are sent over the snap sub-protocol of the connection.
+   *
+   * @param messageData the snap message
+   * @throws PeerNotConnected if the peer is no longer connected
+   */
+  public void sendSnap(final MessageData messageData) throws PeerNotConnected {
+    connection.sendForProtocol(SnapProtocol.NAME, messageData);
+  }
+
   public RequestManager.ResponseStream getHeadersByHash(
       final Hash hash, final int maxHeaders, final int skip, final boolean reverse)
       throws PeerNotConnected {
@@ -211,30 +247,106 @@ public class EthPeer {
         () -> connection.sendForProtocol(protocolName, messageData));
   }
 
+  /**
+   * Requests the bodies of the given blocks. Only as many bodies as the peer is expected to send
+   * in a timely manner are requested, callers must request the remaining bodies again.
+   *
+   * @param blockHashes the hashes of the blocks
+   * @return the stream of responses
+   * @throws PeerNotConnected if the peer is no longer connected
+   */
   public RequestManager.ResponseStream getBodies(final List<Hash> blockHashes)
       throws PeerNotConnected {
-    final GetBlockBodiesMessage message = GetBlockBodiesMessage.create(blockHashes);
+    final GetBlockBodiesMessage message =
+        GetBlockBodiesMessage.create(limitRequest(bodiesRequestManager, blockHashes));
     return sendRequest(bodiesRequestManager, message);
   }
 
+  /**
+   * Requests the receipts of the given blocks. Only as many receipts as the peer is expected to
+   * send in a timely manner are requested, callers must request the remaining receipts again.
+   *
+   * @param blockHashes the hashes of the blocks
+   * @return the stream of responses
+   * @throws PeerNotConnected if the peer is no longer connected
+   */
   public RequestManager.ResponseStream getReceipts(final List<Hash> blockHashes)
       throws PeerNotConnected {
-    final GetReceiptsMessage message = GetReceiptsMessage.create(blockHashes);
+    final GetReceiptsMessage message =
+        GetReceiptsMessage.create(limitRequest(receiptsRequestManager, blockHashes));
     return sendRequest(receiptsRequestManager, message);
   }
 
+  /**
+   * Requests the given world state nodes. Only as many nodes as the peer is expected to send in a
+   * timely manner are requested, callers must request the remaining nodes again.
+   *
+   * @param nodeHashes the hashes of the nodes
+   * @return the stream of responses
+   * @throws PeerNotConnected if the peer is no longer connected
+   */
   public RequestManager.ResponseStream getNodeData(final Iterable<Hash> nodeHashes)
       throws PeerNotConnected {
-    final GetNodeDataMessage message = GetNodeDataMessage.create(nodeHashes);
+    final GetNodeDataMessage message =
+        GetNodeDataMessage.create(
+            limitRequest(nodeDataRequestManager, ImmutableList.copyOf(nodeHashes)));
     return sendRequest(nodeDataRequestManager, message);
   }
 
+  private static List<Hash> limitRequest(
+      final RequestManager requestManager, final List<Hash> hashes) {
+    final int sizeLimit = requestManager.requestSizeLimit(hashes.size());
+    return sizeLimit < hashes.size() ? hashes.subList(0, sizeLimit) : hashes;
+  }
+
   public RequestManager.ResponseStream getPooledTransactions(final List<Hash> hashes)
       throws PeerNotConnected {
     final GetPooledTransactionsMessage message = GetPooledTransactionsMessage.create(hashes);
     return sendRequest(pooledTransactionsRequestManager, message);
   }
 
+  public RequestManager.ResponseStream getSnapAccountRange(
+      final long requestId,
+      final Hash rootHash,
+      final Bytes32 startKeyHash,
+      final Bytes32 limitKeyHash,
+      final long responseBytes)
+      throws PeerNotConnected {
+    final GetAccountRangeMessage message =
+        GetAccountRangeMessage.create(
+            requestId, rootHash, startKeyHash, limitKeyHash, responseBytes);
+    return sendSnapRequest(accountRangeRequestManager, message);
+  }
+
+  public RequestManager.ResponseStream getSnapStorageRanges(
+      final long requestId,
+      final Hash rootHash,
+      final List<Bytes32> accountHashes,
+      final Bytes32 startKeyHash,
+      final Bytes32 limitKeyHash,
+      final long responseBytes)
+      throws PeerNotConnected {
+    final GetStorageRangesMessage message =
+        GetStorageRangesMessage.create(
+            requestId, rootHash, accountHashes, startKeyHash, limitKeyHash, responseBytes);
+    return sendSnapRequest(storageRangesRequestManager, message);
+  }
+
+  public RequestManager.ResponseStream getSnapByteCodes(
+      final long requestId, final List<Bytes32> codeHashes, final long responseBytes)
+      throws PeerNotConnected {
+    final GetByteCodesMessage message =
+        GetByteCodesMessage.create(requestId, codeHashes, responseBytes);
+    return sendSnapRequest(byteCodesRequestManager, message);
+  }
+
+  private RequestManager.ResponseStream sendSnapRequest(
+      final RequestManager requestManager, final MessageData messageData) throws PeerNotConnected {
+    lastRequestTimestamp = clock.millis();
+    return requestManager.dispatchRequest(
+        () -> connection.sendForProtocol(SnapProtocol.NAME, messageData));
+  }
+
   boolean validateReceivedMessage(final EthMessage message) {
     checkArgument(message.getPeer().equals(this), "Mismatched message sent to peer for dispatch");
     switch (message.getData().getCode()) {
@@ -307,7 +419,59 @@ public class EthPeer {
     }
   }
 
-  public Map<Integer, AtomicInteger> timeoutCounts() {
+  boolean validateReceivedSnapMessage(final EthMessage message) {
+    checkArgument(message.getPeer().equals(this), "Mismatched message sent to peer for dispatch");
+    switch (message.getData().getCode()) {
+      case SnapV1.ACCOUNT_RANGE:
+        if (accountRangeRequestManager.outstandingRequests() == 0) {
+          LOG.warn("Unsolicited account range received.");
+          return false;
+        }
+        break;
+      case SnapV1.STORAGE_RANGES:
+        if (storageRangesRequestManager.outstandingRequests() == 0) {
+          LOG.warn("Unsolicited storage ranges received.");
+          return false;
+        }
+        break;
+      case SnapV1.BYTE_CODES:
+        if (byteCodesRequestManager.outstandingRequests() == 0) {
+          LOG.warn("Unsolicited byte codes received.");
+          return false;
+        }
+        break;
+      default:
+        // Nothing to do
+    }
+    return true;
+  }
+
+  /**
+   * Routes snap messages originating from this peer to listeners.
+   *
+   * @param message the snap message to dispatch
+   */
+  void dispatchSnap(final EthMessage message) {
+    checkArgument(message.getPeer().equals(this), "Mismatched message sent to peer for dispatch");
+    switch (message.getData().getCode()) {
+      case SnapV1.ACCOUNT_RANGE:
+        reputation.resetTimeoutCount(SnapProtocol.NAME, SnapV1.GET_ACCOUNT_RANGE);
+        accountRangeRequestManager.dispatchResponse(message);
+        break;
+      case SnapV1.STORAGE_RANGES:
+        reputation.resetTimeoutCount(SnapProtocol.NAME, SnapV1.GET_STORAGE_RANGES);
+        storageRangesRequestManager.dispatchResponse(message);
+        break;
+      case SnapV1.BYTE_CODES:
+        reputation.resetTimeoutCount(SnapProtocol.NAME, SnapV1.GET_BYTE_CODES);
+        byteCodesRequestManager.dispatchResponse(message);
+        break;
+      default:
+        // Nothing to do
+    }
+  }
+
+  public Map<String, AtomicInteger> timeoutCounts() {
     return reputation.timeoutCounts();
   }
 
@@ -317,6 +481,9 @@ public class EthPeer {
     receiptsRequestManager.close();
     nodeDataRequestManager.close();
     pooledTransactionsRequestManager.close();
+    accountRangeRequestManager.close();
+    storageRangesRequestManager.close();
+    byteCodesRequestManager.close();
   }
 
   public void registerKnownBlock(final Hash hash) {
@@ -412,17 +579,62 @@ public class EthPeer {
         + bodiesRequestManager.outstandingRequests()
         + receiptsRequestManager.outstandingRequests()
         + nodeDataRequestManager.outstandingRequests()
-        + pooledTransactionsRequestManager.outstandingRequests();
+        + pooledTransactionsRequestManager.outstandingRequests()
+        + accountRangeRequestManager.outstandingRequests()
+        + storageRangesRequestManager.outstandingRequests()
+        + byteCodesRequestManager.outstandingRequests();
   }
 
   public long getLastRequestTimestamp() {
     return lastRequestTimestamp;
   }
 
+  /**
+   * The average rate at which the peer sent its responses, over the request types it answered.
+   *
+   * @return the throughput in bytes per second, or empty if the peer didn't answer any request yet
+   */
+  public OptionalDouble averageBytesPerSecond() {
+    return requestManagers()
+        .map(RequestManager::averageBytesPerSecond)
+        .filter(OptionalDouble::isPresent)
+        .mapToDouble(OptionalDouble::getAsDouble)
+        .average();
+  }
+
+  /**
+   * The average time taken by the peer to answer a request, over the request types it answered.
+   *
+   * @return the latency in milliseconds, or empty if the peer didn't answer any request yet
+   */
+  public OptionalDouble averageLatencyMillis() {
+    return requestManagers()
+        .map(RequestManager::averageLatencyMillis)
+        .filter(OptionalDouble::isPresent)
+        .mapToDouble(OptionalDouble::getAsDouble)
+        .average();
+  }
+
+  private Stream<RequestManager> requestManagers() {
+    return Stream.of(
+        headersRequestManager,
+        bodiesRequestManager,
+        receiptsRequestManager,
+        nodeDataRequestManager,
+        pooledTransactionsRequestManager,
+        accountRangeRequestManager,
+        storageRangesRequestManager,
+        byteCodesRequestManager);
+  }
+
   public boolean hasAvailableRequestCapacity() {
     return outstandingRequests() < MAX_OUTSTANDING_REQUESTS;
   }
 
+  public boolean supportsSnap() {
+    return connection.getAgreedCapabilities().contains(SnapProtocol.SNAP1);
+  }
+
   public Set<Capability> getAgreedCapabilities() {
     return connection.getAgreedCapabilities();
   }
@@ -30,7 +30,9 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,8 +46,14 @@ public class EthPeers {
 
   public static final Comparator<EthPeer> BEST_CHAIN = TOTAL_DIFFICULTY.thenComparing(CHAIN_HEIGHT);
 
+  // Peers that didn't answer any request yet come first among the fastest, so they get measured
+  public static final Comparator<EthPeer> FASTEST_TO_SLOWEST =
+      Comparator.comparingDouble(
+          (final EthPeer p) -> -p.averageBytesPerSecond().orElse(Double.POSITIVE_INFINITY));
+
   public static final Comparator<EthPeer> LEAST_TO_MOST_BUSY =
       Comparator.comparing(EthPeer::outstandingRequests)
+          .thenComparing(FASTEST_TO_SLOWEST)
           .thenComparing(EthPeer::getLastRequestTimestamp);
 
   private final Map<PeerConnection, EthPeer> connections = new ConcurrentHashMap<>();
@@ -73,6 +81,25 @@ public class EthPeers {
         "pending_peer_requests_current",
         "Number of peer requests currently pending because peers are busy",
         pendingRequests::size);
+    metricsSystem.createGauge(
+        BesuMetricCategory.PEERS,
+        "peer_throughput_bytes_per_second",
+        "Average rate at which connected peers send their responses, in bytes per second",
+        () -> average(EthPeer::averageBytesPerSecond));
+    metricsSystem.createGauge(
+        BesuMetricCategory.PEERS,
+        "peer_response_latency_milliseconds",
+        "Average time taken by connected peers to answer a request, in milliseconds",
+        () -> average(EthPeer::averageLatencyMillis));
+  }
+
+  private double average(final Function<EthPeer, OptionalDouble> peerMeasurement) {
+    return streamAvailablePeers()
+        .map(peerMeasurement)
+        .filter(OptionalDouble::isPresent)
+        .mapToDouble(OptionalDouble::getAsDouble)
+        .average()
+        .orElse(0);
   }
 
   void registerConnection(
@@ -131,6 +158,13 @@ public class EthPeers {
     }
   }
 
+  public void dispatchSnapMessage(final EthPeer peer, final EthMessage snapMessage) {
+    peer.dispatchSnap(snapMessage);
+    if (peer.hasAvailableRequestCapacity()) {
+      reattemptPendingPeerRequests();
+    }
+  }
+
   private void reattemptPendingPeerRequests() {
     synchronized (this) {
       pendingRequests.removeIf(PendingPeerRequest::attemptExecution);
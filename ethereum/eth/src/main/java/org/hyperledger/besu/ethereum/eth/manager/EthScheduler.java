@@ -131,6 +131,10 @@ public class EthScheduler {
     txWorkerExecutor.execute(command);
   }
 
+  public void scheduleServiceTask(final Runnable command) {
+    servicesExecutor.execute(command);
+  }
+
   public <T> CompletableFuture<T> scheduleServiceTask(final EthTask<T> task) {
     final CompletableFuture<T> serviceFuture = task.runAsync(servicesExecutor);
     pendingFutures.add(serviceFuture);
@@ -15,11 +15,9 @@
 package org.hyperledger.besu.ethereum.eth.manager;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
-import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
-import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
 import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.BlockHeadersMessage;
@@ -54,6 +52,8 @@ import org.apache.tuweni.bytes.Bytes;
 
 class EthServer {
   private static final Logger LOG = LogManager.getLogger();
+  // Soft limit on the size of block body and receipt responses, which stop growing once past it
+  static final long MAX_RESPONSE_SIZE_BYTES = 2 * 1024 * 1024;
 
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
@@ -214,20 +214,23 @@ class EthServer {
     final GetBlockBodiesMessage getBlockBodiesMessage = GetBlockBodiesMessage.readFrom(message);
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
-    final Collection<BlockBody> bodies = new ArrayList<>();
+    // Bodies are sent as stored, without decoding and encoding them again
+    final List<Bytes> bodies = new ArrayList<>();
     int count = 0;
+    long responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE_BYTES) {
         break;
       }
       count++;
-      final Optional<BlockBody> maybeBody = blockchain.getBlockBody(hash);
+      final Optional<Bytes> maybeBody = blockchain.getBlockBodyRlp(hash);
       if (!maybeBody.isPresent()) {
         continue;
       }
       bodies.add(maybeBody.get());
+      responseSize += maybeBody.get().size();
     }
-    return BlockBodiesMessage.create(bodies);
+    return BlockBodiesMessage.createUnsafe(bodies);
   }
 
   static MessageData constructGetReceiptsResponse(
@@ -235,20 +238,27 @@ class EthServer {
     final GetReceiptsMessage getReceipts = GetReceiptsMessage.readFrom(message);
     final Iterable<Hash> hashes = getReceipts.hashes();
 
-    final List<List<TransactionReceipt>> receipts = new ArrayList<>();
-    int count = 0;
+    final List<Hash> requestedHashes = new ArrayList<>();
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (requestedHashes.size() >= requestLimit) {
         break;
       }
-      count++;
-      final Optional<List<TransactionReceipt>> maybeReceipts = blockchain.getTxReceipts(hash);
-      if (!maybeReceipts.isPresent()) {
-        continue;
+      requestedHashes.add(hash);
+    }
+
+    final List<Bytes> receipts = new ArrayList<>();
+    long responseSize = 0;
+    for (final Optional<Bytes> maybeReceipts :
+        blockchain.getTxReceiptsRlpForBlocks(requestedHashes)) {
+      if (responseSize >= MAX_RESPONSE_SIZE_BYTES) {
+        break;
+      }
+      if (maybeReceipts.isPresent()) {
+        receipts.add(maybeReceipts.get());
+        responseSize += maybeReceipts.get().size();
       }
-      receipts.add(maybeReceipts.get());
     }
-    return ReceiptsMessage.create(receipts);
+    return ReceiptsMessage.createUnsafe(receipts);
   }
 
   static MessageData constructGetPooledTransactionsResponse(
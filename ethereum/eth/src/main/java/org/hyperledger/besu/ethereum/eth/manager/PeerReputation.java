@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.eth.manager;
 
 import static org.apache.logging.log4j.LogManager.getLogger;
 
+import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 
 import java.util.Map;
@@ -36,12 +37,21 @@ public class PeerReputation {
   static final long USELESS_RESPONSE_WINDOW_IN_MILLIS =
       TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
 
-  private final ConcurrentMap<Integer, AtomicInteger> timeoutCountByRequestType =
+  // Keyed by protocol and request code, as the message codes of sub-protocols overlap
+  private final ConcurrentMap<String, AtomicInteger> timeoutCountByRequestType =
       new ConcurrentHashMap<>();
   private final Queue<Long> uselessResponseTimes = new ConcurrentLinkedQueue<>();
 
   public Optional<DisconnectReason> recordRequestTimeout(final int requestCode) {
-    final int newTimeoutCount = getOrCreateTimeoutCount(requestCode).incrementAndGet();
+    return recordRequestTimeout(EthProtocol.NAME, requestCode);
+  }
+
+  public Optional<DisconnectReason> recordRequestTimeout(
+      final String protocol, final int requestCode) {
+    final int newTimeoutCount =
+        timeoutCountByRequestType
+            .computeIfAbsent(requestType(protocol, requestCode), type -> new AtomicInteger())
+            .incrementAndGet();
     if (newTimeoutCount >= TIMEOUT_THRESHOLD) {
       LOG.debug("Disconnection triggered by repeated timeouts");
       return Optional.of(DisconnectReason.TIMEOUT);
@@ -51,14 +61,18 @@ public class PeerReputation {
   }
 
   public void resetTimeoutCount(final int requestCode) {
-    timeoutCountByRequestType.remove(requestCode);
+    resetTimeoutCount(EthProtocol.NAME, requestCode);
+  }
+
+  public void resetTimeoutCount(final String protocol, final int requestCode) {
+    timeoutCountByRequestType.remove(requestType(protocol, requestCode));
   }
 
-  private AtomicInteger getOrCreateTimeoutCount(final int requestCode) {
-    return timeoutCountByRequestType.computeIfAbsent(requestCode, code -> new AtomicInteger());
+  private static String requestType(final String protocol, final int requestCode) {
+    return protocol + ":" + requestCode;
   }
 
-  public Map<Integer, AtomicInteger> timeoutCounts() {
+  public Map<String, AtomicInteger> timeoutCounts() {
     return timeoutCountByRequestType;
   }
 
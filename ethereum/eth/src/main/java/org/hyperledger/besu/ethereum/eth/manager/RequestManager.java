@@ -17,40 +17,108 @@ package org.hyperledger.besu.ethereum.eth.manager;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class RequestManager {
+  // Requests are sized so that the peer is expected to answer them within this time
+  static final long TARGET_RESPONSE_MILLIS = 1_000;
+  // Requests are never shrunk below this fraction of the requested size
+  private static final int MAX_SIZE_REDUCTION = 8;
+  // Weight of the latest response in the moving averages of latency and throughput
+  private static final double SMOOTHING_FACTOR = 0.2;
+
   private final AtomicLong responseStreamId = new AtomicLong(0L);
   private final Map<Long, ResponseStream> responseStreams = new ConcurrentHashMap<>();
   private final EthPeer peer;
+  private final Clock clock;
 
   private final AtomicInteger outstandingRequests = new AtomicInteger(0);
+  // Send times keyed by the id of the request's stream. Peers answer requests in order, so the
+  // oldest request still waiting for an answer is the one the next response belongs to
+  private final ConcurrentNavigableMap<Long, Long> requestSendTimes =
+      new ConcurrentSkipListMap<>();
+  private double averageLatencyMillis = Double.NaN;
+  private double averageBytesPerSecond = Double.NaN;
 
   public RequestManager(final EthPeer peer) {
+    this(peer, Clock.systemUTC());
+  }
+
+  public RequestManager(final EthPeer peer, final Clock clock) {
     this.peer = peer;
+    this.clock = clock;
   }
 
   public int outstandingRequests() {
     return outstandingRequests.get();
   }
 
+  /**
+   * The moving average of the time taken by the peer to answer a request.
+   *
+   * @return the average latency in milliseconds, or empty if no response was received yet
+   */
+  public synchronized OptionalDouble averageLatencyMillis() {
+    return Double.isNaN(averageLatencyMillis)
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(averageLatencyMillis);
+  }
+
+  /**
+   * The moving average of the rate at which the peer sends the data of its responses.
+   *
+   * @return the average throughput in bytes per second, or empty if no response was received yet
+   */
+  public synchronized OptionalDouble averageBytesPerSecond() {
+    return Double.isNaN(averageBytesPerSecond)
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(averageBytesPerSecond);
+  }
+
+  /**
+   * Limits the number of items of a request to what the peer is expected to answer within {@link
+   * #TARGET_RESPONSE_MILLIS}, given the measured latency of its previous responses.
+   *
+   * @param requestedSize the number of items that would be requested from a fast peer
+   * @return the number of items to request from this peer
+   */
+  public synchronized int requestSizeLimit(final int requestedSize) {
+    if (Double.isNaN(averageLatencyMillis) || averageLatencyMillis <= TARGET_RESPONSE_MILLIS) {
+      return requestedSize;
+    }
+    final int scaledSize = (int) (requestedSize * TARGET_RESPONSE_MILLIS / averageLatencyMillis);
+    return Math.max(scaledSize, Math.max(1, requestedSize / MAX_SIZE_REDUCTION));
+  }
+
   public ResponseStream dispatchRequest(final RequestSender sender) throws PeerNotConnected {
     outstandingRequests.incrementAndGet();
-    final ResponseStream stream = createStream();
+    final long streamId = nextStreamId();
+    final ResponseStream stream = createStream(streamId);
+    final long sendTime = clock.millis();
     sender.send();
+    // Only requests that actually reached the peer are expected to be answered
+    requestSendTimes.put(streamId, sendTime);
     return stream;
   }
 
   public void dispatchResponse(final EthMessage message) {
     final Collection<ResponseStream> streams = new ArrayList<>(responseStreams.values());
     final int count = outstandingRequests.decrementAndGet();
+    final Map.Entry<Long, Long> oldestRequest = requestSendTimes.pollFirstEntry();
+    if (oldestRequest != null) {
+      recordResponse(clock.millis() - oldestRequest.getValue(), message.getData().getSize());
+    }
 
     streams.forEach(s -> s.processMessage(message.getData()));
     if (count == 0) {
@@ -60,11 +128,25 @@ public class RequestManager {
   }
 
   public void close() {
+    requestSendTimes.clear();
     closeOutstandingStreams(responseStreams.values());
   }
 
-  private ResponseStream createStream() {
-    final long listenerId = nextStreamId();
+  private synchronized void recordResponse(final long latencyMillis, final int responseSize) {
+    // A response received within the same millisecond is counted as taking one
+    final long elapsedMillis = Math.max(1, latencyMillis);
+    final double bytesPerSecond = responseSize * 1000.0 / elapsedMillis;
+    averageLatencyMillis = movingAverage(averageLatencyMillis, elapsedMillis);
+    averageBytesPerSecond = movingAverage(averageBytesPerSecond, bytesPerSecond);
+  }
+
+  private static double movingAverage(final double average, final double value) {
+    return Double.isNaN(average)
+        ? value
+        : SMOOTHING_FACTOR * value + (1 - SMOOTHING_FACTOR) * average;
+  }
+
+  private ResponseStream createStream(final long listenerId) {
     final ResponseStream stream = new ResponseStream(peer, () -> deregisterStream(listenerId));
     responseStreams.put(listenerId, stream);
     return stream;
@@ -77,6 +159,8 @@ public class RequestManager {
 
   private void deregisterStream(final long id) {
     responseStreams.remove(id);
+    // A request that timed out or was aborted will not be answered
+    requestSendTimes.remove(id);
   }
 
   private long nextStreamId() {
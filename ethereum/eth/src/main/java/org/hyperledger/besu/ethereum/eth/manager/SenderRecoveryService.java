@@ -0,0 +1,169 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Recovers transaction senders ahead of block import on the {@link EthScheduler} computation
+ * executor.
+ *
+ * <p>{@link Transaction#getSender()} memoizes the recovered address, so once the returned future
+ * completes the transaction validator no longer pays for ecrecover on the import thread. The
+ * number of transactions in flight is bounded; when the bound is reached the request is skipped
+ * and the senders are recovered serially during validation as before.
+ */
+public class SenderRecoveryService {
+
+  public static final int DEFAULT_MAX_PENDING_TRANSACTIONS = 100_000;
+  private static final int MIN_TRANSACTIONS_PER_TASK = 16;
+
+  private final EthScheduler scheduler;
+  private final int parallelism;
+  private final int maxPendingTransactions;
+  private final AtomicInteger pendingTransactions = new AtomicInteger();
+
+  private final Counter recoveredCounter;
+  private final Counter skippedCounter;
+  private final Counter recoveryTimeCounter;
+  private final Counter elapsedTimeCounter;
+
+  public SenderRecoveryService(
+      final EthScheduler scheduler, final int parallelism, final MetricsSystem metricsSystem) {
+    this(scheduler, parallelism, DEFAULT_MAX_PENDING_TRANSACTIONS, metricsSystem);
+  }
+
+  public SenderRecoveryService(
+      final EthScheduler scheduler,
+      final int parallelism,
+      final int maxPendingTransactions,
+      final MetricsSystem metricsSystem) {
+    this.scheduler = scheduler;
+    this.parallelism = Math.max(1, parallelism);
+    this.maxPendingTransactions = maxPendingTransactions;
+
+    final LabelledMetric<Counter> transactionsCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "sender_recovery_transactions_total",
+            "Number of transactions submitted for parallel sender recovery ahead of import",
+            "result");
+    this.recoveredCounter = transactionsCounter.labels("recovered");
+    this.skippedCounter = transactionsCounter.labels("skipped");
+    this.recoveryTimeCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "sender_recovery_offloaded_microseconds_total",
+            "Total time spent recovering transaction senders on the computation executor");
+    this.elapsedTimeCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "sender_recovery_elapsed_microseconds_total",
+            "Total wall-clock time between submitting and completing parallel sender recovery");
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.SYNCHRONIZER,
+        "sender_recovery_pending_transactions",
+        "Number of transactions currently queued for parallel sender recovery",
+        pendingTransactions::get);
+  }
+
+  public CompletableFuture<Void> recoverSenders(final Block block) {
+    return recoverSenders(Collections.singletonList(block));
+  }
+
+  /**
+   * Recovers the senders of every transaction in the given blocks in parallel.
+   *
+   * <p>The returned future never completes exceptionally: transactions with an invalid signature
+   * are left for the transaction validator to reject.
+   *
+   * @param blocks the blocks whose transaction senders should be recovered
+   * @return a future completing once all senders have been recovered or the request was skipped
+   */
+  public CompletableFuture<Void> recoverSenders(final List<Block> blocks) {
+    final List<Transaction> transactions = new ArrayList<>();
+    blocks.forEach(block -> transactions.addAll(block.getBody().getTransactions()));
+    final int transactionCount = transactions.size();
+    if (transactionCount == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if (pendingTransactions.addAndGet(transactionCount) > maxPendingTransactions) {
+      pendingTransactions.addAndGet(-transactionCount);
+      skippedCounter.inc(transactionCount);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final long startTime = System.nanoTime();
+    final int taskCount =
+        Math.max(1, Math.min(parallelism, transactionCount / MIN_TRANSACTIONS_PER_TASK));
+    final int taskSize = (transactionCount + taskCount - 1) / taskCount;
+    final List<CompletableFuture<Void>> tasks = new ArrayList<>(taskCount);
+    try {
+      for (int from = 0; from < transactionCount; from += taskSize) {
+        final List<Transaction> batch =
+            transactions.subList(from, Math.min(from + taskSize, transactionCount));
+        tasks.add(scheduler.scheduleComputationTask(() -> recover(batch)));
+      }
+    } catch (final RejectedExecutionException e) {
+      // The scheduler is shutting down; whatever was not submitted is recovered during import.
+      skippedCounter.inc(transactionCount - tasks.size() * taskSize);
+    }
+    return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .handle(
+            (result, error) -> {
+              pendingTransactions.addAndGet(-transactionCount);
+              elapsedTimeCounter.inc(toMicros(System.nanoTime() - startTime));
+              return null;
+            });
+  }
+
+  private Void recover(final List<Transaction> transactions) {
+    final long startTime = System.nanoTime();
+    for (final Transaction transaction : transactions) {
+      try {
+        transaction.getSender();
+      } catch (final RuntimeException e) {
+        // Invalid signatures are reported by the transaction validator during import.
+      }
+    }
+    recoveryTimeCounter.inc(toMicros(System.nanoTime() - startTime));
+    recoveredCounter.inc(transactions.size());
+    return null;
+  }
+
+  @VisibleForTesting
+  int getPendingTransactions() {
+    return pendingTransactions.get();
+  }
+
+  private static long toMicros(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
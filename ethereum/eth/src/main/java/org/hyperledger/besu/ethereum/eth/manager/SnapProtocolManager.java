@@ -0,0 +1,113 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.p2p.network.ProtocolManager;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Capability;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Message;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Manages the snap protocol, which runs alongside the eth protocol on the same connections. Peers
+ * are registered and disconnected by the {@link EthProtocolManager}, so this manager only routes
+ * the snap messages of peers which completed the eth status exchange.
+ *
+ * <p>The world state is only served to peers when a world state archive is given. Otherwise snap
+ * is advertised to snap sync, and the requests of peers are answered with empty responses.
+ */
+public class SnapProtocolManager implements ProtocolManager {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final EthPeers ethPeers;
+  private final EthMessages snapMessages = new EthMessages();
+
+  public SnapProtocolManager(
+      final EthPeers ethPeers,
+      final EthScheduler scheduler,
+      final Optional<WorldStateArchive> worldStateArchive) {
+    this.ethPeers = ethPeers;
+    new SnapServer(worldStateArchive, snapMessages, scheduler);
+  }
+
+  @Override
+  public String getSupportedProtocol() {
+    return SnapProtocol.NAME;
+  }
+
+  @Override
+  public List<Capability> getSupportedCapabilities() {
+    return Collections.singletonList(SnapProtocol.SNAP1);
+  }
+
+  @Override
+  public void stop() {}
+
+  @Override
+  public void awaitStop() {}
+
+  @Override
+  public void processMessage(final Capability cap, final Message message) {
+    checkArgument(
+        getSupportedCapabilities().contains(cap),
+        "Unsupported capability passed to processMessage(): " + cap);
+    LOG.trace("Process snap message {}, {}", cap, message.getData().getCode());
+    final EthPeer peer = ethPeers.peer(message.getConnection());
+    if (peer == null) {
+      LOG.debug(
+          "Ignoring message received from unknown peer connection: " + message.getConnection());
+      return;
+    }
+    if (!peer.statusHasBeenReceived()) {
+      // The snap protocol is only served to peers running the eth protocol
+      LOG.debug("Snap message received before the eth status, disconnecting: {}", peer);
+      peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+      return;
+    }
+
+    final EthMessage snapMessage = new EthMessage(peer, message.getData());
+    if (!peer.validateReceivedSnapMessage(snapMessage)) {
+      LOG.debug("Unsolicited snap message received from, disconnecting: {}", peer);
+      peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+      return;
+    }
+    ethPeers.dispatchSnapMessage(peer, snapMessage);
+    snapMessages.dispatch(snapMessage);
+  }
+
+  @Override
+  public void handleNewConnection(final PeerConnection connection) {
+    // Peers are registered by the eth protocol manager
+  }
+
+  @Override
+  public void handleDisconnect(
+      final PeerConnection connection,
+      final DisconnectReason reason,
+      final boolean initiatedByPeer) {
+    // Peers are disconnected by the eth protocol manager
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.messages.AccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.ByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetAccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetStorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetTrieNodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.eth.messages.StorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.TrieNodesMessage;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPException;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
+import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Serves the snap protocol requests of peers. Ranges are read from the tries of the world state
+ * archive, whose nodes are looked up by hash, so states of which the archive has no trie nodes are
+ * answered with empty responses, as with GetNodeData. Requests are answered on the services
+ * executor of the {@link EthScheduler}, as reading ranges walks the tries on disk.
+ *
+ * <p>When the world state is not served, which is the case when snap is only advertised to snap
+ * sync, every request is answered with an empty response.
+ */
+class SnapServer {
+  private static final Logger LOG = LogManager.getLogger();
+  private static final Bytes32 MAX_KEY_HASH = Bytes32.repeat((byte) 0xff);
+  // Number of entries read from a trie at a time while collecting a range
+  private static final int RANGE_BATCH_SIZE = 128;
+  private static final int MAX_BYTE_CODES = 1024;
+
+  private final Optional<WorldStateArchive> worldStateArchive;
+  private final EthMessages snapMessages;
+  private final EthScheduler scheduler;
+
+  SnapServer(
+      final Optional<WorldStateArchive> worldStateArchive,
+      final EthMessages snapMessages,
+      final EthScheduler scheduler) {
+    this.worldStateArchive = worldStateArchive;
+    this.snapMessages = snapMessages;
+    this.scheduler = scheduler;
+    this.setupListeners();
+  }
+
+  private void setupListeners() {
+    snapMessages.subscribe(SnapV1.GET_ACCOUNT_RANGE, this::handleGetAccountRange);
+    snapMessages.subscribe(SnapV1.GET_STORAGE_RANGES, this::handleGetStorageRanges);
+    snapMessages.subscribe(SnapV1.GET_BYTE_CODES, this::handleGetByteCodes);
+    snapMessages.subscribe(SnapV1.GET_TRIE_NODES, this::handleGetTrieNodes);
+  }
+
+  private void handleGetAccountRange(final EthMessage message) {
+    LOG.trace("Responding to GET_ACCOUNT_RANGE request");
+    respond(
+        message,
+        "GET_ACCOUNT_RANGE",
+        SnapServer::constructGetAccountRangeResponse,
+        SnapServer::constructEmptyAccountRangeResponse);
+  }
+
+  private void handleGetStorageRanges(final EthMessage message) {
+    LOG.trace("Responding to GET_STORAGE_RANGES request");
+    respond(
+        message,
+        "GET_STORAGE_RANGES",
+        SnapServer::constructGetStorageRangesResponse,
+        SnapServer::constructEmptyStorageRangesResponse);
+  }
+
+  private void handleGetByteCodes(final EthMessage message) {
+    LOG.trace("Responding to GET_BYTE_CODES request");
+    respond(
+        message,
+        "GET_BYTE_CODES",
+        SnapServer::constructGetByteCodesResponse,
+        SnapServer::constructEmptyByteCodesResponse);
+  }
+
+  private void handleGetTrieNodes(final EthMessage message) {
+    LOG.trace("Responding to GET_TRIE_NODES request");
+    respond(
+        message,
+        "GET_TRIE_NODES",
+        SnapServer::constructGetTrieNodesResponse,
+        SnapServer::constructEmptyTrieNodesResponse);
+  }
+
+  private void respond(
+      final EthMessage message,
+      final String requestType,
+      final ResponseConstructor responseConstructor,
+      final Function<MessageData, MessageData> emptyResponseConstructor) {
+    scheduler.scheduleServiceTask(
+        () -> {
+          try {
+            final MessageData response =
+                worldStateArchive
+                    .map(archive -> responseConstructor.construct(archive, message.getData()))
+                    .orElseGet(() -> emptyResponseConstructor.apply(message.getData()));
+            message.getPeer().sendSnap(response);
+          } catch (final RLPException e) {
+            LOG.debug(
+                "Received malformed {} message, disconnecting: {}",
+                requestType,
+                message.getPeer(),
+                e);
+            message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
+          } catch (final PeerNotConnected peerNotConnected) {
+            // Peer disconnected before we could respond - nothing to do
+          }
+        });
+  }
+
+  static MessageData constructGetAccountRangeResponse(
+      final WorldStateArchive worldStateArchive, final MessageData message) {
+    final GetAccountRangeMessage getAccountRange = GetAccountRangeMessage.readFrom(message);
+    final long maxResponseSize =
+        Math.min(getAccountRange.responseBytes(), EthServer.MAX_RESPONSE_SIZE_BYTES);
+    try {
+      final MerklePatriciaTrie<Bytes32, Bytes> accountTrie =
+          trie(worldStateArchive, getAccountRange.rootHash());
+      final Map<Bytes32, Bytes> accounts =
+          collectRange(
+              accountTrie,
+              getAccountRange.startKeyHash(),
+              getAccountRange.limitKeyHash(),
+              maxResponseSize);
+      final Map<Bytes32, Bytes> slimAccounts = new LinkedHashMap<>();
+      accounts.forEach(
+          (hash, account) -> slimAccounts.put(hash, AccountRangeMessage.toSlimAccount(account)));
+      return AccountRangeMessage.create(
+          getAccountRange.requestId(),
+          slimAccounts,
+          proof(accountTrie, getAccountRange.startKeyHash(), accounts));
+    } catch (final MerkleTrieException e) {
+      // The state is not available
+      return AccountRangeMessage.create(
+          getAccountRange.requestId(), Collections.emptyMap(), Collections.emptyList());
+    }
+  }
+
+  static MessageData constructGetStorageRangesResponse(
+      final WorldStateArchive worldStateArchive, final MessageData message) {
+    final GetStorageRangesMessage getStorageRanges = GetStorageRangesMessage.readFrom(message);
+    final long maxResponseSize =
+        Math.min(getStorageRanges.responseBytes(), EthServer.MAX_RESPONSE_SIZE_BYTES);
+    final List<Map<Bytes32, Bytes>> slots = new ArrayList<>();
+    try {
+      final MerklePatriciaTrie<Bytes32, Bytes> accountTrie =
+          trie(worldStateArchive, getStorageRanges.rootHash());
+      final List<Bytes32> accountHashes = getStorageRanges.accountHashes();
+      long responseSize = 0;
+      for (int i = 0; i < accountHashes.size() && responseSize < maxResponseSize; i++) {
+        final Optional<Bytes> account = accountTrie.get(accountHashes.get(i));
+        if (account.isEmpty()) {
+          break;
+        }
+        final Hash storageRoot =
+            StateTrieAccountValue.readFrom(RLP.input(account.get())).getStorageRoot();
+        final MerklePatriciaTrie<Bytes32, Bytes> storageTrie =
+            trie(worldStateArchive, storageRoot);
+        // Only the storage of the first account is requested by range
+        final Bytes32 startKeyHash = i == 0 ? getStorageRanges.startKeyHash() : Bytes32.ZERO;
+        final Bytes32 limitKeyHash = i == 0 ? getStorageRanges.limitKeyHash() : MAX_KEY_HASH;
+        final Map<Bytes32, Bytes> accountSlots =
+            collectRange(storageTrie, startKeyHash, limitKeyHash, maxResponseSize - responseSize);
+        slots.add(accountSlots);
+        responseSize += size(accountSlots);
+
+        final boolean partial =
+            !startKeyHash.equals(Bytes32.ZERO)
+                || !limitKeyHash.equals(MAX_KEY_HASH)
+                || responseSize >= maxResponseSize;
+        if (partial) {
+          // A partial range is the last one of the response, and is sent with its proof
+          return StorageRangesMessage.create(
+              getStorageRanges.requestId(),
+              slots,
+              proof(storageTrie, startKeyHash, accountSlots));
+        }
+      }
+      return StorageRangesMessage.create(
+          getStorageRanges.requestId(), slots, Collections.emptyList());
+    } catch (final MerkleTrieException e) {
+      // The state is not available
+      return StorageRangesMessage.create(
+          getStorageRanges.requestId(), Collections.emptyList(), Collections.emptyList());
+    }
+  }
+
+  static MessageData constructGetByteCodesResponse(
+      final WorldStateArchive worldStateArchive, final MessageData message) {
+    final GetByteCodesMessage getByteCodes = GetByteCodesMessage.readFrom(message);
+    final long maxResponseSize =
+        Math.min(getByteCodes.responseBytes(), EthServer.MAX_RESPONSE_SIZE_BYTES);
+
+    final List<Bytes> codes = new ArrayList<>();
+    long responseSize = 0;
+    for (final Bytes32 codeHash : getByteCodes.codeHashes()) {
+      if (codes.size() >= MAX_BYTE_CODES || responseSize >= maxResponseSize) {
+        break;
+      }
+      final Optional<Bytes> code = worldStateArchive.getNodeData(Hash.wrap(codeHash));
+      if (code.isPresent()) {
+        codes.add(code.get());
+        responseSize += code.get().size();
+      }
+    }
+    return ByteCodesMessage.create(getByteCodes.requestId(), codes);
+  }
+
+  static MessageData constructGetTrieNodesResponse(
+      final WorldStateArchive worldStateArchive, final MessageData message) {
+    // Trie nodes are served by hash through GetNodeData, so path lookups are answered as unknown
+    final GetTrieNodesMessage getTrieNodes = GetTrieNodesMessage.readFrom(message);
+    return TrieNodesMessage.create(getTrieNodes.requestId(), Collections.emptyList());
+  }
+
+  static MessageData constructEmptyAccountRangeResponse(final MessageData message) {
+    return AccountRangeMessage.create(
+        GetAccountRangeMessage.readFrom(message).requestId(),
+        Collections.emptyMap(),
+        Collections.emptyList());
+  }
+
+  static MessageData constructEmptyStorageRangesResponse(final MessageData message) {
+    return StorageRangesMessage.create(
+        GetStorageRangesMessage.readFrom(message).requestId(),
+        Collections.emptyList(),
+        Collections.emptyList());
+  }
+
+  static MessageData constructEmptyByteCodesResponse(final MessageData message) {
+    return ByteCodesMessage.create(
+        GetByteCodesMessage.readFrom(message).requestId(), Collections.emptyList());
+  }
+
+  static MessageData constructEmptyTrieNodesResponse(final MessageData message) {
+    return TrieNodesMessage.create(
+        GetTrieNodesMessage.readFrom(message).requestId(), Collections.emptyList());
+  }
+
+  private static MerklePatriciaTrie<Bytes32, Bytes> trie(
+      final WorldStateArchive worldStateArchive, final Bytes32 rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        (location, hash) -> worldStateArchive.getNodeData(Hash.wrap(hash)),
+        rootHash,
+        Function.identity(),
+        Function.identity());
+  }
+
+  /**
+   * Collects the entries of a trie from the start key, up to and including the first entry at or
+   * past the limit key, or until the entries reach the maximum size.
+   */
+  private static Map<Bytes32, Bytes> collectRange(
+      final MerklePatriciaTrie<Bytes32, Bytes> trie,
+      final Bytes32 startKeyHash,
+      final Bytes32 limitKeyHash,
+      final long maxSize) {
+    final Map<Bytes32, Bytes> range = new LinkedHashMap<>();
+    long size = 0;
+    Bytes32 nextKeyHash = startKeyHash;
+    while (true) {
+      final Map<Bytes32, Bytes> entries = trie.entriesFrom(nextKeyHash, RANGE_BATCH_SIZE);
+      Bytes32 lastKeyHash = nextKeyHash;
+      for (final Map.Entry<Bytes32, Bytes> entry : entries.entrySet()) {
+        range.put(entry.getKey(), entry.getValue());
+        size += Bytes32.SIZE + entry.getValue().size();
+        lastKeyHash = entry.getKey();
+        if (lastKeyHash.compareTo(limitKeyHash) >= 0 || size >= maxSize) {
+          return range;
+        }
+      }
+      if (entries.size() < RANGE_BATCH_SIZE) {
+        return range;
+      }
+      // The last key can't be the maximum key, as the range would have reached the limit
+      nextKeyHash = UInt256.fromBytes(lastKeyHash).add(1).toBytes();
+    }
+  }
+
+  private static List<Bytes> proof(
+      final MerklePatriciaTrie<Bytes32, Bytes> trie,
+      final Bytes32 startKeyHash,
+      final Map<Bytes32, Bytes> range) {
+    final Set<Bytes> proof =
+        new LinkedHashSet<>(trie.getValueWithProof(startKeyHash).getProofRelatedNodes());
+    range.keySet().stream()
+        .reduce((first, second) -> second)
+        .map(lastKeyHash -> trie.getValueWithProof(lastKeyHash).getProofRelatedNodes())
+        .ifPresent(proof::addAll);
+    return new ArrayList<>(proof);
+  }
+
+  private static long size(final Map<Bytes32, Bytes> range) {
+    return range.values().stream().mapToLong(value -> Bytes32.SIZE + value.size()).sum();
+  }
+
+  @FunctionalInterface
+  private interface ResponseConstructor {
+    MessageData construct(WorldStateArchive worldStateArchive, MessageData message);
+  }
+}
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.eth.manager.task;
 
+import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.manager.PeerRequest;
@@ -39,12 +40,22 @@ public abstract class AbstractPeerRequestTask<R> extends AbstractPeerTask<R> {
   private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
 
   private Duration timeout = DEFAULT_TIMEOUT;
+  private final String protocol;
   private final int requestCode;
   private volatile PendingPeerRequest responseStream;
 
   protected AbstractPeerRequestTask(
       final EthContext ethContext, final int requestCode, final MetricsSystem metricsSystem) {
+    this(ethContext, EthProtocol.NAME, requestCode, metricsSystem);
+  }
+
+  protected AbstractPeerRequestTask(
+      final EthContext ethContext,
+      final String protocol,
+      final int requestCode,
+      final MetricsSystem metricsSystem) {
     super(ethContext, metricsSystem);
+    this.protocol = protocol;
     this.requestCode = requestCode;
   }
 
@@ -75,7 +86,7 @@ public abstract class AbstractPeerRequestTask<R> extends AbstractPeerTask<R> {
           if (t != null) {
             t = ExceptionUtils.rootCause(t);
             if (t instanceof TimeoutException && responseStream.isPresent()) {
-              responseStream.get().getPeer().recordRequestTimeout(requestCode);
+              responseStream.get().getPeer().recordRequestTimeout(protocol, requestCode);
             }
             result.completeExceptionally(t);
           } else if (r != null) {
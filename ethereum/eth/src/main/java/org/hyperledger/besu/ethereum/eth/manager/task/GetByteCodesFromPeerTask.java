@@ -0,0 +1,107 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager.task;
+
+import static java.util.Collections.emptyMap;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.PendingPeerRequest;
+import org.hyperledger.besu.ethereum.eth.messages.ByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+public class GetByteCodesFromPeerTask extends AbstractPeerRequestTask<Map<Bytes32, Bytes>> {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final long requestId = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+  private final List<Bytes32> codeHashes;
+  private final long responseBytes;
+  private final long pivotBlockNumber;
+
+  private GetByteCodesFromPeerTask(
+      final EthContext ethContext,
+      final List<Bytes32> codeHashes,
+      final long responseBytes,
+      final long pivotBlockNumber,
+      final MetricsSystem metricsSystem) {
+    super(ethContext, SnapProtocol.NAME, SnapV1.GET_BYTE_CODES, metricsSystem);
+    this.codeHashes = codeHashes;
+    this.responseBytes = responseBytes;
+    this.pivotBlockNumber = pivotBlockNumber;
+  }
+
+  public static GetByteCodesFromPeerTask forCodeHashes(
+      final EthContext ethContext,
+      final List<Bytes32> codeHashes,
+      final long responseBytes,
+      final long pivotBlockNumber,
+      final MetricsSystem metricsSystem) {
+    return new GetByteCodesFromPeerTask(
+        ethContext, codeHashes, responseBytes, pivotBlockNumber, metricsSystem);
+  }
+
+  @Override
+  protected PendingPeerRequest sendRequest() {
+    return sendRequestToPeer(
+        peer -> {
+          LOG.debug("Requesting {} byte codes from peer {}.", codeHashes.size(), peer);
+          return peer.getSnapByteCodes(requestId, codeHashes, responseBytes);
+        },
+        pivotBlockNumber);
+  }
+
+  @Override
+  protected Optional<Map<Bytes32, Bytes>> processResponse(
+      final boolean streamClosed, final MessageData message, final EthPeer peer) {
+    if (streamClosed) {
+      // We don't record this as a useless response because it's impossible to know if a peer has
+      // the data we're requesting.
+      return Optional.of(emptyMap());
+    }
+    final ByteCodesMessage byteCodesMessage = ByteCodesMessage.readFrom(message);
+    if (byteCodesMessage.requestId() != requestId) {
+      // Can't be the response to our request
+      return Optional.empty();
+    }
+    final Set<Bytes32> requestedHashes = new HashSet<>(codeHashes);
+    final Map<Bytes32, Bytes> codesByHash = new HashMap<>();
+    for (final Bytes code : byteCodesMessage.codes()) {
+      final Hash codeHash = Hash.hash(code);
+      if (!requestedHashes.contains(codeHash)) {
+        return Optional.empty();
+      }
+      codesByHash.put(codeHash, code);
+    }
+    return Optional.of(codesByHash);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.rlp.RLPOutput;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Snap AccountRange Message, holding consecutive accounts in the slim format and the proof of the
+ * boundaries of the range.
+ */
+public final class AccountRangeMessage extends AbstractMessageData {
+
+  public static AccountRangeMessage readFrom(final MessageData message) {
+    if (message instanceof AccountRangeMessage) {
+      return (AccountRangeMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.ACCOUNT_RANGE) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not an AccountRangeMessage.", code));
+    }
+    return new AccountRangeMessage(message.getData());
+  }
+
+  /**
+   * Creates the message.
+   *
+   * @param requestId the id of the request answered
+   * @param accounts the slim accounts by account hash, in ascending hash order
+   * @param proof the nodes proving the start of the range and its last account
+   * @return the message
+   */
+  public static AccountRangeMessage create(
+      final long requestId, final Map<Bytes32, Bytes> accounts, final List<Bytes> proof) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeLongScalar(requestId);
+    tmp.writeList(
+        accounts.entrySet(),
+        (account, out) -> {
+          out.startList();
+          out.writeBytes(account.getKey());
+          out.writeRaw(account.getValue());
+          out.endList();
+        });
+    tmp.writeList(proof, (node, out) -> out.writeBytes(node));
+    tmp.endList();
+    return new AccountRangeMessage(tmp.encoded());
+  }
+
+  private AccountRangeMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.ACCOUNT_RANGE;
+  }
+
+  public long requestId() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input.readLongScalar();
+  }
+
+  /**
+   * The accounts of the range.
+   *
+   * @return the slim accounts by account hash, in the order they were sent
+   */
+  public Map<Bytes32, Bytes> accounts() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    final Map<Bytes32, Bytes> accounts = new LinkedHashMap<>();
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      input.enterList();
+      accounts.put(input.readBytes32(), input.readAsRlp().raw());
+      input.leaveList();
+    }
+    input.leaveList();
+    return accounts;
+  }
+
+  public List<Bytes> proof() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    input.skipNext();
+    return input.readList(RLPInput::readBytes);
+  }
+
+  /**
+   * Converts an account as stored in the state trie to the slim format of the snap protocol, where
+   * an empty storage root and an empty code hash are left out.
+   *
+   * @param account the RLP of the account in the state trie
+   * @return the RLP of the slim account
+   */
+  public static Bytes toSlimAccount(final Bytes account) {
+    final StateTrieAccountValue accountValue = StateTrieAccountValue.readFrom(RLP.input(account));
+    return RLP.encode(
+        out -> {
+          out.startList();
+          out.writeLongScalar(accountValue.getNonce());
+          out.writeUInt256Scalar(accountValue.getBalance());
+          writeUnlessEqual(
+              out, accountValue.getStorageRoot(), MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
+          writeUnlessEqual(out, accountValue.getCodeHash(), Hash.EMPTY);
+          if (accountValue.getVersion() != Account.DEFAULT_VERSION) {
+            out.writeIntScalar(accountValue.getVersion());
+          }
+          out.endList();
+        });
+  }
+
+  /**
+   * Converts a slim account back to the format of the state trie.
+   *
+   * @param slimAccount the RLP of the slim account
+   * @return the RLP of the account in the state trie
+   */
+  public static Bytes toFullAccount(final Bytes slimAccount) {
+    final RLPInput in = RLP.input(slimAccount);
+    in.enterList();
+    final long nonce = in.readLongScalar();
+    final Wei balance = Wei.of(in.readUInt256Scalar());
+    final Bytes storageRoot = in.readBytes();
+    final Bytes codeHash = in.readBytes();
+    final int version = in.isEndOfCurrentList() ? Account.DEFAULT_VERSION : in.readIntScalar();
+    in.leaveList();
+    final StateTrieAccountValue accountValue =
+        new StateTrieAccountValue(
+            nonce,
+            balance,
+            storageRoot.isEmpty()
+                ? Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)
+                : Hash.wrap(Bytes32.wrap(storageRoot)),
+            codeHash.isEmpty() ? Hash.EMPTY : Hash.wrap(Bytes32.wrap(codeHash)),
+            version);
+    return RLP.encode(accountValue::writeTo);
+  }
+
+  private static void writeUnlessEqual(
+      final RLPOutput out, final Bytes32 value, final Bytes32 leftOutValue) {
+    out.writeBytes(value.equals(leftOutValue) ? Bytes.EMPTY : value);
+  }
+}
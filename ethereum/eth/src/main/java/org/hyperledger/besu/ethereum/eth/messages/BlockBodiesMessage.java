@@ -47,6 +47,19 @@ public final class BlockBodiesMessage extends AbstractMessageData {
     return new BlockBodiesMessage(tmp.encoded());
   }
 
+  /**
+   * Create a message from block bodies which are already RLP encoded, such as read from storage.
+   * The encodings are not validated.
+   *
+   * @param encodedBodies the RLP encoded block bodies
+   * @return the message
+   */
+  public static BlockBodiesMessage createUnsafe(final Iterable<Bytes> encodedBodies) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.writeList(encodedBodies, (encodedBody, out) -> out.writeRaw(encodedBody));
+    return new BlockBodiesMessage(tmp.encoded());
+  }
+
   private BlockBodiesMessage(final Bytes data) {
     super(data);
   }
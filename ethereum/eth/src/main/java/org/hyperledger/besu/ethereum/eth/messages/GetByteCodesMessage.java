@@ -0,0 +1,83 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/** Snap GetByteCodes Message, requesting contract code by code hash. */
+public final class GetByteCodesMessage extends AbstractMessageData {
+
+  public static GetByteCodesMessage readFrom(final MessageData message) {
+    if (message instanceof GetByteCodesMessage) {
+      return (GetByteCodesMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.GET_BYTE_CODES) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a GetByteCodesMessage.", code));
+    }
+    return new GetByteCodesMessage(message.getData());
+  }
+
+  public static GetByteCodesMessage create(
+      final long requestId, final List<Bytes32> codeHashes, final long responseBytes) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeLongScalar(requestId);
+    tmp.writeList(codeHashes, (codeHash, out) -> out.writeBytes(codeHash));
+    tmp.writeLongScalar(responseBytes);
+    tmp.endList();
+    return new GetByteCodesMessage(tmp.encoded());
+  }
+
+  private GetByteCodesMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.GET_BYTE_CODES;
+  }
+
+  public long requestId() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input.readLongScalar();
+  }
+
+  public List<Bytes32> codeHashes() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    return input.readList(RLPInput::readBytes32);
+  }
+
+  public long responseBytes() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    input.skipNext();
+    return input.readLongScalar();
+  }
+}
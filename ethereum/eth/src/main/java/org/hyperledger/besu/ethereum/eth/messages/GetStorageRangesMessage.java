@@ -0,0 +1,152 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Snap GetStorageRanges Message, requesting the storage slots of several accounts. The range of
+ * slot hashes only applies to the first account, the storage of the others is requested whole.
+ */
+public final class GetStorageRangesMessage extends AbstractMessageData {
+
+  private static final Bytes32 MAX_KEY_HASH = Bytes32.repeat((byte) 0xff);
+
+  private RangeData rangeData = null;
+
+  public static GetStorageRangesMessage readFrom(final MessageData message) {
+    if (message instanceof GetStorageRangesMessage) {
+      return (GetStorageRangesMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.GET_STORAGE_RANGES) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a GetStorageRangesMessage.", code));
+    }
+    return new GetStorageRangesMessage(message.getData());
+  }
+
+  public static GetStorageRangesMessage create(
+      final long requestId,
+      final Hash rootHash,
+      final List<Bytes32> accountHashes,
+      final Bytes32 startKeyHash,
+      final Bytes32 limitKeyHash,
+      final long responseBytes) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeLongScalar(requestId);
+    tmp.writeBytes(rootHash);
+    tmp.writeList(accountHashes, (accountHash, out) -> out.writeBytes(accountHash));
+    tmp.writeBytes(startKeyHash);
+    tmp.writeBytes(limitKeyHash);
+    tmp.writeLongScalar(responseBytes);
+    tmp.endList();
+    return new GetStorageRangesMessage(tmp.encoded());
+  }
+
+  private GetStorageRangesMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.GET_STORAGE_RANGES;
+  }
+
+  public long requestId() {
+    return rangeData().requestId;
+  }
+
+  public Hash rootHash() {
+    return rangeData().rootHash;
+  }
+
+  public List<Bytes32> accountHashes() {
+    return rangeData().accountHashes;
+  }
+
+  public Bytes32 startKeyHash() {
+    return rangeData().startKeyHash;
+  }
+
+  public Bytes32 limitKeyHash() {
+    return rangeData().limitKeyHash;
+  }
+
+  public long responseBytes() {
+    return rangeData().responseBytes;
+  }
+
+  private RangeData rangeData() {
+    if (rangeData == null) {
+      rangeData = RangeData.readFrom(RLP.input(data));
+    }
+    return rangeData;
+  }
+
+  private static class RangeData {
+    private final long requestId;
+    private final Hash rootHash;
+    private final List<Bytes32> accountHashes;
+    private final Bytes32 startKeyHash;
+    private final Bytes32 limitKeyHash;
+    private final long responseBytes;
+
+    private RangeData(
+        final long requestId,
+        final Hash rootHash,
+        final List<Bytes32> accountHashes,
+        final Bytes32 startKeyHash,
+        final Bytes32 limitKeyHash,
+        final long responseBytes) {
+      this.requestId = requestId;
+      this.rootHash = rootHash;
+      this.accountHashes = accountHashes;
+      this.startKeyHash = startKeyHash;
+      this.limitKeyHash = limitKeyHash;
+      this.responseBytes = responseBytes;
+    }
+
+    private static RangeData readFrom(final RLPInput input) {
+      input.enterList();
+      final long requestId = input.readLongScalar();
+      final Hash rootHash = Hash.wrap(input.readBytes32());
+      final List<Bytes32> accountHashes = input.readList(RLPInput::readBytes32);
+      // the bounds of the range may be left empty for the whole storage
+      final Bytes startKeyHash = input.readBytes();
+      final Bytes limitKeyHash = input.readBytes();
+      final long responseBytes = input.readLongScalar();
+      input.leaveListLenient();
+      return new RangeData(
+          requestId,
+          rootHash,
+          accountHashes,
+          startKeyHash.isEmpty() ? Bytes32.ZERO : Bytes32.wrap(startKeyHash),
+          limitKeyHash.isEmpty() ? MAX_KEY_HASH : Bytes32.wrap(limitKeyHash),
+          responseBytes);
+    }
+  }
+}
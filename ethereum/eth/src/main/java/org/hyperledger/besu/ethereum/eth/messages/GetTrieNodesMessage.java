@@ -0,0 +1,56 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Snap GetTrieNodes Message, requesting trie nodes by path. Only the request id is read, as trie
+ * nodes are served by hash through GetNodeData.
+ */
+public final class GetTrieNodesMessage extends AbstractMessageData {
+
+  public static GetTrieNodesMessage readFrom(final MessageData message) {
+    if (message instanceof GetTrieNodesMessage) {
+      return (GetTrieNodesMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.GET_TRIE_NODES) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a GetTrieNodesMessage.", code));
+    }
+    return new GetTrieNodesMessage(message.getData());
+  }
+
+  private GetTrieNodesMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.GET_TRIE_NODES;
+  }
+
+  public long requestId() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input.readLongScalar();
+  }
+}
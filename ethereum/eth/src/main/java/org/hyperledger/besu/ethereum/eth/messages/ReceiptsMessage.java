@@ -53,6 +53,19 @@ public final class ReceiptsMessage extends AbstractMessageData {
     return new ReceiptsMessage(tmp.encoded());
   }
 
+  /**
+   * Create a message from the lists of receipts of each block, which are already RLP encoded, such
+   * as read from storage. The encodings are not validated.
+   *
+   * @param encodedReceipts the RLP encoded list of receipts of each block
+   * @return the message
+   */
+  public static ReceiptsMessage createUnsafe(final Iterable<Bytes> encodedReceipts) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.writeList(encodedReceipts, (receiptSet, out) -> out.writeRaw(receiptSet));
+    return new ReceiptsMessage(tmp.encoded());
+  }
+
   private ReceiptsMessage(final Bytes data) {
     super(data);
   }
@@ -0,0 +1,126 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Snap StorageRanges Message, holding the storage slots of consecutive requested accounts. Only the
+ * slots of the last account may be incomplete, in which case they come with a proof.
+ */
+public final class StorageRangesMessage extends AbstractMessageData {
+
+  public static StorageRangesMessage readFrom(final MessageData message) {
+    if (message instanceof StorageRangesMessage) {
+      return (StorageRangesMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.STORAGE_RANGES) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a StorageRangesMessage.", code));
+    }
+    return new StorageRangesMessage(message.getData());
+  }
+
+  /**
+   * Creates the message.
+   *
+   * @param requestId the id of the request answered
+   * @param slots the storage slots of each account by slot hash, in ascending hash order
+   * @param proof the nodes proving the slots of the last account, or no nodes if they are complete
+   * @return the message
+   */
+  public static StorageRangesMessage create(
+      final long requestId, final List<Map<Bytes32, Bytes>> slots, final List<Bytes> proof) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeLongScalar(requestId);
+    tmp.writeList(
+        slots,
+        (accountSlots, accountOut) ->
+            accountOut.writeList(
+                accountSlots.entrySet(),
+                (slot, out) -> {
+                  out.startList();
+                  out.writeBytes(slot.getKey());
+                  out.writeBytes(slot.getValue());
+                  out.endList();
+                }));
+    tmp.writeList(proof, (node, out) -> out.writeBytes(node));
+    tmp.endList();
+    return new StorageRangesMessage(tmp.encoded());
+  }
+
+  private StorageRangesMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.STORAGE_RANGES;
+  }
+
+  public long requestId() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input.readLongScalar();
+  }
+
+  /**
+   * The storage slots of the accounts.
+   *
+   * @return the storage slots of each account by slot hash, in the order they were sent
+   */
+  public List<Map<Bytes32, Bytes>> slots() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    final List<Map<Bytes32, Bytes>> slots = new ArrayList<>();
+    input.enterList();
+    while (!input.isEndOfCurrentList()) {
+      final Map<Bytes32, Bytes> accountSlots = new LinkedHashMap<>();
+      input.enterList();
+      while (!input.isEndOfCurrentList()) {
+        input.enterList();
+        accountSlots.put(input.readBytes32(), input.readBytes());
+        input.leaveList();
+      }
+      input.leaveList();
+      slots.add(accountSlots);
+    }
+    input.leaveList();
+    return slots;
+  }
+
+  public List<Bytes> proof() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    input.skipNext();
+    return input.readList(RLPInput::readBytes);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractMessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/** Snap TrieNodes Message, holding the requested trie nodes in the order they were requested. */
+public final class TrieNodesMessage extends AbstractMessageData {
+
+  public static TrieNodesMessage readFrom(final MessageData message) {
+    if (message instanceof TrieNodesMessage) {
+      return (TrieNodesMessage) message;
+    }
+    final int code = message.getCode();
+    if (code != SnapV1.TRIE_NODES) {
+      throw new IllegalArgumentException(
+          String.format("Message has code %d and thus is not a TrieNodesMessage.", code));
+    }
+    return new TrieNodesMessage(message.getData());
+  }
+
+  public static TrieNodesMessage create(final long requestId, final List<Bytes> nodes) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    tmp.writeLongScalar(requestId);
+    tmp.writeList(nodes, (node, out) -> out.writeBytes(node));
+    tmp.endList();
+    return new TrieNodesMessage(tmp.encoded());
+  }
+
+  private TrieNodesMessage(final Bytes data) {
+    super(data);
+  }
+
+  @Override
+  public int getCode() {
+    return SnapV1.TRIE_NODES;
+  }
+
+  public long requestId() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    return input.readLongScalar();
+  }
+
+  public List<Bytes> nodes() {
+    final RLPInput input = RLP.input(data);
+    input.enterList();
+    input.skipNext();
+    return input.readList(RLPInput::readBytes);
+  }
+}
@@ -345,8 +345,11 @@ public class BlockPropagationManager {
             block,
             HeaderValidationMode.NONE,
             metricsSystem);
-    return importTask
-        .run()
+    return ethContext
+        .getSenderRecovery()
+        .recoverSenders(block)
+        // Recovery completes on a computation thread; hand the import back to a sync worker.
+        .thenCompose(recovered -> ethContext.getScheduler().scheduleSyncWorkerTask(importTask))
         .whenComplete(
             (result, throwable) -> {
               importingBlocks.remove(block.getHash());
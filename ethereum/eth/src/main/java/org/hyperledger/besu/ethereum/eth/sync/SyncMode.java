@@ -18,7 +18,13 @@ public enum SyncMode {
   // Fully validate all blocks as they sync
   FULL,
   // Perform light validation on older blocks, and switch to full validation for more recent blocks
-  FAST;
+  FAST,
+  // Fast sync downloading the world state by ranges with the snap protocol
+  SNAP;
+
+  public static boolean isFastSync(final SyncMode syncMode) {
+    return syncMode == FAST || syncMode == SNAP;
+  }
 
   public static SyncMode fromString(final String str) {
     for (final SyncMode mode : SyncMode.values()) {
@@ -42,8 +42,10 @@ public class SynchronizerConfiguration {
   public static final int DEFAULT_DOWNLOADER_CHECKPOINT_TIMEOUTS_PERMITTED = 5;
   public static final int DEFAULT_DOWNLOADER_CHAIN_SEGMENT_SIZE = 200;
   public static final int DEFAULT_DOWNLOADER_PARALLELISM = 4;
+  public static final int DEFAULT_DOWNLOADER_REORDER_BUFFER_SIZE = 0;
   public static final int DEFAULT_TRANSACTIONS_PARALLELISM = 2;
   public static final int DEFAULT_COMPUTATION_PARALLELISM = 2;
+  public static final boolean DEFAULT_SNAP_SERVER_ENABLED = false;
   public static final int DEFAULT_WORLD_STATE_TASK_CACHE_SIZE =
       CachingTaskCollection.DEFAULT_CACHE_SIZE;
 
@@ -69,10 +71,12 @@ public class SynchronizerConfiguration {
   private final int downloaderCheckpointTimeoutsPermitted;
   private final int downloaderChainSegmentSize;
   private final int downloaderParallelism;
+  private final int downloaderReorderBufferSize;
   private final int transactionsParallelism;
   private final int computationParallelism;
   private final int maxTrailingPeers;
   private final long worldStateMinMillisBeforeStalling;
+  private final boolean snapServerEnabled;
 
   private SynchronizerConfiguration(
       final int fastSyncPivotDistance,
@@ -91,9 +95,11 @@ public class SynchronizerConfiguration {
       final int downloaderCheckpointTimeoutsPermitted,
       final int downloaderChainSegmentSize,
       final int downloaderParallelism,
+      final int downloaderReorderBufferSize,
       final int transactionsParallelism,
       final int computationParallelism,
-      final int maxTrailingPeers) {
+      final int maxTrailingPeers,
+      final boolean snapServerEnabled) {
     this.fastSyncPivotDistance = fastSyncPivotDistance;
     this.fastSyncFullValidationRate = fastSyncFullValidationRate;
     this.fastSyncMinimumPeerCount = fastSyncMinimumPeerCount;
@@ -110,9 +116,11 @@ public class SynchronizerConfiguration {
     this.downloaderCheckpointTimeoutsPermitted = downloaderCheckpointTimeoutsPermitted;
     this.downloaderChainSegmentSize = downloaderChainSegmentSize;
     this.downloaderParallelism = downloaderParallelism;
+    this.downloaderReorderBufferSize = downloaderReorderBufferSize;
     this.transactionsParallelism = transactionsParallelism;
     this.computationParallelism = computationParallelism;
     this.maxTrailingPeers = maxTrailingPeers;
+    this.snapServerEnabled = snapServerEnabled;
   }
 
   public static Builder builder() {
@@ -172,6 +180,26 @@ public class SynchronizerConfiguration {
     return downloaderParallelism;
   }
 
+  /**
+   * The number of checkpoint ranges that fast sync downloads independently of each other, waiting
+   * in a reorder buffer until the earlier ranges are imported.
+   *
+   * @return the size of the reorder buffer, or 0 to download each stage of the ranges in order
+   */
+  public int getDownloaderReorderBufferSize() {
+    return downloaderReorderBufferSize;
+  }
+
+  /**
+   * Whether the snap protocol is served to peers. The snap protocol is always advertised when snap
+   * syncing, but the world state is then only served when this is enabled.
+   *
+   * @return true if snap requests are answered from the world state
+   */
+  public boolean isSnapServerEnabled() {
+    return snapServerEnabled;
+  }
+
   public int getTransactionsParallelism() {
     return transactionsParallelism;
   }
@@ -233,6 +261,7 @@ public class SynchronizerConfiguration {
         DEFAULT_DOWNLOADER_CHECKPOINT_TIMEOUTS_PERMITTED;
     private int downloaderChainSegmentSize = DEFAULT_DOWNLOADER_CHAIN_SEGMENT_SIZE;
     private int downloaderParallelism = DEFAULT_DOWNLOADER_PARALLELISM;
+    private int downloaderReorderBufferSize = DEFAULT_DOWNLOADER_REORDER_BUFFER_SIZE;
     private int transactionsParallelism = DEFAULT_TRANSACTIONS_PARALLELISM;
     private int computationParallelism = DEFAULT_COMPUTATION_PARALLELISM;
     private int fastSyncPivotDistance = DEFAULT_PIVOT_DISTANCE_FROM_HEAD;
@@ -243,6 +272,7 @@ public class SynchronizerConfiguration {
         DEFAULT_WORLD_STATE_MAX_REQUESTS_WITHOUT_PROGRESS;
     private long worldStateMinMillisBeforeStalling = DEFAULT_WORLD_STATE_MIN_MILLIS_BEFORE_STALLING;
     private int worldStateTaskCacheSize = DEFAULT_WORLD_STATE_TASK_CACHE_SIZE;
+    private boolean snapServerEnabled = DEFAULT_SNAP_SERVER_ENABLED;
 
     public Builder fastSyncPivotDistance(final int distance) {
       fastSyncPivotDistance = distance;
@@ -304,6 +334,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder downloaderReorderBufferSize(final int downloaderReorderBufferSize) {
+      this.downloaderReorderBufferSize = downloaderReorderBufferSize;
+      return this;
+    }
+
     public Builder transactionsParallelism(final int transactionsParallelism) {
       this.transactionsParallelism = transactionsParallelism;
       return this;
@@ -345,6 +380,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder snapServerEnabled(final boolean snapServerEnabled) {
+      this.snapServerEnabled = snapServerEnabled;
+      return this;
+    }
+
     public Builder maxTrailingPeers(final int maxTailingPeers) {
       this.maxTrailingPeers = maxTailingPeers;
       return this;
@@ -368,9 +408,11 @@ public class SynchronizerConfiguration {
           downloaderCheckpointTimeoutsPermitted,
           downloaderChainSegmentSize,
           downloaderParallelism,
+          downloaderReorderBufferSize,
           transactionsParallelism,
           computationParallelism,
-          maxTrailingPeers);
+          maxTrailingPeers,
+          snapServerEnabled);
     }
   }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync.fastsync;
+
+import static java.util.stream.Collectors.toList;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.sync.CheckpointHeaderValidationStep;
+import org.hyperledger.besu.ethereum.eth.sync.CheckpointRange;
+import org.hyperledger.besu.ethereum.eth.sync.CheckpointRangeHeaders;
+import org.hyperledger.besu.ethereum.eth.sync.DownloadBodiesStep;
+import org.hyperledger.besu.ethereum.eth.sync.DownloadHeadersStep;
+import org.hyperledger.besu.ethereum.eth.sync.tasks.GetReceiptsForHeadersTask;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer.TimingContext;
+import org.hyperledger.besu.util.FutureUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Downloads the headers, bodies and receipts of a whole checkpoint range, so that ranges complete
+ * independently of each other. The bodies and receipts of a range are downloaded concurrently.
+ *
+ * <p>Downloaded ranges wait in a reorder buffer until the ranges before them are imported, which
+ * is tracked through {@link DownloadedRange#startImport()}.
+ */
+public class DownloadCheckpointRangeStep
+    implements Function<
+        CheckpointRange, CompletableFuture<DownloadCheckpointRangeStep.DownloadedRange>> {
+
+  private final DownloadHeadersStep downloadHeadersStep;
+  private final CheckpointHeaderValidationStep validateHeadersJoinStep;
+  private final DownloadBodiesStep downloadBodiesStep;
+  private final EthContext ethContext;
+  private final MetricsSystem metricsSystem;
+  private final LabelledMetric<OperationTimer> stallTimer;
+  private final AtomicInteger bufferedRanges;
+
+  public DownloadCheckpointRangeStep(
+      final DownloadHeadersStep downloadHeadersStep,
+      final CheckpointHeaderValidationStep validateHeadersJoinStep,
+      final DownloadBodiesStep downloadBodiesStep,
+      final EthContext ethContext,
+      final AtomicInteger bufferedRanges,
+      final MetricsSystem metricsSystem) {
+    this.downloadHeadersStep = downloadHeadersStep;
+    this.validateHeadersJoinStep = validateHeadersJoinStep;
+    this.downloadBodiesStep = downloadBodiesStep;
+    this.ethContext = ethContext;
+    this.bufferedRanges = bufferedRanges;
+    this.metricsSystem = metricsSystem;
+    this.stallTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.SYNCHRONIZER,
+            "fast_sync_range_stall_seconds",
+            "Time checkpoint ranges spend waiting on each stage of the out of order download",
+            "stage");
+  }
+
+  @Override
+  public CompletableFuture<DownloadedRange> apply(final CheckpointRange checkpointRange) {
+    final CompletableFuture<CheckpointRangeHeaders> headersFuture =
+        timed("headers", () -> downloadHeadersStep.apply(checkpointRange));
+    final CompletableFuture<DownloadedRange> rangeFuture =
+        headersFuture
+            .thenApply(
+                rangeHeaders -> validateHeadersJoinStep.apply(rangeHeaders).collect(toList()))
+            .thenCompose(this::downloadBlocksWithReceipts)
+            .thenApply(this::addToBuffer);
+    FutureUtils.propagateCancellation(rangeFuture, headersFuture);
+    return rangeFuture;
+  }
+
+  private CompletableFuture<List<BlockWithReceipts>> downloadBlocksWithReceipts(
+      final List<BlockHeader> headers) {
+    final CompletableFuture<List<Block>> bodiesFuture =
+        timed("bodies", () -> downloadBodiesStep.apply(headers));
+    final CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>> receiptsFuture =
+        timed(
+            "receipts",
+            () -> GetReceiptsForHeadersTask.forHeaders(ethContext, headers, metricsSystem).run());
+    final CompletableFuture<List<BlockWithReceipts>> blocksWithReceiptsFuture =
+        bodiesFuture.thenCombine(receiptsFuture, DownloadReceiptsStep::combineBlocksAndReceipts);
+    FutureUtils.propagateCancellation(blocksWithReceiptsFuture, bodiesFuture);
+    FutureUtils.propagateCancellation(blocksWithReceiptsFuture, receiptsFuture);
+    return blocksWithReceiptsFuture;
+  }
+
+  private DownloadedRange addToBuffer(final List<BlockWithReceipts> blocksWithReceipts) {
+    bufferedRanges.incrementAndGet();
+    return new DownloadedRange(blocksWithReceipts, stallTimer.labels("reorder").startTimer());
+  }
+
+  private <T> CompletableFuture<T> timed(
+      final String stage, final Supplier<CompletableFuture<T>> stageRequest) {
+    final TimingContext timingContext = stallTimer.labels(stage).startTimer();
+    final CompletableFuture<T> result = stageRequest.get();
+    result.whenComplete((value, error) -> timingContext.stopTimer());
+    return result;
+  }
+
+  public class DownloadedRange {
+    private final List<BlockWithReceipts> blocksWithReceipts;
+    private final TimingContext reorderTimingContext;
+
+    private DownloadedRange(
+        final List<BlockWithReceipts> blocksWithReceipts,
+        final TimingContext reorderTimingContext) {
+      this.blocksWithReceipts = blocksWithReceipts;
+      this.reorderTimingContext = reorderTimingContext;
+    }
+
+    /**
+     * Removes the range from the reorder buffer, once all earlier ranges were imported.
+     *
+     * @return the blocks of the range with their receipts, in order
+     */
+    public List<BlockWithReceipts> startImport() {
+      reorderTimingContext.stopTimer();
+      bufferedRanges.decrementAndGet();
+      return blocksWithReceipts;
+    }
+  }
+}
@@ -53,7 +53,7 @@ public class DownloadReceiptsStep
     return combineWithBlocks;
   }
 
-  private List<BlockWithReceipts> combineBlocksAndReceipts(
+  static List<BlockWithReceipts> combineBlocksAndReceipts(
       final List<Block> blocks, final Map<BlockHeader, List<TransactionReceipt>> receiptsByHeader) {
     return blocks.stream()
         .map(
@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
 import org.hyperledger.besu.ethereum.eth.sync.SyncMode;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapWorldStateDownloader;
 import org.hyperledger.besu.ethereum.eth.sync.state.SyncState;
 import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
@@ -59,7 +60,7 @@ public class FastDownloaderFactory {
     final FastSyncStateStorage fastSyncStateStorage =
         new FastSyncStateStorage(fastSyncDataDirectory);
 
-    if (syncConfig.getSyncMode() != SyncMode.FAST) {
+    if (!SyncMode.isFastSync(syncConfig.getSyncMode())) {
       if (fastSyncStateStorage.isFastSyncInProgress()) {
         throw new IllegalStateException(
             "Unable to change the sync mode when fast sync is incomplete, please restart with fast sync mode");
@@ -86,16 +87,27 @@ public class FastDownloaderFactory {
             metricsSystem,
             syncConfig.getWorldStateTaskCacheSize());
     final WorldStateDownloader worldStateDownloader =
-        new WorldStateDownloader(
-            ethContext,
-            worldStateStorage,
-            taskCollection,
-            syncConfig.getWorldStateHashCountPerRequest(),
-            syncConfig.getWorldStateRequestParallelism(),
-            syncConfig.getWorldStateMaxRequestsWithoutProgress(),
-            syncConfig.getWorldStateMinMillisBeforeStalling(),
-            clock,
-            metricsSystem);
+        syncConfig.getSyncMode() == SyncMode.SNAP
+            ? new SnapWorldStateDownloader(
+                ethContext,
+                worldStateStorage,
+                taskCollection,
+                syncConfig.getWorldStateHashCountPerRequest(),
+                syncConfig.getWorldStateRequestParallelism(),
+                syncConfig.getWorldStateMaxRequestsWithoutProgress(),
+                syncConfig.getWorldStateMinMillisBeforeStalling(),
+                clock,
+                metricsSystem)
+            : new WorldStateDownloader(
+                ethContext,
+                worldStateStorage,
+                taskCollection,
+                syncConfig.getWorldStateHashCountPerRequest(),
+                syncConfig.getWorldStateRequestParallelism(),
+                syncConfig.getWorldStateMaxRequestsWithoutProgress(),
+                syncConfig.getWorldStateMinMillisBeforeStalling(),
+                clock,
+                metricsSystem);
     final FastSyncDownloader fastSyncDownloader =
         new FastSyncDownloader(
             new FastSyncActions(
@@ -43,6 +43,7 @@ import org.hyperledger.besu.services.pipeline.Pipeline;
 import org.hyperledger.besu.services.pipeline.PipelineBuilder;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory {
   private final SynchronizerConfiguration syncConfig;
@@ -54,6 +55,8 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
   private final FastSyncValidationPolicy attachedValidationPolicy;
   private final FastSyncValidationPolicy detachedValidationPolicy;
   private final FastSyncValidationPolicy ommerValidationPolicy;
+  // Downloaded checkpoint ranges waiting for earlier ranges to be imported
+  private final AtomicInteger reorderBufferRanges = new AtomicInteger();
 
   public FastSyncDownloadPipelineFactory(
       final SynchronizerConfiguration syncConfig,
@@ -92,6 +95,11 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
             LIGHT_DETACHED_ONLY,
             DETACHED_ONLY,
             fastSyncValidationCounter);
+    metricsSystem.createIntegerGauge(
+        BesuMetricCategory.SYNCHRONIZER,
+        "fast_sync_reorder_buffer_ranges",
+        "Number of downloaded checkpoint ranges waiting for earlier ranges to be imported",
+        reorderBufferRanges::get);
   }
 
   @Override
@@ -125,8 +133,6 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
             protocolSchedule, protocolContext, detachedValidationPolicy);
     final DownloadBodiesStep downloadBodiesStep =
         new DownloadBodiesStep(protocolSchedule, ethContext, metricsSystem);
-    final DownloadReceiptsStep downloadReceiptsStep =
-        new DownloadReceiptsStep(ethContext, metricsSystem);
     final FastImportBlocksStep importBlockStep =
         new FastImportBlocksStep(
             protocolSchedule,
@@ -134,17 +140,48 @@ public class FastSyncDownloadPipelineFactory implements DownloadPipelineFactory
             attachedValidationPolicy,
             ommerValidationPolicy,
             ethContext);
+    final LabelledMetric<Counter> outputCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.SYNCHRONIZER,
+            "chain_download_pipeline_processed_total",
+            "Number of entries process by each chain download pipeline stage",
+            "step",
+            "action");
 
+    final int reorderBufferSize = syncConfig.getDownloaderReorderBufferSize();
+    if (reorderBufferSize > 0) {
+      // The previous pipeline has finished, and the ranges left in its reorder buffer were dropped
+      reorderBufferRanges.set(0);
+      // Ranges are downloaded concurrently and only wait for each other to be imported in order
+      final DownloadCheckpointRangeStep downloadCheckpointRangeStep =
+          new DownloadCheckpointRangeStep(
+              downloadHeadersStep,
+              validateHeadersJoinUpStep,
+              downloadBodiesStep,
+              ethContext,
+              reorderBufferRanges,
+              metricsSystem);
+      return PipelineBuilder.createPipelineFrom(
+              "fetchCheckpoints",
+              checkpointRangeSource,
+              reorderBufferSize,
+              outputCounter,
+              true,
+              "fastSync")
+          .thenProcessAsyncOrdered(
+              "downloadCheckpointRanges", downloadCheckpointRangeStep, reorderBufferSize)
+          .andFinishWith(
+              "importBlock",
+              downloadedRange -> importBlockStep.accept(downloadedRange.startImport()));
+    }
+
+    final DownloadReceiptsStep downloadReceiptsStep =
+        new DownloadReceiptsStep(ethContext, metricsSystem);
     return PipelineBuilder.createPipelineFrom(
             "fetchCheckpoints",
             checkpointRangeSource,
             downloaderParallelism,
-            metricsSystem.createLabelledCounter(
-                BesuMetricCategory.SYNCHRONIZER,
-                "chain_download_pipeline_processed_total",
-                "Number of entries process by each chain download pipeline stage",
-                "step",
-                "action"),
+            outputCounter,
             true,
             "fastSync")
         .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
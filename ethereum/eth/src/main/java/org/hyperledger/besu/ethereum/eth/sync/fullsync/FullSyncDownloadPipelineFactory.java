@@ -88,7 +88,8 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
             protocolSchedule, protocolContext, detachedValidationPolicy);
     final DownloadBodiesStep downloadBodiesStep =
         new DownloadBodiesStep(protocolSchedule, ethContext, metricsSystem);
-    final ExtractTxSignaturesStep extractTxSignaturesStep = new ExtractTxSignaturesStep();
+    final ExtractTxSignaturesStep extractTxSignaturesStep =
+        new ExtractTxSignaturesStep(ethContext.getSenderRecovery());
     final FullImportBlockStep importBlockStep =
         new FullImportBlockStep(protocolSchedule, protocolContext, ethContext);
 
@@ -0,0 +1,462 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync.snapsync;
+
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.EthPeers;
+import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerRequestTask;
+import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerTask.PeerTaskResult;
+import org.hyperledger.besu.ethereum.eth.manager.task.GetAccountRangeFromPeerTask;
+import org.hyperledger.besu.ethereum.eth.manager.task.GetByteCodesFromPeerTask;
+import org.hyperledger.besu.ethereum.eth.manager.task.GetStorageRangesFromPeerTask;
+import org.hyperledger.besu.ethereum.eth.messages.AccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.StorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloaderException;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.RangeProof;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.services.tasks.CachingTaskCollection;
+import org.hyperledger.besu.util.ExceptionUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Downloads the world state with the snap protocol. The accounts, storage slots and code are
+ * fetched by ranges from snap peers, and each range is verified against its proof before its trie
+ * nodes are stored.
+ *
+ * <p>The state is then healed by the node data download of the {@link WorldStateDownloader}, which
+ * walks the stored tries and only requests the nodes that are still missing, such as those of the
+ * ranges no peer could serve. The root node of the state is left to the heal, as its presence
+ * marks the state as complete, and so is writing the flat state of Bonsai storage.
+ */
+public class SnapWorldStateDownloader extends WorldStateDownloader {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final Bytes32 MAX_KEY_HASH = Bytes32.repeat((byte) 0xff);
+  private static final long RESPONSE_BYTES = 512 * 1024;
+  private static final int STORAGE_ACCOUNTS_PER_REQUEST = 128;
+  private static final int CODE_HASHES_PER_REQUEST = 64;
+  private static final int MAX_REQUEST_ATTEMPTS = 10;
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+  private final EthContext ethContext;
+  private final WorldStateStorage worldStateStorage;
+  private final CachingTaskCollection<NodeDataRequest> taskCollection;
+  private final int accountRangeCount;
+  private final MetricsSystem metricsSystem;
+
+  private volatile boolean cancelled;
+
+  public SnapWorldStateDownloader(
+      final EthContext ethContext,
+      final WorldStateStorage worldStateStorage,
+      final CachingTaskCollection<NodeDataRequest> taskCollection,
+      final int hashCountPerRequest,
+      final int maxOutstandingRequests,
+      final int maxNodeRequestsWithoutProgress,
+      final long minMillisBeforeStalling,
+      final Clock clock,
+      final MetricsSystem metricsSystem) {
+    super(
+        ethContext,
+        worldStateStorage,
+        taskCollection,
+        hashCountPerRequest,
+        maxOutstandingRequests,
+        maxNodeRequestsWithoutProgress,
+        minMillisBeforeStalling,
+        clock,
+        metricsSystem);
+    this.ethContext = ethContext;
+    this.worldStateStorage = worldStateStorage;
+    this.taskCollection = taskCollection;
+    this.accountRangeCount = maxOutstandingRequests;
+    this.metricsSystem = metricsSystem;
+  }
+
+  @Override
+  public CompletableFuture<Void> run(final BlockHeader header) {
+    cancelled = false;
+    if (worldStateStorage.isWorldStateAvailable(header.getStateRoot(), header.getHash())
+        || !taskCollection.isEmpty()) {
+      // Either there is nothing to download or a heal was interrupted, which resumes its queue
+      return super.run(header);
+    }
+    LOG.info(
+        "Begin downloading world state ranges from snap peers for block {} ({}). State root {}",
+        header.getNumber(),
+        header.getHash(),
+        header.getStateRoot());
+
+    final CompletableFuture<Void> rangesDownload = downloadAccountRanges(header);
+    return rangesDownload
+        .exceptionally(
+            error -> {
+              LOG.info(
+                  "Unable to download all world state ranges, the heal will download the rest: {}",
+                  ExceptionUtils.rootCause(error).getMessage());
+              return null;
+            })
+        .thenCompose(
+            result -> {
+              if (cancelled) {
+                return CompletableFuture.failedFuture(new CancellationException());
+              }
+              LOG.info("World state ranges downloaded, healing the world state");
+              return super.run(header);
+            });
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    super.cancel();
+  }
+
+  private CompletableFuture<Void> downloadAccountRanges(final BlockHeader header) {
+    final UInt256 rangeSize = UInt256.MAX_VALUE.divide(accountRangeCount);
+    final List<CompletableFuture<Void>> rangeDownloads = new ArrayList<>();
+    for (int i = 0; i < accountRangeCount; i++) {
+      final Bytes32 startKeyHash = rangeSize.multiply(i).toBytes();
+      final Bytes32 limitKeyHash =
+          i == accountRangeCount - 1
+              ? MAX_KEY_HASH
+              : rangeSize.multiply(i + 1).subtract(1).toBytes();
+      rangeDownloads.add(downloadAccountRange(header, startKeyHash, limitKeyHash));
+    }
+    return CompletableFuture.allOf(rangeDownloads.toArray(CompletableFuture[]::new));
+  }
+
+  private CompletableFuture<Void> downloadAccountRange(
+      final BlockHeader header, final Bytes32 startKeyHash, final Bytes32 limitKeyHash) {
+    return requestFromSnapPeer(
+            header,
+            () ->
+                GetAccountRangeFromPeerTask.forRange(
+                    ethContext,
+                    header.getStateRoot(),
+                    startKeyHash,
+                    limitKeyHash,
+                    RESPONSE_BYTES,
+                    header.getNumber(),
+                    metricsSystem),
+            result -> verifyAccountRange(result, header.getStateRoot(), startKeyHash),
+            0)
+        .thenCompose(
+            range -> {
+              final WorldStateStorage.Updater updater = worldStateStorage.updater();
+              range.proof.commit(
+                  (location, hash, value) -> {
+                    if (!location.isEmpty()) {
+                      updater.putAccountStateTrieNode(location, hash, value);
+                    }
+                  });
+              updater.commit();
+
+              final Map<Hash, Hash> storageRoots = new LinkedHashMap<>();
+              final Map<Bytes32, List<Hash>> accountsByCodeHash = new LinkedHashMap<>();
+              Bytes32 lastKeyHash = startKeyHash;
+              for (final Map.Entry<Bytes32, Bytes> account : range.accounts.entrySet()) {
+                lastKeyHash = account.getKey();
+                if (lastKeyHash.compareTo(limitKeyHash) > 0) {
+                  // The first account past the range only proves its end
+                  break;
+                }
+                final Hash accountHash = Hash.wrap(lastKeyHash);
+                final StateTrieAccountValue accountValue =
+                    StateTrieAccountValue.readFrom(RLP.input(account.getValue()));
+                final Hash storageRoot = accountValue.getStorageRoot();
+                if (!storageRoot.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)) {
+                  storageRoots.put(accountHash, storageRoot);
+                }
+                if (!accountValue.getCodeHash().equals(Hash.EMPTY)) {
+                  accountsByCodeHash
+                      .computeIfAbsent(accountValue.getCodeHash(), codeHash -> new ArrayList<>())
+                      .add(accountHash);
+                }
+              }
+
+              final boolean rangeComplete =
+                  !range.proof.hasMoreEntries() || lastKeyHash.compareTo(limitKeyHash) >= 0;
+              final Bytes32 nextKeyHash = rangeComplete ? null : nextKeyHash(lastKeyHash);
+              return downloadStorage(header, storageRoots, Bytes32.ZERO)
+                  .thenCompose(result -> downloadCode(header, accountsByCodeHash))
+                  .thenCompose(
+                      result ->
+                          rangeComplete
+                              ? CompletableFuture.completedFuture(null)
+                              : downloadAccountRange(header, nextKeyHash, limitKeyHash));
+            });
+  }
+
+  private Optional<AccountRange> verifyAccountRange(
+      final PeerTaskResult<AccountRangeMessage> result,
+      final Hash rootHash,
+      final Bytes32 startKeyHash) {
+    final AccountRangeMessage response = result.getResult();
+    final List<Bytes> proof = response.proof();
+    final Map<Bytes32, Bytes> accounts = new LinkedHashMap<>();
+    response
+        .accounts()
+        .forEach((hash, account) -> accounts.put(hash, AccountRangeMessage.toFullAccount(account)));
+    if (accounts.isEmpty() && proof.isEmpty()) {
+      // The peer doesn't have the state
+      return Optional.empty();
+    }
+    final Optional<RangeProof> rangeProof =
+        RangeProof.verify(rootHash, startKeyHash, accounts, proof);
+    if (rangeProof.isEmpty()) {
+      result.getPeer().recordUselessResponse("account range");
+    }
+    return rangeProof.map(verifiedProof -> new AccountRange(accounts, verifiedProof));
+  }
+
+  /**
+   * Downloads the storage of accounts, the first one starting from the given slot hash.
+   *
+   * @param header the header of the pivot block
+   * @param storageRoots the storage roots of the accounts by account hash, in download order
+   * @param startKeyHash the slot hash the storage of the first account starts from
+   * @return a future completed once the storage of all the accounts is stored
+   */
+  private CompletableFuture<Void> downloadStorage(
+      final BlockHeader header, final Map<Hash, Hash> storageRoots, final Bytes32 startKeyHash) {
+    if (storageRoots.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final List<Bytes32> accountHashes =
+        storageRoots.keySet().stream()
+            .limit(STORAGE_ACCOUNTS_PER_REQUEST)
+            .collect(Collectors.toList());
+    return requestFromSnapPeer(
+            header,
+            () ->
+                GetStorageRangesFromPeerTask.forAccounts(
+                    ethContext,
+                    header.getStateRoot(),
+                    accountHashes,
+                    startKeyHash,
+                    MAX_KEY_HASH,
+                    RESPONSE_BYTES,
+                    header.getNumber(),
+                    metricsSystem),
+            result -> verifyStorageRanges(result, accountHashes, storageRoots, startKeyHash),
+            0)
+        .thenCompose(
+            ranges -> {
+              final Map<Hash, Hash> remainingStorageRoots = new LinkedHashMap<>(storageRoots);
+              Bytes32 nextStartKeyHash = Bytes32.ZERO;
+              final WorldStateStorage.Updater updater = worldStateStorage.updater();
+              for (final StorageRange range : ranges) {
+                final Hash accountHash = range.accountHash;
+                range.proof.commit(
+                    (location, hash, value) ->
+                        updater.putAccountStorageTrieNode(accountHash, location, hash, value));
+                if (range.proof.hasMoreEntries()) {
+                  // Only the last range can be partial, its account is then the first remaining
+                  nextStartKeyHash = nextKeyHash(range.lastKeyHash());
+                } else {
+                  remainingStorageRoots.remove(accountHash);
+                }
+              }
+              updater.commit();
+              return downloadStorage(header, remainingStorageRoots, nextStartKeyHash);
+            });
+  }
+
+  private Optional<List<StorageRange>> verifyStorageRanges(
+      final PeerTaskResult<StorageRangesMessage> result,
+      final List<Bytes32> accountHashes,
+      final Map<Hash, Hash> storageRoots,
+      final Bytes32 startKeyHash) {
+    final List<Map<Bytes32, Bytes>> slots = result.getResult().slots();
+    if (slots.isEmpty()) {
+      // The peer doesn't have the state
+      return Optional.empty();
+    }
+    if (slots.size() > accountHashes.size()) {
+      result.getPeer().recordUselessResponse("storage ranges");
+      return Optional.empty();
+    }
+    final List<StorageRange> ranges = new ArrayList<>();
+    for (int i = 0; i < slots.size(); i++) {
+      final Hash accountHash = Hash.wrap(accountHashes.get(i));
+      // Only the last range can be partial, and come with a proof
+      final Optional<RangeProof> proof =
+          RangeProof.verify(
+              storageRoots.get(accountHash),
+              i == 0 ? startKeyHash : Bytes32.ZERO,
+              slots.get(i),
+              i == slots.size() - 1 ? result.getResult().proof() : Collections.emptyList());
+      if (proof.isEmpty()) {
+        result.getPeer().recordUselessResponse("storage ranges");
+        return Optional.empty();
+      }
+      ranges.add(new StorageRange(accountHash, slots.get(i), proof.get()));
+    }
+    return Optional.of(ranges);
+  }
+
+  private CompletableFuture<Void> downloadCode(
+      final BlockHeader header, final Map<Bytes32, List<Hash>> accountsByCodeHash) {
+    if (accountsByCodeHash.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final List<Bytes32> codeHashes =
+        accountsByCodeHash.keySet().stream()
+            .limit(CODE_HASHES_PER_REQUEST)
+            .collect(Collectors.toList());
+    return requestFromSnapPeer(
+            header,
+            () ->
+                GetByteCodesFromPeerTask.forCodeHashes(
+                    ethContext, codeHashes, RESPONSE_BYTES, header.getNumber(), metricsSystem),
+            result -> Optional.of(result.getResult()).filter(codes -> !codes.isEmpty()),
+            0)
+        .thenCompose(
+            codes -> {
+              final Map<Bytes32, List<Hash>> remainingAccountsByCodeHash =
+                  new LinkedHashMap<>(accountsByCodeHash);
+              final WorldStateStorage.Updater updater = worldStateStorage.updater();
+              codes.forEach(
+                  (codeHash, code) ->
+                      remainingAccountsByCodeHash
+                          .remove(codeHash)
+                          .forEach(accountHash -> updater.putCode(accountHash, codeHash, code)));
+              updater.commit();
+              return downloadCode(header, remainingAccountsByCodeHash);
+            });
+  }
+
+  /**
+   * Requests data from the least busy snap peer, retrying with another peer until a response is
+   * accepted.
+   *
+   * @param header the header of the pivot block, which peers must have reached
+   * @param taskFactory the factory of the task requesting the data
+   * @param responseProcessor the processor of responses, which returns empty if the response is
+   *     not usable
+   * @param attempt the number of requests already made
+   * @param <R> the type of the response
+   * @param <T> the type of the processed response
+   * @return a future of the processed response, failed if no peer gave a usable response
+   */
+  private <R, T> CompletableFuture<T> requestFromSnapPeer(
+      final BlockHeader header,
+      final Supplier<AbstractPeerRequestTask<R>> taskFactory,
+      final Function<PeerTaskResult<R>, Optional<T>> responseProcessor,
+      final int attempt) {
+    if (cancelled) {
+      return CompletableFuture.failedFuture(new CancellationException());
+    }
+    if (attempt >= MAX_REQUEST_ATTEMPTS) {
+      return CompletableFuture.failedFuture(
+          new WorldStateDownloaderException("No snap peer served the requested world state"));
+    }
+    final Optional<EthPeer> peer =
+        ethContext
+            .getEthPeers()
+            .streamAvailablePeers()
+            .filter(EthPeer::supportsSnap)
+            .filter(p -> p.chainState().getEstimatedHeight() >= header.getNumber())
+            .min(EthPeers.LEAST_TO_MOST_BUSY);
+    if (peer.isEmpty()) {
+      return retryRequest(header, taskFactory, responseProcessor, attempt);
+    }
+    return taskFactory
+        .get()
+        .assignPeer(peer.get())
+        .run()
+        .handle(
+            (result, error) -> {
+              final Optional<T> response =
+                  error == null ? responseProcessor.apply(result) : Optional.empty();
+              return response
+                  .map(CompletableFuture::completedFuture)
+                  .orElseGet(() -> retryRequest(header, taskFactory, responseProcessor, attempt));
+            })
+        .thenCompose(Function.identity());
+  }
+
+  private <R, T> CompletableFuture<T> retryRequest(
+      final BlockHeader header,
+      final Supplier<AbstractPeerRequestTask<R>> taskFactory,
+      final Function<PeerTaskResult<R>, Optional<T>> responseProcessor,
+      final int attempt) {
+    return ethContext
+        .getScheduler()
+        .scheduleFutureTask(
+            () -> requestFromSnapPeer(header, taskFactory, responseProcessor, attempt + 1),
+            RETRY_DELAY);
+  }
+
+  private static Bytes32 nextKeyHash(final Bytes32 keyHash) {
+    return UInt256.fromBytes(keyHash).add(1).toBytes();
+  }
+
+  private static class AccountRange {
+    private final Map<Bytes32, Bytes> accounts;
+    private final RangeProof proof;
+
+    private AccountRange(final Map<Bytes32, Bytes> accounts, final RangeProof proof) {
+      this.accounts = accounts;
+      this.proof = proof;
+    }
+  }
+
+  private static class StorageRange {
+    private final Hash accountHash;
+    private final Map<Bytes32, Bytes> slots;
+    private final RangeProof proof;
+
+    private StorageRange(
+        final Hash accountHash, final Map<Bytes32, Bytes> slots, final RangeProof proof) {
+      this.accountHash = accountHash;
+      this.slots = slots;
+      this.proof = proof;
+    }
+
+    private Bytes32 lastKeyHash() {
+      return slots.keySet().stream().reduce((first, second) -> second).orElseThrow();
+    }
+  }
+}
@@ -21,7 +21,10 @@ import org.hyperledger.besu.plugin.services.metrics.Counter;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.tasks.Task;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -46,12 +49,45 @@ public class LoadLocalDataStep {
     final NodeDataRequest request = task.getData();
     final Optional<Bytes> existingData = request.getExistingData(worldStateStorage);
     if (existingData.isPresent()) {
-      existingNodeCounter.inc();
-      request.setData(existingData.get());
-      request.setRequiresPersisting(false);
-      completedTasks.put(task);
+      completeWithExistingData(task, existingData.get(), completedTasks);
       return Stream.empty();
     }
     return Stream.of(task);
   }
+
+  public Stream<Task<NodeDataRequest>> loadLocalData(
+      final List<Task<NodeDataRequest>> tasks, final Pipe<Task<NodeDataRequest>> completedTasks) {
+    final Optional<List<Optional<Bytes>>> maybeExistingData =
+        worldStateStorage.getNodeDataByHashes(
+            tasks.stream().map(task -> task.getData().getHash()).collect(Collectors.toList()));
+    final List<Task<NodeDataRequest>> missingTasks = new ArrayList<>();
+    if (maybeExistingData.isEmpty()) {
+      // Nodes can't be found by hash alone so look each one up with its location
+      tasks.forEach(task -> loadLocalData(task, completedTasks).forEach(missingTasks::add));
+      return missingTasks.stream();
+    }
+
+    final List<Optional<Bytes>> existingData = maybeExistingData.get();
+    for (int i = 0; i < tasks.size(); i++) {
+      final Task<NodeDataRequest> task = tasks.get(i);
+      final Optional<Bytes> data = existingData.get(i);
+      if (data.isPresent()) {
+        completeWithExistingData(task, data.get(), completedTasks);
+      } else {
+        missingTasks.add(task);
+      }
+    }
+    return missingTasks.stream();
+  }
+
+  private void completeWithExistingData(
+      final Task<NodeDataRequest> task,
+      final Bytes existingData,
+      final Pipe<Task<NodeDataRequest>> completedTasks) {
+    existingNodeCounter.inc();
+    final NodeDataRequest request = task.getData();
+    request.setData(existingData);
+    request.setRequiresPersisting(false);
+    completedTasks.put(task);
+  }
 }
@@ -222,9 +222,10 @@ public class WorldStateDownloadProcess {
                   outputCounter,
                   true,
                   "world_state_download")
+              .inBatches(hashCountPerRequest)
               .thenFlatMapInParallel(
                   "requestLoadLocalData",
-                  task -> loadLocalDataStep.loadLocalData(task, requestsToComplete),
+                  tasks -> loadLocalDataStep.loadLocalData(tasks, requestsToComplete),
                   3,
                   bufferCapacity)
               .inBatches(hashCountPerRequest)
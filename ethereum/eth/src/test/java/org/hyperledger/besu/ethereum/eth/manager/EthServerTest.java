@@ -21,11 +21,15 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.eth.EthProtocolConfiguration;
+import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetBlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.GetNodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 import java.util.Optional;
@@ -42,6 +46,7 @@ public class EthServerTest {
   private static final Hash HASH1 = Hash.hash(VALUE1);
   private static final Hash HASH2 = Hash.hash(VALUE2);
   private static final Hash HASH3 = Hash.hash(VALUE3);
+  private static final Bytes EMPTY_BODY = RLP.encode(BlockBody.empty()::writeTo);
   private final Blockchain blockchain = mock(Blockchain.class);
   private final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
   private final TransactionPool transactionPool = mock(TransactionPool.class);
@@ -58,6 +63,33 @@ public class EthServerTest {
         new EthProtocolConfiguration(2, 2, 2, 2, 2, false));
   }
 
+  @Test
+  public void shouldRespondToBlockBodiesRequestsWithStoredBodies() throws Exception {
+    when(blockchain.getBlockBodyRlp(HASH1)).thenReturn(Optional.of(EMPTY_BODY));
+    when(blockchain.getBlockBodyRlp(HASH2)).thenReturn(Optional.empty());
+    ethMessages.dispatch(
+        new EthMessage(ethPeer, GetBlockBodiesMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(BlockBodiesMessage.createUnsafe(singletonList(EMPTY_BODY)));
+  }
+
+  @Test
+  public void shouldStopAddingBlockBodiesOnceOverTheResponseSizeLimit() throws Exception {
+    final Bytes largeBody =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeBytes(Bytes.wrap(new byte[(int) EthServer.MAX_RESPONSE_SIZE_BYTES]));
+              out.endList();
+            });
+    when(blockchain.getBlockBodyRlp(HASH1)).thenReturn(Optional.of(largeBody));
+    when(blockchain.getBlockBodyRlp(HASH2)).thenReturn(Optional.of(EMPTY_BODY));
+    ethMessages.dispatch(
+        new EthMessage(ethPeer, GetBlockBodiesMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(BlockBodiesMessage.createUnsafe(singletonList(largeBody)));
+  }
+
   @Test
   public void shouldRespondToNodeDataRequests() throws Exception {
     when(worldStateArchive.getNodeData(HASH1)).thenReturn(Optional.of(VALUE1));
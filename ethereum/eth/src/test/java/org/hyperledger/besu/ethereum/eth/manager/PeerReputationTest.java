@@ -18,7 +18,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason.TIMEOUT;
 import static org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason.USELESS_PEER;
 
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
 
 import org.junit.Test;
 
@@ -57,6 +59,22 @@ public class PeerReputationTest {
     assertThat(reputation.recordRequestTimeout(EthPV62.GET_BLOCK_BODIES)).contains(TIMEOUT);
   }
 
+  @Test
+  public void shouldTrackTimeoutsSeparatelyForProtocolsSharingRequestCodes() {
+    // GET_STORAGE_RANGES shares its message code with the eth TRANSACTIONS message
+    assertThat(reputation.recordRequestTimeout(SnapV1.GET_STORAGE_RANGES)).isEmpty();
+    assertThat(reputation.recordRequestTimeout(SnapV1.GET_STORAGE_RANGES)).isEmpty();
+    assertThat(reputation.recordRequestTimeout(SnapProtocol.NAME, SnapV1.GET_STORAGE_RANGES))
+        .isEmpty();
+    assertThat(reputation.recordRequestTimeout(SnapProtocol.NAME, SnapV1.GET_STORAGE_RANGES))
+        .isEmpty();
+
+    reputation.resetTimeoutCount(SnapProtocol.NAME, SnapV1.GET_STORAGE_RANGES);
+    assertThat(reputation.recordRequestTimeout(SnapProtocol.NAME, SnapV1.GET_STORAGE_RANGES))
+        .isEmpty();
+    assertThat(reputation.recordRequestTimeout(SnapV1.GET_STORAGE_RANGES)).contains(TIMEOUT);
+  }
+
   @Test
   public void shouldOnlyDisconnectWhenEmptyResponseThresholdReached() {
     assertThat(reputation.recordUselessResponse(1001)).isEmpty();
@@ -15,9 +15,11 @@
 package org.hyperledger.besu.ethereum.eth.manager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.hyperledger.besu.ethereum.eth.EthProtocol;
 import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection;
+import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnection.PeerNotConnected;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Capability;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
@@ -211,6 +213,81 @@ public class RequestManagerTest {
     assertThat(closedCountB.get()).isEqualTo(1);
   }
 
+  @Test
+  public void measuresLatencyAndThroughputOfResponses() throws Exception {
+    final EthPeer peer = createPeer();
+    final TestClock clock = new TestClock();
+    final RequestManager requestManager = new RequestManager(peer, clock);
+    assertThat(requestManager.averageLatencyMillis()).isEmpty();
+    assertThat(requestManager.averageBytesPerSecond()).isEmpty();
+    assertThat(requestManager.requestSizeLimit(128)).isEqualTo(128);
+
+    requestManager.dispatchRequest(() -> {});
+    clock.stepMillis(4 * RequestManager.TARGET_RESPONSE_MILLIS);
+    requestManager.dispatchResponse(
+        new EthMessage(peer, new RawMessage(1, Bytes.wrap(new byte[400]))));
+
+    assertThat(requestManager.averageLatencyMillis())
+        .hasValue(4.0 * RequestManager.TARGET_RESPONSE_MILLIS);
+    assertThat(requestManager.averageBytesPerSecond()).hasValue(100.0);
+    assertThat(requestManager.requestSizeLimit(128)).isEqualTo(32);
+    assertThat(requestManager.requestSizeLimit(1)).isEqualTo(1);
+  }
+
+  @Test
+  public void measuresLatencyFromLiveRequestAfterTimeout() throws Exception {
+    final EthPeer peer = createPeer();
+    final TestClock clock = new TestClock();
+    final RequestManager requestManager = new RequestManager(peer, clock);
+
+    // The first request times out and its stream is closed without a response
+    final RequestManager.ResponseStream timedOutStream = requestManager.dispatchRequest(() -> {});
+    clock.stepMillis(10 * RequestManager.TARGET_RESPONSE_MILLIS);
+    timedOutStream.close();
+
+    requestManager.dispatchRequest(() -> {});
+    clock.stepMillis(RequestManager.TARGET_RESPONSE_MILLIS / 2);
+    requestManager.dispatchResponse(
+        new EthMessage(peer, new RawMessage(1, Bytes.wrap(new byte[500]))));
+
+    assertThat(requestManager.averageLatencyMillis())
+        .hasValue(RequestManager.TARGET_RESPONSE_MILLIS / 2.0);
+    assertThat(requestManager.averageBytesPerSecond()).hasValue(1000.0);
+    assertThat(requestManager.requestSizeLimit(128)).isEqualTo(128);
+  }
+
+  @Test
+  public void doesNotMeasureLatencyOfRequestsThatFailedToSend() throws Exception {
+    final EthPeer peer = createPeer();
+    final TestClock clock = new TestClock();
+    final RequestManager requestManager = new RequestManager(peer, clock);
+
+    assertThatThrownBy(
+            () ->
+                requestManager.dispatchRequest(
+                    () -> {
+                      throw new PeerNotConnected("Disconnected");
+                    }))
+        .isInstanceOf(PeerNotConnected.class);
+    clock.stepMillis(10 * RequestManager.TARGET_RESPONSE_MILLIS);
+    requestManager.dispatchResponse(mockMessage(peer));
+
+    assertThat(requestManager.averageLatencyMillis()).isEmpty();
+  }
+
+  @Test
+  public void limitsRequestSizeReduction() throws Exception {
+    final EthPeer peer = createPeer();
+    final TestClock clock = new TestClock();
+    final RequestManager requestManager = new RequestManager(peer, clock);
+
+    requestManager.dispatchRequest(() -> {});
+    clock.stepMillis(100 * RequestManager.TARGET_RESPONSE_MILLIS);
+    requestManager.dispatchResponse(mockMessage(peer));
+
+    assertThat(requestManager.requestSizeLimit(128)).isEqualTo(16);
+  }
+
   private EthMessage mockMessage(final EthPeer peer) {
     return new EthMessage(peer, new RawMessage(1, Bytes.EMPTY));
   }
@@ -28,6 +28,7 @@ import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.EthProtocol;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
 import org.hyperledger.besu.ethereum.eth.messages.BlockBodiesMessage;
 import org.hyperledger.besu.ethereum.eth.messages.BlockHeadersMessage;
 import org.hyperledger.besu.ethereum.eth.messages.EthPV62;
@@ -36,6 +37,7 @@ import org.hyperledger.besu.ethereum.eth.messages.EthPV65;
 import org.hyperledger.besu.ethereum.eth.messages.NodeDataMessage;
 import org.hyperledger.besu.ethereum.eth.messages.PooledTransactionsMessage;
 import org.hyperledger.besu.ethereum.eth.messages.ReceiptsMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
 import org.hyperledger.besu.ethereum.eth.peervalidation.PeerValidator;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
@@ -115,10 +117,14 @@ public class RespondingEthPeer {
       final Hash chainHeadHash,
       final Difficulty totalDifficulty,
       final OptionalLong estimatedHeight,
-      final List<PeerValidator> peerValidators) {
+      final List<PeerValidator> peerValidators,
+      final boolean supportsSnap) {
     final EthPeers ethPeers = ethProtocolManager.ethContext().getEthPeers();
 
     final Set<Capability> caps = new HashSet<>(Collections.singletonList(EthProtocol.ETH63));
+    if (supportsSnap) {
+      caps.add(SnapProtocol.SNAP1);
+    }
     final BlockingQueue<OutgoingMessage> outgoingMessages = new ArrayBlockingQueue<>(1000);
     final MockPeerConnection peerConnection =
         new MockPeerConnection(
@@ -196,9 +202,18 @@ public class RespondingEthPeer {
   private void respondToMessage(final Responder responder, final OutgoingMessage msg) {
     final Optional<MessageData> maybeResponse = responder.respond(msg.capability, msg.messageData);
     maybeResponse.ifPresent(
-        (response) ->
+        (response) -> {
+          if (isSnap(msg.capability)) {
+            // Snap messages are routed by the snap protocol manager, which hands them to the peer
+            ethProtocolManager
+                .ethContext()
+                .getEthPeers()
+                .dispatchSnapMessage(ethPeer, new EthMessage(ethPeer, response));
+          } else {
             ethProtocolManager.processMessage(
-                msg.capability, new DefaultMessage(peerConnection, response)));
+                msg.capability, new DefaultMessage(peerConnection, response));
+          }
+        });
   }
 
   public Optional<MessageData> peekNextOutgoingRequest() {
@@ -268,6 +283,40 @@ public class RespondingEthPeer {
     };
   }
 
+  /**
+   * Create a responder that serves snap requests from the given world state archive, and leaves
+   * the requests of other protocols unanswered.
+   *
+   * @param worldStateArchive The archive holding the world state to serve
+   */
+  public static Responder snapResponder(final WorldStateArchive worldStateArchive) {
+    return (cap, msg) -> {
+      if (!isSnap(cap)) {
+        return Optional.empty();
+      }
+      MessageData response = null;
+      switch (msg.getCode()) {
+        case SnapV1.GET_ACCOUNT_RANGE:
+          response = SnapServer.constructGetAccountRangeResponse(worldStateArchive, msg);
+          break;
+        case SnapV1.GET_STORAGE_RANGES:
+          response = SnapServer.constructGetStorageRangesResponse(worldStateArchive, msg);
+          break;
+        case SnapV1.GET_BYTE_CODES:
+          response = SnapServer.constructGetByteCodesResponse(worldStateArchive, msg);
+          break;
+        case SnapV1.GET_TRIE_NODES:
+          response = SnapServer.constructGetTrieNodesResponse(worldStateArchive, msg);
+          break;
+      }
+      return Optional.ofNullable(response);
+    };
+  }
+
+  private static boolean isSnap(final Capability capability) {
+    return capability != null && SnapProtocol.NAME.equals(capability.getName());
+  }
+
   public static Responder wrapResponderWithCollector(
       final Responder responder, final List<MessageData> messageCollector) {
     return (cap, msg) -> {
@@ -375,12 +424,18 @@ public class RespondingEthPeer {
     private Difficulty totalDifficulty = Difficulty.of(1000L);
     private OptionalLong estimatedHeight = OptionalLong.of(1000L);
     private final List<PeerValidator> peerValidators = new ArrayList<>();
+    private boolean supportsSnap = false;
 
     public RespondingEthPeer build() {
       checkNotNull(ethProtocolManager, "Must configure EthProtocolManager");
 
       return RespondingEthPeer.create(
-          ethProtocolManager, chainHeadHash, totalDifficulty, estimatedHeight, peerValidators);
+          ethProtocolManager,
+          chainHeadHash,
+          totalDifficulty,
+          estimatedHeight,
+          peerValidators,
+          supportsSnap);
     }
 
     public Builder ethProtocolManager(final EthProtocolManager ethProtocolManager) {
@@ -422,6 +477,11 @@ public class RespondingEthPeer {
       peerValidators(Arrays.asList(peerValidators));
       return this;
     }
+
+    public Builder supportsSnap(final boolean supportsSnap) {
+      this.supportsSnap = supportsSnap;
+      return this;
+    }
   }
 
   static class OutgoingMessage {
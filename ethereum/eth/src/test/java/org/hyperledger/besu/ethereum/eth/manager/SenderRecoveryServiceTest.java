@@ -0,0 +1,118 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SenderRecoveryServiceTest {
+
+  private DeterministicEthScheduler ethScheduler;
+
+  @Before
+  public void setup() {
+    ethScheduler = new DeterministicEthScheduler();
+  }
+
+  @Test
+  public void recoversSenderOfEveryTransaction() {
+    final SenderRecoveryService senderRecovery =
+        new SenderRecoveryService(ethScheduler, 4, new NoOpMetricsSystem());
+    final List<Transaction> transactions = transactions(100);
+
+    final CompletableFuture<Void> result = senderRecovery.recoverSenders(block(transactions));
+
+    assertThat(result).isCompleted();
+    transactions.forEach(transaction -> verify(transaction).getSender());
+    assertThat(senderRecovery.getPendingTransactions()).isZero();
+  }
+
+  @Test
+  public void completesOnlyWhenComputationTasksHaveRun() {
+    ethScheduler.disableAutoRun();
+    final SenderRecoveryService senderRecovery =
+        new SenderRecoveryService(ethScheduler, 2, new NoOpMetricsSystem());
+    final List<Transaction> transactions = transactions(40);
+
+    final CompletableFuture<Void> result = senderRecovery.recoverSenders(block(transactions));
+
+    assertThat(result).isNotDone();
+    assertThat(senderRecovery.getPendingTransactions()).isEqualTo(40);
+    assertThat(ethScheduler.getPendingFuturesCount()).isEqualTo(2);
+
+    ethScheduler.runPendingFutures();
+
+    assertThat(result).isCompleted();
+    assertThat(senderRecovery.getPendingTransactions()).isZero();
+  }
+
+  @Test
+  public void skipsRecoveryWhenTooManyTransactionsArePending() {
+    ethScheduler.disableAutoRun();
+    final SenderRecoveryService senderRecovery =
+        new SenderRecoveryService(ethScheduler, 2, 10, new NoOpMetricsSystem());
+    final List<Transaction> transactions = transactions(11);
+
+    final CompletableFuture<Void> result = senderRecovery.recoverSenders(block(transactions));
+
+    assertThat(result).isCompleted();
+    assertThat(ethScheduler.getPendingFuturesCount()).isZero();
+    assertThat(senderRecovery.getPendingTransactions()).isZero();
+    transactions.forEach(transaction -> verify(transaction, never()).getSender());
+  }
+
+  @Test
+  public void completesNormallyWhenSenderCannotBeRecovered() {
+    final SenderRecoveryService senderRecovery =
+        new SenderRecoveryService(ethScheduler, 1, new NoOpMetricsSystem());
+    final List<Transaction> transactions = transactions(2);
+    when(transactions.get(0).getSender()).thenThrow(new IllegalStateException("invalid"));
+
+    final CompletableFuture<Void> result = senderRecovery.recoverSenders(block(transactions));
+
+    assertThat(result).isCompleted();
+    verify(transactions.get(1)).getSender();
+  }
+
+  private static List<Transaction> transactions(final int count) {
+    final List<Transaction> transactions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      transactions.add(mock(Transaction.class));
+    }
+    return transactions;
+  }
+
+  private static Block block(final List<Transaction> transactions) {
+    return new Block(
+        mock(BlockHeader.class), new BlockBody(transactions, Collections.emptyList()));
+  }
+}
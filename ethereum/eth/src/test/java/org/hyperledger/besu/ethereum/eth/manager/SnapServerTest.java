@@ -0,0 +1,292 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.eth.messages.AccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.ByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetAccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetStorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.eth.messages.StorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.TrieNodesMessage;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.trie.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapServerTest {
+
+  private static final Bytes32 MAX_KEY_HASH = Bytes32.repeat((byte) 0xff);
+  private static final Bytes32 ACCOUNT1 = Bytes32.fromHexString("0x10");
+  private static final Bytes32 ACCOUNT2 = Bytes32.fromHexString("0x20");
+  private static final Bytes32 ACCOUNT3 = Bytes32.fromHexString("0x30");
+  private static final Bytes32 SLOT1 = Bytes32.fromHexString("0x01");
+  private static final Bytes32 SLOT2 = Bytes32.fromHexString("0x02");
+  private static final Bytes CODE = Bytes.fromHexString("0x6001600055");
+  private static final Hash CODE_HASH = Hash.hash(CODE);
+
+  private final Map<Bytes32, Bytes> nodes = new HashMap<>();
+  private final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+  private final EthPeer ethPeer = mock(EthPeer.class);
+  private final EthMessages snapMessages = new EthMessages();
+  private final DeterministicEthScheduler scheduler = new DeterministicEthScheduler();
+
+  private Bytes32 stateRoot;
+  private Bytes32 storageRoot;
+
+  @Before
+  public void setUp() {
+    when(worldStateArchive.getNodeData(any()))
+        .thenAnswer(invocation -> Optional.ofNullable(nodes.get(invocation.getArgument(0))));
+
+    final MerklePatriciaTrie<Bytes32, Bytes> storageTrie = trie();
+    storageTrie.put(SLOT1, RLP.encodeOne(Bytes.of(1)));
+    storageTrie.put(SLOT2, RLP.encodeOne(Bytes.of(2)));
+    storageTrie.commit((location, hash, value) -> nodes.put(hash, value));
+    storageRoot = storageTrie.getRootHash();
+
+    final MerklePatriciaTrie<Bytes32, Bytes> accountTrie = trie();
+    accountTrie.put(ACCOUNT1, account(Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)));
+    accountTrie.put(ACCOUNT2, account(Hash.wrap(storageRoot)));
+    accountTrie.put(ACCOUNT3, account(Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)));
+    accountTrie.commit((location, hash, value) -> nodes.put(hash, value));
+    stateRoot = accountTrie.getRootHash();
+
+    nodes.put(CODE_HASH, CODE);
+  }
+
+  @Test
+  public void shouldRespondToAccountRangeRequestsWithSlimAccountsAndProof() {
+    final AccountRangeMessage response =
+        AccountRangeMessage.readFrom(
+            SnapServer.constructGetAccountRangeResponse(
+                worldStateArchive,
+                GetAccountRangeMessage.create(
+                    1, Hash.wrap(stateRoot), Bytes32.ZERO, MAX_KEY_HASH, 10_000)));
+
+    assertThat(response.requestId()).isEqualTo(1);
+    assertThat(response.accounts())
+        .containsExactly(
+            Map.entry(ACCOUNT1, slimAccount(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)),
+            Map.entry(ACCOUNT2, slimAccount(storageRoot)),
+            Map.entry(ACCOUNT3, slimAccount(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)));
+    assertThat(response.proof()).isNotEmpty();
+  }
+
+  @Test
+  public void shouldStopAccountRangeAtTheFirstAccountPastTheLimit() {
+    final AccountRangeMessage response =
+        AccountRangeMessage.readFrom(
+            SnapServer.constructGetAccountRangeResponse(
+                worldStateArchive,
+                GetAccountRangeMessage.create(
+                    1,
+                    Hash.wrap(stateRoot),
+                    Bytes32.ZERO,
+                    Bytes32.fromHexString("0x11"),
+                    10_000)));
+
+    assertThat(response.accounts()).containsOnlyKeys(ACCOUNT1, ACCOUNT2);
+  }
+
+  @Test
+  public void shouldStopAccountRangeOnceOverTheResponseSize() {
+    final AccountRangeMessage response =
+        AccountRangeMessage.readFrom(
+            SnapServer.constructGetAccountRangeResponse(
+                worldStateArchive,
+                GetAccountRangeMessage.create(
+                    1, Hash.wrap(stateRoot), Bytes32.ZERO, MAX_KEY_HASH, 1)));
+
+    assertThat(response.accounts()).containsOnlyKeys(ACCOUNT1);
+  }
+
+  @Test
+  public void shouldRespondToAccountRangeRequestsForUnknownStateWithEmptyRange() {
+    final AccountRangeMessage response =
+        AccountRangeMessage.readFrom(
+            SnapServer.constructGetAccountRangeResponse(
+                worldStateArchive,
+                GetAccountRangeMessage.create(
+                    1, Hash.hash(Bytes.of(1)), Bytes32.ZERO, MAX_KEY_HASH, 10_000)));
+
+    assertThat(response.requestId()).isEqualTo(1);
+    assertThat(response.accounts()).isEmpty();
+    assertThat(response.proof()).isEmpty();
+  }
+
+  @Test
+  public void shouldRespondToStorageRangesRequestsWithoutProofForCompleteRanges() {
+    final StorageRangesMessage response =
+        StorageRangesMessage.readFrom(
+            SnapServer.constructGetStorageRangesResponse(
+                worldStateArchive,
+                GetStorageRangesMessage.create(
+                    2,
+                    Hash.wrap(stateRoot),
+                    List.of(ACCOUNT2, ACCOUNT1),
+                    Bytes32.ZERO,
+                    MAX_KEY_HASH,
+                    10_000)));
+
+    assertThat(response.requestId()).isEqualTo(2);
+    assertThat(response.slots()).hasSize(2);
+    assertThat(response.slots().get(0))
+        .containsExactly(
+            Map.entry(SLOT1, RLP.encodeOne(Bytes.of(1))),
+            Map.entry(SLOT2, RLP.encodeOne(Bytes.of(2))));
+    assertThat(response.slots().get(1)).isEmpty();
+    assertThat(response.proof()).isEmpty();
+  }
+
+  @Test
+  public void shouldProveAPartialStorageRange() {
+    final StorageRangesMessage response =
+        StorageRangesMessage.readFrom(
+            SnapServer.constructGetStorageRangesResponse(
+                worldStateArchive,
+                GetStorageRangesMessage.create(
+                    2,
+                    Hash.wrap(stateRoot),
+                    List.of(ACCOUNT2, ACCOUNT1),
+                    SLOT2,
+                    MAX_KEY_HASH,
+                    10_000)));
+
+    assertThat(response.slots()).hasSize(1);
+    assertThat(response.slots().get(0)).containsOnlyKeys(SLOT2);
+    assertThat(response.proof()).isNotEmpty();
+  }
+
+  @Test
+  public void shouldRespondToByteCodesRequestsWithKnownCodes() {
+    final ByteCodesMessage response =
+        ByteCodesMessage.readFrom(
+            SnapServer.constructGetByteCodesResponse(
+                worldStateArchive,
+                GetByteCodesMessage.create(
+                    3, List.of(Hash.hash(Bytes.of(1)), CODE_HASH), 10_000)));
+
+    assertThat(response.requestId()).isEqualTo(3);
+    assertThat(response.codes()).containsExactly(CODE);
+  }
+
+  @Test
+  public void shouldRespondToTrieNodesRequestsWithEmptyResponse() {
+    final TrieNodesMessage response =
+        TrieNodesMessage.readFrom(
+            SnapServer.constructGetTrieNodesResponse(worldStateArchive, getTrieNodes(4)));
+
+    assertThat(response.requestId()).isEqualTo(4);
+    assertThat(response.nodes()).isEmpty();
+  }
+
+  @Test
+  public void shouldRespondOnTheServicesExecutor() throws Exception {
+    new SnapServer(Optional.of(worldStateArchive), snapMessages, scheduler);
+    scheduler.disableAutoRun();
+
+    snapMessages.dispatch(
+        new EthMessage(ethPeer, GetByteCodesMessage.create(3, List.of(CODE_HASH), 10_000)));
+    verify(ethPeer, never()).sendSnap(any());
+
+    scheduler.mockServiceExecutor().runPendingFutures();
+    verify(ethPeer).sendSnap(ByteCodesMessage.create(3, List.of(CODE)));
+  }
+
+  @Test
+  public void shouldRespondWithEmptyResponsesWhenNotServingTheWorldState() throws Exception {
+    new SnapServer(Optional.empty(), snapMessages, scheduler);
+
+    snapMessages.dispatch(
+        new EthMessage(
+            ethPeer,
+            GetAccountRangeMessage.create(
+                1, Hash.wrap(stateRoot), Bytes32.ZERO, MAX_KEY_HASH, 10_000)));
+    snapMessages.dispatch(
+        new EthMessage(
+            ethPeer,
+            GetStorageRangesMessage.create(
+                2, Hash.wrap(stateRoot), List.of(ACCOUNT2), Bytes32.ZERO, MAX_KEY_HASH, 10_000)));
+    snapMessages.dispatch(
+        new EthMessage(ethPeer, GetByteCodesMessage.create(3, List.of(CODE_HASH), 10_000)));
+    snapMessages.dispatch(new EthMessage(ethPeer, getTrieNodes(4)));
+
+    verify(ethPeer)
+        .sendSnap(AccountRangeMessage.create(1, Collections.emptyMap(), Collections.emptyList()));
+    verify(ethPeer)
+        .sendSnap(
+            StorageRangesMessage.create(2, Collections.emptyList(), Collections.emptyList()));
+    verify(ethPeer).sendSnap(ByteCodesMessage.create(3, Collections.emptyList()));
+    verify(ethPeer).sendSnap(TrieNodesMessage.create(4, Collections.emptyList()));
+  }
+
+  private MerklePatriciaTrie<Bytes32, Bytes> trie() {
+    return new StoredMerklePatriciaTrie<>(
+        (location, hash) -> Optional.ofNullable(nodes.get(hash)),
+        Function.identity(),
+        Function.identity());
+  }
+
+  private static Bytes account(final Hash storageRoot) {
+    final StateTrieAccountValue accountValue =
+        new StateTrieAccountValue(1, Wei.of(10), storageRoot, Hash.EMPTY, Account.DEFAULT_VERSION);
+    return RLP.encode(accountValue::writeTo);
+  }
+
+  private static Bytes slimAccount(final Bytes32 storageRoot) {
+    return AccountRangeMessage.toSlimAccount(account(Hash.wrap(storageRoot)));
+  }
+
+  private static MessageData getTrieNodes(final long requestId) {
+    return new RawMessage(
+        SnapV1.GET_TRIE_NODES,
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeLongScalar(requestId);
+              out.writeBytes(Bytes32.ZERO);
+              out.writeEmptyList();
+              out.writeLongScalar(10_000);
+              out.endList();
+            }));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.eth.manager.DeterministicEthScheduler.TimeoutPolicy;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerTask.PeerTaskResult;
+import org.hyperledger.besu.ethereum.eth.messages.AccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetAccountRangeMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class GetAccountRangeFromPeerTaskTest {
+
+  private static final Hash ROOT_HASH = Hash.hash(Bytes.of(1));
+  private static final Bytes32 START_KEY_HASH = Bytes32.fromHexString("0x10");
+  private static final Bytes32 LIMIT_KEY_HASH = Bytes32.fromHexString("0x20");
+  private static final Map<Bytes32, Bytes> ACCOUNTS =
+      Map.of(Bytes32.fromHexString("0x11"), Bytes.fromHexString("0xc4010280c0"));
+  private static final List<Bytes> PROOF = List.of(Bytes.fromHexString("0xc20102"));
+
+  @Test
+  public void sendsTheRequestedRange() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    createTask(ethProtocolManager).run();
+
+    final GetAccountRangeMessage request =
+        GetAccountRangeMessage.readFrom(peer.peekNextOutgoingRequest().orElseThrow());
+    assertThat(request.rootHash()).isEqualTo(ROOT_HASH);
+    assertThat(request.startKeyHash()).isEqualTo(START_KEY_HASH);
+    assertThat(request.limitKeyHash()).isEqualTo(LIMIT_KEY_HASH);
+    assertThat(request.responseBytes()).isEqualTo(10_000);
+  }
+
+  @Test
+  public void completesWithTheResponseToTheRequest() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<AccountRangeMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(responderWithRequestIdOffset(0));
+
+    assertThat(future).isCompleted();
+    assertThat(future.join().getResult().accounts()).isEqualTo(ACCOUNTS);
+    assertThat(future.join().getResult().proof()).isEqualTo(PROOF);
+    assertThat(future.join().getPeer()).isEqualTo(peer.getEthPeer());
+  }
+
+  @Test
+  public void ignoresResponsesToOtherRequests() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<AccountRangeMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(responderWithRequestIdOffset(1));
+
+    assertThat(future).isNotDone();
+  }
+
+  @Test
+  public void completesWithEmptyRangeWhenPeerDisconnects() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<AccountRangeMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.disconnect(DisconnectReason.CLIENT_QUITTING);
+
+    assertThat(future).isCompleted();
+    assertThat(future.join().getResult().accounts()).isEmpty();
+    assertThat(future.join().getResult().proof()).isEmpty();
+  }
+
+  @Test
+  public void recordsTimeoutAgainstTheSnapRequest() {
+    final EthProtocolManager ethProtocolManager =
+        EthProtocolManagerTestUtil.create(TimeoutPolicy.ALWAYS_TIMEOUT);
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<AccountRangeMessage>> future =
+        createTask(ethProtocolManager).run();
+
+    assertThat(future).isCompletedExceptionally();
+    assertThat(peer.getEthPeer().timeoutCounts())
+        .containsOnlyKeys(SnapProtocol.NAME + ":" + SnapV1.GET_ACCOUNT_RANGE);
+  }
+
+  private static RespondingEthPeer.Responder responderWithRequestIdOffset(final long offset) {
+    return RespondingEthPeer.targetedResponder(
+        (cap, msg) -> true,
+        (cap, msg) ->
+            AccountRangeMessage.create(
+                GetAccountRangeMessage.readFrom(msg).requestId() + offset, ACCOUNTS, PROOF));
+  }
+
+  private static RespondingEthPeer createSnapPeer(final EthProtocolManager ethProtocolManager) {
+    return EthProtocolManagerTestUtil.peerBuilder()
+        .ethProtocolManager(ethProtocolManager)
+        .supportsSnap(true)
+        .build();
+  }
+
+  private static GetAccountRangeFromPeerTask createTask(
+      final EthProtocolManager ethProtocolManager) {
+    return GetAccountRangeFromPeerTask.forRange(
+        ethProtocolManager.ethContext(),
+        ROOT_HASH,
+        START_KEY_HASH,
+        LIMIT_KEY_HASH,
+        10_000,
+        0,
+        new NoOpMetricsSystem());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.eth.manager.DeterministicEthScheduler.TimeoutPolicy;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerTask.PeerTaskResult;
+import org.hyperledger.besu.ethereum.eth.messages.ByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.GetByteCodesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class GetByteCodesFromPeerTaskTest {
+
+  private static final Bytes CODE1 = Bytes.fromHexString("0x6001");
+  private static final Bytes CODE2 = Bytes.fromHexString("0x6002");
+  private static final Hash CODE_HASH1 = Hash.hash(CODE1);
+  private static final Hash CODE_HASH2 = Hash.hash(CODE2);
+
+  private final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+
+  @Test
+  public void completesWithTheRequestedCodes() {
+    when(worldStateArchive.getNodeData(CODE_HASH1)).thenReturn(Optional.of(CODE1));
+    when(worldStateArchive.getNodeData(CODE_HASH2)).thenReturn(Optional.of(CODE2));
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<Map<Bytes32, Bytes>>> future =
+        createTask(ethProtocolManager).run();
+    peer.respondWhile(RespondingEthPeer.snapResponder(worldStateArchive), () -> !future.isDone());
+
+    assertThat(future).isCompleted();
+    assertThat(future.join().getResult())
+        .containsExactlyInAnyOrderEntriesOf(Map.of(CODE_HASH1, CODE1, CODE_HASH2, CODE2));
+    assertThat(future.join().getPeer()).isEqualTo(peer.getEthPeer());
+  }
+
+  @Test
+  public void ignoresResponsesToOtherRequests() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<Map<Bytes32, Bytes>>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(
+        RespondingEthPeer.targetedResponder(
+            (cap, msg) -> true,
+            (cap, msg) ->
+                ByteCodesMessage.create(
+                    GetByteCodesMessage.readFrom(msg).requestId() + 1, List.of(CODE1))));
+
+    assertThat(future).isNotDone();
+  }
+
+  @Test
+  public void ignoresResponsesWithCodesThatWereNotRequested() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<Map<Bytes32, Bytes>>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(
+        RespondingEthPeer.targetedResponder(
+            (cap, msg) -> true,
+            (cap, msg) ->
+                ByteCodesMessage.create(
+                    GetByteCodesMessage.readFrom(msg).requestId(),
+                    List.of(Bytes.fromHexString("0x6003")))));
+
+    assertThat(future).isNotDone();
+  }
+
+  @Test
+  public void recordsTimeoutAgainstTheSnapRequest() {
+    final EthProtocolManager ethProtocolManager =
+        EthProtocolManagerTestUtil.create(TimeoutPolicy.ALWAYS_TIMEOUT);
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<Map<Bytes32, Bytes>>> future =
+        createTask(ethProtocolManager).run();
+
+    assertThat(future).isCompletedExceptionally();
+    assertThat(peer.getEthPeer().timeoutCounts())
+        .containsOnlyKeys(SnapProtocol.NAME + ":" + SnapV1.GET_BYTE_CODES);
+  }
+
+  private static RespondingEthPeer createSnapPeer(final EthProtocolManager ethProtocolManager) {
+    return EthProtocolManagerTestUtil.peerBuilder()
+        .ethProtocolManager(ethProtocolManager)
+        .supportsSnap(true)
+        .build();
+  }
+
+  private static GetByteCodesFromPeerTask createTask(final EthProtocolManager ethProtocolManager) {
+    return GetByteCodesFromPeerTask.forCodeHashes(
+        ethProtocolManager.ethContext(),
+        List.of(CODE_HASH1, CODE_HASH2),
+        10_000,
+        0,
+        new NoOpMetricsSystem());
+  }
+}
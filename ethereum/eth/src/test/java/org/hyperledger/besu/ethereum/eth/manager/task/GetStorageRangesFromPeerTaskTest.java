@@ -0,0 +1,149 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.eth.manager.DeterministicEthScheduler.TimeoutPolicy;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.manager.task.AbstractPeerTask.PeerTaskResult;
+import org.hyperledger.besu.ethereum.eth.messages.GetStorageRangesMessage;
+import org.hyperledger.besu.ethereum.eth.messages.SnapV1;
+import org.hyperledger.besu.ethereum.eth.messages.StorageRangesMessage;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class GetStorageRangesFromPeerTaskTest {
+
+  private static final Hash ROOT_HASH = Hash.hash(Bytes.of(1));
+  private static final List<Bytes32> ACCOUNT_HASHES =
+      List.of(Bytes32.fromHexString("0x01"), Bytes32.fromHexString("0x02"));
+  private static final Bytes32 START_KEY_HASH = Bytes32.fromHexString("0x10");
+  private static final Bytes32 LIMIT_KEY_HASH = Bytes32.repeat((byte) 0xff);
+  private static final List<Map<Bytes32, Bytes>> SLOTS =
+      List.of(Map.of(Bytes32.fromHexString("0x11"), Bytes.fromHexString("0x01")));
+  private static final List<Bytes> PROOF = List.of(Bytes.fromHexString("0xc20102"));
+
+  @Test
+  public void sendsTheRequestedRanges() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    createTask(ethProtocolManager).run();
+
+    final GetStorageRangesMessage request =
+        GetStorageRangesMessage.readFrom(peer.peekNextOutgoingRequest().orElseThrow());
+    assertThat(request.rootHash()).isEqualTo(ROOT_HASH);
+    assertThat(request.accountHashes()).isEqualTo(ACCOUNT_HASHES);
+    assertThat(request.startKeyHash()).isEqualTo(START_KEY_HASH);
+    assertThat(request.limitKeyHash()).isEqualTo(LIMIT_KEY_HASH);
+    assertThat(request.responseBytes()).isEqualTo(10_000);
+  }
+
+  @Test
+  public void completesWithTheResponseToTheRequest() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<StorageRangesMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(responderWithRequestIdOffset(0));
+
+    assertThat(future).isCompleted();
+    assertThat(future.join().getResult().slots()).isEqualTo(SLOTS);
+    assertThat(future.join().getResult().proof()).isEqualTo(PROOF);
+    assertThat(future.join().getPeer()).isEqualTo(peer.getEthPeer());
+  }
+
+  @Test
+  public void ignoresResponsesToOtherRequests() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<StorageRangesMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.respond(responderWithRequestIdOffset(1));
+
+    assertThat(future).isNotDone();
+  }
+
+  @Test
+  public void completesWithEmptyRangesWhenPeerDisconnects() {
+    final EthProtocolManager ethProtocolManager = EthProtocolManagerTestUtil.create();
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<StorageRangesMessage>> future =
+        createTask(ethProtocolManager).run();
+    peer.disconnect(DisconnectReason.CLIENT_QUITTING);
+
+    assertThat(future).isCompleted();
+    assertThat(future.join().getResult().slots()).isEmpty();
+    assertThat(future.join().getResult().proof()).isEmpty();
+  }
+
+  @Test
+  public void recordsTimeoutAgainstTheSnapRequest() {
+    final EthProtocolManager ethProtocolManager =
+        EthProtocolManagerTestUtil.create(TimeoutPolicy.ALWAYS_TIMEOUT);
+    final RespondingEthPeer peer = createSnapPeer(ethProtocolManager);
+
+    final CompletableFuture<PeerTaskResult<StorageRangesMessage>> future =
+        createTask(ethProtocolManager).run();
+
+    assertThat(future).isCompletedExceptionally();
+    assertThat(peer.getEthPeer().timeoutCounts())
+        .containsOnlyKeys(SnapProtocol.NAME + ":" + SnapV1.GET_STORAGE_RANGES);
+  }
+
+  private static RespondingEthPeer.Responder responderWithRequestIdOffset(final long offset) {
+    return RespondingEthPeer.targetedResponder(
+        (cap, msg) -> true,
+        (cap, msg) ->
+            StorageRangesMessage.create(
+                GetStorageRangesMessage.readFrom(msg).requestId() + offset, SLOTS, PROOF));
+  }
+
+  private static RespondingEthPeer createSnapPeer(final EthProtocolManager ethProtocolManager) {
+    return EthProtocolManagerTestUtil.peerBuilder()
+        .ethProtocolManager(ethProtocolManager)
+        .supportsSnap(true)
+        .build();
+  }
+
+  private static GetStorageRangesFromPeerTask createTask(
+      final EthProtocolManager ethProtocolManager) {
+    return GetStorageRangesFromPeerTask.forAccounts(
+        ethProtocolManager.ethContext(),
+        ROOT_HASH,
+        ACCOUNT_HASHES,
+        START_KEY_HASH,
+        LIMIT_KEY_HASH,
+        10_000,
+        0,
+        new NoOpMetricsSystem());
+  }
+}
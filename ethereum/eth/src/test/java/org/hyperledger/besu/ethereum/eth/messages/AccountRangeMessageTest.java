@@ -0,0 +1,122 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.StateTrieAccountValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public final class AccountRangeMessageTest {
+
+  @Test
+  public void roundTripTest() {
+    final Map<Bytes32, Bytes> accounts = new LinkedHashMap<>();
+    accounts.put(Bytes32.fromHexString("0x01"), AccountRangeMessage.toSlimAccount(emptyAccount()));
+    accounts.put(
+        Bytes32.fromHexString("0x02"), AccountRangeMessage.toSlimAccount(contractAccount()));
+    final List<Bytes> proof = List.of(Bytes.fromHexString("0xc0"), Bytes.fromHexString("0xc1"));
+
+    final MessageData initialMessage = AccountRangeMessage.create(7, accounts, proof);
+    final MessageData raw = new RawMessage(SnapV1.ACCOUNT_RANGE, initialMessage.getData());
+    final AccountRangeMessage message = AccountRangeMessage.readFrom(raw);
+
+    assertThat(message.requestId()).isEqualTo(7);
+    assertThat(message.accounts()).containsExactlyEntriesOf(accounts);
+    assertThat(message.proof()).isEqualTo(proof);
+  }
+
+  @Test
+  public void slimAccountLeavesOutEmptyStorageRootAndCodeHash() {
+    final Bytes expected =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeLongScalar(1);
+              out.writeUInt256Scalar(Wei.of(10));
+              out.writeBytes(Bytes.EMPTY);
+              out.writeBytes(Bytes.EMPTY);
+              out.endList();
+            });
+
+    assertThat(AccountRangeMessage.toSlimAccount(emptyAccount())).isEqualTo(expected);
+  }
+
+  @Test
+  public void fullAccountRoundTripsThroughSlimAccount() {
+    assertThat(slimRoundTrip(emptyAccount())).isEqualTo(emptyAccount());
+    assertThat(slimRoundTrip(contractAccount())).isEqualTo(contractAccount());
+  }
+
+  @Test
+  public void fullAccountRoundTripsWithNonDefaultVersion() {
+    final Bytes account =
+        account(
+            3,
+            Wei.of(5),
+            Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH),
+            Hash.EMPTY,
+            Account.DEFAULT_VERSION + 1);
+
+    assertThat(slimRoundTrip(account)).isEqualTo(account);
+  }
+
+  private static Bytes slimRoundTrip(final Bytes account) {
+    return AccountRangeMessage.toFullAccount(AccountRangeMessage.toSlimAccount(account));
+  }
+
+  private static Bytes emptyAccount() {
+    return account(
+        1,
+        Wei.of(10),
+        Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH),
+        Hash.EMPTY,
+        Account.DEFAULT_VERSION);
+  }
+
+  private static Bytes contractAccount() {
+    return account(
+        2,
+        Wei.of(20),
+        Hash.hash(Bytes.fromHexString("0x01")),
+        Hash.hash(Bytes.fromHexString("0x6001")),
+        Account.DEFAULT_VERSION);
+  }
+
+  private static Bytes account(
+      final long nonce,
+      final Wei balance,
+      final Hash storageRoot,
+      final Hash codeHash,
+      final int version) {
+    final StateTrieAccountValue accountValue =
+        new StateTrieAccountValue(nonce, balance, storageRoot, codeHash, version);
+    return RLP.encode(accountValue::writeTo);
+  }
+}
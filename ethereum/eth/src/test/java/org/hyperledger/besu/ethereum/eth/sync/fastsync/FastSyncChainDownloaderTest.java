@@ -137,6 +137,33 @@ public class FastSyncChainDownloaderTest {
         .isEqualTo(otherBlockchain.getBlockHeader(pivotBlockNumber).get());
   }
 
+  @Test
+  public void shouldSyncToPivotBlockWithOutOfOrderDownload() {
+    otherBlockchainSetup.importFirstBlocks(30);
+
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    final RespondingEthPeer.Responder responder =
+        RespondingEthPeer.blockchainResponder(otherBlockchain);
+
+    final SynchronizerConfiguration syncConfig =
+        SynchronizerConfiguration.builder()
+            .downloaderChainSegmentSize(5)
+            .downloaderHeadersRequestSize(3)
+            .downloaderReorderBufferSize(3)
+            .build();
+    final long pivotBlockNumber = 25;
+    final ChainDownloader downloader = downloader(syncConfig, pivotBlockNumber);
+    final CompletableFuture<Void> result = downloader.start();
+
+    peer.respondWhileOtherThreadsWork(responder, () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertThat(localBlockchain.getChainHeadBlockNumber()).isEqualTo(pivotBlockNumber);
+    assertThat(localBlockchain.getChainHeadHeader())
+        .isEqualTo(otherBlockchain.getBlockHeader(pivotBlockNumber).get());
+  }
+
   @Test
   public void shouldSyncToPivotBlockInSingleSegment() {
     otherBlockchainSetup.importFirstBlocks(30);
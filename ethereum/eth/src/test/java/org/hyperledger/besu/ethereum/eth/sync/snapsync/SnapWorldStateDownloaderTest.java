@@ -0,0 +1,178 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.sync.snapsync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.WorldState;
+import org.hyperledger.besu.ethereum.eth.SnapProtocol;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManager;
+import org.hyperledger.besu.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.manager.RespondingEthPeer;
+import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.NodeDataRequest;
+import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloader;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.ethereum.worldstate.DefaultWorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+import org.hyperledger.besu.services.tasks.CachingTaskCollection;
+import org.hyperledger.besu.services.tasks.InMemoryTaskQueue;
+import org.hyperledger.besu.testutil.TestClock;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class SnapWorldStateDownloaderTest {
+
+  @Rule public Timeout globalTimeout = Timeout.seconds(60);
+
+  private final BlockDataGenerator dataGen = new BlockDataGenerator(1);
+  private final EthProtocolManager ethProtocolManager =
+      EthProtocolManagerTestUtil.create(new EthScheduler(1, 1, 1, 1, new NoOpMetricsSystem()));
+
+  @After
+  public void tearDown() {
+    ethProtocolManager.stop();
+  }
+
+  @Test
+  public void downloadsWorldStateRangesFromSnapPeers() {
+    final WorldStateArchive remoteWorldStateArchive = createWorldStateArchive(createStorage());
+    final MutableWorldState remoteWorldState = remoteWorldStateArchive.getMutable();
+    final List<Account> accounts = dataGen.createRandomAccounts(remoteWorldState, 50);
+    final BlockHeader header = header(remoteWorldState.rootHash());
+
+    final WorldStateStorage localStorage = createStorage();
+    final WorldStateDownloader downloader = createDownloader(localStorage);
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.peerBuilder()
+            .ethProtocolManager(ethProtocolManager)
+            .estimatedHeight(header.getNumber())
+            .supportsSnap(true)
+            .build();
+
+    final AtomicInteger snapRequests = new AtomicInteger();
+    final RespondingEthPeer.Responder snapResponder =
+        RespondingEthPeer.snapResponder(remoteWorldStateArchive);
+    final RespondingEthPeer.Responder ethResponder =
+        RespondingEthPeer.blockchainResponder(mock(Blockchain.class), remoteWorldStateArchive);
+    final RespondingEthPeer.Responder responder =
+        (cap, msg) -> {
+          if (SnapProtocol.NAME.equals(cap.getName())) {
+            snapRequests.incrementAndGet();
+            return snapResponder.respond(cap, msg);
+          }
+          return ethResponder.respond(cap, msg);
+        };
+
+    final CompletableFuture<Void> result = downloader.run(header);
+    peer.respondWhileOtherThreadsWork(responder, () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertThat(snapRequests).hasPositiveValue();
+    final WorldState localWorldState =
+        createWorldStateArchive(localStorage).get(header.getStateRoot(), null).get();
+    assertAccountsMatch(localWorldState, accounts);
+  }
+
+  @Test
+  public void doesNotRequestAlreadyAvailableWorldState() {
+    final WorldStateStorage localStorage = createStorage();
+    final MutableWorldState worldState = createWorldStateArchive(localStorage).getMutable();
+    dataGen.createRandomAccounts(worldState, 20);
+    final BlockHeader header = header(worldState.rootHash());
+
+    final WorldStateDownloader downloader = createDownloader(localStorage);
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.peerBuilder()
+            .ethProtocolManager(ethProtocolManager)
+            .estimatedHeight(header.getNumber())
+            .supportsSnap(true)
+            .build();
+
+    final CompletableFuture<Void> result = downloader.run(header);
+
+    assertThat(result).isDone();
+    assertThat(peer.hasOutstandingRequests()).isFalse();
+  }
+
+  private BlockHeader header(final Hash stateRoot) {
+    return dataGen
+        .block(BlockOptions.create().setStateRoot(stateRoot).setBlockNumber(10))
+        .getHeader();
+  }
+
+  private static WorldStateStorage createStorage() {
+    return new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
+  }
+
+  private static WorldStateArchive createWorldStateArchive(final WorldStateStorage storage) {
+    return new DefaultWorldStateArchive(
+        storage, new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()));
+  }
+
+  private WorldStateDownloader createDownloader(final WorldStateStorage storage) {
+    final SynchronizerConfiguration config = SynchronizerConfiguration.builder().build();
+    return new SnapWorldStateDownloader(
+        ethProtocolManager.ethContext(),
+        storage,
+        new CachingTaskCollection<NodeDataRequest>(new InMemoryTaskQueue<>()),
+        config.getWorldStateHashCountPerRequest(),
+        config.getWorldStateRequestParallelism(),
+        config.getWorldStateMaxRequestsWithoutProgress(),
+        config.getWorldStateMinMillisBeforeStalling(),
+        TestClock.fixed(),
+        new NoOpMetricsSystem());
+  }
+
+  private static void assertAccountsMatch(
+      final WorldState worldState, final List<Account> expectedAccounts) {
+    for (final Account expectedAccount : expectedAccounts) {
+      final Account actualAccount = worldState.get(expectedAccount.getAddress());
+      assertThat(actualAccount).isNotNull();
+      assertThat(actualAccount.getNonce()).isEqualTo(expectedAccount.getNonce());
+      assertThat(actualAccount.getCode()).isEqualTo(expectedAccount.getCode());
+      assertThat(actualAccount.getBalance()).isEqualTo(expectedAccount.getBalance());
+
+      final Map<Bytes32, AccountStorageEntry> actualStorage =
+          actualAccount.storageEntriesFrom(Bytes32.ZERO, 500);
+      final Map<Bytes32, AccountStorageEntry> expectedStorage =
+          expectedAccount.storageEntriesFrom(Bytes32.ZERO, 500);
+      assertThat(actualStorage).isEqualTo(expectedStorage);
+    }
+  }
+}
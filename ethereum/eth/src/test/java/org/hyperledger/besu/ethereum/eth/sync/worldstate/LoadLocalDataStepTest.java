@@ -16,7 +16,10 @@ package org.hyperledger.besu.ethereum.eth.sync.worldstate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.metrics.noop.NoOpMetricsSystem.NO_OP_COUNTER;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +29,7 @@ import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.services.pipeline.Pipe;
 import org.hyperledger.besu.services.tasks.Task;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -72,4 +76,35 @@ public class LoadLocalDataStepTest {
     request.persist(updater);
     verifyZeroInteractions(updater);
   }
+
+  @Test
+  public void shouldLoadBatchOfTasksByHashWhenSupportedByStorage() {
+    final Bytes otherData = Bytes.of(4, 5, 6);
+    final CodeNodeDataRequest missingRequest =
+        NodeDataRequest.createCodeRequest(Hash.hash(otherData), Optional.empty());
+    final Task<NodeDataRequest> missingTask = new StubTask(missingRequest);
+    when(worldStateStorage.getNodeDataByHashes(List.of(HASH, missingRequest.getHash())))
+        .thenReturn(Optional.of(List.of(Optional.of(DATA), Optional.empty())));
+
+    final Stream<Task<NodeDataRequest>> output =
+        loadLocalDataStep.loadLocalData(List.of(task, missingTask), completedTasks);
+
+    assertThat(output).containsExactly(missingTask);
+    assertThat(completedTasks.poll()).isSameAs(task);
+    assertThat(completedTasks.poll()).isNull();
+    assertThat(request.getData()).isEqualTo(DATA);
+    verify(worldStateStorage, never()).getCode(any(), any());
+  }
+
+  @Test
+  public void shouldLoadEachTaskOfBatchWhenStorageCannotLookUpByHash() {
+    when(worldStateStorage.getCode(HASH, Hash.EMPTY)).thenReturn(Optional.of(DATA));
+
+    final Stream<Task<NodeDataRequest>> output =
+        loadLocalDataStep.loadLocalData(List.of(task), completedTasks);
+
+    assertThat(output).isEmpty();
+    assertThat(completedTasks.poll()).isSameAs(task);
+    assertThat(request.getData()).isEqualTo(DATA);
+  }
 }
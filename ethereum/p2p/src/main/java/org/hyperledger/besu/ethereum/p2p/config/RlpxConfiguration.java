@@ -26,6 +26,8 @@ import java.util.Objects;
 
 public class RlpxConfiguration {
   public static final float DEFAULT_FRACTION_REMOTE_CONNECTIONS_ALLOWED = 0.6f;
+  public static final int DEFAULT_WORKER_THREADS = 0;
+  public static final boolean DEFAULT_NATIVE_TRANSPORT_ENABLED = true;
   private String clientId = "TestClient/1.0.0";
   private String bindHost = NetworkUtility.INADDR_ANY;
   private int bindPort = 30303;
@@ -33,6 +35,8 @@ public class RlpxConfiguration {
   private boolean limitRemoteWireConnectionsEnabled = false;
   private float fractionRemoteWireConnectionsAllowed = DEFAULT_FRACTION_REMOTE_CONNECTIONS_ALLOWED;
   private List<SubProtocol> supportedProtocols = Collections.emptyList();
+  private int workerThreads = DEFAULT_WORKER_THREADS;
+  private boolean nativeTransportEnabled = DEFAULT_NATIVE_TRANSPORT_ENABLED;
 
   public static RlpxConfiguration create() {
     return new RlpxConfiguration();
@@ -103,6 +107,37 @@ public class RlpxConfiguration {
     return this;
   }
 
+  /**
+   * The number of threads of the event loops handling peer connections.
+   *
+   * @return the configured number of threads, or 0 to size the event loops after the number of
+   *     available cores
+   */
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public RlpxConfiguration setWorkerThreads(final int workerThreads) {
+    checkState(workerThreads >= 0, "Number of worker threads must not be negative.");
+    this.workerThreads = workerThreads;
+    return this;
+  }
+
+  /**
+   * Whether peer connections use the native transport of the platform when available, such as
+   * epoll on Linux, instead of the NIO transport.
+   *
+   * @return true if the native transport is used when available
+   */
+  public boolean isNativeTransportEnabled() {
+    return nativeTransportEnabled;
+  }
+
+  public RlpxConfiguration setNativeTransportEnabled(final boolean nativeTransportEnabled) {
+    this.nativeTransportEnabled = nativeTransportEnabled;
+    return this;
+  }
+
   public int getMaxRemotelyInitiatedConnections() {
     if (!limitRemoteWireConnectionsEnabled) {
       return maxPeers;
@@ -26,10 +26,13 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.connections.PeerConnectionEventDis
 import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.plugin.data.EnodeURL;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.util.Subscribers;
 
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntSupplier;
@@ -41,15 +44,25 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class NettyConnectionInitializer implements ConnectionInitializer {
+  private static final Logger LOG = LogManager.getLogger();
 
   private static final int TIMEOUT_SECONDS = 10;
+  private static final long EVENT_LOOP_LATENCY_SAMPLING_SECONDS = 1;
 
   private final NodeKey nodeKey;
   private final RlpxConfiguration config;
@@ -59,8 +72,10 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
   private final Subscribers<ConnectCallback> connectSubscribers = Subscribers.create();
 
   private ChannelFuture server;
-  private final EventLoopGroup boss = new NioEventLoopGroup(1);
-  private final EventLoopGroup workers = new NioEventLoopGroup(10);
+  private final boolean nativeTransport;
+  private final EventLoopGroup boss;
+  private final EventLoopGroup workers;
+  private final LabelledMetric<OperationTimer> eventLoopLatencyTimer;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final AtomicBoolean stopped = new AtomicBoolean(false);
 
@@ -76,6 +91,24 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
     this.eventDispatcher = eventDispatcher;
     this.metricsSystem = metricsSystem;
 
+    final int workerThreads =
+        config.getWorkerThreads() > 0
+            ? config.getWorkerThreads()
+            : 2 * Runtime.getRuntime().availableProcessors();
+    // Falls back to NIO where epoll is not supported, or its native library can't be loaded
+    nativeTransport = config.isNativeTransportEnabled() && Epoll.isAvailable();
+    if (nativeTransport) {
+      boss = new EpollEventLoopGroup(1);
+      workers = new EpollEventLoopGroup(workerThreads);
+    } else {
+      boss = new NioEventLoopGroup(1);
+      workers = new NioEventLoopGroup(workerThreads);
+    }
+    LOG.debug(
+        "Using {} transport with {} worker threads for RLPx connections",
+        nativeTransport ? "epoll" : "NIO",
+        workerThreads);
+
     metricsSystem.createIntegerGauge(
         BesuMetricCategory.NETWORK,
         "netty_workers_pending_tasks",
@@ -87,6 +120,13 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
         "netty_boss_pending_tasks",
         "The number of pending tasks in the Netty boss event loop",
         pendingTaskCounter(boss));
+
+    eventLoopLatencyTimer =
+        metricsSystem.createLabelledTimer(
+            BesuMetricCategory.NETWORK,
+            "netty_event_loop_latency_seconds",
+            "Time taken by the Netty event loops to run a task after it was submitted",
+            "group");
   }
 
   @Override
@@ -99,10 +139,12 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
       return listeningPortFuture;
     }
 
+    sampleEventLoopLatency(workers, eventLoopLatencyTimer.labels("workers"));
+    sampleEventLoopLatency(boss, eventLoopLatencyTimer.labels("boss"));
     this.server =
         new ServerBootstrap()
             .group(boss, workers)
-            .channel(NioServerSocketChannel.class)
+            .channel(serverChannelType())
             .childHandler(inboundChannelInitializer())
             .bind(config.getBindHost(), config.getBindPort());
     server.addListener(
@@ -166,7 +208,7 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
     final EnodeURL enode = peer.getEnodeURL();
     new Bootstrap()
         .group(workers)
-        .channel(NioSocketChannel.class)
+        .channel(socketChannelType())
         .remoteAddress(new InetSocketAddress(enode.getIp(), enode.getListeningPort().get()))
         .option(ChannelOption.TCP_NODELAY, true)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000)
@@ -234,6 +276,32 @@ public class NettyConnectionInitializer implements ConnectionInitializer {
     };
   }
 
+  private Class<? extends ServerChannel> serverChannelType() {
+    return nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  private Class<? extends SocketChannel> socketChannelType() {
+    return nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Periodically submits a task to each event loop of the group, timing how long the task waits
+   * before the event loop runs it. The sampling stops when the group shuts down.
+   */
+  private static void sampleEventLoopLatency(
+      final EventLoopGroup eventLoopGroup, final OperationTimer latencyTimer) {
+    for (final EventExecutor eventLoop : eventLoopGroup) {
+      eventLoop.scheduleAtFixedRate(
+          () -> {
+            final OperationTimer.TimingContext timingContext = latencyTimer.startTimer();
+            eventLoop.execute(timingContext::stopTimer);
+          },
+          EVENT_LOOP_LATENCY_SAMPLING_SECONDS,
+          EVENT_LOOP_LATENCY_SAMPLING_SECONDS,
+          TimeUnit.SECONDS);
+    }
+  }
+
   private IntSupplier pendingTaskCounter(final EventLoopGroup eventLoopGroup) {
     return () ->
         StreamSupport.stream(eventLoopGroup.spliterator(), false)
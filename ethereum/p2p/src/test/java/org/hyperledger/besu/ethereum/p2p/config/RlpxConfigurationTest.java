@@ -15,6 +15,7 @@
 package org.hyperledger.besu.ethereum.p2p.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Test;
 
@@ -63,4 +64,13 @@ public class RlpxConfigurationTest {
 
     assertThat(config.getMaxRemotelyInitiatedConnections()).isEqualTo(0);
   }
+
+  @Test
+  public void setWorkerThreads_rejectsNegativeValues() {
+    final RlpxConfiguration config = RlpxConfiguration.create();
+
+    assertThatThrownBy(() -> config.setWorkerThreads(-1))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(config.getWorkerThreads()).isEqualTo(RlpxConfiguration.DEFAULT_WORKER_THREADS);
+  }
 }
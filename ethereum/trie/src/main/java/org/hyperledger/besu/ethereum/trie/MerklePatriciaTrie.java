@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -72,6 +73,17 @@ public interface MerklePatriciaTrie<K, V> {
    */
   Bytes32 getRootHash();
 
+  /**
+   * Returns the KECCAK256 hash of the root node of the trie, hashing the modified subtrees near the
+   * root in parallel.
+   *
+   * @param forkJoinPool the pool hashing the subtrees
+   * @return The KECCAK256 hash of the root node of the trie.
+   */
+  default Bytes32 getRootHash(final ForkJoinPool forkJoinPool) {
+    return getRootHash();
+  }
+
   /**
    * Commits any pending changes to the underlying storage.
    *
@@ -79,6 +91,17 @@ public interface MerklePatriciaTrie<K, V> {
    */
   void commit(NodeUpdater nodeUpdater);
 
+  /**
+   * Commits any pending changes to the underlying storage, hashing the modified subtrees near the
+   * root in parallel. The nodes are handed to the {@code nodeUpdater} from a single thread.
+   *
+   * @param nodeUpdater used to store the node values
+   * @param forkJoinPool the pool hashing the subtrees
+   */
+  default void commit(final NodeUpdater nodeUpdater, final ForkJoinPool forkJoinPool) {
+    commit(nodeUpdater);
+  }
+
   /**
    * Retrieve up to {@code limit} storage entries beginning from the first entry with hash equal to
    * or greater than {@code startKeyHash}.
@@ -0,0 +1,138 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A {@link CommitVisitor} which hashes and encodes the dirty children of the branch nodes near the
+ * root of a trie in parallel. Each parallel subtree buffers the nodes it stores, and the buffers
+ * are handed to the {@link NodeUpdater} of the commit from a single thread.
+ */
+class ParallelCommitVisitor<V> extends CommitVisitor<V> {
+
+  // below this depth the subtrees are too small for forking to pay off
+  static final int DEFAULT_PARALLEL_DEPTH = 2;
+  private static final int MIN_DIRTY_CHILDREN = 2;
+
+  private static final NodeUpdater NO_OP_UPDATER = (location, hash, value) -> {};
+
+  private final NodeUpdater nodeUpdater;
+  private final int parallelDepth;
+
+  private ParallelCommitVisitor(final NodeUpdater nodeUpdater, final int parallelDepth) {
+    super(nodeUpdater);
+    this.nodeUpdater = nodeUpdater;
+    this.parallelDepth = parallelDepth;
+  }
+
+  /**
+   * Stores the dirty nodes of a trie, hashing the top levels in parallel.
+   *
+   * @param root the root of the trie
+   * @param nodeUpdater used to store the node values
+   * @param forkJoinPool the pool hashing the subtrees
+   * @param <V> the type of values stored by the trie
+   */
+  static <V> void commit(
+      final Node<V> root, final NodeUpdater nodeUpdater, final ForkJoinPool forkJoinPool) {
+    final ParallelCommitVisitor<V> visitor =
+        new ParallelCommitVisitor<>(nodeUpdater, DEFAULT_PARALLEL_DEPTH);
+    forkJoinPool.invoke(ForkJoinTask.adapt(() -> root.accept(Bytes.EMPTY, visitor)));
+  }
+
+  /**
+   * Computes and caches the hashes of the dirty nodes of a trie, without storing them.
+   *
+   * @param root the root of the trie
+   * @param forkJoinPool the pool hashing the subtrees
+   * @param <V> the type of values stored by the trie
+   */
+  static <V> void hash(final Node<V> root, final ForkJoinPool forkJoinPool) {
+    commit(root, NO_OP_UPDATER, forkJoinPool);
+  }
+
+  @Override
+  public void visit(final Bytes location, final BranchNode<V> branchNode) {
+    if (!branchNode.isDirty() || location.size() >= parallelDepth) {
+      super.visit(location, branchNode);
+      return;
+    }
+
+    final List<SubtreeCommit> subtreeCommits = new ArrayList<>(BranchNode.RADIX);
+    for (byte i = 0; i < BranchNode.RADIX; ++i) {
+      final Node<V> child = branchNode.child(i);
+      if (child.isDirty()) {
+        subtreeCommits.add(new SubtreeCommit(Bytes.concatenate(location, Bytes.of(i)), child));
+      }
+    }
+    if (subtreeCommits.size() < MIN_DIRTY_CHILDREN) {
+      super.visit(location, branchNode);
+      return;
+    }
+
+    ForkJoinTask.invokeAll(subtreeCommits);
+    for (final SubtreeCommit subtreeCommit : subtreeCommits) {
+      subtreeCommit.flushTo(nodeUpdater);
+    }
+    maybeStoreNode(location, branchNode);
+  }
+
+  private class SubtreeCommit extends RecursiveAction {
+    private final Bytes location;
+    private final Node<V> node;
+    private final List<StoredNodeValue> storedNodes = new ArrayList<>();
+
+    private SubtreeCommit(final Bytes location, final Node<V> node) {
+      this.location = location;
+      this.node = node;
+    }
+
+    @Override
+    protected void compute() {
+      final NodeUpdater bufferingUpdater =
+          nodeUpdater == NO_OP_UPDATER
+              ? NO_OP_UPDATER
+              : (nodeLocation, hash, value) ->
+                  storedNodes.add(new StoredNodeValue(nodeLocation, hash, value));
+      node.accept(location, new ParallelCommitVisitor<>(bufferingUpdater, parallelDepth));
+    }
+
+    private void flushTo(final NodeUpdater updater) {
+      for (final StoredNodeValue storedNode : storedNodes) {
+        updater.store(storedNode.location, storedNode.hash, storedNode.value);
+      }
+    }
+  }
+
+  private static class StoredNodeValue {
+    private final Bytes location;
+    private final Bytes32 hash;
+    private final Bytes value;
+
+    private StoredNodeValue(final Bytes location, final Bytes32 hash, final Bytes value) {
+      this.location = location;
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+}
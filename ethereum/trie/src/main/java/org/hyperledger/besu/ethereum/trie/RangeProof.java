@@ -0,0 +1,232 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+import static org.hyperledger.besu.ethereum.trie.CompactEncoding.bytesToPath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A contiguous range of trie entries verified against a Merkle proof of its first and last keys,
+ * such as the account and storage ranges served by the snap protocol.
+ *
+ * <p>The proof nodes rebuild the trie along the paths to both ends of the range. Everything
+ * between these paths is cleared, the entries of the range are put back, and the range is complete
+ * if the root hash is unchanged. The rebuilt part of the trie then only holds nodes of the proven
+ * trie, and can be stored as such, while the subtrees outside the range are left as references.
+ */
+public class RangeProof {
+  @SuppressWarnings("rawtypes")
+  private static final NullNode NULL_NODE = NullNode.instance();
+
+  private final Node<Bytes> root;
+  private final boolean hasMoreEntries;
+
+  private RangeProof(final Node<Bytes> root, final boolean hasMoreEntries) {
+    this.root = root;
+    this.hasMoreEntries = hasMoreEntries;
+  }
+
+  /**
+   * Verifies a range of entries.
+   *
+   * @param rootHash the root hash of the trie the entries are taken from
+   * @param startKey the first key of the range, which may not be in the trie
+   * @param entries the entries of the range, in ascending key order
+   * @param proof the nodes proving the start key and the last key of the range, or no nodes if the
+   *     entries are the whole trie
+   * @return the verified range, or empty if the entries don't match the proof
+   */
+  public static Optional<RangeProof> verify(
+      final Bytes32 rootHash,
+      final Bytes32 startKey,
+      final Map<Bytes32, Bytes> entries,
+      final List<Bytes> proof) {
+    Bytes32 lastKey = null;
+    for (final Bytes32 key : entries.keySet()) {
+      final boolean isOrdered =
+          lastKey == null ? comparePaths(key, startKey) >= 0 : comparePaths(key, lastKey) > 0;
+      if (!isOrdered) {
+        return Optional.empty();
+      }
+      lastKey = key;
+    }
+
+    final Map<Bytes32, Bytes> proofNodes = new HashMap<>();
+    proof.forEach(node -> proofNodes.put(keccak256(node), node));
+    final StoredNodeFactory<Bytes> nodeFactory =
+        new StoredNodeFactory<>(
+            (location, hash) -> Optional.ofNullable(proofNodes.get(hash)),
+            Function.identity(),
+            Function.identity());
+
+    try {
+      // without entries the range extends to the end of the trie
+      final ClearRangeVisitor clearRangeVisitor =
+          new ClearRangeVisitor(
+              nodeFactory,
+              keyPath(startKey),
+              Optional.ofNullable(lastKey).map(RangeProof::keyPath));
+      Node<Bytes> root =
+          proof.isEmpty()
+              ? nullNode()
+              : new StoredNode<>(nodeFactory, Bytes.EMPTY, rootHash)
+                  .accept(clearRangeVisitor, Bytes.EMPTY);
+      for (final Map.Entry<Bytes32, Bytes> entry : entries.entrySet()) {
+        final PutVisitor<Bytes> putVisitor = new PutVisitor<>(nodeFactory, entry.getValue());
+        root = root.accept(putVisitor, bytesToPath(entry.getKey()));
+      }
+      if (!root.getHash().equals(rootHash)) {
+        return Optional.empty();
+      }
+      return Optional.of(new RangeProof(root, clearRangeVisitor.hasEntriesAfterRange));
+    } catch (final MerkleTrieException e) {
+      // a node needed to rebuild the boundaries of the range is not in the proof
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Whether the proven trie has entries after the last key of the range.
+   *
+   * @return true if the trie has entries after the range
+   */
+  public boolean hasMoreEntries() {
+    return hasMoreEntries;
+  }
+
+  /**
+   * Stores the nodes rebuilt from the range and its proof. The nodes of the trie outside the range
+   * are not known and are not stored.
+   *
+   * @param nodeUpdater the updater storing the nodes
+   */
+  public void commit(final NodeUpdater nodeUpdater) {
+    root.accept(Bytes.EMPTY, new CommitVisitor<>(nodeUpdater));
+  }
+
+  private static Bytes keyPath(final Bytes32 key) {
+    // leave out the leaf terminator
+    return bytesToPath(key).slice(0, Bytes32.SIZE * 2);
+  }
+
+  private static int comparePaths(final Bytes path, final Bytes otherPath) {
+    for (int i = 0; i < path.size(); i++) {
+      final int comparison = Integer.compare(path.get(i) & 0xff, otherPath.get(i) & 0xff);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static class ClearRangeVisitor implements PathNodeVisitor<Bytes> {
+    private final NodeFactory<Bytes> nodeFactory;
+    private final Bytes startPath;
+    private final Optional<Bytes> endPath;
+    private boolean hasEntriesAfterRange;
+
+    ClearRangeVisitor(
+        final NodeFactory<Bytes> nodeFactory,
+        final Bytes startPath,
+        final Optional<Bytes> endPath) {
+      this.nodeFactory = nodeFactory;
+      this.startPath = startPath;
+      this.endPath = endPath;
+    }
+
+    @Override
+    public Node<Bytes> visit(final ExtensionNode<Bytes> extensionNode, final Bytes location) {
+      final Bytes childLocation = Bytes.concatenate(location, extensionNode.getPath());
+      switch (classify(childLocation)) {
+        case INSIDE:
+          return nullNode();
+        case BOUNDARY:
+          return nodeFactory.createExtension(
+              extensionNode.getPath(), extensionNode.getChild().accept(this, childLocation));
+        default:
+          return extensionNode;
+      }
+    }
+
+    @Override
+    public Node<Bytes> visit(final BranchNode<Bytes> branchNode, final Bytes location) {
+      // children are replaced without flattening the branch, the range entries fill it again
+      final ArrayList<Node<Bytes>> children = new ArrayList<>(branchNode.getChildren());
+      for (byte i = 0; i < BranchNode.RADIX; i++) {
+        final Bytes childLocation = Bytes.concatenate(location, Bytes.of(i));
+        final Node<Bytes> child = children.get(i);
+        if (child instanceof NullNode) {
+          continue;
+        }
+        switch (classify(childLocation)) {
+          case INSIDE:
+            children.set(i, nullNode());
+            break;
+          case BOUNDARY:
+            children.set(i, child.accept(this, childLocation));
+            break;
+          default:
+        }
+      }
+      return nodeFactory.createBranch(children, branchNode.getValue());
+    }
+
+    @Override
+    public Node<Bytes> visit(final LeafNode<Bytes> leafNode, final Bytes location) {
+      final Bytes leafPath = leafNode.getPath();
+      final Bytes keyPath = Bytes.concatenate(location, leafPath.slice(0, leafPath.size() - 1));
+      return classify(keyPath) == Position.OUTSIDE ? leafNode : nullNode();
+    }
+
+    @Override
+    public Node<Bytes> visit(final NullNode<Bytes> nullNode, final Bytes location) {
+      return nullNode;
+    }
+
+    private Position classify(final Bytes path) {
+      final int afterStart = comparePaths(path, startPath);
+      final int afterEnd = endPath.map(end -> comparePaths(path, end)).orElse(-1);
+      if (afterStart < 0 || afterEnd > 0) {
+        hasEntriesAfterRange |= afterEnd > 0;
+        return Position.OUTSIDE;
+      }
+      if (afterStart > 0 && afterEnd < 0) {
+        return Position.INSIDE;
+      }
+      return Position.BOUNDARY;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Node<Bytes> nullNode() {
+    return NULL_NODE;
+  }
+
+  private enum Position {
+    INSIDE,
+    BOUNDARY,
+    OUTSIDE
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -43,6 +44,7 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
   private final StoredNodeFactory<V> nodeFactory;
 
   private Node<V> root;
+  private Node<V> hashedRoot;
 
   /**
    * Create a trie.
@@ -72,7 +74,27 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
       final Bytes32 rootHash,
       final Function<V, Bytes> valueSerializer,
       final Function<Bytes, V> valueDeserializer) {
-    this.nodeFactory = new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer);
+    this(nodeLoader, rootHash, valueSerializer, valueDeserializer, Optional.empty());
+  }
+
+  /**
+   * Create a trie.
+   *
+   * @param nodeLoader The {@link NodeLoader} to retrieve node data from.
+   * @param rootHash The initial root has for the trie, which should be already present in {@code
+   *     storage}.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param nodeCache The cache of decoded nodes shared with other tries over the same storage.
+   */
+  public StoredMerklePatriciaTrie(
+      final NodeLoader nodeLoader,
+      final Bytes32 rootHash,
+      final Function<V, Bytes> valueSerializer,
+      final Function<Bytes, V> valueDeserializer,
+      final Optional<TrieNodeCache<V>> nodeCache) {
+    this.nodeFactory =
+        new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer, nodeCache);
     this.root =
         rootHash.equals(EMPTY_TRIE_NODE_HASH)
             ? NullNode.instance()
@@ -112,12 +134,23 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
   public void commit(final NodeUpdater nodeUpdater) {
     final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
     root.accept(Bytes.EMPTY, commitVisitor);
+    completeCommit(nodeUpdater);
+  }
+
+  @Override
+  public void commit(final NodeUpdater nodeUpdater, final ForkJoinPool forkJoinPool) {
+    ParallelCommitVisitor.commit(root, nodeUpdater, forkJoinPool);
+    completeCommit(nodeUpdater);
+  }
+
+  private void completeCommit(final NodeUpdater nodeUpdater) {
     // Make sure root node was stored
     if (root.isDirty() && root.getRlpRef().size() < 32) {
       nodeUpdater.store(Bytes.EMPTY, root.getHash(), root.getRlpRef());
     }
     // Reset root so dirty nodes can be garbage collected
     final Bytes32 rootHash = root.getHash();
+    this.hashedRoot = null;
     this.root =
         rootHash.equals(EMPTY_TRIE_NODE_HASH)
             ? NullNode.instance()
@@ -170,6 +203,16 @@ public class StoredMerklePatriciaTrie<K extends Bytes, V> implements MerklePatri
     return root.getHash();
   }
 
+  @Override
+  public Bytes32 getRootHash(final ForkJoinPool forkJoinPool) {
+    // hashes are cached by the nodes, so only walk the dirty nodes once per new root
+    if (root.isDirty() && root != hashedRoot) {
+      ParallelCommitVisitor.hash(root, forkJoinPool);
+      hashedRoot = root;
+    }
+    return root.getHash();
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
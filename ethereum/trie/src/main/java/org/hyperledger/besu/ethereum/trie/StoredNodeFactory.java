@@ -36,14 +36,24 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
   private final NodeLoader nodeLoader;
   private final Function<V, Bytes> valueSerializer;
   private final Function<Bytes, V> valueDeserializer;
+  private final Optional<TrieNodeCache<V>> nodeCache;
 
   public StoredNodeFactory(
       final NodeLoader nodeLoader,
       final Function<V, Bytes> valueSerializer,
       final Function<Bytes, V> valueDeserializer) {
+    this(nodeLoader, valueSerializer, valueDeserializer, Optional.empty());
+  }
+
+  public StoredNodeFactory(
+      final NodeLoader nodeLoader,
+      final Function<V, Bytes> valueSerializer,
+      final Function<Bytes, V> valueDeserializer,
+      final Optional<TrieNodeCache<V>> nodeCache) {
     this.nodeLoader = nodeLoader;
     this.valueSerializer = valueSerializer;
     this.valueDeserializer = valueDeserializer;
+    this.nodeCache = nodeCache;
   }
 
   @Override
@@ -92,6 +102,11 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
 
   public Optional<Node<V>> retrieve(final Bytes location, final Bytes32 hash)
       throws MerkleTrieException {
+    final Optional<Bytes> cachedRlp = nodeCache.flatMap(cache -> cache.get(hash));
+    if (cachedRlp.isPresent()) {
+      return cachedRlp.map(
+          rlp -> decode(location, rlp, () -> format("Invalid RLP value for hash %s", hash)));
+    }
     return nodeLoader
         .getNode(location, hash)
         .map(
@@ -101,6 +116,7 @@ public class StoredNodeFactory<V> implements NodeFactory<V> {
               // recalculating the node.hash() is expensive, so we only do this as an assertion
               assert (hash.equals(node.getHash()))
                   : "Node hash " + node.getHash() + " not equal to expected " + hash;
+              nodeCache.ifPresent(cache -> cache.put(hash, rlp));
               return node;
             });
   }
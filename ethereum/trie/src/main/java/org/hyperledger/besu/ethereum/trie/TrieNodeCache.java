@@ -0,0 +1,74 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * A size bounded cache of the RLP of trie nodes keyed by node hash, so that the top levels of a
+ * trie are not read from storage again by every {@link StoredMerklePatriciaTrie} walking them.
+ *
+ * <p>A cache may be shared by any number of tries that do not depend on the location of the nodes.
+ * Only the RLP of a node is shared, so every trie decodes its own nodes, bound to its own storage,
+ * and keeps them for as long as it lives.
+ *
+ * @param <V> The type of values stored by the tries sharing this cache.
+ */
+public class TrieNodeCache<V> {
+
+  private final Cache<Bytes32, Bytes> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public TrieNodeCache(final long maxSizeInBytes) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher((final Bytes32 hash, final Bytes rlp) -> rlp.size())
+            .build();
+  }
+
+  Optional<Bytes> get(final Bytes32 hash) {
+    final Bytes rlp = cache.getIfPresent(hash);
+    if (rlp == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+    hits.increment();
+    return Optional.of(rlp);
+  }
+
+  void put(final Bytes32 hash, final Bytes rlp) {
+    cache.put(hash, rlp);
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
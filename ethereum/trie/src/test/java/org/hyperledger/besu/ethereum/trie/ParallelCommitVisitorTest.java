@@ -0,0 +1,104 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.Hash;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelCommitVisitorTest {
+
+  private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+  @After
+  public void tearDown() {
+    forkJoinPool.shutdownNow();
+  }
+
+  @Test
+  public void parallelCommitStoresSameNodesAsSequentialCommit() {
+    final MerklePatriciaTrie<Bytes32, Bytes> sequentialTrie = populatedTrie(5_000);
+    final MerklePatriciaTrie<Bytes32, Bytes> parallelTrie = populatedTrie(5_000);
+
+    final Map<Bytes32, Bytes> sequentialNodes = new HashMap<>();
+    sequentialTrie.commit((location, hash, value) -> sequentialNodes.put(hash, value));
+    final Map<Bytes32, Bytes> parallelNodes = new HashMap<>();
+    final Set<Thread> storingThreads = new HashSet<>();
+    parallelTrie.commit(
+        (location, hash, value) -> {
+          storingThreads.add(Thread.currentThread());
+          parallelNodes.put(hash, value);
+        },
+        forkJoinPool);
+
+    assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+    assertThat(parallelNodes).isEqualTo(sequentialNodes);
+    assertThat(storingThreads).hasSize(1);
+  }
+
+  @Test
+  public void parallelRootHashMatchesSequentialRootHash() {
+    final MerklePatriciaTrie<Bytes32, Bytes> trie = populatedTrie(5_000);
+    final Bytes32 parallelRootHash = trie.getRootHash(forkJoinPool);
+
+    assertThat(parallelRootHash).isEqualTo(populatedTrie(5_000).getRootHash());
+
+    trie.put(key(0), Bytes.of(42));
+    assertThat(trie.getRootHash(forkJoinPool)).isNotEqualTo(parallelRootHash);
+    assertThat(trie.getRootHash(forkJoinPool)).isEqualTo(trie.getRootHash());
+  }
+
+  @Test
+  public void parallelCommitHandlesSmallTries() {
+    final MerklePatriciaTrie<Bytes32, Bytes> sequentialTrie = populatedTrie(1);
+    final MerklePatriciaTrie<Bytes32, Bytes> parallelTrie = populatedTrie(1);
+
+    final Map<Bytes32, Bytes> sequentialNodes = new HashMap<>();
+    sequentialTrie.commit((location, hash, value) -> sequentialNodes.put(hash, value));
+    final Map<Bytes32, Bytes> parallelNodes = new HashMap<>();
+    parallelTrie.commit((location, hash, value) -> parallelNodes.put(hash, value), forkJoinPool);
+
+    assertThat(parallelNodes).isEqualTo(sequentialNodes);
+  }
+
+  private static MerklePatriciaTrie<Bytes32, Bytes> populatedTrie(final int size) {
+    final MerklePatriciaTrie<Bytes32, Bytes> trie =
+        new StoredMerklePatriciaTrie<>(
+            (location, hash) -> Optional.empty(),
+            Function.identity(),
+            Function.identity());
+    for (int i = 0; i < size; i++) {
+      trie.put(key(i), Bytes.of(1).concat(Bytes.ofUnsignedInt(i)));
+    }
+    return trie;
+  }
+
+  private static Bytes32 key(final int i) {
+    return Hash.keccak256(Bytes.ofUnsignedInt(i));
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.crypto.Hash.keccak256;
+
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeProofTest {
+
+  private final MerkleStorage merkleStorage =
+      new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+  private final MerklePatriciaTrie<Bytes32, Bytes> trie =
+      new StoredMerklePatriciaTrie<>(merkleStorage::get, Function.identity(), Function.identity());
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < 200; i++) {
+      final Bytes32 key = keccak256(Bytes.ofUnsignedInt(i));
+      trie.put(key, Bytes.ofUnsignedInt(i * 1000L));
+    }
+    trie.commit(merkleStorage::put);
+  }
+
+  @Test
+  public void verifiesCompleteRange() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 50);
+
+    final Optional<RangeProof> rangeProof =
+        RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, proof(Bytes32.ZERO, entries));
+
+    assertThat(rangeProof).isPresent();
+    assertThat(rangeProof.get().hasMoreEntries()).isTrue();
+  }
+
+  @Test
+  public void verifiesRangeStartingBetweenKeys() {
+    final Bytes32 startKey = Bytes32.fromHexString("0x" + "80".repeat(32));
+    final Map<Bytes32, Bytes> entries = entriesFrom(startKey, 30);
+
+    assertThat(
+            RangeProof.verify(trie.getRootHash(), startKey, entries, proof(startKey, entries)))
+        .isPresent();
+  }
+
+  @Test
+  public void rejectsRangeWithMissingEntry() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 50);
+    final List<Bytes> proof = proof(Bytes32.ZERO, entries);
+    entries.remove(new ArrayList<>(entries.keySet()).get(20));
+
+    assertThat(RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, proof)).isEmpty();
+  }
+
+  @Test
+  public void rejectsRangeWithModifiedValue() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 50);
+    final List<Bytes> proof = proof(Bytes32.ZERO, entries);
+    entries.put(new ArrayList<>(entries.keySet()).get(20), Bytes.of(1));
+
+    assertThat(RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, proof)).isEmpty();
+  }
+
+  @Test
+  public void rejectsRangeWithoutProofOfLastKey() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 50);
+
+    assertThat(
+            RangeProof.verify(
+                trie.getRootHash(),
+                Bytes32.ZERO,
+                entries,
+                trie.getValueWithProof(Bytes32.ZERO).getProofRelatedNodes()))
+        .isEmpty();
+  }
+
+  @Test
+  public void verifiesLastRange() {
+    final Map<Bytes32, Bytes> firstEntries = entriesFrom(Bytes32.ZERO, 150);
+    final Bytes32 startKey = nextKey(new ArrayList<>(firstEntries.keySet()).get(149));
+    final Map<Bytes32, Bytes> entries = entriesFrom(startKey, 100);
+    assertThat(entries).hasSize(50);
+
+    final Optional<RangeProof> rangeProof =
+        RangeProof.verify(trie.getRootHash(), startKey, entries, proof(startKey, entries));
+
+    assertThat(rangeProof).isPresent();
+    assertThat(rangeProof.get().hasMoreEntries()).isFalse();
+  }
+
+  @Test
+  public void verifiesEmptyRangeAfterLastKey() {
+    final Bytes32 startKey = Bytes32.fromHexString("0x" + "ff".repeat(32));
+
+    final Optional<RangeProof> rangeProof =
+        RangeProof.verify(
+            trie.getRootHash(),
+            startKey,
+            Map.of(),
+            trie.getValueWithProof(startKey).getProofRelatedNodes());
+
+    assertThat(rangeProof).isPresent();
+    assertThat(rangeProof.get().hasMoreEntries()).isFalse();
+  }
+
+  @Test
+  public void verifiesWholeTrieWithoutProof() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 200);
+
+    assertThat(RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, List.of()))
+        .isPresent();
+    entries.remove(entries.keySet().iterator().next());
+    assertThat(RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, List.of())).isEmpty();
+  }
+
+  @Test
+  public void committedNodesArePartOfTheTrie() {
+    final Map<Bytes32, Bytes> entries = entriesFrom(Bytes32.ZERO, 50);
+    final RangeProof rangeProof =
+        RangeProof.verify(trie.getRootHash(), Bytes32.ZERO, entries, proof(Bytes32.ZERO, entries))
+            .orElseThrow();
+
+    final List<Bytes32> committedHashes = new ArrayList<>();
+    rangeProof.commit((location, hash, value) -> committedHashes.add(hash));
+
+    assertThat(committedHashes).isNotEmpty().contains(trie.getRootHash());
+    committedHashes.forEach(hash -> assertThat(merkleStorage.get(null, hash)).isPresent());
+  }
+
+  private Map<Bytes32, Bytes> entriesFrom(final Bytes32 startKey, final int limit) {
+    return new LinkedHashMap<>(trie.entriesFrom(startKey, limit));
+  }
+
+  private List<Bytes> proof(final Bytes32 startKey, final Map<Bytes32, Bytes> entries) {
+    final Bytes32 lastKey = new ArrayList<>(entries.keySet()).get(entries.size() - 1);
+    final List<Bytes> proof =
+        new ArrayList<>(trie.getValueWithProof(startKey).getProofRelatedNodes());
+    proof.addAll(trie.getValueWithProof(lastKey).getProofRelatedNodes());
+    return proof;
+  }
+
+  private static Bytes32 nextKey(final Bytes32 key) {
+    return UInt256.fromBytes(key).add(1).toBytes();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.crypto.Hash;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrieNodeCacheTest {
+
+  private static final int KEY_COUNT = 200;
+
+  private final MerkleStorage merkleStorage =
+      new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+  private final AtomicInteger loads = new AtomicInteger();
+  private final NodeLoader countingLoader =
+      (location, hash) -> {
+        loads.incrementAndGet();
+        return merkleStorage.get(location, hash);
+      };
+  private Bytes32 rootHash;
+
+  @Before
+  public void setUp() {
+    final MerklePatriciaTrie<Bytes32, Bytes> trie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, Function.identity(), Function.identity());
+    for (int i = 0; i < KEY_COUNT; i++) {
+      trie.put(key(i), value(i));
+    }
+    trie.commit(merkleStorage::put);
+    rootHash = trie.getRootHash();
+  }
+
+  @Test
+  public void triesSharingCacheDoNotReloadNodes() {
+    final TrieNodeCache<Bytes> cache = new TrieNodeCache<>(Long.MAX_VALUE);
+
+    assertAllValuesPresent(cachedTrie(cache));
+    final int firstLoads = loads.get();
+    assertThat(firstLoads).isPositive();
+    assertThat(cache.getMisses()).isEqualTo(firstLoads);
+
+    assertAllValuesPresent(cachedTrie(cache));
+    assertThat(loads.get()).isEqualTo(firstLoads);
+    assertThat(cache.getHits()).isPositive();
+  }
+
+  @Test
+  public void trieKeepsNodesLoadedThroughCache() {
+    final TrieNodeCache<Bytes> cache = new TrieNodeCache<>(Long.MAX_VALUE);
+    final MerklePatriciaTrie<Bytes32, Bytes> trie = cachedTrie(cache);
+
+    assertAllValuesPresent(trie);
+    final long lookups = cache.getHits() + cache.getMisses();
+    assertAllValuesPresent(trie);
+
+    assertThat(cache.getHits() + cache.getMisses()).isEqualTo(lookups);
+  }
+
+  @Test
+  public void updatesThroughCachedNodesProduceSameRoot() {
+    final TrieNodeCache<Bytes> cache = new TrieNodeCache<>(Long.MAX_VALUE);
+    assertAllValuesPresent(cachedTrie(cache));
+
+    final MerklePatriciaTrie<Bytes32, Bytes> cachedTrie = cachedTrie(cache);
+    final MerklePatriciaTrie<Bytes32, Bytes> uncachedTrie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get, rootHash, Function.identity(), Function.identity());
+    for (int i = 0; i < KEY_COUNT; i += 3) {
+      cachedTrie.put(key(i), value(i + KEY_COUNT));
+      uncachedTrie.put(key(i), value(i + KEY_COUNT));
+    }
+    cachedTrie.remove(key(1));
+    uncachedTrie.remove(key(1));
+
+    assertThat(cachedTrie.getRootHash()).isEqualTo(uncachedTrie.getRootHash());
+    assertAllValuesPresent(cachedTrie(cache));
+  }
+
+  @Test
+  public void sizeLimitBoundsCachedNodes() {
+    final TrieNodeCache<Bytes> cache = new TrieNodeCache<>(1024);
+
+    assertAllValuesPresent(cachedTrie(cache));
+
+    assertThat(cache.size()).isLessThan(cache.getMisses());
+  }
+
+  private MerklePatriciaTrie<Bytes32, Bytes> cachedTrie(final TrieNodeCache<Bytes> cache) {
+    return new StoredMerklePatriciaTrie<>(
+        countingLoader, rootHash, Function.identity(), Function.identity(), Optional.of(cache));
+  }
+
+  private static void assertAllValuesPresent(final MerklePatriciaTrie<Bytes32, Bytes> trie) {
+    for (int i = 0; i < KEY_COUNT; i++) {
+      assertThat(trie.get(key(i))).contains(value(i));
+    }
+  }
+
+  private static Bytes32 key(final int i) {
+    return Hash.keccak256(Bytes.ofUnsignedInt(i));
+  }
+
+  private static Bytes value(final int i) {
+    return Bytes.of(1).concat(Bytes.ofUnsignedInt(i));
+  }
+}
@@ -18,9 +18,11 @@ import org.hyperledger.besu.plugin.Unstable;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -61,6 +63,19 @@ public interface KeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(byte[] key) throws StorageException;
 
+  /**
+   * Retrieves the values associated with several keys at once. Implementations backed by a
+   * database should look the keys up in a single batch rather than one at a time.
+   *
+   * @param keys whose associated values are being retrieved.
+   * @return a list holding, in the order of the keys, an {@link Optional} containing the value
+   *     associated with each key, otherwise empty.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default List<Optional<byte[]>> getAll(final List<byte[]> keys) throws StorageException {
+    return keys.stream().map(this::get).collect(Collectors.toList());
+  }
+
   /**
    * Returns a stream of all keys.
    *
@@ -96,4 +111,33 @@ public interface KeyValueStorage extends Closeable {
    * @throws StorageException problem encountered when starting a new transaction.
    */
   KeyValueStorageTransaction startTransaction() throws StorageException;
+
+  /**
+   * Begins a bulk load, for writing a large amount of data such as a restored world state.
+   *
+   * <p>Implementations may write the data straight into the files of the store rather than through
+   * their regular write path. Unlike a transaction, a bulk load may make data visible before it is
+   * committed and is not guaranteed to be discarded on rollback.
+   *
+   * @return transaction to sequence the key-value operations of the bulk load.
+   * @throws StorageException problem encountered when starting a new bulk load.
+   */
+  default KeyValueStorageTransaction startBulkLoad() throws StorageException {
+    return startTransaction();
+  }
+
+  /**
+   * Takes a read-only, point in time view of the storage, which is not affected by any later
+   * changes. Taking a snapshot is cheap and doesn't block writers, making it suitable for long
+   * running reads which need a consistent view of the storage.
+   *
+   * <p>Only reads are supported on a snapshot, which must be closed once no longer used to release
+   * the resources it holds on to.
+   *
+   * @return the snapshot, or empty if the storage doesn't support snapshots.
+   * @throws StorageException problem encountered when taking the snapshot.
+   */
+  default Optional<KeyValueStorage> takeSnapshot() throws StorageException {
+    return Optional.empty();
+  }
 }
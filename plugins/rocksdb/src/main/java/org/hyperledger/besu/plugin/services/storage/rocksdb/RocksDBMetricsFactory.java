@@ -23,11 +23,15 @@ import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 
+import java.util.Locale;
+import java.util.Map;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
-import org.rocksdb.TransactionDB;
 
 public class RocksDBMetricsFactory {
 
@@ -54,7 +58,7 @@ public class RocksDBMetricsFactory {
   public RocksDBMetrics create(
       final MetricsSystem metricsSystem,
       final RocksDBConfiguration rocksDbConfiguration,
-      final TransactionDB db,
+      final RocksDB db,
       final Statistics stats) {
     final OperationTimer readLatency =
         metricsSystem
@@ -132,4 +136,65 @@ public class RocksDBMetricsFactory {
     return new RocksDBMetrics(
         readLatency, removeLatency, writeLatency, commitLatency, rollbackCount);
   }
+
+  public void registerSegmentMetrics(
+      final MetricsSystem metricsSystem,
+      final RocksDB db,
+      final Map<String, ColumnFamilyHandle> columnHandlesByName) {
+    columnHandlesByName.forEach(
+        (segmentName, columnHandle) -> {
+          final String prefix = "segment_" + segmentName.toLowerCase(Locale.ROOT);
+          createSegmentGauge(
+              metricsSystem,
+              db,
+              columnHandle,
+              prefix + "_estimated_keys",
+              "Estimated number of keys in the " + segmentName + " column family",
+              "rocksdb.estimate-num-keys");
+          createSegmentGauge(
+              metricsSystem,
+              db,
+              columnHandle,
+              prefix + "_files_size_bytes",
+              "Size of the live files of the " + segmentName + " column family in bytes",
+              "rocksdb.live-sst-files-size");
+          createSegmentGauge(
+              metricsSystem,
+              db,
+              columnHandle,
+              prefix + "_table_readers_memory_bytes",
+              "Estimated memory used for index and filter blocks of the "
+                  + segmentName
+                  + " column family outside the block cache in bytes",
+              "rocksdb.estimate-table-readers-mem");
+          createSegmentGauge(
+              metricsSystem,
+              db,
+              columnHandle,
+              prefix + "_memtables_size_bytes",
+              "Size of the memtables of the " + segmentName + " column family in bytes",
+              "rocksdb.cur-size-all-mem-tables");
+        });
+  }
+
+  private void createSegmentGauge(
+      final MetricsSystem metricsSystem,
+      final RocksDB db,
+      final ColumnFamilyHandle columnHandle,
+      final String name,
+      final String help,
+      final String property) {
+    metricsSystem.createLongGauge(
+        rocksDbMetricCategory,
+        name,
+        help,
+        () -> {
+          try {
+            return db.getLongProperty(columnHandle, property);
+          } catch (final RocksDBException e) {
+            LOG.debug("Failed to get RocksDB metric", e);
+            return 0L;
+          }
+        });
+  }
 }
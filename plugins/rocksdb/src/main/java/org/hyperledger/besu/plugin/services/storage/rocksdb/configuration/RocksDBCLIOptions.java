@@ -23,6 +23,10 @@ public class RocksDBCLIOptions {
   public static final long DEFAULT_CACHE_CAPACITY = 8388608;
   public static final int DEFAULT_MAX_BACKGROUND_COMPACTIONS = 4;
   public static final int DEFAULT_BACKGROUND_THREAD_COUNT = 4;
+  public static final boolean DEFAULT_SEGMENT_TUNING_ENABLED = true;
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
+  public static final boolean DEFAULT_WRITE_BATCH_ENABLED = false;
+  public static final boolean DEFAULT_BULK_IMPORT_ENABLED = false;
 
   private static final String MAX_OPEN_FILES_FLAG = "--Xplugin-rocksdb-max-open-files";
   private static final String CACHE_CAPACITY_FLAG = "--Xplugin-rocksdb-cache-capacity";
@@ -30,6 +34,12 @@ public class RocksDBCLIOptions {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String SEGMENT_TUNING_ENABLED_FLAG =
+      "--Xplugin-rocksdb-segment-tuning-enabled";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_FLAG =
+      "--Xplugin-rocksdb-bloom-filter-bits-per-key";
+  private static final String WRITE_BATCH_ENABLED_FLAG = "--Xplugin-rocksdb-write-batch-enabled";
+  private static final String BULK_IMPORT_ENABLED_FLAG = "--Xplugin-rocksdb-bulk-import-enabled";
 
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -44,7 +54,7 @@ public class RocksDBCLIOptions {
       hidden = true,
       defaultValue = "8388608",
       paramLabel = "<LONG>",
-      description = "Cache capacity of RocksDB (default: ${DEFAULT-VALUE})")
+      description = "Block cache capacity of RocksDB per column family (default: ${DEFAULT-VALUE})")
   long cacheCapacity;
 
   @CommandLine.Option(
@@ -63,6 +73,50 @@ public class RocksDBCLIOptions {
       description = "Number of RocksDB background threads (default: ${DEFAULT-VALUE})")
   int backgroundThreadCount;
 
+  @CommandLine.Option(
+      names = {SEGMENT_TUNING_ENABLED_FLAG},
+      hidden = true,
+      defaultValue = "true",
+      paramLabel = "<BOOLEAN>",
+      arity = "1",
+      description =
+          "Tune block size, compression and filters of each RocksDB column family for the access "
+              + "pattern of its segment (default: ${DEFAULT-VALUE})")
+  boolean segmentTuningEnabled;
+
+  @CommandLine.Option(
+      names = {BLOOM_FILTER_BITS_PER_KEY_FLAG},
+      hidden = true,
+      defaultValue = "10",
+      paramLabel = "<INTEGER>",
+      description =
+          "Bits per key of the bloom filters of hash keyed RocksDB column families "
+              + "(default: ${DEFAULT-VALUE})")
+  int bloomFilterBitsPerKey;
+
+  @CommandLine.Option(
+      names = {WRITE_BATCH_ENABLED_FLAG},
+      hidden = true,
+      defaultValue = "false",
+      paramLabel = "<BOOLEAN>",
+      arity = "1",
+      description =
+          "Commit RocksDB writes as plain write batches instead of pessimistic transactions "
+              + "(default: ${DEFAULT-VALUE})")
+  boolean writeBatchEnabled;
+
+  @CommandLine.Option(
+      names = {BULK_IMPORT_ENABLED_FLAG},
+      hidden = true,
+      defaultValue = "false",
+      paramLabel = "<BOOLEAN>",
+      arity = "1",
+      description =
+          "Commit RocksDB write batches without a write ahead log. "
+              + "Speeds up initial sync, but data written since the last flush is lost if the "
+              + "process crashes (default: ${DEFAULT-VALUE})")
+  boolean bulkImportEnabled;
+
   private RocksDBCLIOptions() {}
 
   public static RocksDBCLIOptions create() {
@@ -75,12 +129,23 @@ public class RocksDBCLIOptions {
     options.cacheCapacity = config.getCacheCapacity();
     options.maxBackgroundCompactions = config.getMaxBackgroundCompactions();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
+    options.segmentTuningEnabled = config.isSegmentTuningEnabled();
+    options.bloomFilterBitsPerKey = config.getBloomFilterBitsPerKey();
+    options.writeBatchEnabled = config.isWriteBatchEnabled();
+    options.bulkImportEnabled = config.isBulkImportEnabled();
     return options;
   }
 
   public RocksDBFactoryConfiguration toDomainObject() {
     return new RocksDBFactoryConfiguration(
-        maxOpenFiles, maxBackgroundCompactions, backgroundThreadCount, cacheCapacity);
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        segmentTuningEnabled,
+        bloomFilterBitsPerKey,
+        writeBatchEnabled,
+        bulkImportEnabled);
   }
 
   @Override
@@ -90,6 +155,10 @@ public class RocksDBCLIOptions {
         .add("cacheCapacity", cacheCapacity)
         .add("maxBackgroundCompactions", maxBackgroundCompactions)
         .add("backgroundThreadCount", backgroundThreadCount)
+        .add("segmentTuningEnabled", segmentTuningEnabled)
+        .add("bloomFilterBitsPerKey", bloomFilterBitsPerKey)
+        .add("writeBatchEnabled", writeBatchEnabled)
+        .add("bulkImportEnabled", bulkImportEnabled)
         .toString();
   }
 }
@@ -24,6 +24,10 @@ public class RocksDBConfiguration {
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final boolean segmentTuningEnabled;
+  private final int bloomFilterBitsPerKey;
+  private final boolean writeBatchEnabled;
+  private final boolean bulkImportEnabled;
 
   public RocksDBConfiguration(
       final Path databaseDir,
@@ -31,12 +35,20 @@ public class RocksDBConfiguration {
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity,
+      final boolean segmentTuningEnabled,
+      final int bloomFilterBitsPerKey,
+      final boolean writeBatchEnabled,
+      final boolean bulkImportEnabled,
       final String label) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.segmentTuningEnabled = segmentTuningEnabled;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.writeBatchEnabled = writeBatchEnabled;
+    this.bulkImportEnabled = bulkImportEnabled;
     this.label = label;
   }
 
@@ -60,6 +72,22 @@ public class RocksDBConfiguration {
     return cacheCapacity;
   }
 
+  public boolean isSegmentTuningEnabled() {
+    return segmentTuningEnabled;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public boolean isWriteBatchEnabled() {
+    return writeBatchEnabled;
+  }
+
+  public boolean isBulkImportEnabled() {
+    return bulkImportEnabled;
+  }
+
   public String getLabel() {
     return label;
   }
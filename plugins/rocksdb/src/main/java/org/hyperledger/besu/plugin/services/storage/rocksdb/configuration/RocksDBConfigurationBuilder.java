@@ -15,9 +15,13 @@
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BULK_IMPORT_ENABLED;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_TUNING_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_BATCH_ENABLED;
 
 import java.nio.file.Path;
 
@@ -29,6 +33,10 @@ public class RocksDBConfigurationBuilder {
   private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
   private int maxBackgroundCompactions = DEFAULT_MAX_BACKGROUND_COMPACTIONS;
   private int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
+  private boolean segmentTuningEnabled = DEFAULT_SEGMENT_TUNING_ENABLED;
+  private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+  private boolean writeBatchEnabled = DEFAULT_WRITE_BATCH_ENABLED;
+  private boolean bulkImportEnabled = DEFAULT_BULK_IMPORT_ENABLED;
 
   public RocksDBConfigurationBuilder databaseDir(final Path databaseDir) {
     this.databaseDir = databaseDir;
@@ -60,12 +68,36 @@ public class RocksDBConfigurationBuilder {
     return this;
   }
 
+  public RocksDBConfigurationBuilder segmentTuningEnabled(final boolean segmentTuningEnabled) {
+    this.segmentTuningEnabled = segmentTuningEnabled;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder bloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder writeBatchEnabled(final boolean writeBatchEnabled) {
+    this.writeBatchEnabled = writeBatchEnabled;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder bulkImportEnabled(final boolean bulkImportEnabled) {
+    this.bulkImportEnabled = bulkImportEnabled;
+    return this;
+  }
+
   public static RocksDBConfigurationBuilder from(final RocksDBFactoryConfiguration configuration) {
     return new RocksDBConfigurationBuilder()
         .backgroundThreadCount(configuration.getBackgroundThreadCount())
         .cacheCapacity(configuration.getCacheCapacity())
         .maxBackgroundCompactions(configuration.getMaxBackgroundCompactions())
-        .maxOpenFiles(configuration.getMaxOpenFiles());
+        .maxOpenFiles(configuration.getMaxOpenFiles())
+        .segmentTuningEnabled(configuration.isSegmentTuningEnabled())
+        .bloomFilterBitsPerKey(configuration.getBloomFilterBitsPerKey())
+        .writeBatchEnabled(configuration.isWriteBatchEnabled())
+        .bulkImportEnabled(configuration.isBulkImportEnabled());
   }
 
   public RocksDBConfiguration build() {
@@ -75,6 +107,10 @@ public class RocksDBConfigurationBuilder {
         maxBackgroundCompactions,
         backgroundThreadCount,
         cacheCapacity,
+        segmentTuningEnabled,
+        bloomFilterBitsPerKey,
+        writeBatchEnabled,
+        bulkImportEnabled,
         label);
   }
 }
@@ -14,22 +14,55 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BULK_IMPORT_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_TUNING_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_BATCH_ENABLED;
+
 public class RocksDBFactoryConfiguration {
 
   private final int maxOpenFiles;
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final boolean segmentTuningEnabled;
+  private final int bloomFilterBitsPerKey;
+  private final boolean writeBatchEnabled;
+  private final boolean bulkImportEnabled;
 
   public RocksDBFactoryConfiguration(
       final int maxOpenFiles,
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity) {
+    this(
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        DEFAULT_SEGMENT_TUNING_ENABLED,
+        DEFAULT_BLOOM_FILTER_BITS_PER_KEY,
+        DEFAULT_WRITE_BATCH_ENABLED,
+        DEFAULT_BULK_IMPORT_ENABLED);
+  }
+
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final boolean segmentTuningEnabled,
+      final int bloomFilterBitsPerKey,
+      final boolean writeBatchEnabled,
+      final boolean bulkImportEnabled) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.segmentTuningEnabled = segmentTuningEnabled;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.writeBatchEnabled = writeBatchEnabled;
+    this.bulkImportEnabled = bulkImportEnabled;
   }
 
   public int getMaxOpenFiles() {
@@ -47,4 +80,20 @@ public class RocksDBFactoryConfiguration {
   public long getCacheCapacity() {
     return cacheCapacity;
   }
+
+  public boolean isSegmentTuningEnabled() {
+    return segmentTuningEnabled;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public boolean isWriteBatchEnabled() {
+    return writeBatchEnabled;
+  }
+
+  public boolean isBulkImportEnabled() {
+    return bulkImportEnabled;
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+
+import java.util.Optional;
+import java.util.Set;
+
+import org.rocksdb.CompressionType;
+
+/** Table and compression settings matching the access pattern of a segment. */
+public enum RocksDBSegmentProfile {
+  /**
+   * Hash keyed data read by random point lookups, such as trie nodes and code. Small blocks keep
+   * each lookup cheap and a bloom filter avoids reading blocks for keys which are not present.
+   */
+  POINT_LOOKUP(4 * 1024, true, Optional.of(CompressionType.LZ4_COMPRESSION), Optional.empty()),
+
+  /**
+   * Data mostly written and read in key order, such as blocks, receipts and trie logs. Larger
+   * blocks compress better and suit range reads.
+   */
+  SEQUENTIAL(
+      32 * 1024,
+      false,
+      Optional.of(CompressionType.LZ4_COMPRESSION),
+      Optional.of(CompressionType.ZSTD_COMPRESSION)),
+
+  /** Segments without a known access pattern keep the RocksDB defaults. */
+  DEFAULT(4 * 1024, false, Optional.empty(), Optional.empty());
+
+  private static final Set<String> POINT_LOOKUP_SEGMENTS =
+      Set.of(
+          "WORLD_STATE",
+          "PRUNING_STATE",
+          "ACCOUNT_INFO_STATE",
+          "CODE_STORAGE",
+          "ACCOUNT_STORAGE_STORAGE",
+          "TRIE_BRANCH_STORAGE",
+          "PRIVATE_STATE",
+          "GOQUORUM_PRIVATE_WORLD_STATE");
+  private static final Set<String> SEQUENTIAL_SEGMENTS =
+      Set.of("BLOCKCHAIN", "TRIE_LOG_STORAGE", "PRIVATE_TRANSACTIONS", "GOQUORUM_PRIVATE_STORAGE");
+
+  private final long blockSize;
+  private final boolean bloomFilter;
+  private final Optional<CompressionType> compressionType;
+  private final Optional<CompressionType> bottommostCompressionType;
+
+  RocksDBSegmentProfile(
+      final long blockSize,
+      final boolean bloomFilter,
+      final Optional<CompressionType> compressionType,
+      final Optional<CompressionType> bottommostCompressionType) {
+    this.blockSize = blockSize;
+    this.bloomFilter = bloomFilter;
+    this.compressionType = compressionType;
+    this.bottommostCompressionType = bottommostCompressionType;
+  }
+
+  public static RocksDBSegmentProfile forSegment(final SegmentIdentifier segment) {
+    if (POINT_LOOKUP_SEGMENTS.contains(segment.getName())) {
+      return POINT_LOOKUP;
+    } else if (SEQUENTIAL_SEGMENTS.contains(segment.getName())) {
+      return SEQUENTIAL;
+    } else {
+      return DEFAULT;
+    }
+  }
+
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  public boolean useBloomFilter() {
+    return bloomFilter;
+  }
+
+  public Optional<CompressionType> getCompressionType() {
+    return compressionType;
+  }
+
+  public Optional<CompressionType> getBottommostCompressionType() {
+    return bottommostCompressionType;
+  }
+}
@@ -26,11 +26,15 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactor
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbKeyIterator;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageTransactionTransitionValidatorDecorator;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,18 +49,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
 import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Env;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.IndexType;
 import org.rocksdb.LRUCache;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
 import org.rocksdb.Status;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class RocksDBColumnarKeyValueStorage
@@ -69,14 +78,27 @@ public class RocksDBColumnarKeyValueStorage
   private static final Logger LOG = LogManager.getLogger();
   private static final String DEFAULT_COLUMN = "default";
   private static final String NO_SPACE_LEFT_ON_DEVICE = "No space left on device";
+  private static final String BULK_LOAD_DIR = "bulk-load";
+  private static final long BULK_LOAD_BUFFER_BYTES = 256L * 1024 * 1024;
+  // Share of the block cache reserved for index and filter blocks, so data blocks can't evict them
+  private static final double BLOCK_CACHE_HIGH_PRIORITY_RATIO = 0.1;
 
   private final DBOptions options;
   private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDB db;
+  private final boolean walDisabled;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final Map<String, ColumnFamilyHandle> columnHandlesByName;
   private final RocksDBMetrics metrics;
   private final WriteOptions tryDeleteOptions = new WriteOptions().setNoSlowdown(true);
+  private final List<ColumnFamilyOptions> allColumnFamilyOptions = new ArrayList<>();
+  private final LRUCache blockCache;
+  // Shared by the table configs of every column family; native memory released on close, once the
+  // database and the column family options referencing it have been closed.
+  private final Optional<BloomFilter> bloomFilter;
+  private final Map<ColumnFamilyHandle, ColumnFamilyOptions> columnFamilyOptionsByHandle =
+      new HashMap<>();
+  private final Path bulkLoadDir;
 
   public RocksDBColumnarKeyValueStorage(
       final RocksDBConfiguration configuration,
@@ -85,16 +107,33 @@ public class RocksDBColumnarKeyValueStorage
       final RocksDBMetricsFactory rocksDBMetricsFactory)
       throws StorageException {
 
-    try (final ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions()) {
+    try {
+      // The cache capacity is configured per column family, counting the default column
+      blockCache =
+          new LRUCache(
+              configuration.getCacheCapacity() * (segments.size() + 1),
+              -1,
+              false,
+              BLOCK_CACHE_HIGH_PRIORITY_RATIO);
+      bloomFilter =
+          configuration.getBloomFilterBitsPerKey() > 0
+              ? Optional.of(new BloomFilter(configuration.getBloomFilterBitsPerKey(), false))
+              : Optional.empty();
       final List<ColumnFamilyDescriptor> columnDescriptors =
           segments.stream()
-              .map(segment -> new ColumnFamilyDescriptor(segment.getId()))
+              .map(
+                  segment ->
+                      new ColumnFamilyDescriptor(
+                          segment.getId(),
+                          createColumnFamilyOptions(
+                              configuration.isSegmentTuningEnabled()
+                                  ? RocksDBSegmentProfile.forSegment(segment)
+                                  : RocksDBSegmentProfile.DEFAULT)))
               .collect(Collectors.toList());
       columnDescriptors.add(
           new ColumnFamilyDescriptor(
               DEFAULT_COLUMN.getBytes(StandardCharsets.UTF_8),
-              columnFamilyOptions.setTableFormatConfig(
-                  createBlockBasedTableConfig(configuration))));
+              createColumnFamilyOptions(RocksDBSegmentProfile.DEFAULT)));
 
       final Statistics stats = new Statistics();
       options =
@@ -107,16 +146,35 @@ public class RocksDBColumnarKeyValueStorage
               .setEnv(
                   Env.getDefault().setBackgroundThreads(configuration.getBackgroundThreadCount()));
 
+      bulkLoadDir = configuration.getDatabaseDir().resolve(BULK_LOAD_DIR);
       txOptions = new TransactionDBOptions();
       final List<ColumnFamilyHandle> columnHandles = new ArrayList<>(columnDescriptors.size());
-      db =
-          TransactionDB.open(
-              options,
-              txOptions,
-              configuration.getDatabaseDir().toString(),
-              columnDescriptors,
-              columnHandles);
+      if (configuration.isWriteBatchEnabled() || configuration.isBulkImportEnabled()) {
+        // Writes never conflict so they can skip the transaction lock manager and be applied as
+        // plain atomic write batches. Unordered writes are deliberately not enabled: they would let
+        // snapshots and concurrent readers observe partially applied batches.
+        walDisabled = configuration.isBulkImportEnabled();
+        db =
+            RocksDB.open(
+                options,
+                configuration.getDatabaseDir().toString(),
+                columnDescriptors,
+                columnHandles);
+      } else {
+        walDisabled = false;
+        db =
+            TransactionDB.open(
+                options,
+                txOptions,
+                configuration.getDatabaseDir().toString(),
+                columnDescriptors,
+                columnHandles);
+      }
       metrics = rocksDBMetricsFactory.create(metricsSystem, configuration, db, stats);
+      for (int i = 0; i < columnHandles.size(); i++) {
+        columnFamilyOptionsByHandle.put(
+            columnHandles.get(i), columnDescriptors.get(i).getOptions());
+      }
       final Map<Bytes, String> segmentsById =
           segments.stream()
               .collect(
@@ -132,14 +190,36 @@ public class RocksDBColumnarKeyValueStorage
         builder.put(segmentName, columnHandle);
       }
       columnHandlesByName = builder.build();
+      rocksDBMetricsFactory.registerSegmentMetrics(metricsSystem, db, columnHandlesByName);
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
   }
 
-  private BlockBasedTableConfig createBlockBasedTableConfig(final RocksDBConfiguration config) {
-    final LRUCache cache = new LRUCache(config.getCacheCapacity());
-    return new BlockBasedTableConfig().setBlockCache(cache);
+  private ColumnFamilyOptions createColumnFamilyOptions(final RocksDBSegmentProfile profile) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig().setBlockCache(blockCache).setBlockSize(profile.getBlockSize());
+    if (profile.useBloomFilter() && bloomFilter.isPresent()) {
+      // Partitioned index and filters keep their memory bounded by the block cache, with only the
+      // top level index pinned.
+      tableConfig
+          .setFilterPolicy(bloomFilter.get())
+          .setIndexType(IndexType.kTwoLevelIndexSearch)
+          .setPartitionFilters(true)
+          .setCacheIndexAndFilterBlocks(true)
+          .setCacheIndexAndFilterBlocksWithHighPriority(true)
+          .setPinTopLevelIndexAndFilter(true)
+          .setPinL0FilterAndIndexBlocksInCache(true);
+    }
+
+    final ColumnFamilyOptions columnFamilyOptions =
+        new ColumnFamilyOptions().setTableFormatConfig(tableConfig);
+    profile.getCompressionType().ifPresent(columnFamilyOptions::setCompressionType);
+    profile
+        .getBottommostCompressionType()
+        .ifPresent(columnFamilyOptions::setBottommostCompressionType);
+    allColumnFamilyOptions.add(columnFamilyOptions);
+    return columnFamilyOptions;
   }
 
   @Override
@@ -159,12 +239,50 @@ public class RocksDBColumnarKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> getAll(final ColumnFamilyHandle segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return db.multiGetAsList(Collections.nCopies(keys.size(), segment), keys).stream()
+          .map(Optional::ofNullable)
+          .collect(Collectors.toList());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
   @Override
   public Transaction<ColumnFamilyHandle> startTransaction() throws StorageException {
     throwIfClosed();
     final WriteOptions writeOptions = new WriteOptions();
+    if (db instanceof TransactionDB) {
+      final org.rocksdb.Transaction innerTx = ((TransactionDB) db).beginTransaction(writeOptions);
+      return new SegmentedKeyValueStorageTransactionTransitionValidatorDecorator<>(
+          new RocksDbTransaction(innerTx, writeOptions));
+    }
+    writeOptions.setDisableWAL(walDisabled);
+    return new SegmentedKeyValueStorageTransactionTransitionValidatorDecorator<>(
+        new RocksDbWriteBatchTransaction(new WriteBatch(), writeOptions));
+  }
+
+  @Override
+  public Transaction<ColumnFamilyHandle> startBulkLoad() throws StorageException {
+    throwIfClosed();
     return new SegmentedKeyValueStorageTransactionTransitionValidatorDecorator<>(
-        new RocksDbTransaction(db.beginTransaction(writeOptions), writeOptions));
+        new RocksDBSstBulkLoad(
+            db, options, columnFamilyOptionsByHandle, bulkLoadDir, BULK_LOAD_BUFFER_BYTES));
+  }
+
+  @Override
+  public Optional<SegmentedKeyValueStorage<ColumnFamilyHandle>> takeSnapshot()
+      throws StorageException {
+    throwIfClosed();
+    return Optional.of(new RocksDBColumnarSnapshot(db, columnHandlesByName, metrics));
   }
 
   @Override
@@ -215,11 +333,26 @@ public class RocksDBColumnarKeyValueStorage
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
+      if (walDisabled) {
+        flushMemTables();
+      }
       txOptions.close();
       options.close();
       tryDeleteOptions.close();
       columnHandlesByName.values().forEach(ColumnFamilyHandle::close);
       db.close();
+      allColumnFamilyOptions.forEach(ColumnFamilyOptions::close);
+      bloomFilter.ifPresent(BloomFilter::close);
+      blockCache.close();
+    }
+  }
+
+  private void flushMemTables() {
+    // Without a write ahead log, data only held in memtables would be lost on close
+    try (final FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+      db.flush(flushOptions, new ArrayList<>(columnHandlesByName.values()));
+    } catch (final RocksDBException e) {
+      LOG.error("Failed to flush RocksDB memtables", e);
     }
   }
 
@@ -302,4 +435,63 @@ public class RocksDBColumnarKeyValueStorage
       options.close();
     }
   }
+
+  private class RocksDbWriteBatchTransaction implements Transaction<ColumnFamilyHandle> {
+
+    private final WriteBatch writeBatch;
+    private final WriteOptions options;
+
+    RocksDbWriteBatchTransaction(final WriteBatch writeBatch, final WriteOptions options) {
+      this.writeBatch = writeBatch;
+      this.options = options;
+    }
+
+    @Override
+    public void put(final ColumnFamilyHandle segment, final byte[] key, final byte[] value) {
+      try (final OperationTimer.TimingContext ignored = metrics.getWriteLatency().startTimer()) {
+        writeBatch.put(segment, key, value);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public void remove(final ColumnFamilyHandle segment, final byte[] key) {
+      try (final OperationTimer.TimingContext ignored = metrics.getRemoveLatency().startTimer()) {
+        writeBatch.delete(segment, key);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored = metrics.getCommitLatency().startTimer()) {
+        db.write(options, writeBatch);
+      } catch (final RocksDBException e) {
+        if (e.getMessage().contains(NO_SPACE_LEFT_ON_DEVICE)) {
+          LOG.error(e.getMessage());
+          System.exit(0);
+        }
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void rollback() {
+      try {
+        writeBatch.clear();
+        metrics.getRollbackCount().inc();
+      } finally {
+        close();
+      }
+    }
+
+    private void close() {
+      writeBatch.close();
+      options.close();
+    }
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.segmented;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+
+/**
+ * Bulk load which sorts the written entries into SST files and ingests them directly into the
+ * database, bypassing the write ahead log and memtables. Entries are buffered in memory and
+ * ingested whenever the buffer grows past its limit, so data can become visible before commit and
+ * is not removed on rollback.
+ */
+class RocksDBSstBulkLoad implements Transaction<ColumnFamilyHandle> {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final Comparator<byte[]> KEY_ORDER = Arrays::compareUnsigned;
+
+  private final RocksDB db;
+  private final DBOptions dbOptions;
+  private final Map<ColumnFamilyHandle, ColumnFamilyOptions> columnFamilyOptions;
+  private final Path ingestDir;
+  private final long maxBufferedBytes;
+  // Removed keys are buffered with a null value and written as deletions
+  private final Map<ColumnFamilyHandle, TreeMap<byte[], byte[]>> buffers = new HashMap<>();
+  private long bufferedBytes;
+
+  RocksDBSstBulkLoad(
+      final RocksDB db,
+      final DBOptions dbOptions,
+      final Map<ColumnFamilyHandle, ColumnFamilyOptions> columnFamilyOptions,
+      final Path ingestDir,
+      final long maxBufferedBytes) {
+    this.db = db;
+    this.dbOptions = dbOptions;
+    this.columnFamilyOptions = columnFamilyOptions;
+    this.ingestDir = ingestDir;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  @Override
+  public void put(final ColumnFamilyHandle segment, final byte[] key, final byte[] value) {
+    buffer(segment, key, value);
+    bufferedBytes += value.length;
+  }
+
+  @Override
+  public void remove(final ColumnFamilyHandle segment, final byte[] key) {
+    buffer(segment, key, null);
+  }
+
+  private void buffer(final ColumnFamilyHandle segment, final byte[] key, final byte[] value) {
+    buffers.computeIfAbsent(segment, s -> new TreeMap<>(KEY_ORDER)).put(key, value);
+    bufferedBytes += key.length;
+    if (bufferedBytes >= maxBufferedBytes) {
+      ingestBuffers();
+    }
+  }
+
+  @Override
+  public void commit() throws StorageException {
+    ingestBuffers();
+  }
+
+  @Override
+  public void rollback() {
+    buffers.clear();
+    bufferedBytes = 0;
+  }
+
+  private void ingestBuffers() {
+    for (final Map.Entry<ColumnFamilyHandle, TreeMap<byte[], byte[]>> buffer : buffers.entrySet()) {
+      if (!buffer.getValue().isEmpty()) {
+        ingest(buffer.getKey(), buffer.getValue());
+      }
+    }
+    buffers.clear();
+    bufferedBytes = 0;
+  }
+
+  private void ingest(final ColumnFamilyHandle segment, final TreeMap<byte[], byte[]> entries) {
+    final Path sstFile;
+    try {
+      Files.createDirectories(ingestDir);
+      sstFile = Files.createTempFile(ingestDir, "bulk-load", ".sst");
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+
+    try (final EnvOptions envOptions = new EnvOptions();
+        final Options options = new Options(dbOptions, columnFamilyOptions.get(segment));
+        final SstFileWriter writer = new SstFileWriter(envOptions, options);
+        final IngestExternalFileOptions ingestOptions =
+            new IngestExternalFileOptions().setMoveFiles(true)) {
+      writer.open(sstFile.toString());
+      for (final Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+        if (entry.getValue() == null) {
+          writer.delete(entry.getKey());
+        } else {
+          writer.put(entry.getKey(), entry.getValue());
+        }
+      }
+      writer.finish();
+      db.ingestExternalFile(segment, List.of(sstFile.toString()), ingestOptions);
+      LOG.trace("Ingested {} entries from {}", entries.size(), sstFile);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    } finally {
+      try {
+        Files.deleteIfExists(sstFile);
+      } catch (final IOException e) {
+        LOG.warn("Failed to delete bulk load file {}", sstFile, e);
+      }
+    }
+  }
+}
@@ -16,9 +16,11 @@ package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_TUNING_ENABLED;
 
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
@@ -34,6 +36,10 @@ public class RocksDBCLIOptionsTest {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String SEGMENT_TUNING_ENABLED_FLAG =
+      "--Xplugin-rocksdb-segment-tuning-enabled";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_FLAG =
+      "--Xplugin-rocksdb-bloom-filter-bits-per-key";
 
   @Test
   public void defaultValues() {
@@ -48,6 +54,9 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getMaxBackgroundCompactions())
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
+    assertThat(configuration.isSegmentTuningEnabled()).isEqualTo(DEFAULT_SEGMENT_TUNING_ENABLED);
+    assertThat(configuration.getBloomFilterBitsPerKey())
+        .isEqualTo(DEFAULT_BLOOM_FILTER_BITS_PER_KEY);
   }
 
   @Test
@@ -115,4 +124,23 @@ public class RocksDBCLIOptionsTest {
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(expectedMaxOpenFiles);
   }
+
+  @Test
+  public void customSegmentTuning() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+    final int expectedBloomFilterBitsPerKey = 16;
+
+    new CommandLine(options)
+        .parse(
+            SEGMENT_TUNING_ENABLED_FLAG,
+            "false",
+            BLOOM_FILTER_BITS_PER_KEY_FLAG,
+            "" + expectedBloomFilterBitsPerKey);
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration).isNotNull();
+    assertThat(configuration.isSegmentTuningEnabled()).isFalse();
+    assertThat(configuration.getBloomFilterBitsPerKey()).isEqualTo(expectedBloomFilterBitsPerKey);
+    assertThat(configuration.getCacheCapacity()).isEqualTo(DEFAULT_CACHE_CAPACITY);
+  }
 }
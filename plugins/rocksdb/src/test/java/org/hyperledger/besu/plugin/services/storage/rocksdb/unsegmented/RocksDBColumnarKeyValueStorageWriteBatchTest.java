@@ -0,0 +1,70 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage.Transaction;
+
+import org.junit.Test;
+import org.rocksdb.ColumnFamilyHandle;
+
+public class RocksDBColumnarKeyValueStorageWriteBatchTest
+    extends RocksDBColumnarKeyValueStorageTest {
+
+  @Override
+  protected RocksDBConfigurationBuilder configBuilder() throws Exception {
+    return super.configBuilder().writeBatchEnabled(true);
+  }
+
+  @Test
+  public void rollbackDiscardsWriteBatch() throws Exception {
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> store =
+        createSegmentedStore(configBuilder().build());
+    final ColumnFamilyHandle fooSegment = store.getSegmentIdentifierByName(TestSegment.FOO);
+
+    final Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(fooSegment, bytesFromHexString("0001"), bytesFromHexString("0FFF"));
+    tx.rollback();
+
+    assertThat(store.get(fooSegment, bytesFromHexString("0001"))).isEmpty();
+    store.close();
+  }
+
+  @Test
+  public void bulkImportWritesArePersistedOnClose() throws Exception {
+    final RocksDBConfiguration configuration = configBuilder().bulkImportEnabled(true).build();
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> store = createSegmentedStore(configuration);
+    final Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(
+        store.getSegmentIdentifierByName(TestSegment.BAR),
+        bytesFromHexString("0001"),
+        bytesFromHexString("0FFF"));
+    tx.commit();
+    store.close();
+
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> reopenedStore =
+        createSegmentedStore(configuration);
+    assertThat(
+            reopenedStore.get(
+                reopenedStore.getSegmentIdentifierByName(TestSegment.BAR),
+                bytesFromHexString("0001")))
+        .contains(bytesFromHexString("0FFF"));
+    reopenedStore.close();
+  }
+}
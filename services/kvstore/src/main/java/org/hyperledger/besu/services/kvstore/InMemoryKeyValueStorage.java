@@ -21,8 +21,10 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +41,8 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
 
   private final Map<Bytes, byte[]> hashValueStore;
   private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  // Only accessed holding the write lock
+  private final Set<InMemorySnapshot> openSnapshots = new HashSet<>();
 
   public InMemoryKeyValueStorage() {
     this(new HashMap<>());
@@ -53,6 +57,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     final Lock lock = rwLock.writeLock();
     lock.lock();
     try {
+      hashValueStore.keySet().forEach(this::preserveForSnapshots);
       hashValueStore.clear();
     } finally {
       lock.unlock();
@@ -75,6 +80,21 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> getAll(final List<byte[]> keys) throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      for (final byte[] key : keys) {
+        values.add(Optional.ofNullable(hashValueStore.get(Bytes.wrap(key))));
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
     return streamKeys().filter(returnCondition).collect(toUnmodifiableSet());
@@ -96,6 +116,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     final Lock lock = rwLock.writeLock();
     if (lock.tryLock()) {
       try {
+        preserveForSnapshots(Bytes.wrap(key));
         hashValueStore.remove(Bytes.wrap(key));
       } finally {
         lock.unlock();
@@ -113,6 +134,32 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     return new KeyValueStorageTransactionTransitionValidatorDecorator(new InMemoryTransaction());
   }
 
+  /**
+   * Takes a snapshot without copying the storage. While a snapshot is open, writes record the
+   * values they replace in it, so the snapshot reads through to the live values that haven't
+   * changed since it was taken.
+   */
+  @Override
+  public Optional<KeyValueStorage> takeSnapshot() {
+    final Lock lock = rwLock.writeLock();
+    lock.lock();
+    try {
+      final InMemorySnapshot snapshot = new InMemorySnapshot();
+      openSnapshots.add(snapshot);
+      return Optional.of(snapshot);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Must be called holding the write lock, before the value of the key changes
+  private void preserveForSnapshots(final Bytes key) {
+    if (!openSnapshots.isEmpty()) {
+      final Optional<byte[]> value = Optional.ofNullable(hashValueStore.get(key));
+      openSnapshots.forEach(snapshot -> snapshot.replacedValues.putIfAbsent(key, value));
+    }
+  }
+
   public Set<Bytes> keySet() {
     return Set.copyOf(hashValueStore.keySet());
   }
@@ -139,6 +186,8 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
       final Lock lock = rwLock.writeLock();
       lock.lock();
       try {
+        updatedValues.keySet().forEach(InMemoryKeyValueStorage.this::preserveForSnapshots);
+        removedKeys.forEach(InMemoryKeyValueStorage.this::preserveForSnapshots);
         hashValueStore.putAll(updatedValues);
         removedKeys.forEach(hashValueStore::remove);
         updatedValues = null;
@@ -155,6 +204,100 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  private class InMemorySnapshot implements KeyValueStorage {
+
+    // Values as they were when the snapshot was taken, of the keys written since
+    private final Map<Bytes, Optional<byte[]>> replacedValues = new HashMap<>();
+
+    @Override
+    public boolean containsKey(final byte[] key) throws StorageException {
+      return get(key).isPresent();
+    }
+
+    @Override
+    public Optional<byte[]> get(final byte[] key) throws StorageException {
+      final Lock lock = rwLock.readLock();
+      lock.lock();
+      try {
+        return getUnlocked(Bytes.wrap(key));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public List<Optional<byte[]>> getAll(final List<byte[]> keys) throws StorageException {
+      final Lock lock = rwLock.readLock();
+      lock.lock();
+      try {
+        final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+        for (final byte[] key : keys) {
+          values.add(getUnlocked(Bytes.wrap(key)));
+        }
+        return values;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private Optional<byte[]> getUnlocked(final Bytes key) {
+      final Optional<byte[]> replaced = replacedValues.get(key);
+      return replaced != null ? replaced : Optional.ofNullable(hashValueStore.get(key));
+    }
+
+    @Override
+    public Stream<byte[]> streamKeys() throws StorageException {
+      final Lock lock = rwLock.readLock();
+      lock.lock();
+      try {
+        final Set<Bytes> keys = new HashSet<>(hashValueStore.keySet());
+        replacedValues.forEach(
+            (key, value) -> {
+              if (value.isPresent()) {
+                keys.add(key);
+              } else {
+                keys.remove(key);
+              }
+            });
+        return keys.stream().map(Bytes::toArrayUnsafe);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
+      return streamKeys().filter(returnCondition).collect(toUnmodifiableSet());
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException("In memory snapshots are read-only");
+    }
+
+    @Override
+    public boolean tryDelete(final byte[] key) {
+      throw new UnsupportedOperationException("In memory snapshots are read-only");
+    }
+
+    @Override
+    public KeyValueStorageTransaction startTransaction() {
+      throw new UnsupportedOperationException("In memory snapshots are read-only");
+    }
+
+    @Override
+    public void close() {
+      final Lock lock = rwLock.writeLock();
+      lock.lock();
+      try {
+        openSnapshots.remove(this);
+        replacedValues.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
   public void dump(final PrintStream ps) {
     final Lock lock = rwLock.readLock();
     lock.lock();
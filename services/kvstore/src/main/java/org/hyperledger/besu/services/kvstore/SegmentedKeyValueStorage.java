@@ -18,6 +18,8 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -41,6 +43,23 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
    */
   Optional<byte[]> get(S segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the values corresponding to several keys of a segment, in a single batch when supported.
+   *
+   * @param segment the segment
+   * @param keys the keys to retrieve
+   * @return the values in the order of the keys, empty for the keys which are not present
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default List<Optional<byte[]>> getAll(final S segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
   default boolean containsKey(final S segment, final byte[] key) throws StorageException {
     return get(segment, key).isPresent();
   }
@@ -52,6 +71,26 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
    */
   Transaction<S> startTransaction() throws StorageException;
 
+  /**
+   * Begins a bulk load, for writing a large amount of data. Data may become visible before the
+   * bulk load is committed and is not guaranteed to be discarded on rollback.
+   *
+   * @return An object representing the bulk load.
+   */
+  default Transaction<S> startBulkLoad() throws StorageException {
+    return startTransaction();
+  }
+
+  /**
+   * Takes a read-only, point in time view of all segments, which is not affected by any later
+   * changes. The snapshot must be closed once no longer used.
+   *
+   * @return the snapshot, or empty if snapshots are not supported.
+   */
+  default Optional<SegmentedKeyValueStorage<S>> takeSnapshot() throws StorageException {
+    return Optional.empty();
+  }
+
   /**
    * Returns a stream of all keys for the segment.
    *
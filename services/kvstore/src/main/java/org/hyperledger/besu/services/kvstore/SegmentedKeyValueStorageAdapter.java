@@ -20,6 +20,7 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -31,7 +32,12 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
 
   public SegmentedKeyValueStorageAdapter(
       final SegmentIdentifier segment, final SegmentedKeyValueStorage<S> storage) {
-    this.segmentHandle = storage.getSegmentIdentifierByName(segment);
+    this(storage.getSegmentIdentifierByName(segment), storage);
+  }
+
+  private SegmentedKeyValueStorageAdapter(
+      final S segmentHandle, final SegmentedKeyValueStorage<S> storage) {
+    this.segmentHandle = segmentHandle;
     this.storage = storage;
   }
 
@@ -50,6 +56,11 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
     return storage.get(segmentHandle, key);
   }
 
+  @Override
+  public List<Optional<byte[]>> getAll(final List<byte[]> keys) throws StorageException {
+    return storage.getAll(segmentHandle, keys);
+  }
+
   @Override
   public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
     return storage.getAllKeysThat(segmentHandle, returnCondition);
@@ -72,7 +83,23 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
 
   @Override
   public KeyValueStorageTransaction startTransaction() throws StorageException {
-    final SegmentedKeyValueStorage.Transaction<S> transaction = storage.startTransaction();
+    return forSegment(storage.startTransaction());
+  }
+
+  @Override
+  public KeyValueStorageTransaction startBulkLoad() throws StorageException {
+    return forSegment(storage.startBulkLoad());
+  }
+
+  @Override
+  public Optional<KeyValueStorage> takeSnapshot() throws StorageException {
+    return storage
+        .takeSnapshot()
+        .map(snapshot -> new SegmentedKeyValueStorageAdapter<>(segmentHandle, snapshot));
+  }
+
+  private KeyValueStorageTransaction forSegment(
+      final SegmentedKeyValueStorage.Transaction<S> transaction) {
     return new KeyValueStorageTransaction() {
 
       @Override
@@ -14,8 +14,13 @@
  */
 package org.hyperledger.besu.services.kvstore;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import org.junit.Test;
 
 public class InMemoryKeyValueStorageTest extends AbstractKeyValueStorageTest {
 
@@ -23,4 +28,23 @@ public class InMemoryKeyValueStorageTest extends AbstractKeyValueStorageTest {
   protected KeyValueStorage createStore() {
     return new InMemoryKeyValueStorage();
   }
+
+  @Test
+  public void snapshotIsNotAffectedByDeletesAndClear() throws Exception {
+    final KeyValueStorage store = createStore();
+    final KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesOf(1), bytesOf(1));
+    tx.put(bytesOf(2), bytesOf(2));
+    tx.commit();
+
+    try (final KeyValueStorage snapshot = store.takeSnapshot().orElseThrow()) {
+      store.tryDelete(bytesOf(1));
+      store.clear();
+
+      assertThat(store.get(bytesOf(2))).isEmpty();
+      assertThat(snapshot.get(bytesOf(1))).contains(bytesOf(1));
+      assertThat(snapshot.get(bytesOf(2))).contains(bytesOf(2));
+      assertThat(snapshot.streamKeys()).hasSize(2);
+    }
+  }
 }
@@ -17,6 +17,7 @@ package org.hyperledger.besu.kvstore;
 import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
 
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
@@ -103,6 +104,43 @@ public abstract class AbstractKeyValueStorageTest {
             bytesFromHexString("10"), bytesFromHexString("11"), bytesFromHexString("12"));
   }
 
+  @Test
+  public void getAll() throws Exception {
+    final KeyValueStorage store = createStore();
+    final KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesFromHexString("0F"), bytesFromHexString("0ABC"));
+    tx.put(bytesFromHexString("10"), bytesFromHexString("0DEF"));
+    tx.commit();
+
+    final List<Optional<byte[]>> values =
+        store.getAll(
+            List.of(bytesFromHexString("10"), bytesFromHexString("11"), bytesFromHexString("0F")));
+    assertThat(values).hasSize(3);
+    assertThat(values.get(0)).contains(bytesFromHexString("0DEF"));
+    assertThat(values.get(1)).isEmpty();
+    assertThat(values.get(2)).contains(bytesFromHexString("0ABC"));
+    assertThat(store.getAll(List.of())).isEmpty();
+  }
+
+  @Test
+  public void bulkLoad() throws Exception {
+    final KeyValueStorage store = createStore();
+    KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesFromHexString("01"), bytesFromHexString("0ABC"));
+    tx.commit();
+
+    tx = store.startBulkLoad();
+    tx.put(bytesFromHexString("FF01"), bytesFromHexString("0DEF"));
+    tx.put(bytesFromHexString("02"), bytesFromHexString("0123"));
+    tx.put(bytesFromHexString("FF01"), bytesFromHexString("0456"));
+    tx.remove(bytesFromHexString("01"));
+    tx.commit();
+
+    assertThat(store.get(bytesFromHexString("01"))).isEmpty();
+    assertThat(store.get(bytesFromHexString("02"))).contains(bytesFromHexString("0123"));
+    assertThat(store.get(bytesFromHexString("FF01"))).contains(bytesFromHexString("0456"));
+  }
+
   @Test
   public void containsKey() throws Exception {
     final KeyValueStorage store = createStore();
@@ -402,6 +440,32 @@ public abstract class AbstractKeyValueStorageTest {
     store.close();
   }
 
+  @Test
+  public void snapshotIsNotAffectedByLaterWrites() throws Exception {
+    final KeyValueStorage store = createStore();
+    KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesOf(1), bytesOf(1));
+    tx.put(bytesOf(2), bytesOf(2));
+    tx.commit();
+
+    final Optional<KeyValueStorage> maybeSnapshot = store.takeSnapshot();
+    assumeTrue(maybeSnapshot.isPresent());
+    try (final KeyValueStorage snapshot = maybeSnapshot.get()) {
+      tx = store.startTransaction();
+      tx.put(bytesOf(1), bytesOf(3));
+      tx.remove(bytesOf(2));
+      tx.put(bytesOf(4), bytesOf(4));
+      tx.commit();
+
+      assertThat(snapshot.get(bytesOf(1))).contains(bytesOf(1));
+      assertThat(snapshot.get(bytesOf(2))).contains(bytesOf(2));
+      assertThat(snapshot.getAll(List.of(bytesOf(4)))).containsExactly(Optional.empty());
+      assertThat(snapshot.streamKeys().map(Bytes::wrap).collect(toUnmodifiableSet()))
+          .containsExactlyInAnyOrder(Bytes.of(1), Bytes.of(2));
+    }
+    assertThat(store.get(bytesOf(1))).contains(bytesOf(3));
+  }
+
   /*
    * Used to mimic the wrapping with Bytes performed in Besu
    */